@@ -207,18 +207,25 @@ public class LifecycleAwareSessionManager extends LifecycleAwareSessionManagerSu
 		}
 
 		TokenWrapper tokenWrapper = token.get();
+		long start = System.nanoTime();
 		try {
-			return doRenew(tokenWrapper);
+			return doRenew(tokenWrapper, start);
 		}
 		catch (RuntimeException e) {
 
 			VaultTokenRenewalException exception = new VaultTokenRenewalException(
 					format("Cannot renew token", e), e);
 
-			if (getLeaseStrategy().shouldDrop(exception)) {
+			boolean dropped = getLeaseStrategy().shouldDrop(exception);
+			if (dropped) {
 				setToken(Optional.empty());
 			}
 
+			Duration duration = Duration.ofNanos(System.nanoTime() - start);
+			getSessionMetrics().onTokenRenewalFailed(tokenWrapper.getToken(), duration,
+					exception, dropped);
+			onTokenRenewal(duration, exception);
+
 			if (logger.isDebugEnabled()) {
 				logger.debug(exception.getMessage(), exception);
 			}
@@ -232,7 +239,7 @@ public class LifecycleAwareSessionManager extends LifecycleAwareSessionManagerSu
 		}
 	}
 
-	private boolean doRenew(TokenWrapper wrapper) {
+	private boolean doRenew(TokenWrapper wrapper, long start) {
 
 		dispatch(new BeforeLoginTokenRenewedEvent(wrapper.getToken()));
 		VaultResponse vaultResponse = restOperations.postForObject(
@@ -241,6 +248,8 @@ public class LifecycleAwareSessionManager extends LifecycleAwareSessionManagerSu
 				VaultResponse.class);
 
 		LoginToken renewed = LoginTokenUtil.from(vaultResponse.getRequiredAuth());
+		Duration duration = Duration.ofNanos(System.nanoTime() - start);
+		onTokenRenewal(duration, null);
 
 		if (isExpired(renewed)) {
 
@@ -256,10 +265,12 @@ public class LifecycleAwareSessionManager extends LifecycleAwareSessionManagerSu
 			}
 
 			setToken(Optional.empty());
+			getSessionMetrics().onTokenExpired(renewed);
 			dispatch(new LoginTokenExpiredEvent(renewed));
 			return false;
 		}
 
+		getSessionMetrics().onTokenRenewed(renewed, duration);
 		setToken(Optional.of(new TokenWrapper(renewed, wrapper.revocable)));
 		dispatch(new AfterLoginTokenRenewedEvent(renewed));
 
@@ -286,15 +297,20 @@ public class LifecycleAwareSessionManager extends LifecycleAwareSessionManagerSu
 	private void doGetSessionToken() {
 
 		VaultToken token;
+		long start = System.nanoTime();
 
 		try {
 			token = clientAuthentication.login();
 		}
 		catch (VaultException e) {
+			getSessionMetrics().onLoginFailed(Duration.ofNanos(System.nanoTime() - start),
+					e);
 			dispatch(new LoginFailedEvent(clientAuthentication, e));
 			throw e;
 		}
 
+		getSessionMetrics().onLogin(token, Duration.ofNanos(System.nanoTime() - start));
+
 		TokenWrapper wrapper = new TokenWrapper(token, token instanceof LoginToken);
 
 		if (isTokenSelfLookupEnabled()
@@ -29,6 +29,7 @@ import org.springframework.scheduling.Trigger;
 import org.springframework.scheduling.TriggerContext;
 import org.springframework.util.Assert;
 import org.springframework.vault.support.LeaseStrategy;
+import org.springframework.vault.support.RenewalTiming;
 import org.springframework.vault.support.VaultToken;
 
 /**
@@ -78,6 +79,8 @@ public abstract class LifecycleAwareSessionManagerSupport
 
 	private LeaseStrategy leaseStrategy = LeaseStrategy.dropOnError();
 
+	private SessionMetrics sessionMetrics = SessionMetrics.none();
+
 	/**
 	 * Create a {@link LifecycleAwareSessionManager} given {@link TaskScheduler}. Using
 	 * {@link #DEFAULT_TRIGGER} to trigger refresh.
@@ -150,6 +153,26 @@ public abstract class LifecycleAwareSessionManagerSupport
 		return leaseStrategy;
 	}
 
+	/**
+	 * Set the {@link SessionMetrics} to record login and token renewal activity.
+	 *
+	 * @param sessionMetrics the {@link SessionMetrics}, must not be {@literal null}.
+	 * @since 2.2
+	 */
+	public void setSessionMetrics(SessionMetrics sessionMetrics) {
+
+		Assert.notNull(sessionMetrics, "SessionMetrics must not be null");
+		this.sessionMetrics = sessionMetrics;
+	}
+
+	/**
+	 * @return the {@link SessionMetrics}.
+	 * @since 2.2
+	 */
+	protected SessionMetrics getSessionMetrics() {
+		return sessionMetrics;
+	}
+
 	/**
 	 * @return the underlying {@link TaskScheduler}.
 	 */
@@ -164,6 +187,22 @@ public abstract class LifecycleAwareSessionManagerSupport
 		return refreshTrigger;
 	}
 
+	/**
+	 * Report the outcome of a token renewal to the {@link RenewalTiming} of a
+	 * {@link RenewalTimingRefreshTrigger}.
+	 *
+	 * @param duration the time spent to renew the token.
+	 * @param error the renewal error or {@literal null} if the renewal succeeded.
+	 * @since 2.2
+	 */
+	void onTokenRenewal(Duration duration, @Nullable Throwable error) {
+
+		if (refreshTrigger instanceof RenewalTimingRefreshTrigger) {
+			((RenewalTimingRefreshTrigger) refreshTrigger).getRenewalTiming()
+					.onRenewal(duration, error);
+		}
+	}
+
 	/**
 	 * Check whether the Token falls below its
 	 * {@link RefreshTrigger#getValidTtlThreshold(LoginToken) validity threshold}.
@@ -308,4 +347,84 @@ public abstract class LifecycleAwareSessionManagerSupport
 			return validTtlThreshold;
 		}
 	}
+
+	/**
+	 * {@link RefreshTrigger} implementation delegating the renewal delay to a
+	 * {@link RenewalTiming} strategy, for example to spread token renewals using jitter
+	 * or to back off when Vault is overloaded. Renewal outcomes are reported to the
+	 * {@link RenewalTiming}.
+	 *
+	 * @author Mark Paluch
+	 * @since 2.2
+	 * @see RenewalTiming
+	 * @see org.springframework.vault.support.AdaptiveRenewalTiming
+	 */
+	public static class RenewalTimingRefreshTrigger implements RefreshTrigger {
+
+		private static final Duration ONE_SECOND = Duration.ofSeconds(1);
+
+		private final RenewalTiming renewalTiming;
+
+		private final Duration timeout;
+
+		private final Duration validTtlThreshold;
+
+		/**
+		 * Create a new {@link RenewalTimingRefreshTrigger} to renew tokens according to
+		 * {@link RenewalTiming} before the {@link LoginToken} enters its {@code timeout}.
+		 * Valid TTL threshold is set to two seconds longer to compensate for timing
+		 * issues during scheduling.
+		 *
+		 * @param renewalTiming must not be {@literal null}.
+		 * @param timeout timeout value.
+		 */
+		public RenewalTimingRefreshTrigger(RenewalTiming renewalTiming, Duration timeout) {
+			this(renewalTiming, timeout, timeout.plus(Duration.ofSeconds(2)));
+		}
+
+		/**
+		 * Create a new {@link RenewalTimingRefreshTrigger} to renew tokens according to
+		 * {@link RenewalTiming} before the {@link LoginToken} enters its {@code timeout}.
+		 *
+		 * @param renewalTiming must not be {@literal null}.
+		 * @param timeout timeout value.
+		 * @param validTtlThreshold minimum TTL duration to consider a Token as valid.
+		 *     Tokens with a shorter TTL are not used anymore. Should be greater than
+		 *     {@code timeout} to prevent token expiry.
+		 */
+		public RenewalTimingRefreshTrigger(RenewalTiming renewalTiming, Duration timeout,
+				Duration validTtlThreshold) {
+
+			Assert.notNull(renewalTiming, "RenewalTiming must not be null");
+			Assert.notNull(timeout, "Timeout must not be null");
+			Assert.isTrue(!timeout.isNegative(),
+					"Timeout duration must be greater or equal to zero");
+			Assert.notNull(validTtlThreshold, "Valid TTL threshold must not be null");
+
+			this.renewalTiming = renewalTiming;
+			this.timeout = timeout;
+			this.validTtlThreshold = validTtlThreshold;
+		}
+
+		@Override
+		public Date nextExecutionTime(LoginToken loginToken) {
+
+			Duration delay = renewalTiming.getRenewalDelay(loginToken.getLeaseDuration(),
+					ONE_SECOND, timeout);
+
+			return new Date(System.currentTimeMillis() + delay.toMillis());
+		}
+
+		@Override
+		public Duration getValidTtlThreshold(LoginToken loginToken) {
+			return validTtlThreshold;
+		}
+
+		/**
+		 * @return the underlying {@link RenewalTiming}.
+		 */
+		public RenewalTiming getRenewalTiming() {
+			return renewalTiming;
+		}
+	}
 }
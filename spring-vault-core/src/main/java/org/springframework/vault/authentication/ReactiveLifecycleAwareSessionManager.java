@@ -232,31 +232,39 @@ public class ReactiveLifecycleAwareSessionManager
 
 	private Mono<TokenWrapper> doRenewToken(TokenWrapper wrapper) {
 
-		return doRenew(wrapper).onErrorResume(RuntimeException.class, e -> {
+		return Mono.defer(() -> {
 
-			VaultTokenRenewalException exception = new VaultTokenRenewalException(
-					format("Cannot renew token", e), e);
+			long start = System.nanoTime();
 
-			if (getLeaseStrategy().shouldDrop(exception)) {
-				dropCurrentToken();
-			}
+			return doRenew(wrapper, start).onErrorResume(RuntimeException.class, e -> {
 
-			if (logger.isDebugEnabled()) {
-				logger.debug(exception.getMessage(), exception);
-			}
-			else {
-				logger.warn(exception.getMessage());
-			}
+				VaultTokenRenewalException exception = new VaultTokenRenewalException(
+						format("Cannot renew token", e), e);
 
+				boolean dropped = getLeaseStrategy().shouldDrop(exception);
+				if (dropped) {
+					dropCurrentToken();
+				}
 
-			dispatch(new LoginTokenRenewalFailedEvent(wrapper.getToken(), exception));
-				return EMPTY;
-			}
+				Duration duration = Duration.ofNanos(System.nanoTime() - start);
+				getSessionMetrics().onTokenRenewalFailed(wrapper.getToken(), duration,
+						exception, dropped);
+				onTokenRenewal(duration, exception);
 
-		);
+				if (logger.isDebugEnabled()) {
+					logger.debug(exception.getMessage(), exception);
+				}
+				else {
+					logger.warn(exception.getMessage());
+				}
+
+				dispatch(new LoginTokenRenewalFailedEvent(wrapper.getToken(), exception));
+				return EMPTY;
+			});
+		});
 	}
 
-	private Mono<TokenWrapper> doRenew(TokenWrapper tokenWrapper) {
+	private Mono<TokenWrapper> doRenew(TokenWrapper tokenWrapper, long start) {
 
 		Mono<VaultResponse> exchange = webClient.post().uri("auth/token/renew-self")
 				.headers(httpHeaders -> httpHeaders
@@ -269,8 +277,11 @@ public class ReactiveLifecycleAwareSessionManager
 				.handle((response, sink) -> {
 
 					LoginToken renewed = LoginTokenUtil.from(response.getRequiredAuth());
+					Duration duration = Duration.ofNanos(System.nanoTime() - start);
+					onTokenRenewal(duration, null);
 
 					if (!isExpired(renewed)) {
+						getSessionMetrics().onTokenRenewed(renewed, duration);
 						sink.next(new TokenWrapper(renewed, tokenWrapper.revocable));
 						dispatch(new AfterLoginTokenRenewedEvent(renewed));
 						return;
@@ -290,6 +301,7 @@ public class ReactiveLifecycleAwareSessionManager
 					}
 
 					dropCurrentToken();
+					getSessionMetrics().onTokenExpired(renewed);
 					dispatch(new LoginTokenExpiredEvent(renewed));
 				});
 	}
@@ -310,8 +322,16 @@ public class ReactiveLifecycleAwareSessionManager
 
 		if (tokenWrapper == EMPTY) {
 
-			Mono<TokenWrapper> obtainToken = clientAuthentication.getVaultToken()
-					.flatMap(this::doSelfLookup) //
+			Mono<TokenWrapper> obtainToken = Mono.defer(() -> {
+
+				long start = System.nanoTime();
+
+				return clientAuthentication.getVaultToken()
+						.doOnNext(it -> getSessionMetrics().onLogin(it,
+								Duration.ofNanos(System.nanoTime() - start)))
+						.doOnError(it -> getSessionMetrics().onLoginFailed(
+								Duration.ofNanos(System.nanoTime() - start), it));
+			}).flatMap(this::doSelfLookup) //
 					.onErrorMap(it -> {
 						dispatch(new LoginFailedEvent(clientAuthentication, it));
 						return it;
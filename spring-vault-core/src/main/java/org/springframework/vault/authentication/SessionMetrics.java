@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.authentication;
+
+import java.time.Duration;
+
+import org.springframework.vault.support.LeaseStrategy;
+import org.springframework.vault.support.VaultToken;
+
+/**
+ * Instrumentation callback for session managers to record login and token renewal
+ * activity. Implementations bind these callbacks to a metrics system, typically
+ * recording durations in a timer or histogram and the remaining token TTL in a gauge.
+ * All methods have empty default implementations so implementations can record only
+ * what they are interested in.
+ * <p>
+ * Callbacks are invoked on the thread performing the login or renewal and should return
+ * quickly. Implementations must be thread-safe.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see LifecycleAwareSessionManagerSupport#setSessionMetrics(SessionMetrics)
+ */
+public interface SessionMetrics {
+
+	/**
+	 * Callback after a successful login.
+	 *
+	 * @param token the obtained token. Can be a {@link LoginToken} carrying the token
+	 *     TTL.
+	 * @param duration the time spent to login.
+	 */
+	default void onLogin(VaultToken token, Duration duration) {
+	}
+
+	/**
+	 * Callback after a failed login.
+	 *
+	 * @param duration the time spent until login failed.
+	 * @param exception the failure cause.
+	 */
+	default void onLoginFailed(Duration duration, Throwable exception) {
+	}
+
+	/**
+	 * Callback after a token was renewed.
+	 *
+	 * @param token the renewed token carrying the remaining TTL.
+	 * @param duration the time spent to renew the token.
+	 */
+	default void onTokenRenewed(LoginToken token, Duration duration) {
+	}
+
+	/**
+	 * Callback after a token renewal failed.
+	 *
+	 * @param token the token that failed renewal.
+	 * @param duration the time spent until renewal failed.
+	 * @param exception the failure cause.
+	 * @param dropped whether the token was dropped as result of the {@link LeaseStrategy}
+	 *     outcome.
+	 */
+	default void onTokenRenewalFailed(VaultToken token, Duration duration,
+			Throwable exception, boolean dropped) {
+	}
+
+	/**
+	 * Callback after a renewed token was dropped because its TTL fell below the validity
+	 * threshold.
+	 *
+	 * @param token the expired token.
+	 */
+	default void onTokenExpired(LoginToken token) {
+	}
+
+	/**
+	 * Return a {@link SessionMetrics} instance that does not record anything.
+	 *
+	 * @return a no-op {@link SessionMetrics}.
+	 */
+	static SessionMetrics none() {
+		return NoOpSessionMetrics.INSTANCE;
+	}
+
+	/**
+	 * No-op {@link SessionMetrics}.
+	 */
+	enum NoOpSessionMetrics implements SessionMetrics {
+		INSTANCE
+	}
+}
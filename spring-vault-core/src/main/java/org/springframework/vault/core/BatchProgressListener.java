@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+/**
+ * Listener for the progress of bulk transit operations that are processed in chunks.
+ * Invocations for a single bulk operation are serialized.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+@FunctionalInterface
+public interface BatchProgressListener {
+
+	/**
+	 * No-op {@link BatchProgressListener}.
+	 */
+	BatchProgressListener NONE = (processed, failed, total) -> {
+	};
+
+	/**
+	 * Callback after a chunk was processed.
+	 *
+	 * @param processed number of items processed so far, including failed items.
+	 * @param failed number of failed items so far.
+	 * @param total total number of items or {@literal -1} if unknown.
+	 */
+	void onProgress(long processed, long failed, long total);
+}
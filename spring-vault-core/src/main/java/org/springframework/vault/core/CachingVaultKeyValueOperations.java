@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.vault.support.VaultResponse;
+import org.springframework.vault.support.VaultResponseSupport;
+
+/**
+ * {@link VaultKeyValueOperations} decorator that caches secrets read through
+ * {@link #get(String)} and {@link #get(String, Class)}. Cached secrets are retained for
+ * the configured {@link #setTimeToLive(Duration) time to live} which can be
+ * {@link #setTimeToLive(String, Duration) customized per path prefix}. The number of
+ * cached paths is bounded by the {@link #setMaximumSize(int) maximum size}, evicting the
+ * least-recently used paths first. Absent secrets are cached as well.
+ * <p>
+ * Concurrent reads of the same uncached secret result in a single request to Vault.
+ * Cached secrets of a path are invalidated when the path is written or deleted through
+ * this instance. Changes applied to Vault by other clients become visible once the
+ * cached entry expires.
+ * <p>
+ * Each read returns a copy of the cached {@link VaultResponse} along with its nested maps
+ * and lists, so callers may modify returned secrets without affecting the cache or other
+ * callers. Objects mapped to a custom response type are shared between callers and must
+ * not be modified. All other operations are delegated to the underlying
+ * {@link VaultKeyValueOperations}. Instances are thread-safe.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see CachingVaultVersionedKeyValueOperations
+ */
+public class CachingVaultKeyValueOperations implements VaultKeyValueOperations {
+
+	private final VaultKeyValueOperations delegate;
+
+	private final KeyValueCache cache = new KeyValueCache();
+
+	/**
+	 * Create a new {@link CachingVaultKeyValueOperations} given a
+	 * {@link VaultKeyValueOperations delegate}.
+	 *
+	 * @param delegate must not be {@literal null}.
+	 */
+	public CachingVaultKeyValueOperations(VaultKeyValueOperations delegate) {
+
+		Assert.notNull(delegate, "VaultKeyValueOperations must not be null");
+
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Set the maximum number of cached paths. Defaults to {@literal 1000}.
+	 *
+	 * @param maximumSize must be greater {@literal 0}.
+	 */
+	public void setMaximumSize(int maximumSize) {
+		cache.setMaximumSize(maximumSize);
+	}
+
+	/**
+	 * Set the default time to live for cached secrets. Defaults to one minute.
+	 *
+	 * @param timeToLive must not be {@literal null}, must be positive.
+	 */
+	public void setTimeToLive(Duration timeToLive) {
+		cache.setTimeToLive(timeToLive);
+	}
+
+	/**
+	 * Set the time to live for secrets whose path starts with {@code pathPrefix}. The
+	 * longest matching prefix applies. A time to live of {@link Duration#ZERO} disables
+	 * caching for matching paths.
+	 *
+	 * @param pathPrefix must not be {@literal null}.
+	 * @param timeToLive must not be {@literal null} or negative.
+	 */
+	public void setTimeToLive(String pathPrefix, Duration timeToLive) {
+		cache.setTimeToLive(pathPrefix, timeToLive);
+	}
+
+	/**
+	 * Set the {@link Clock} to determine cache expiry.
+	 *
+	 * @param clock must not be {@literal null}.
+	 */
+	public void setClock(Clock clock) {
+		cache.setClock(clock);
+	}
+
+	/**
+	 * @param path must not be {@literal null}.
+	 * @return the time to live that applies to secrets at {@code path}.
+	 */
+	public Duration getTimeToLive(String path) {
+		return cache.getTimeToLive(path);
+	}
+
+	/**
+	 * @return the number of reads served from the cache.
+	 */
+	public long getHitCount() {
+		return cache.getHitCount();
+	}
+
+	/**
+	 * @return the number of reads that were not served from the cache.
+	 */
+	public long getMissCount() {
+		return cache.getMissCount();
+	}
+
+	/**
+	 * Remove cached secrets for {@code path}.
+	 *
+	 * @param path must not be empty or {@literal null}.
+	 */
+	public void invalidate(String path) {
+
+		Assert.hasText(path, "Path must not be empty");
+
+		cache.invalidate(path);
+	}
+
+	/**
+	 * Remove all cached secrets.
+	 */
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	@Nullable
+	@Override
+	public List<String> list(String path) {
+		return delegate.list(path);
+	}
+
+	@Nullable
+	@Override
+	public VaultResponse get(String path) {
+
+		Assert.hasText(path, "Path must not be empty");
+
+		return cache.get(path, null, VaultResponse.class, () -> delegate.get(path),
+				it -> false);
+	}
+
+	@Nullable
+	@Override
+	public <T> VaultResponseSupport<T> get(String path, Class<T> responseType) {
+
+		Assert.hasText(path, "Path must not be empty");
+		Assert.notNull(responseType, "Response type must not be null");
+
+		return cache.get(path, null, responseType,
+				() -> delegate.get(path, responseType), it -> false);
+	}
+
+	@Override
+	public void put(String path, Object body) {
+
+		try {
+			delegate.put(path, body);
+		}
+		finally {
+			cache.invalidate(path);
+		}
+	}
+
+	@Override
+	public void delete(String path) {
+
+		try {
+			delegate.delete(path);
+		}
+		finally {
+			cache.invalidate(path);
+		}
+	}
+
+	@Override
+	public KeyValueBackend getApiVersion() {
+		return delegate.getApiVersion();
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer sb = new StringBuffer();
+		sb.append(getClass().getSimpleName());
+		sb.append(" [delegate=").append(delegate);
+		sb.append(", maximumSize=").append(cache.getMaximumSize());
+		sb.append(']');
+		return sb.toString();
+	}
+}
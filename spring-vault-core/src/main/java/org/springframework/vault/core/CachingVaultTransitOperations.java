@@ -0,0 +1,568 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.Assert;
+import org.springframework.vault.support.Ciphertext;
+import org.springframework.vault.support.Hmac;
+import org.springframework.vault.support.Plaintext;
+import org.springframework.vault.support.RawTransitKey;
+import org.springframework.vault.support.Signature;
+import org.springframework.vault.support.SignatureValidation;
+import org.springframework.vault.support.TransitKeyType;
+import org.springframework.vault.support.VaultDecryptionResult;
+import org.springframework.vault.support.VaultEncryptionResult;
+import org.springframework.vault.support.VaultHmacRequest;
+import org.springframework.vault.support.VaultSignRequest;
+import org.springframework.vault.support.VaultSignatureVerificationRequest;
+import org.springframework.vault.support.VaultTransitContext;
+import org.springframework.vault.support.VaultTransitKey;
+import org.springframework.vault.support.VaultTransitKeyConfiguration;
+import org.springframework.vault.support.VaultTransitKeyCreationRequest;
+
+/**
+ * {@link VaultTransitOperations} decorator that caches transit key metadata. Results of
+ * {@link #getKey(String)} and {@link #getKeys()} are retained for the configured
+ * {@link #setTimeToLive(Duration) time to live} so that checks such as
+ * {@link VaultTransitKey#supportsEncryption()} or
+ * {@link VaultTransitKey#getLatestVersion()} do not require a round-trip to Vault.
+ * Absent keys are cached as well.
+ * <p>
+ * Cached metadata of a key is invalidated when the key is created, configured, rotated
+ * or deleted through this instance. Changes applied to Vault by other clients become
+ * visible once the cached entry expires. Optionally, cached entries can be
+ * {@link #setRefreshInterval(Duration) refreshed in the background} to keep metadata
+ * current without blocking callers. Background refresh requires
+ * {@link #afterPropertiesSet() initialization}.
+ * <p>
+ * All other operations are delegated to the underlying {@link VaultTransitOperations}.
+ * Instances are thread-safe.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+public class CachingVaultTransitOperations
+		implements VaultTransitOperations, InitializingBean, DisposableBean {
+
+	private static final Log logger = LogFactory
+			.getLog(CachingVaultTransitOperations.class);
+
+	private static final AtomicInteger poolId = new AtomicInteger();
+
+	private final VaultTransitOperations delegate;
+
+	private final Map<String, CacheEntry<VaultTransitKey>> keys = new ConcurrentHashMap<>();
+
+	private final AtomicReference<CacheEntry<List<String>>> keyNames = new AtomicReference<>();
+
+	/**
+	 * Incremented before cached entries are invalidated. Values loaded from Vault are only
+	 * cached if no invalidation happened while loading them.
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	private Duration timeToLive = Duration.ofMinutes(1);
+
+	@Nullable
+	private Duration refreshInterval;
+
+	private Clock clock = Clock.systemUTC();
+
+	@Nullable
+	private TaskScheduler taskScheduler;
+
+	private boolean manageTaskScheduler;
+
+	@Nullable
+	private ScheduledFuture<?> refreshTask;
+
+	/**
+	 * Create a new {@link CachingVaultTransitOperations} given a
+	 * {@link VaultTransitOperations delegate}.
+	 *
+	 * @param delegate must not be {@literal null}.
+	 */
+	public CachingVaultTransitOperations(VaultTransitOperations delegate) {
+
+		Assert.notNull(delegate, "VaultTransitOperations must not be null");
+
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Create a new {@link CachingVaultTransitOperations} given a
+	 * {@link VaultTransitOperations delegate} and {@link TaskScheduler} for background
+	 * refresh.
+	 *
+	 * @param delegate must not be {@literal null}.
+	 * @param taskScheduler must not be {@literal null}.
+	 */
+	public CachingVaultTransitOperations(VaultTransitOperations delegate,
+			TaskScheduler taskScheduler) {
+
+		this(delegate);
+		setTaskScheduler(taskScheduler);
+	}
+
+	/**
+	 * Set the time to live for cached key metadata. Defaults to one minute.
+	 *
+	 * @param timeToLive must not be {@literal null}, must be positive.
+	 */
+	public void setTimeToLive(Duration timeToLive) {
+
+		Assert.notNull(timeToLive, "Time to live must not be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(),
+				"Time to live must be positive");
+
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Set the interval to refresh cached key metadata in the background. Background
+	 * refresh is disabled by default. The interval should be shorter than the
+	 * {@link #setTimeToLive(Duration) time to live} to prevent cached entries from
+	 * expiring.
+	 *
+	 * @param refreshInterval must not be {@literal null}, must be positive.
+	 */
+	public void setRefreshInterval(Duration refreshInterval) {
+
+		Assert.notNull(refreshInterval, "Refresh interval must not be null");
+		Assert.isTrue(!refreshInterval.isNegative() && !refreshInterval.isZero(),
+				"Refresh interval must be positive");
+
+		this.refreshInterval = refreshInterval;
+	}
+
+	/**
+	 * Set the {@link Clock} to determine cache expiry.
+	 *
+	 * @param clock must not be {@literal null}.
+	 */
+	public void setClock(Clock clock) {
+
+		Assert.notNull(clock, "Clock must not be null");
+
+		this.clock = clock;
+	}
+
+	/**
+	 * Sets the {@link TaskScheduler} to use for background refresh.
+	 *
+	 * @param taskScheduler must not be {@literal null}.
+	 */
+	public void setTaskScheduler(TaskScheduler taskScheduler) {
+
+		Assert.notNull(taskScheduler, "TaskScheduler must not be null");
+		this.taskScheduler = taskScheduler;
+	}
+
+	public Duration getTimeToLive() {
+		return timeToLive;
+	}
+
+	@Nullable
+	public Duration getRefreshInterval() {
+		return refreshInterval;
+	}
+
+	/**
+	 * Start background refresh if a {@link #setRefreshInterval(Duration) refresh
+	 * interval} is configured.
+	 */
+	@Override
+	public void afterPropertiesSet() {
+
+		Duration refreshInterval = this.refreshInterval;
+
+		if (refreshInterval == null || this.refreshTask != null) {
+			return;
+		}
+
+		if (this.taskScheduler == null) {
+
+			ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+			scheduler.setDaemon(true);
+			scheduler.setThreadNamePrefix(String.format("%s-%d-",
+					getClass().getSimpleName(), poolId.incrementAndGet()));
+			scheduler.afterPropertiesSet();
+
+			this.taskScheduler = scheduler;
+			this.manageTaskScheduler = true;
+		}
+
+		this.refreshTask = this.taskScheduler.scheduleWithFixedDelay(this::refresh,
+				Instant.now().plus(refreshInterval), refreshInterval);
+	}
+
+	/**
+	 * Stop background refresh and shut down a managed {@link TaskScheduler}.
+	 */
+	@Override
+	public void destroy() throws Exception {
+
+		ScheduledFuture<?> refreshTask = this.refreshTask;
+
+		if (refreshTask != null) {
+			refreshTask.cancel(false);
+			this.refreshTask = null;
+		}
+
+		if (manageTaskScheduler) {
+
+			if (this.taskScheduler instanceof DisposableBean) {
+				((DisposableBean) this.taskScheduler).destroy();
+				this.taskScheduler = null;
+			}
+		}
+	}
+
+	/**
+	 * Remove cached metadata for {@code keyName}.
+	 *
+	 * @param keyName must not be empty or {@literal null}.
+	 */
+	public void invalidate(String keyName) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+
+		generation.incrementAndGet();
+		keys.remove(keyName);
+	}
+
+	/**
+	 * Remove all cached key metadata and the cached list of key names.
+	 */
+	public void invalidateAll() {
+
+		generation.incrementAndGet();
+		keys.clear();
+		keyNames.set(null);
+	}
+
+	/**
+	 * Reload all cached entries from Vault. Entries of keys that no longer exist are
+	 * retained as absent entries. Entries that were invalidated or reloaded while
+	 * refreshing are left untouched.
+	 */
+	void refresh() {
+
+		for (Map.Entry<String, CacheEntry<VaultTransitKey>> entry : new ArrayList<>(
+				keys.entrySet())) {
+
+			String keyName = entry.getKey();
+
+			try {
+
+				long generation = this.generation.get();
+				CacheEntry<VaultTransitKey> loaded = new CacheEntry<>(
+						delegate.getKey(keyName), expiry());
+
+				keys.computeIfPresent(keyName,
+						(key, existing) -> existing == entry.getValue()
+								&& this.generation.get() == generation ? loaded : existing);
+			}
+			catch (RuntimeException e) {
+				logger.warn(String.format("Cannot refresh transit key %s", keyName), e);
+			}
+		}
+
+		CacheEntry<List<String>> names = keyNames.get();
+
+		if (names != null) {
+
+			try {
+
+				long generation = this.generation.get();
+				CacheEntry<List<String>> loaded = new CacheEntry<>(delegate.getKeys(),
+						expiry());
+
+				keyNames.updateAndGet(existing -> existing == names
+						&& this.generation.get() == generation ? loaded : existing);
+			}
+			catch (RuntimeException e) {
+				logger.warn("Cannot refresh transit key names", e);
+			}
+		}
+	}
+
+	@Override
+	public void createKey(String keyName) {
+
+		try {
+			delegate.createKey(keyName);
+		}
+		finally {
+			invalidateKeyAndNames(keyName);
+		}
+	}
+
+	@Override
+	public void createKey(String keyName,
+			VaultTransitKeyCreationRequest createKeyRequest) {
+
+		try {
+			delegate.createKey(keyName, createKeyRequest);
+		}
+		finally {
+			invalidateKeyAndNames(keyName);
+		}
+	}
+
+	@Override
+	public List<String> getKeys() {
+
+		CacheEntry<List<String>> entry = keyNames.get();
+
+		if (entry != null && !entry.isExpired(clock)) {
+			return entry.getValue();
+		}
+
+		long generation = this.generation.get();
+		List<String> result = delegate.getKeys();
+		CacheEntry<List<String>> loaded = new CacheEntry<>(result, expiry());
+
+		keyNames.updateAndGet(
+				existing -> this.generation.get() == generation ? loaded : existing);
+
+		return result;
+	}
+
+	@Override
+	public void configureKey(String keyName,
+			VaultTransitKeyConfiguration keyConfiguration) {
+
+		try {
+			delegate.configureKey(keyName, keyConfiguration);
+		}
+		finally {
+			invalidate(keyName);
+		}
+	}
+
+	@Override
+	@Nullable
+	public RawTransitKey exportKey(String keyName, TransitKeyType type) {
+		return delegate.exportKey(keyName, type);
+	}
+
+	@Override
+	@Nullable
+	public VaultTransitKey getKey(String keyName) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+
+		CacheEntry<VaultTransitKey> entry = keys.get(keyName);
+
+		if (entry != null && !entry.isExpired(clock)) {
+			return entry.getValue();
+		}
+
+		long generation = this.generation.get();
+		VaultTransitKey result = delegate.getKey(keyName);
+		CacheEntry<VaultTransitKey> loaded = new CacheEntry<>(result, expiry());
+
+		keys.compute(keyName,
+				(key, existing) -> this.generation.get() == generation ? loaded : existing);
+
+		return result;
+	}
+
+	@Override
+	public void deleteKey(String keyName) {
+
+		try {
+			delegate.deleteKey(keyName);
+		}
+		finally {
+			invalidateKeyAndNames(keyName);
+		}
+	}
+
+	@Override
+	public void rotate(String keyName) {
+
+		try {
+			delegate.rotate(keyName);
+		}
+		finally {
+			invalidate(keyName);
+		}
+	}
+
+	@Override
+	public String encrypt(String keyName, String plaintext) {
+		return delegate.encrypt(keyName, plaintext);
+	}
+
+	@Override
+	public Ciphertext encrypt(String keyName, Plaintext plaintext) {
+		return delegate.encrypt(keyName, plaintext);
+	}
+
+	@Override
+	public String encrypt(String keyName, byte[] plaintext,
+			VaultTransitContext transitContext) {
+		return delegate.encrypt(keyName, plaintext, transitContext);
+	}
+
+	@Override
+	public List<VaultEncryptionResult> encrypt(String keyName,
+			List<Plaintext> batchRequest) {
+		return delegate.encrypt(keyName, batchRequest);
+	}
+
+	@Override
+	public String decrypt(String keyName, String ciphertext) {
+		return delegate.decrypt(keyName, ciphertext);
+	}
+
+	@Override
+	public Plaintext decrypt(String keyName, Ciphertext ciphertext) {
+		return delegate.decrypt(keyName, ciphertext);
+	}
+
+	@Override
+	public byte[] decrypt(String keyName, String ciphertext,
+			VaultTransitContext transitContext) {
+		return delegate.decrypt(keyName, ciphertext, transitContext);
+	}
+
+	@Override
+	public List<VaultDecryptionResult> decrypt(String keyName,
+			List<Ciphertext> batchRequest) {
+		return delegate.decrypt(keyName, batchRequest);
+	}
+
+	@Override
+	public String rewrap(String keyName, String ciphertext) {
+		return delegate.rewrap(keyName, ciphertext);
+	}
+
+	@Override
+	public String rewrap(String keyName, String ciphertext,
+			VaultTransitContext transitContext) {
+		return delegate.rewrap(keyName, ciphertext, transitContext);
+	}
+
+	@Override
+	public List<VaultEncryptionResult> rewrap(String keyName,
+			List<Ciphertext> batchRequest) {
+		return delegate.rewrap(keyName, batchRequest);
+	}
+
+	@Override
+	public Hmac getHmac(String keyName, Plaintext plaintext) {
+		return delegate.getHmac(keyName, plaintext);
+	}
+
+	@Override
+	public Hmac getHmac(String keyName, VaultHmacRequest request) {
+		return delegate.getHmac(keyName, request);
+	}
+
+	@Override
+	public Signature sign(String keyName, Plaintext plaintext) {
+		return delegate.sign(keyName, plaintext);
+	}
+
+	@Override
+	public Signature sign(String keyName, VaultSignRequest request) {
+		return delegate.sign(keyName, request);
+	}
+
+	@Override
+	public boolean verify(String keyName, Plaintext plaintext, Signature signature) {
+		return delegate.verify(keyName, plaintext, signature);
+	}
+
+	@Override
+	public SignatureValidation verify(String keyName,
+			VaultSignatureVerificationRequest request) {
+		return delegate.verify(keyName, request);
+	}
+
+	private void invalidateKeyAndNames(String keyName) {
+
+		generation.incrementAndGet();
+		keys.remove(keyName);
+		keyNames.set(null);
+	}
+
+	private Instant expiry() {
+		return clock.instant().plus(timeToLive);
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer sb = new StringBuffer();
+		sb.append(getClass().getSimpleName());
+		sb.append(" [delegate=").append(delegate);
+		sb.append(", timeToLive=").append(timeToLive);
+		sb.append(", refreshInterval=").append(refreshInterval);
+		sb.append(']');
+		return sb.toString();
+	}
+
+	/**
+	 * Cached value along with its expiry. Values may be {@literal null} to represent
+	 * absent keys.
+	 *
+	 * @param <T> value type.
+	 */
+	static class CacheEntry<T> {
+
+		@Nullable
+		private final T value;
+
+		private final Instant expiresAt;
+
+		CacheEntry(@Nullable T value, Instant expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+
+		@Nullable
+		T getValue() {
+			return value;
+		}
+
+		boolean isExpired(Clock clock) {
+			return !clock.instant().isBefore(expiresAt);
+		}
+	}
+}
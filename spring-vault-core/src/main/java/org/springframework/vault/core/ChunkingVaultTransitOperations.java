@@ -0,0 +1,779 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+import org.springframework.vault.VaultException;
+import org.springframework.vault.support.AbstractResult;
+import org.springframework.vault.support.Ciphertext;
+import org.springframework.vault.support.Hmac;
+import org.springframework.vault.support.Plaintext;
+import org.springframework.vault.support.RawTransitKey;
+import org.springframework.vault.support.Signature;
+import org.springframework.vault.support.SignatureValidation;
+import org.springframework.vault.support.TransitKeyType;
+import org.springframework.vault.support.VaultDecryptionResult;
+import org.springframework.vault.support.VaultEncryptionResult;
+import org.springframework.vault.support.VaultHmacRequest;
+import org.springframework.vault.support.VaultSignRequest;
+import org.springframework.vault.support.VaultSignatureVerificationRequest;
+import org.springframework.vault.support.VaultTransitContext;
+import org.springframework.vault.support.VaultTransitKey;
+import org.springframework.vault.support.VaultTransitKeyConfiguration;
+import org.springframework.vault.support.VaultTransitKeyCreationRequest;
+
+/**
+ * {@link VaultTransitOperations} decorator that splits large encrypt, decrypt and rewrap
+ * batch requests into chunks of {@link #setChunkSize(int) chunk size} items. Chunks are
+ * sent as individual {@code batch_input} requests and processed concurrently on a
+ * {@link TaskExecutor} with at most {@link #setMaxConcurrency(int) max concurrency}
+ * chunks in flight per bulk operation. The calling thread blocks until all chunks are
+ * processed.
+ * <p>
+ * Results are returned in the order of the batch request. Errors reported for single
+ * items are retained in the corresponding result. Errors that affect a whole chunk are
+ * reported as failed results for each item of the chunk so that a failing chunk does not
+ * fail the entire bulk operation. A {@link BatchProgressListener} can be used to track
+ * progress of long-running operations.
+ * <p>
+ * {@link #rewrap(String, Iterator, BatchProgressListener)} and
+ * {@link #rewrap(String, Stream)} rewrap arbitrarily large sequences of ciphertext
+ * lazily, for example after {@link #rotate(String) key rotation}, skipping ciphertexts
+ * that are already encrypted with the latest key version.
+ * <p>
+ * Batches that do not exceed the chunk size and all other operations are delegated to
+ * the underlying {@link VaultTransitOperations} on the calling thread. Instances are
+ * thread-safe once {@link #afterPropertiesSet() initialized}.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see VaultTransitOperations#encrypt(String, List)
+ * @see VaultTransitOperations#decrypt(String, List)
+ */
+public class ChunkingVaultTransitOperations
+		implements VaultTransitOperations, InitializingBean, DisposableBean {
+
+	private static final AtomicInteger poolId = new AtomicInteger();
+
+	private final VaultTransitOperations delegate;
+
+	private int chunkSize = 250;
+
+	private int maxConcurrency = 4;
+
+	@Nullable
+	private TaskExecutor taskExecutor;
+
+	private boolean manageTaskExecutor;
+
+	private volatile boolean initialized;
+
+	/**
+	 * Create a new {@link ChunkingVaultTransitOperations} given a
+	 * {@link VaultTransitOperations delegate}.
+	 *
+	 * @param delegate must not be {@literal null}.
+	 */
+	public ChunkingVaultTransitOperations(VaultTransitOperations delegate) {
+
+		Assert.notNull(delegate, "VaultTransitOperations must not be null");
+
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Create a new {@link ChunkingVaultTransitOperations} given a
+	 * {@link VaultTransitOperations delegate} and {@link TaskExecutor}.
+	 *
+	 * @param delegate must not be {@literal null}.
+	 * @param taskExecutor must not be {@literal null}.
+	 */
+	public ChunkingVaultTransitOperations(VaultTransitOperations delegate,
+			TaskExecutor taskExecutor) {
+
+		this(delegate);
+		setTaskExecutor(taskExecutor);
+	}
+
+	/**
+	 * Set the maximum number of items per batch request. Defaults to {@literal 250}.
+	 *
+	 * @param chunkSize must be greater {@literal 0}.
+	 */
+	public void setChunkSize(int chunkSize) {
+
+		Assert.isTrue(chunkSize > 0, "Chunk size must be greater 0");
+
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Set the maximum number of concurrent batch requests per bulk operation. Defaults
+	 * to {@literal 4}.
+	 *
+	 * @param maxConcurrency must be greater {@literal 0}.
+	 */
+	public void setMaxConcurrency(int maxConcurrency) {
+
+		Assert.isTrue(maxConcurrency > 0, "Max concurrency must be greater 0");
+
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	/**
+	 * Sets the {@link TaskExecutor} to process chunks.
+	 *
+	 * @param taskExecutor must not be {@literal null}.
+	 */
+	public void setTaskExecutor(TaskExecutor taskExecutor) {
+
+		Assert.notNull(taskExecutor, "TaskExecutor must not be null");
+		this.taskExecutor = taskExecutor;
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+
+		if (!this.initialized) {
+
+			if (this.taskExecutor == null) {
+
+				ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+				executor.setDaemon(true);
+				executor.setCorePoolSize(maxConcurrency);
+				executor.setThreadNamePrefix(String.format("%s-%d-",
+						getClass().getSimpleName(), poolId.incrementAndGet()));
+				executor.afterPropertiesSet();
+
+				this.taskExecutor = executor;
+				this.manageTaskExecutor = true;
+			}
+
+			this.initialized = true;
+		}
+	}
+
+	/**
+	 * Shut down a managed {@link TaskExecutor}.
+	 */
+	@Override
+	public void destroy() throws Exception {
+
+		if (manageTaskExecutor) {
+
+			if (this.taskExecutor instanceof DisposableBean) {
+				((DisposableBean) this.taskExecutor).destroy();
+				this.taskExecutor = null;
+			}
+		}
+	}
+
+	/**
+	 * Encrypts the provided batch of plaintext in chunks using the named key and report
+	 * progress to {@link BatchProgressListener}.
+	 *
+	 * @param keyName must not be empty or {@literal null}.
+	 * @param batchRequest must not be {@literal null}.
+	 * @param progressListener must not be {@literal null}.
+	 * @return the encrypted values in the order of {@code batchRequest}.
+	 * @see VaultTransitOperations#encrypt(String, List)
+	 */
+	public List<VaultEncryptionResult> encrypt(String keyName,
+			List<Plaintext> batchRequest, BatchProgressListener progressListener) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(batchRequest, "BatchRequest must not be null");
+		Assert.notNull(progressListener, "BatchProgressListener must not be null");
+
+		return execute(keyName, batchRequest, delegate::encrypt,
+				VaultEncryptionResult::new, progressListener);
+	}
+
+	/**
+	 * Decrypts the provided batch of ciphertext in chunks using the named key and
+	 * report progress to {@link BatchProgressListener}.
+	 *
+	 * @param keyName must not be empty or {@literal null}.
+	 * @param batchRequest must not be {@literal null}.
+	 * @param progressListener must not be {@literal null}.
+	 * @return the decrypted values in the order of {@code batchRequest}.
+	 * @see VaultTransitOperations#decrypt(String, List)
+	 */
+	public List<VaultDecryptionResult> decrypt(String keyName,
+			List<Ciphertext> batchRequest, BatchProgressListener progressListener) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(batchRequest, "BatchRequest must not be null");
+		Assert.notNull(progressListener, "BatchProgressListener must not be null");
+
+		return execute(keyName, batchRequest, delegate::decrypt,
+				VaultDecryptionResult::new, progressListener);
+	}
+
+	@Override
+	public List<VaultEncryptionResult> encrypt(String keyName,
+			List<Plaintext> batchRequest) {
+		return encrypt(keyName, batchRequest, BatchProgressListener.NONE);
+	}
+
+	@Override
+	public List<VaultDecryptionResult> decrypt(String keyName,
+			List<Ciphertext> batchRequest) {
+		return decrypt(keyName, batchRequest, BatchProgressListener.NONE);
+	}
+
+	@Override
+	public List<VaultEncryptionResult> rewrap(String keyName,
+			List<Ciphertext> batchRequest) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(batchRequest, "BatchRequest must not be null");
+
+		return execute(keyName, batchRequest, delegate::rewrap,
+				VaultEncryptionResult::new, BatchProgressListener.NONE);
+	}
+
+	/**
+	 * Rewrap a {@link Stream} of ciphertext using the latest version of the named key.
+	 * See {@link #rewrap(String, Iterator, BatchProgressListener)} for details. Closing
+	 * the resulting {@link Stream} closes {@code ciphertexts}.
+	 *
+	 * @param keyName must not be empty or {@literal null}.
+	 * @param ciphertexts must not be {@literal null}.
+	 * @return a lazy {@link Stream} of rewrap results in the order of
+	 * {@code ciphertexts}.
+	 */
+	public Stream<VaultEncryptionResult> rewrap(String keyName,
+			Stream<Ciphertext> ciphertexts) {
+
+		Assert.notNull(ciphertexts, "Ciphertexts must not be null");
+
+		Iterator<VaultEncryptionResult> iterator = rewrap(keyName,
+				ciphertexts.iterator(), BatchProgressListener.NONE);
+
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(iterator,
+						Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(ciphertexts::close);
+	}
+
+	/**
+	 * Rewrap ciphertexts using the latest version of the named key. Ciphertexts are
+	 * consumed lazily in chunks of {@link #setChunkSize(int) chunk size} items as the
+	 * resulting {@link Iterator} is consumed. At most {@link #setMaxConcurrency(int) max
+	 * concurrency} chunks are rewrapped ahead of the consumer.
+	 * <p>
+	 * Ciphertexts that are already encrypted with the latest key version (determined
+	 * from the {@code vault:v<version>:} prefix) are returned as-is without contacting
+	 * Vault. Errors are reported as failed results of the affected items.
+	 *
+	 * @param keyName must not be empty or {@literal null}.
+	 * @param ciphertexts must not be {@literal null}.
+	 * @param progressListener must not be {@literal null}.
+	 * @return a lazy {@link Iterator} of rewrap results in the order of
+	 * {@code ciphertexts}.
+	 */
+	public Iterator<VaultEncryptionResult> rewrap(String keyName,
+			Iterator<Ciphertext> ciphertexts, BatchProgressListener progressListener) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(ciphertexts, "Ciphertexts must not be null");
+		Assert.notNull(progressListener, "BatchProgressListener must not be null");
+		Assert.state(initialized, "ChunkingVaultTransitOperations is not initialized");
+
+		VaultTransitKey key = delegate.getKey(keyName);
+		int latestVersion = key != null ? key.getLatestVersion() : Integer.MAX_VALUE;
+
+		return new RewrapIterator(keyName, ciphertexts, latestVersion,
+				new Progress(-1, progressListener));
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T, R extends AbstractResult<?>> List<R> execute(String keyName,
+			List<T> batchRequest, BiFunction<String, List<T>, List<R>> batchFunction,
+			Function<VaultException, R> errorFunction,
+			BatchProgressListener progressListener) {
+
+		int total = batchRequest.size();
+
+		if (total <= chunkSize) {
+
+			List<R> results = batchFunction.apply(keyName, batchRequest);
+			progressListener.onProgress(total, countFailed(results), total);
+
+			return results;
+		}
+
+		Assert.state(initialized, "ChunkingVaultTransitOperations is not initialized");
+
+		TaskExecutor executor = this.taskExecutor;
+		Assert.state(executor != null, "TaskExecutor must not be null");
+
+		Object[] results = new Object[total];
+		Semaphore permits = new Semaphore(maxConcurrency);
+		Progress progress = new Progress(total, progressListener);
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+		for (int offset = 0; offset < total; offset += chunkSize) {
+
+			int from = offset;
+			List<T> chunk = batchRequest.subList(from,
+					Math.min(from + chunkSize, total));
+
+			acquire(permits);
+
+			Runnable task = () -> {
+				try {
+					List<R> chunkResults = executeChunk(keyName, chunk, batchFunction,
+							errorFunction);
+					System.arraycopy(chunkResults.toArray(), 0, results, from,
+							chunk.size());
+					progress.update(chunk.size(), countFailed(chunkResults));
+				}
+				finally {
+					permits.release();
+				}
+			};
+
+			try {
+				futures.add(CompletableFuture.runAsync(task, executor));
+			}
+			catch (RuntimeException e) {
+
+				permits.release();
+
+				List<R> failed = failChunk(chunk.size(),
+						new VaultException("Cannot execute batch chunk", e),
+						errorFunction);
+				System.arraycopy(failed.toArray(), 0, results, from, chunk.size());
+				progress.update(chunk.size(), chunk.size());
+			}
+		}
+
+		await(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])));
+
+		List<R> result = new ArrayList<>(total);
+
+		for (Object item : results) {
+			result.add((R) item);
+		}
+
+		return result;
+	}
+
+	private static <T, R extends AbstractResult<?>> List<R> executeChunk(String keyName,
+			List<T> chunk, BiFunction<String, List<T>, List<R>> batchFunction,
+			Function<VaultException, R> errorFunction) {
+
+		List<R> chunkResults;
+
+		try {
+			chunkResults = batchFunction.apply(keyName, chunk);
+		}
+		catch (RuntimeException e) {
+			return failChunk(chunk.size(), e instanceof VaultException
+					? (VaultException) e : new VaultException(e.getMessage(), e),
+					errorFunction);
+		}
+
+		if (chunkResults.size() == chunk.size()) {
+			return chunkResults;
+		}
+
+		List<R> results = new ArrayList<>(chunk.size());
+
+		for (int i = 0; i < chunk.size(); i++) {
+			results.add(i < chunkResults.size() ? chunkResults.get(i)
+					: errorFunction.apply(
+							new VaultException("No result for batch item #" + i)));
+		}
+
+		return results;
+	}
+
+	private static <R> List<R> failChunk(int size, VaultException e,
+			Function<VaultException, R> errorFunction) {
+
+		List<R> results = new ArrayList<>(size);
+
+		for (int i = 0; i < size; i++) {
+			results.add(errorFunction.apply(e));
+		}
+
+		return results;
+	}
+
+	private static int countFailed(List<? extends AbstractResult<?>> results) {
+
+		int failed = 0;
+
+		for (AbstractResult<?> result : results) {
+			if (!result.isSuccessful()) {
+				failed++;
+			}
+		}
+
+		return failed;
+	}
+
+	private static void acquire(Semaphore permits) {
+
+		try {
+			permits.acquire();
+		}
+		catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+			throw new VaultException("Interrupted while awaiting batch execution", e);
+		}
+	}
+
+	private static void await(CompletableFuture<?> future) {
+
+		try {
+			future.get();
+		}
+		catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+			throw new VaultException("Interrupted while awaiting batch results", e);
+		}
+		catch (ExecutionException e) {
+			throw new VaultException(e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	@Override
+	public void createKey(String keyName) {
+		delegate.createKey(keyName);
+	}
+
+	@Override
+	public void createKey(String keyName,
+			VaultTransitKeyCreationRequest createKeyRequest) {
+		delegate.createKey(keyName, createKeyRequest);
+	}
+
+	@Override
+	public List<String> getKeys() {
+		return delegate.getKeys();
+	}
+
+	@Override
+	public void configureKey(String keyName,
+			VaultTransitKeyConfiguration keyConfiguration) {
+		delegate.configureKey(keyName, keyConfiguration);
+	}
+
+	@Override
+	@Nullable
+	public RawTransitKey exportKey(String keyName, TransitKeyType type) {
+		return delegate.exportKey(keyName, type);
+	}
+
+	@Override
+	@Nullable
+	public VaultTransitKey getKey(String keyName) {
+		return delegate.getKey(keyName);
+	}
+
+	@Override
+	public void deleteKey(String keyName) {
+		delegate.deleteKey(keyName);
+	}
+
+	@Override
+	public void rotate(String keyName) {
+		delegate.rotate(keyName);
+	}
+
+	@Override
+	public String encrypt(String keyName, String plaintext) {
+		return delegate.encrypt(keyName, plaintext);
+	}
+
+	@Override
+	public Ciphertext encrypt(String keyName, Plaintext plaintext) {
+		return delegate.encrypt(keyName, plaintext);
+	}
+
+	@Override
+	public String encrypt(String keyName, byte[] plaintext,
+			VaultTransitContext transitContext) {
+		return delegate.encrypt(keyName, plaintext, transitContext);
+	}
+
+	@Override
+	public String decrypt(String keyName, String ciphertext) {
+		return delegate.decrypt(keyName, ciphertext);
+	}
+
+	@Override
+	public Plaintext decrypt(String keyName, Ciphertext ciphertext) {
+		return delegate.decrypt(keyName, ciphertext);
+	}
+
+	@Override
+	public byte[] decrypt(String keyName, String ciphertext,
+			VaultTransitContext transitContext) {
+		return delegate.decrypt(keyName, ciphertext, transitContext);
+	}
+
+	@Override
+	public String rewrap(String keyName, String ciphertext) {
+		return delegate.rewrap(keyName, ciphertext);
+	}
+
+	@Override
+	public String rewrap(String keyName, String ciphertext,
+			VaultTransitContext transitContext) {
+		return delegate.rewrap(keyName, ciphertext, transitContext);
+	}
+
+	@Override
+	public Hmac getHmac(String keyName, Plaintext plaintext) {
+		return delegate.getHmac(keyName, plaintext);
+	}
+
+	@Override
+	public Hmac getHmac(String keyName, VaultHmacRequest request) {
+		return delegate.getHmac(keyName, request);
+	}
+
+	@Override
+	public Signature sign(String keyName, Plaintext plaintext) {
+		return delegate.sign(keyName, plaintext);
+	}
+
+	@Override
+	public Signature sign(String keyName, VaultSignRequest request) {
+		return delegate.sign(keyName, request);
+	}
+
+	@Override
+	public boolean verify(String keyName, Plaintext plaintext, Signature signature) {
+		return delegate.verify(keyName, plaintext, signature);
+	}
+
+	@Override
+	public SignatureValidation verify(String keyName,
+			VaultSignatureVerificationRequest request) {
+		return delegate.verify(keyName, request);
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer sb = new StringBuffer();
+		sb.append(getClass().getSimpleName());
+		sb.append(" [delegate=").append(delegate);
+		sb.append(", chunkSize=").append(chunkSize);
+		sb.append(", maxConcurrency=").append(maxConcurrency);
+		sb.append(']');
+		return sb.toString();
+	}
+
+	/**
+	 * {@link Iterator} that rewraps chunks of ciphertexts ahead of the consumer.
+	 */
+	class RewrapIterator implements Iterator<VaultEncryptionResult> {
+
+		private final String keyName;
+
+		private final Iterator<Ciphertext> source;
+
+		private final int latestVersion;
+
+		private final Progress progress;
+
+		private final Deque<CompletableFuture<List<VaultEncryptionResult>>> pending = new ArrayDeque<>();
+
+		private Iterator<VaultEncryptionResult> current = Collections.emptyIterator();
+
+		RewrapIterator(String keyName, Iterator<Ciphertext> source, int latestVersion,
+				Progress progress) {
+
+			this.keyName = keyName;
+			this.source = source;
+			this.latestVersion = latestVersion;
+			this.progress = progress;
+		}
+
+		@Override
+		public boolean hasNext() {
+
+			while (!current.hasNext()) {
+
+				fill();
+
+				CompletableFuture<List<VaultEncryptionResult>> next = pending.poll();
+
+				if (next == null) {
+					return false;
+				}
+
+				fill();
+
+				current = awaitResult(next).iterator();
+			}
+
+			return true;
+		}
+
+		@Override
+		public VaultEncryptionResult next() {
+
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			return current.next();
+		}
+
+		private void fill() {
+
+			while (pending.size() < maxConcurrency && source.hasNext()) {
+
+				List<Ciphertext> chunk = new ArrayList<>(chunkSize);
+
+				while (chunk.size() < chunkSize && source.hasNext()) {
+					chunk.add(source.next());
+				}
+
+				pending.add(submit(chunk));
+			}
+		}
+
+		private CompletableFuture<List<VaultEncryptionResult>> submit(
+				List<Ciphertext> chunk) {
+
+			List<Ciphertext> outdated = new ArrayList<>(chunk.size());
+
+			for (Ciphertext ciphertext : chunk) {
+				if (VaultTransitTemplate.requiresRewrap(ciphertext, latestVersion)) {
+					outdated.add(ciphertext);
+				}
+			}
+
+			if (outdated.isEmpty()) {
+
+				progress.update(chunk.size(), 0);
+
+				return CompletableFuture.completedFuture(VaultTransitTemplate
+						.mergeRewrapResults(chunk, latestVersion,
+								Collections.emptyList()));
+			}
+
+			TaskExecutor executor = taskExecutor;
+			Assert.state(executor != null, "TaskExecutor must not be null");
+
+			try {
+				return CompletableFuture.supplyAsync(() -> {
+
+					List<VaultEncryptionResult> results = executeChunk(keyName,
+							outdated, delegate::rewrap, VaultEncryptionResult::new);
+					progress.update(chunk.size(), countFailed(results));
+
+					return VaultTransitTemplate.mergeRewrapResults(chunk, latestVersion,
+							results);
+				}, executor);
+			}
+			catch (RuntimeException e) {
+
+				List<VaultEncryptionResult> failed = failChunk(outdated.size(),
+						new VaultException("Cannot execute batch chunk", e),
+						VaultEncryptionResult::new);
+				progress.update(chunk.size(), failed.size());
+
+				return CompletableFuture.completedFuture(VaultTransitTemplate
+						.mergeRewrapResults(chunk, latestVersion, failed));
+			}
+		}
+
+		private List<VaultEncryptionResult> awaitResult(
+				CompletableFuture<List<VaultEncryptionResult>> future) {
+
+			try {
+				return future.get();
+			}
+			catch (InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+				throw new VaultException("Interrupted while awaiting batch results", e);
+			}
+			catch (ExecutionException e) {
+				throw new VaultException(e.getCause().getMessage(), e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Tracks progress of a bulk operation and serializes listener invocations.
+	 */
+	static class Progress {
+
+		private final long total;
+
+		private final BatchProgressListener listener;
+
+		private long processed;
+
+		private long failed;
+
+		Progress(long total, BatchProgressListener listener) {
+			this.total = total;
+			this.listener = listener;
+		}
+
+		synchronized void update(int processed, int failed) {
+
+			this.processed += processed;
+			this.failed += failed;
+
+			listener.onProgress(this.processed, this.failed, total);
+		}
+	}
+}
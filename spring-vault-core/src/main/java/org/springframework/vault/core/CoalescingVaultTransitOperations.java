@@ -0,0 +1,650 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.Assert;
+import org.springframework.vault.VaultException;
+import org.springframework.vault.support.AbstractResult;
+import org.springframework.vault.support.Ciphertext;
+import org.springframework.vault.support.Hmac;
+import org.springframework.vault.support.Plaintext;
+import org.springframework.vault.support.RawTransitKey;
+import org.springframework.vault.support.Signature;
+import org.springframework.vault.support.SignatureValidation;
+import org.springframework.vault.support.TransitKeyType;
+import org.springframework.vault.support.VaultDecryptionResult;
+import org.springframework.vault.support.VaultEncryptionResult;
+import org.springframework.vault.support.VaultHmacRequest;
+import org.springframework.vault.support.VaultSignRequest;
+import org.springframework.vault.support.VaultSignatureVerificationRequest;
+import org.springframework.vault.support.VaultTransitContext;
+import org.springframework.vault.support.VaultTransitKey;
+import org.springframework.vault.support.VaultTransitKeyConfiguration;
+import org.springframework.vault.support.VaultTransitKeyCreationRequest;
+
+/**
+ * {@link VaultTransitOperations} decorator that coalesces concurrent single-value
+ * encryption and decryption requests into batch requests. Single-value calls for the
+ * same key are collected until either {@link #setMaxBatchSize(int) the maximum batch
+ * size} is reached or {@link #setMaxDelay(Duration) the maximum delay} has elapsed since
+ * the first pending request. Collected requests are sent as a single
+ * {@code batch_input} request through {@link VaultTransitOperations#encrypt(String, List)
+ * encrypt} or {@link VaultTransitOperations#decrypt(String, List) decrypt}. Each request
+ * carries its own {@link VaultTransitContext} so requests with different contexts can
+ * share a batch.
+ * <p>
+ * Results are handed back to each caller individually. Errors reported for a single
+ * batch item are propagated only to the caller that submitted the item. Errors that
+ * affect the whole batch request are propagated to all callers of the batch.
+ * <p>
+ * Batches that reach the maximum size are executed on the thread that submitted the
+ * last item. Batches that are flushed after the maximum delay are executed on a
+ * {@link TaskScheduler} thread. All other operations are delegated to the underlying
+ * {@link VaultTransitOperations} without coalescing.
+ * <p>
+ * Synchronous {@link #encrypt(String, Plaintext) encrypt} and
+ * {@link #decrypt(String, Ciphertext) decrypt} calls wait for their batch result up to
+ * {@link #setTimeout(Duration) the configured timeout}.
+ * <p>
+ * Instances are thread-safe once {@link #afterPropertiesSet() initialized}.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see VaultTransitOperations#encrypt(String, List)
+ * @see VaultTransitOperations#decrypt(String, List)
+ */
+public class CoalescingVaultTransitOperations
+		implements VaultTransitOperations, InitializingBean, DisposableBean {
+
+	private static final AtomicInteger poolId = new AtomicInteger();
+
+	private final VaultTransitOperations delegate;
+
+	private final Map<String, Coalescer<Plaintext, Ciphertext>> encryptions = new ConcurrentHashMap<>();
+
+	private final Map<String, Coalescer<Ciphertext, Plaintext>> decryptions = new ConcurrentHashMap<>();
+
+	private int maxBatchSize = 100;
+
+	private Duration maxDelay = Duration.ofMillis(5);
+
+	private Duration timeout = Duration.ofSeconds(30);
+
+	@Nullable
+	private TaskScheduler taskScheduler;
+
+	private boolean manageTaskScheduler;
+
+	private volatile boolean initialized;
+
+	private volatile boolean destroyed;
+
+	/**
+	 * Create a new {@link CoalescingVaultTransitOperations} given a
+	 * {@link VaultTransitOperations delegate}.
+	 *
+	 * @param delegate must not be {@literal null}.
+	 */
+	public CoalescingVaultTransitOperations(VaultTransitOperations delegate) {
+
+		Assert.notNull(delegate, "VaultTransitOperations must not be null");
+
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Create a new {@link CoalescingVaultTransitOperations} given a
+	 * {@link VaultTransitOperations delegate} and {@link TaskScheduler}.
+	 *
+	 * @param delegate must not be {@literal null}.
+	 * @param taskScheduler must not be {@literal null}.
+	 */
+	public CoalescingVaultTransitOperations(VaultTransitOperations delegate,
+			TaskScheduler taskScheduler) {
+
+		this(delegate);
+		setTaskScheduler(taskScheduler);
+	}
+
+	/**
+	 * Set the maximum number of requests to collect into a single batch. A batch is sent
+	 * immediately once it reaches the maximum size.
+	 *
+	 * @param maxBatchSize maximum number of requests per batch, must be greater
+	 *     {@literal 0}.
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+
+		Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater 0");
+
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Set the maximum {@link Duration} to wait for additional requests after the first
+	 * request of a batch was submitted.
+	 *
+	 * @param maxDelay must not be {@literal null} or negative.
+	 */
+	public void setMaxDelay(Duration maxDelay) {
+
+		Assert.notNull(maxDelay, "Max delay must not be null");
+		Assert.isTrue(!maxDelay.isNegative(), "Max delay must not be negative");
+
+		this.maxDelay = maxDelay;
+	}
+
+	/**
+	 * Set the maximum {@link Duration} synchronous calls wait for the result of their
+	 * batch. Defaults to 30 seconds.
+	 *
+	 * @param timeout must not be {@literal null} and must be positive.
+	 */
+	public void setTimeout(Duration timeout) {
+
+		Assert.notNull(timeout, "Timeout must not be null");
+		Assert.isTrue(!timeout.isNegative() && !timeout.isZero(),
+				"Timeout must be positive");
+
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Sets the {@link TaskScheduler} to use for flushing batches after
+	 * {@link #setMaxDelay(Duration) the maximum delay}.
+	 *
+	 * @param taskScheduler must not be {@literal null}.
+	 */
+	public void setTaskScheduler(TaskScheduler taskScheduler) {
+
+		Assert.notNull(taskScheduler, "TaskScheduler must not be null");
+		this.taskScheduler = taskScheduler;
+	}
+
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	public Duration getMaxDelay() {
+		return maxDelay;
+	}
+
+	public Duration getTimeout() {
+		return timeout;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+
+		if (!this.initialized) {
+
+			if (this.taskScheduler == null) {
+
+				ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+				scheduler.setDaemon(true);
+				scheduler.setPoolSize(Runtime.getRuntime().availableProcessors());
+				scheduler.setThreadNamePrefix(String.format("%s-%d-",
+						getClass().getSimpleName(), poolId.incrementAndGet()));
+				scheduler.afterPropertiesSet();
+
+				this.taskScheduler = scheduler;
+				this.manageTaskScheduler = true;
+			}
+
+			this.initialized = true;
+		}
+	}
+
+	/**
+	 * Flush pending batches and shut down a managed {@link TaskScheduler}. Requests
+	 * submitted after destruction are rejected. Requests submitted before destruction
+	 * are either part of a flushed batch or were rejected.
+	 */
+	@Override
+	public void destroy() throws Exception {
+
+		this.destroyed = true;
+
+		for (Coalescer<?, ?> coalescer : encryptions.values()) {
+			coalescer.flush();
+		}
+
+		for (Coalescer<?, ?> coalescer : decryptions.values()) {
+			coalescer.flush();
+		}
+
+		if (manageTaskScheduler) {
+
+			if (this.taskScheduler instanceof DisposableBean) {
+				((DisposableBean) this.taskScheduler).destroy();
+				this.taskScheduler = null;
+			}
+		}
+	}
+
+	/**
+	 * Encrypts the provided plaintext using the named key. The request is coalesced with
+	 * concurrent requests for the same key into a batch request.
+	 *
+	 * @param keyName must not be empty or {@literal null}.
+	 * @param plaintext must not be {@literal null}.
+	 * @return a {@link CompletableFuture} completed with the cipher text.
+	 */
+	public CompletableFuture<Ciphertext> encryptAsync(String keyName,
+			Plaintext plaintext) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(plaintext, "Plaintext must not be null");
+
+		return encryptions
+				.computeIfAbsent(keyName,
+						key -> new Coalescer<>(key, delegate::encrypt))
+				.submit(plaintext);
+	}
+
+	/**
+	 * Decrypts the provided ciphertext using the named key. The request is coalesced with
+	 * concurrent requests for the same key into a batch request.
+	 *
+	 * @param keyName must not be empty or {@literal null}.
+	 * @param ciphertext must not be {@literal null}.
+	 * @return a {@link CompletableFuture} completed with the plain text.
+	 */
+	public CompletableFuture<Plaintext> decryptAsync(String keyName,
+			Ciphertext ciphertext) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(ciphertext, "Ciphertext must not be null");
+
+		return decryptions
+				.computeIfAbsent(keyName,
+						key -> new Coalescer<>(key, delegate::decrypt))
+				.submit(ciphertext);
+	}
+
+	@Override
+	public void createKey(String keyName) {
+		delegate.createKey(keyName);
+	}
+
+	@Override
+	public void createKey(String keyName,
+			VaultTransitKeyCreationRequest createKeyRequest) {
+		delegate.createKey(keyName, createKeyRequest);
+	}
+
+	@Override
+	public List<String> getKeys() {
+		return delegate.getKeys();
+	}
+
+	@Override
+	public void configureKey(String keyName,
+			VaultTransitKeyConfiguration keyConfiguration) {
+		delegate.configureKey(keyName, keyConfiguration);
+	}
+
+	@Override
+	@Nullable
+	public RawTransitKey exportKey(String keyName, TransitKeyType type) {
+		return delegate.exportKey(keyName, type);
+	}
+
+	@Override
+	@Nullable
+	public VaultTransitKey getKey(String keyName) {
+		return delegate.getKey(keyName);
+	}
+
+	@Override
+	public void deleteKey(String keyName) {
+		delegate.deleteKey(keyName);
+	}
+
+	@Override
+	public void rotate(String keyName) {
+		delegate.rotate(keyName);
+	}
+
+	@Override
+	public String encrypt(String keyName, String plaintext) {
+
+		Assert.notNull(plaintext, "Plaintext must not be null");
+
+		return encrypt(keyName, Plaintext.of(plaintext)).getCiphertext();
+	}
+
+	@Override
+	public Ciphertext encrypt(String keyName, Plaintext plaintext) {
+		return await(encryptAsync(keyName, plaintext));
+	}
+
+	@Override
+	public String encrypt(String keyName, byte[] plaintext,
+			VaultTransitContext transitContext) {
+
+		Assert.notNull(plaintext, "Plaintext must not be null");
+		Assert.notNull(transitContext, "VaultTransitContext must not be null");
+
+		return encrypt(keyName, Plaintext.of(plaintext).with(transitContext))
+				.getCiphertext();
+	}
+
+	@Override
+	public List<VaultEncryptionResult> encrypt(String keyName,
+			List<Plaintext> batchRequest) {
+		return delegate.encrypt(keyName, batchRequest);
+	}
+
+	@Override
+	public String decrypt(String keyName, String ciphertext) {
+
+		Assert.hasText(ciphertext, "Cipher text must not be empty");
+
+		return decrypt(keyName, Ciphertext.of(ciphertext)).asString();
+	}
+
+	@Override
+	public Plaintext decrypt(String keyName, Ciphertext ciphertext) {
+		return await(decryptAsync(keyName, ciphertext));
+	}
+
+	@Override
+	public byte[] decrypt(String keyName, String ciphertext,
+			VaultTransitContext transitContext) {
+
+		Assert.hasText(ciphertext, "Cipher text must not be empty");
+		Assert.notNull(transitContext, "VaultTransitContext must not be null");
+
+		return decrypt(keyName, Ciphertext.of(ciphertext).with(transitContext))
+				.getPlaintext();
+	}
+
+	@Override
+	public List<VaultDecryptionResult> decrypt(String keyName,
+			List<Ciphertext> batchRequest) {
+		return delegate.decrypt(keyName, batchRequest);
+	}
+
+	@Override
+	public String rewrap(String keyName, String ciphertext) {
+		return delegate.rewrap(keyName, ciphertext);
+	}
+
+	@Override
+	public String rewrap(String keyName, String ciphertext,
+			VaultTransitContext transitContext) {
+		return delegate.rewrap(keyName, ciphertext, transitContext);
+	}
+
+	@Override
+	public List<VaultEncryptionResult> rewrap(String keyName,
+			List<Ciphertext> batchRequest) {
+		return delegate.rewrap(keyName, batchRequest);
+	}
+
+	@Override
+	public Hmac getHmac(String keyName, Plaintext plaintext) {
+		return delegate.getHmac(keyName, plaintext);
+	}
+
+	@Override
+	public Hmac getHmac(String keyName, VaultHmacRequest request) {
+		return delegate.getHmac(keyName, request);
+	}
+
+	@Override
+	public Signature sign(String keyName, Plaintext plaintext) {
+		return delegate.sign(keyName, plaintext);
+	}
+
+	@Override
+	public Signature sign(String keyName, VaultSignRequest request) {
+		return delegate.sign(keyName, request);
+	}
+
+	@Override
+	public boolean verify(String keyName, Plaintext plaintext, Signature signature) {
+		return delegate.verify(keyName, plaintext, signature);
+	}
+
+	@Override
+	public SignatureValidation verify(String keyName,
+			VaultSignatureVerificationRequest request) {
+		return delegate.verify(keyName, request);
+	}
+
+	private <T> T await(CompletableFuture<T> future) {
+
+		try {
+			return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+			throw new VaultException("Interrupted while awaiting batch result", e);
+		}
+		catch (TimeoutException e) {
+			throw new VaultException(
+					String.format("Timed out after %s awaiting batch result", timeout), e);
+		}
+		catch (ExecutionException e) {
+
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+
+			throw new VaultException(e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer sb = new StringBuffer();
+		sb.append(getClass().getSimpleName());
+		sb.append(" [delegate=").append(delegate);
+		sb.append(", maxBatchSize=").append(maxBatchSize);
+		sb.append(", maxDelay=").append(maxDelay);
+		sb.append(']');
+		return sb.toString();
+	}
+
+	/**
+	 * Collects pending requests for a single key and dispatches them as batch once the
+	 * batch is full or the maximum delay has elapsed.
+	 *
+	 * @param <T> request type.
+	 * @param <R> result type.
+	 */
+	class Coalescer<T, R> {
+
+		private final String keyName;
+
+		private final BiFunction<String, List<T>, List<? extends AbstractResult<R>>> batchFunction;
+
+		private List<T> requests = new ArrayList<>();
+
+		private List<CompletableFuture<R>> futures = new ArrayList<>();
+
+		@Nullable
+		private ScheduledFuture<?> scheduledFlush;
+
+		Coalescer(String keyName,
+				BiFunction<String, List<T>, List<? extends AbstractResult<R>>> batchFunction) {
+
+			this.keyName = keyName;
+			this.batchFunction = batchFunction;
+		}
+
+		CompletableFuture<R> submit(T request) {
+
+			Assert.state(initialized, "CoalescingVaultTransitOperations is not initialized");
+
+			CompletableFuture<R> future = new CompletableFuture<>();
+			Batch<T, R> batch = null;
+			RuntimeException scheduleFailure = null;
+
+			synchronized (this) {
+
+				// checked while holding the lock so that destroy() flushes this request
+				Assert.state(!destroyed, "CoalescingVaultTransitOperations is destroyed");
+
+				requests.add(request);
+				futures.add(future);
+
+				if (requests.size() >= maxBatchSize) {
+					batch = drain();
+				}
+				else if (requests.size() == 1) {
+
+					try {
+
+						TaskScheduler scheduler = taskScheduler;
+						Assert.state(scheduler != null, "TaskScheduler must not be null");
+
+						scheduledFlush = scheduler.schedule(this::flush,
+								Instant.now().plus(maxDelay));
+					}
+					catch (RuntimeException e) {
+
+						scheduleFailure = e;
+						batch = drain();
+					}
+				}
+			}
+
+			if (scheduleFailure != null) {
+				batch.fail(new VaultException("Cannot schedule batch flush",
+						scheduleFailure));
+			}
+			else if (batch != null) {
+				batch.execute(keyName, batchFunction);
+			}
+
+			return future;
+		}
+
+		void flush() {
+
+			Batch<T, R> batch;
+
+			synchronized (this) {
+				batch = drain();
+			}
+
+			batch.execute(keyName, batchFunction);
+		}
+
+		private Batch<T, R> drain() {
+
+			if (scheduledFlush != null) {
+				scheduledFlush.cancel(false);
+				scheduledFlush = null;
+			}
+
+			Batch<T, R> batch = new Batch<>(requests, futures);
+
+			requests = new ArrayList<>();
+			futures = new ArrayList<>();
+
+			return batch;
+		}
+	}
+
+	/**
+	 * A drained batch of requests along with the futures to complete.
+	 *
+	 * @param <T> request type.
+	 * @param <R> result type.
+	 */
+	static class Batch<T, R> {
+
+		private final List<T> requests;
+
+		private final List<CompletableFuture<R>> futures;
+
+		Batch(List<T> requests, List<CompletableFuture<R>> futures) {
+			this.requests = Collections.unmodifiableList(requests);
+			this.futures = futures;
+		}
+
+		void execute(String keyName,
+				BiFunction<String, List<T>, List<? extends AbstractResult<R>>> batchFunction) {
+
+			if (requests.isEmpty()) {
+				return;
+			}
+
+			List<? extends AbstractResult<R>> results;
+
+			try {
+				results = batchFunction.apply(keyName, requests);
+			}
+			catch (RuntimeException e) {
+
+				fail(e);
+				return;
+			}
+
+			for (int i = 0; i < futures.size(); i++) {
+
+				CompletableFuture<R> future = futures.get(i);
+
+				if (results.size() <= i) {
+					future.completeExceptionally(
+							new VaultException("No result for batch item #" + i));
+					continue;
+				}
+
+				AbstractResult<R> result = results.get(i);
+
+				if (result.isSuccessful()) {
+					future.complete(result.get());
+				}
+				else {
+					future.completeExceptionally(result.getCause());
+				}
+			}
+		}
+
+		void fail(RuntimeException e) {
+
+			for (CompletableFuture<R> future : futures) {
+				future.completeExceptionally(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,506 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.vault.support.VaultResponse;
+import org.springframework.vault.support.VaultResponseSupport;
+import org.springframework.vault.support.Versioned;
+
+/**
+ * Bounded, least-recently-used cache of Key-Value secrets used by
+ * {@link CachingVaultKeyValueOperations} and
+ * {@link CachingVaultVersionedKeyValueOperations}. Entries are grouped by secret path so
+ * that writes invalidate all cached representations of a path at once. The
+ * {@link #setMaximumSize(int) maximum size} applies to the number of paths.
+ * <p>
+ * Concurrent cache misses for the same entry share a single load. Loads that overlap
+ * with an invalidation of their path do not populate the cache to avoid retaining stale
+ * secrets. Invalidations are tracked per path so that writing one path does not discard
+ * loads of other paths.
+ * <p>
+ * Callers receive {@link #copy(Object) copies} of cached values so that modifying a
+ * returned response does not affect the cache or other callers.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+class KeyValueCache {
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	// guarded by lock
+	private final LinkedHashMap<String, Map<Variant, CacheEntry>> entries = new LinkedHashMap<String, Map<Variant, CacheEntry>>(
+			16, 0.75f, true) {
+
+		@Override
+		protected boolean removeEldestEntry(
+				Map.Entry<String, Map<Variant, CacheEntry>> eldest) {
+			return size() > maximumSize;
+		}
+	};
+
+	private final Map<CacheKey, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	// path -> sequence number of its most recent invalidation
+	private final Map<String, Long> invalidations = new ConcurrentHashMap<>();
+
+	// sequence number of the most recent invalidation of all paths
+	private final AtomicLong allInvalidated = new AtomicLong();
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private volatile int maximumSize = 1000;
+
+	private volatile Duration timeToLive = Duration.ofMinutes(1);
+
+	private volatile Map<String, Duration> pathTimeToLive = Collections.emptyMap();
+
+	private volatile Clock clock = Clock.systemUTC();
+
+	void setMaximumSize(int maximumSize) {
+
+		Assert.isTrue(maximumSize > 0, "Maximum size must be greater 0");
+
+		this.maximumSize = maximumSize;
+	}
+
+	void setTimeToLive(Duration timeToLive) {
+
+		Assert.notNull(timeToLive, "Time to live must not be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(),
+				"Time to live must be positive");
+
+		this.timeToLive = timeToLive;
+	}
+
+	synchronized void setTimeToLive(String pathPrefix, Duration timeToLive) {
+
+		Assert.notNull(pathPrefix, "Path prefix must not be null");
+		Assert.notNull(timeToLive, "Time to live must not be null");
+		Assert.isTrue(!timeToLive.isNegative(), "Time to live must not be negative");
+
+		Map<String, Duration> pathTimeToLive = new HashMap<>(this.pathTimeToLive);
+		pathTimeToLive.put(pathPrefix, timeToLive);
+
+		this.pathTimeToLive = pathTimeToLive;
+	}
+
+	void setClock(Clock clock) {
+
+		Assert.notNull(clock, "Clock must not be null");
+
+		this.clock = clock;
+	}
+
+	int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Determine the time to live for {@code path} using the longest matching path
+	 * prefix, falling back to the default time to live.
+	 */
+	Duration getTimeToLive(String path) {
+
+		Duration result = this.timeToLive;
+		int matchLength = -1;
+
+		for (Map.Entry<String, Duration> entry : this.pathTimeToLive.entrySet()) {
+
+			String prefix = entry.getKey();
+			if (prefix.length() > matchLength && path.startsWith(prefix)) {
+				result = entry.getValue();
+				matchLength = prefix.length();
+			}
+		}
+
+		return result;
+	}
+
+	long getHitCount() {
+		return hits.get();
+	}
+
+	long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * @return the number of cached paths.
+	 */
+	int size() {
+
+		lock.lock();
+		try {
+			return entries.size();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the cached value for {@code path} or load it using {@code loader}.
+	 *
+	 * @param path the secret path.
+	 * @param version the requested version, {@literal null} for unversioned reads.
+	 * @param type the requested type.
+	 * @param loader the loader to obtain the value on a cache miss.
+	 * @param immutable predicate whether a loaded value never changes and can be retained
+	 *     until evicted or invalidated.
+	 * @return a copy of the cached or loaded value.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	<T> T get(String path, @Nullable Object version, Class<?> type,
+			Supplier<T> loader, Predicate<T> immutable) {
+
+		CacheKey key = new CacheKey(path, new Variant(version, type));
+		CacheEntry entry = lookup(key);
+
+		if (entry != null) {
+			hits.incrementAndGet();
+			return (T) copy(entry.getValue());
+		}
+
+		misses.incrementAndGet();
+
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		CompletableFuture<Object> inFlight = loads.putIfAbsent(key, future);
+
+		if (inFlight != null) {
+			return (T) copy(await(inFlight));
+		}
+
+		try {
+
+			long started = this.sequence.get();
+
+			// a concurrent load may have completed between the lookup and registration
+			entry = lookup(key);
+			if (entry != null) {
+				future.complete(entry.getValue());
+				return (T) copy(entry.getValue());
+			}
+
+			T value = loader.get();
+
+			Duration ttl = value != null && immutable.test(value) ? null
+					: getTimeToLive(path);
+			store(key, value, ttl, started);
+			future.complete(value);
+
+			return (T) copy(value);
+		}
+		catch (RuntimeException e) {
+			future.completeExceptionally(e);
+			throw e;
+		}
+		finally {
+			loads.remove(key, future);
+		}
+	}
+
+	/**
+	 * Remove all cached entries for {@code path} and detach in-flight loads so that
+	 * subsequent reads observe writes.
+	 */
+	void invalidate(String path) {
+
+		long sequence = this.sequence.incrementAndGet();
+		invalidations.merge(path, sequence, Math::max);
+
+		// bound tracked invalidations by treating excess ones as an invalidation of all
+		// paths, this discards at most the loads that are in flight at this time
+		if (invalidations.size() > maximumSize) {
+			allInvalidated.accumulateAndGet(sequence, Math::max);
+			invalidations.clear();
+		}
+
+		lock.lock();
+		try {
+			entries.remove(path);
+		}
+		finally {
+			lock.unlock();
+		}
+
+		loads.keySet().removeIf(it -> it.path.equals(path));
+	}
+
+	void invalidateAll() {
+
+		allInvalidated.accumulateAndGet(sequence.incrementAndGet(), Math::max);
+		invalidations.clear();
+
+		lock.lock();
+		try {
+			entries.clear();
+		}
+		finally {
+			lock.unlock();
+		}
+
+		loads.clear();
+	}
+
+	@Nullable
+	private CacheEntry lookup(CacheKey key) {
+
+		lock.lock();
+		try {
+
+			Map<Variant, CacheEntry> variants = entries.get(key.path);
+			if (variants == null) {
+				return null;
+			}
+
+			CacheEntry entry = variants.get(key.variant);
+			if (entry == null) {
+				return null;
+			}
+
+			if (entry.isExpired(clock)) {
+
+				variants.remove(key.variant);
+				if (variants.isEmpty()) {
+					entries.remove(key.path);
+				}
+
+				return null;
+			}
+
+			return entry;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Store a loaded value unless its path was invalidated after the load
+	 * {@code started}.
+	 */
+	private void store(CacheKey key, @Nullable Object value, @Nullable Duration ttl,
+			long started) {
+
+		if (ttl != null && ttl.isZero()) {
+			return;
+		}
+
+		Instant expiresAt = ttl != null ? clock.instant().plus(ttl) : null;
+
+		lock.lock();
+		try {
+
+			if (allInvalidated.get() > started
+					|| invalidations.getOrDefault(key.path, 0L) > started) {
+				return;
+			}
+
+			entries.computeIfAbsent(key.path, it -> new HashMap<>()).put(key.variant,
+					new CacheEntry(value, expiresAt));
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Create a copy of a cached value. {@link VaultResponseSupport} and {@link Versioned}
+	 * wrappers are copied along with nested {@link Map maps} and {@link List lists}.
+	 * Other objects, such as secrets mapped to a custom response type, are shared between
+	 * callers.
+	 *
+	 * @param value the cached value.
+	 * @return the copy.
+	 */
+	@Nullable
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	static Object copy(@Nullable Object value) {
+
+		if (value instanceof Map) {
+
+			Map<Object, Object> copy = new LinkedHashMap<>();
+			((Map<?, ?>) value).forEach((k, v) -> copy.put(k, copy(v)));
+			return copy;
+		}
+
+		if (value instanceof List) {
+
+			List<Object> copy = new ArrayList<>();
+			((List<?>) value).forEach(it -> copy.add(copy(it)));
+			return copy;
+		}
+
+		if (value instanceof Versioned) {
+
+			Versioned<?> versioned = (Versioned<?>) value;
+			Object data = copy(versioned.getData());
+
+			return versioned.getMetadata() != null
+					? Versioned.create(data, versioned.getMetadata())
+					: Versioned.create(data, versioned.getVersion());
+		}
+
+		if (value instanceof VaultResponseSupport) {
+
+			VaultResponseSupport<Object> source = (VaultResponseSupport) value;
+			VaultResponseSupport<Object> copy = value instanceof VaultResponse
+					? (VaultResponseSupport) new VaultResponse()
+					: new VaultResponseSupport<>();
+
+			copy.setAuth((Map<String, Object>) copy(source.getAuth()));
+			copy.setData(copy(source.getData()));
+			copy.setMetadata((Map<String, Object>) copy(source.getMetadata()));
+			copy.setWrapInfo((Map<String, String>) copy(source.getWrapInfo()));
+			copy.setLeaseDuration(source.getLeaseDuration());
+			copy.setLeaseId(source.getLeaseId());
+			copy.setRequestId(source.getRequestId());
+			copy.setRenewable(source.isRenewable());
+			copy.setWarnings((List<String>) copy(source.getWarnings()));
+
+			return copy;
+		}
+
+		return value;
+	}
+
+	@Nullable
+	private static Object await(CompletableFuture<Object> future) {
+
+		try {
+			return future.join();
+		}
+		catch (CompletionException e) {
+
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Cached value along with its expiry. Values may be {@literal null} to represent
+	 * absent secrets. Entries without expiry are retained until evicted or invalidated.
+	 */
+	static class CacheEntry {
+
+		@Nullable
+		private final Object value;
+
+		@Nullable
+		private final Instant expiresAt;
+
+		CacheEntry(@Nullable Object value, @Nullable Instant expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+
+		@Nullable
+		Object getValue() {
+			return value;
+		}
+
+		boolean isExpired(Clock clock) {
+			return expiresAt != null && !clock.instant().isBefore(expiresAt);
+		}
+	}
+
+	/**
+	 * Representation of a secret (version and type) within a path.
+	 */
+	static class Variant {
+
+		@Nullable
+		private final Object version;
+
+		private final Class<?> type;
+
+		Variant(@Nullable Object version, Class<?> type) {
+			this.version = version;
+			this.type = type;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o)
+				return true;
+			if (!(o instanceof Variant))
+				return false;
+			Variant variant = (Variant) o;
+			return Objects.equals(version, variant.version) && type.equals(variant.type);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(version, type);
+		}
+	}
+
+	static class CacheKey {
+
+		private final String path;
+
+		private final Variant variant;
+
+		CacheKey(String path, Variant variant) {
+			this.path = path;
+			this.variant = variant;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o)
+				return true;
+			if (!(o instanceof CacheKey))
+				return false;
+			CacheKey cacheKey = (CacheKey) o;
+			return path.equals(cacheKey.path) && variant.equals(cacheKey.variant);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(path, variant);
+		}
+	}
+}
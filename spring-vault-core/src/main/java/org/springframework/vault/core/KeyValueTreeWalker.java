@@ -0,0 +1,448 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.vault.VaultException;
+
+/**
+ * Recursive traversal of a Key/Value tree. Directories are listed and leaves are mapped
+ * by up to {@link KeyValueWalkOptions#getParallelism() parallelism} workers that share
+ * a depth-first work deque so that pending work is bounded by the width of the tree
+ * rather than its size. Results are handed to the consumer through a bounded buffer:
+ * workers pause when the consumer falls behind so the tree is never held in memory as
+ * a whole.
+ * <p>
+ * Traversal starts with the first access to the {@link Stream}. Results are emitted in
+ * no particular order. The first failure cancels the traversal and is rethrown to the
+ * consumer. Closing the {@link Stream} cancels outstanding work.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+class KeyValueTreeWalker<T> implements Iterator<T> {
+
+	private static final Object END = new Object();
+
+	private static final AtomicInteger poolId = new AtomicInteger();
+
+	private final Function<String, List<String>> lister;
+
+	private final Function<String, T> leafMapper;
+
+	private final KeyValueWalkOptions options;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition workAvailable = this.lock.newCondition();
+
+	// guarded by lock
+	private final Deque<Node> work = new ArrayDeque<>();
+
+	// guarded by lock
+	private int active;
+
+	private final AtomicInteger runningWorkers = new AtomicInteger();
+
+	private final BlockingQueue<Object> results;
+
+	@Nullable
+	private ExecutorService managedExecutor;
+
+	private volatile boolean cancelled;
+
+	@Nullable
+	private volatile RuntimeException error;
+
+	private boolean started;
+
+	@Nullable
+	private Object next;
+
+	private KeyValueTreeWalker(Function<String, List<String>> lister, String path,
+			KeyValueWalkOptions options, Function<String, T> leafMapper) {
+
+		this.lister = lister;
+		this.leafMapper = leafMapper;
+		this.options = options;
+		this.results = new LinkedBlockingQueue<>(options.getBufferSize());
+		this.work.add(new Node(path, 0, true));
+	}
+
+	/**
+	 * Traverse the tree below {@code path} and return a {@link Stream} of leaf paths.
+	 *
+	 * @param lister function to list a directory.
+	 * @param path the starting path.
+	 * @param options traversal options.
+	 * @return the {@link Stream} of leaf paths.
+	 */
+	static Stream<String> walk(Function<String, List<String>> lister, String path,
+			KeyValueWalkOptions options) {
+		return create(lister, path, options, Function.identity());
+	}
+
+	/**
+	 * Traverse the tree below {@code path} and return a {@link Stream} of leaf paths and
+	 * their values. Leaves for which {@code reader} returns {@literal null} (e.g. because
+	 * they were deleted during the traversal) are skipped.
+	 *
+	 * @param lister function to list a directory.
+	 * @param reader function to read a leaf.
+	 * @param path the starting path.
+	 * @param options traversal options.
+	 * @return the {@link Stream} of leaf paths and values.
+	 */
+	static <V> Stream<Map.Entry<String, V>> readTree(
+			Function<String, List<String>> lister, Function<String, V> reader,
+			String path, KeyValueWalkOptions options) {
+
+		Assert.notNull(reader, "Reader function must not be null");
+
+		return create(lister, path, options, leaf -> {
+
+			V value = reader.apply(leaf);
+			return value != null ? new SimpleImmutableEntry<>(leaf, value) : null;
+		});
+	}
+
+	private static <T> Stream<T> create(Function<String, List<String>> lister,
+			String path, KeyValueWalkOptions options, Function<String, T> leafMapper) {
+
+		Assert.notNull(path, "Path must not be null");
+		Assert.notNull(options, "KeyValueWalkOptions must not be null");
+
+		KeyValueTreeWalker<T> walker = new KeyValueTreeWalker<>(lister, path, options,
+				leafMapper);
+
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(walker, Spliterator.NONNULL),
+						false)
+				.onClose(walker::cancel);
+	}
+
+	@Override
+	public boolean hasNext() {
+
+		if (this.next == null) {
+
+			start();
+
+			try {
+				this.next = this.results.take();
+			}
+			catch (InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+				cancel();
+				throw new VaultException("Interrupted while traversing the Key/Value tree");
+			}
+		}
+
+		if (this.next == END) {
+
+			RuntimeException error = this.error;
+			if (error != null) {
+				throw error;
+			}
+
+			return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T next() {
+
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		T result = (T) this.next;
+		this.next = null;
+		return result;
+	}
+
+	/**
+	 * Cancel the traversal. Workers stop after completing their current request.
+	 */
+	void cancel() {
+
+		this.cancelled = true;
+
+		this.lock.lock();
+		try {
+			this.work.clear();
+			this.workAvailable.signalAll();
+		}
+		finally {
+			this.lock.unlock();
+		}
+
+		this.results.clear();
+
+		if (this.managedExecutor != null) {
+			this.managedExecutor.shutdown();
+		}
+	}
+
+	private void start() {
+
+		if (this.started) {
+			return;
+		}
+
+		this.started = true;
+
+		int parallelism = this.options.getParallelism();
+
+		if (this.options.getExecutor() == null) {
+
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+					String.format("%s-%d-", getClass().getSimpleName(),
+							poolId.incrementAndGet()));
+			threadFactory.setDaemon(true);
+
+			this.managedExecutor = Executors.newFixedThreadPool(parallelism,
+					threadFactory);
+		}
+
+		this.runningWorkers.set(parallelism);
+
+		for (int i = 0; i < parallelism; i++) {
+
+			try {
+				(this.managedExecutor != null ? this.managedExecutor
+						: this.options.getExecutor()).execute(this::work);
+			}
+			catch (RuntimeException e) {
+
+				fail(e);
+				workerFinished();
+			}
+		}
+	}
+
+	private void work() {
+
+		try {
+
+			Node node;
+			while ((node = poll()) != null) {
+
+				try {
+					process(node);
+				}
+				finally {
+					release();
+				}
+			}
+		}
+		catch (RuntimeException e) {
+			fail(e);
+		}
+		finally {
+			workerFinished();
+		}
+	}
+
+	/**
+	 * Retrieve the next {@link Node} to process. Waits while other workers are active
+	 * because they may discover more work.
+	 *
+	 * @return the next {@link Node} or {@literal null} if the traversal is complete.
+	 */
+	@Nullable
+	private Node poll() {
+
+		this.lock.lock();
+		try {
+
+			while (!this.cancelled && this.work.isEmpty() && this.active > 0) {
+				this.workAvailable.awaitUninterruptibly();
+			}
+
+			if (this.cancelled || this.work.isEmpty()) {
+				this.workAvailable.signalAll();
+				return null;
+			}
+
+			this.active++;
+			return this.work.pollLast();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void release() {
+
+		this.lock.lock();
+		try {
+
+			this.active--;
+
+			if (this.active == 0 && this.work.isEmpty()) {
+				this.workAvailable.signalAll();
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void process(Node node) {
+
+		if (!node.directory) {
+
+			T result = this.leafMapper.apply(node.path);
+
+			if (result != null) {
+				emit(result);
+			}
+
+			return;
+		}
+
+		List<String> keys = this.lister.apply(node.path);
+
+		if (keys == null || keys.isEmpty()) {
+			return;
+		}
+
+		String prefix = node.path.isEmpty() || node.path.equals("/") ? ""
+				: node.path.endsWith("/") ? node.path : node.path + "/";
+		int depth = node.depth + 1;
+
+		List<Node> children = new ArrayList<>(keys.size());
+
+		for (String key : keys) {
+
+			String childPath = prefix + key;
+			boolean directory = key.endsWith("/");
+
+			if (!this.options.getFilter().test(childPath)) {
+				continue;
+			}
+
+			if (directory && depth >= this.options.getMaxDepth()) {
+				continue;
+			}
+
+			children.add(new Node(childPath, depth, directory));
+		}
+
+		this.lock.lock();
+		try {
+
+			// reverse order so that workers pick up children in listing order
+			for (int i = children.size() - 1; i >= 0; i--) {
+				this.work.addLast(children.get(i));
+			}
+
+			this.workAvailable.signalAll();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void emit(Object result) {
+
+		try {
+			while (!this.cancelled) {
+				if (this.results.offer(result, 100, TimeUnit.MILLISECONDS)) {
+					return;
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			cancel();
+		}
+	}
+
+	private void fail(RuntimeException e) {
+
+		if (this.error == null) {
+			this.error = e;
+		}
+
+		cancel();
+	}
+
+	private void workerFinished() {
+
+		if (this.runningWorkers.decrementAndGet() != 0) {
+			return;
+		}
+
+		if (this.managedExecutor != null) {
+			this.managedExecutor.shutdown();
+		}
+
+		if (this.cancelled) {
+
+			// consumer is gone or the traversal failed: make room for the end signal
+			this.results.clear();
+			this.results.offer(END);
+		}
+		else {
+			emit(END);
+		}
+	}
+
+	private static class Node {
+
+		final String path;
+
+		final int depth;
+
+		final boolean directory;
+
+		Node(String path, int depth, boolean directory) {
+			this.path = path;
+			this.depth = depth;
+			this.directory = directory;
+		}
+	}
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Options to control a recursive traversal of a Key/Value path through
+ * {@link VaultKeyValueOperationsSupport#walk(String, KeyValueWalkOptions)} and
+ * {@code readTree(…)}.
+ * <p>
+ * The {@link #getFilter() filter} is applied to each discovered path relative to the
+ * mount. Directory paths end with a slash ({@code /}). Excluded directories are not
+ * descended into.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see #builder()
+ */
+public class KeyValueWalkOptions {
+
+	/**
+	 * Maximum depth value to traverse the tree without a depth limit.
+	 */
+	public static final int UNLIMITED_DEPTH = Integer.MAX_VALUE;
+
+	private static final KeyValueWalkOptions DEFAULT = builder().build();
+
+	private final int maxDepth;
+
+	private final Predicate<String> filter;
+
+	private final int parallelism;
+
+	private final int bufferSize;
+
+	@Nullable
+	private final Executor executor;
+
+	private KeyValueWalkOptions(int maxDepth, Predicate<String> filter, int parallelism,
+			int bufferSize, @Nullable Executor executor) {
+
+		this.maxDepth = maxDepth;
+		this.filter = filter;
+		this.parallelism = parallelism;
+		this.bufferSize = bufferSize;
+		this.executor = executor;
+	}
+
+	/**
+	 * @return the default {@link KeyValueWalkOptions} traversing the whole tree with a
+	 *     parallelism of {@literal 4}.
+	 */
+	public static KeyValueWalkOptions defaults() {
+		return DEFAULT;
+	}
+
+	/**
+	 * @return a new {@link KeyValueWalkOptionsBuilder}.
+	 */
+	public static KeyValueWalkOptionsBuilder builder() {
+		return new KeyValueWalkOptionsBuilder();
+	}
+
+	/**
+	 * @return the maximum number of directory levels to descend into.
+	 */
+	public int getMaxDepth() {
+		return this.maxDepth;
+	}
+
+	/**
+	 * @return the path filter.
+	 */
+	public Predicate<String> getFilter() {
+		return this.filter;
+	}
+
+	/**
+	 * @return the maximum number of concurrent Vault requests.
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * @return the maximum number of results buffered ahead of the consumer.
+	 */
+	public int getBufferSize() {
+		return this.bufferSize;
+	}
+
+	/**
+	 * @return the {@link Executor} to run Vault requests on. May be {@literal null} to
+	 *     use a dedicated thread pool per traversal.
+	 */
+	@Nullable
+	public Executor getExecutor() {
+		return this.executor;
+	}
+
+	/**
+	 * Builder to build {@link KeyValueWalkOptions}.
+	 */
+	public static class KeyValueWalkOptionsBuilder {
+
+		private int maxDepth = UNLIMITED_DEPTH;
+
+		private Predicate<String> filter = path -> true;
+
+		private int parallelism = 4;
+
+		private int bufferSize = 256;
+
+		@Nullable
+		private Executor executor;
+
+		KeyValueWalkOptionsBuilder() {
+		}
+
+		/**
+		 * Configure the maximum number of directory levels to descend into. A depth of
+		 * {@literal 1} lists only the entries of the starting path. Defaults to
+		 * {@link #UNLIMITED_DEPTH}.
+		 *
+		 * @param maxDepth must be greater {@literal 0}.
+		 * @return {@code this} {@link KeyValueWalkOptionsBuilder}.
+		 */
+		public KeyValueWalkOptionsBuilder maxDepth(int maxDepth) {
+
+			Assert.isTrue(maxDepth > 0, "Max depth must be greater 0");
+
+			this.maxDepth = maxDepth;
+			return this;
+		}
+
+		/**
+		 * Configure a path filter. The filter is tested with paths relative to the mount.
+		 * Directory paths end with a slash ({@code /}). Directories not matching the
+		 * filter are not descended into.
+		 *
+		 * @param filter must not be {@literal null}.
+		 * @return {@code this} {@link KeyValueWalkOptionsBuilder}.
+		 */
+		public KeyValueWalkOptionsBuilder filter(Predicate<String> filter) {
+
+			Assert.notNull(filter, "Filter must not be null");
+
+			this.filter = filter;
+			return this;
+		}
+
+		/**
+		 * Configure the maximum number of concurrent Vault requests. Defaults to
+		 * {@literal 4}.
+		 *
+		 * @param parallelism must be greater {@literal 0}.
+		 * @return {@code this} {@link KeyValueWalkOptionsBuilder}.
+		 */
+		public KeyValueWalkOptionsBuilder parallelism(int parallelism) {
+
+			Assert.isTrue(parallelism > 0, "Parallelism must be greater 0");
+
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		/**
+		 * Configure the maximum number of results buffered ahead of the consumer.
+		 * Traversal pauses once the buffer is full. Defaults to {@literal 256}.
+		 *
+		 * @param bufferSize must be greater {@literal 0}.
+		 * @return {@code this} {@link KeyValueWalkOptionsBuilder}.
+		 */
+		public KeyValueWalkOptionsBuilder bufferSize(int bufferSize) {
+
+			Assert.isTrue(bufferSize > 0, "Buffer size must be greater 0");
+
+			this.bufferSize = bufferSize;
+			return this;
+		}
+
+		/**
+		 * Configure the {@link Executor} to run Vault requests on. The executor must be
+		 * able to run {@link #parallelism(int) parallelism} tasks concurrently. Defaults
+		 * to a dedicated thread pool per traversal.
+		 *
+		 * @param executor must not be {@literal null}.
+		 * @return {@code this} {@link KeyValueWalkOptionsBuilder}.
+		 */
+		public KeyValueWalkOptionsBuilder executor(Executor executor) {
+
+			Assert.notNull(executor, "Executor must not be null");
+
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Build a new {@link KeyValueWalkOptions} instance.
+		 *
+		 * @return a new {@link KeyValueWalkOptions}.
+		 */
+		public KeyValueWalkOptions build() {
+			return new KeyValueWalkOptions(this.maxDepth, this.filter, this.parallelism,
+					this.bufferSize, this.executor);
+		}
+	}
+}
@@ -0,0 +1,763 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.Base64Utils;
+import org.springframework.util.StringUtils;
+import org.springframework.vault.support.Ciphertext;
+import org.springframework.vault.support.Hmac;
+import org.springframework.vault.support.Plaintext;
+import org.springframework.vault.support.RawTransitKey;
+import org.springframework.vault.support.Signature;
+import org.springframework.vault.support.SignatureValidation;
+import org.springframework.vault.support.TransitKeyType;
+import org.springframework.vault.support.VaultDecryptionResult;
+import org.springframework.vault.support.VaultEncryptionResult;
+import org.springframework.vault.support.VaultHmacRequest;
+import org.springframework.vault.support.VaultSignRequest;
+import org.springframework.vault.support.VaultSignatureVerificationRequest;
+import org.springframework.vault.support.VaultTransitContext;
+import org.springframework.vault.support.VaultTransitKey;
+import org.springframework.vault.support.VaultTransitKeyConfiguration;
+import org.springframework.vault.support.VaultTransitKeyCreationRequest;
+
+/**
+ * {@link VaultTransitOperations} decorator that verifies signatures in-process using the
+ * public keys of asymmetric transit keys. Public keys of {@code ed25519},
+ * {@code ecdsa-p256}, {@code ecdsa-p384}, {@code ecdsa-p521} and {@code rsa-*} keys are
+ * obtained once from the key metadata ({@code transit/keys/<key>}) and retained to verify
+ * subsequent signatures with the Java Cryptography Architecture without contacting
+ * Vault. Exporting the signing key is not required.
+ * <p>
+ * Optionally, HMACs can be verified locally as well if the key is
+ * {@link VaultTransitKey#isExportable() exportable}. HMAC keys are exported through
+ * {@link VaultTransitOperations#exportKey(String, TransitKeyType)} and held in memory.
+ * <p>
+ * Verification falls back to Vault if local verification is not possible, for example
+ * for signatures created with an unknown key version, derived keys, unsupported key
+ * types or algorithms that are not available in the current runtime. Signatures with an
+ * unknown key version discard the cached keys so that the next verification picks up
+ * rotated keys. Cached keys are discarded as well when keys are created, configured,
+ * rotated or deleted through this instance.
+ * <p>
+ * Cached keys are reloaded from Vault after the configured
+ * {@link #setTimeToLive(Duration) time to live} so that changes applied by other
+ * clients, such as raising the minimum decryption version or deleting the key, take
+ * effect. Keys that cannot be read from Vault are not cached.
+ * <p>
+ * RSA signatures are verified using RSASSA-PSS with the maximum salt length, which is
+ * the signature scheme used by Vault. All other operations are delegated to the
+ * underlying {@link VaultTransitOperations}. Instances are thread-safe.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+public class LocalVerificationVaultTransitOperations implements VaultTransitOperations {
+
+	private static final Log logger = LogFactory
+			.getLog(LocalVerificationVaultTransitOperations.class);
+
+	/**
+	 * ASN.1 prefix of a X.509 encoded Ed25519 public key.
+	 */
+	private static final byte[] ED25519_X509_PREFIX = { 0x30, 0x2a, 0x30, 0x05, 0x06,
+			0x03, 0x2b, 0x65, 0x70, 0x03, 0x21, 0x00 };
+
+	private static final String DEFAULT_ALGORITHM = "sha2-256";
+
+	private final VaultTransitOperations delegate;
+
+	private final Map<String, VerificationKeys> verificationKeys = new ConcurrentHashMap<>();
+
+	private boolean verifyHmacLocally;
+
+	private Duration timeToLive = Duration.ofMinutes(1);
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Create a new {@link LocalVerificationVaultTransitOperations} given a
+	 * {@link VaultTransitOperations delegate}.
+	 *
+	 * @param delegate must not be {@literal null}.
+	 */
+	public LocalVerificationVaultTransitOperations(VaultTransitOperations delegate) {
+
+		Assert.notNull(delegate, "VaultTransitOperations must not be null");
+
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Enable local HMAC verification for exportable keys. HMAC keys are exported from
+	 * Vault and retained in memory. Disabled by default.
+	 *
+	 * @param verifyHmacLocally {@literal true} to verify HMACs locally.
+	 */
+	public void setVerifyHmacLocally(boolean verifyHmacLocally) {
+		this.verifyHmacLocally = verifyHmacLocally;
+	}
+
+	/**
+	 * Set the time to live for cached verification keys. Defaults to one minute.
+	 *
+	 * @param timeToLive must not be {@literal null}, must be positive.
+	 */
+	public void setTimeToLive(Duration timeToLive) {
+
+		Assert.notNull(timeToLive, "Time to live must not be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(),
+				"Time to live must be positive");
+
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Set the {@link Clock} to determine cache expiry.
+	 *
+	 * @param clock must not be {@literal null}.
+	 */
+	public void setClock(Clock clock) {
+
+		Assert.notNull(clock, "Clock must not be null");
+
+		this.clock = clock;
+	}
+
+	public boolean isVerifyHmacLocally() {
+		return verifyHmacLocally;
+	}
+
+	public Duration getTimeToLive() {
+		return timeToLive;
+	}
+
+	/**
+	 * Discard cached verification keys for {@code keyName}.
+	 *
+	 * @param keyName must not be empty or {@literal null}.
+	 */
+	public void invalidate(String keyName) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+
+		verificationKeys.remove(keyName);
+	}
+
+	@Override
+	public boolean verify(String keyName, Plaintext plaintext, Signature signature) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(plaintext, "Plaintext must not be null");
+		Assert.notNull(signature, "Signature must not be null");
+
+		return verify(keyName, VaultSignatureVerificationRequest.create(plaintext,
+				signature)).isValid();
+	}
+
+	@Override
+	public SignatureValidation verify(String keyName,
+			VaultSignatureVerificationRequest request) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(request, "Signature verification request must not be null");
+
+		Boolean valid = verifyLocally(keyName, request);
+
+		if (valid != null) {
+			return valid ? SignatureValidation.valid() : SignatureValidation.invalid();
+		}
+
+		return delegate.verify(keyName, request);
+	}
+
+	/**
+	 * Verify the {@link VaultSignatureVerificationRequest} locally.
+	 *
+	 * @return the verification result or {@literal null} if the request cannot be
+	 * verified locally.
+	 */
+	@Nullable
+	private Boolean verifyLocally(String keyName,
+			VaultSignatureVerificationRequest request) {
+
+		String algorithm = StringUtils.hasText(request.getAlgorithm())
+				? request.getAlgorithm() : DEFAULT_ALGORITHM;
+		String hashName = getHashName(algorithm);
+
+		if (hashName == null) {
+			return null;
+		}
+
+		VerificationKeys keys = getVerificationKeys(keyName);
+
+		if (keys == null) {
+			return null;
+		}
+
+		byte[] input = request.getPlaintext().getPlaintext();
+
+		if (request.getSignature() != null) {
+			return verify(keyName, keys, request.getSignature().getSignature(),
+					(version, value) -> keys.verifySignature(version, input, value,
+							hashName));
+		}
+
+		if (request.getHmac() != null) {
+			return verify(keyName, keys, request.getHmac().getHmac(),
+					(version, value) -> keys.verifyHmac(version, input, value,
+							hashName));
+		}
+
+		return null;
+	}
+
+	@Nullable
+	private Boolean verify(String keyName, VerificationKeys keys, String versioned,
+			VersionedVerifier verifier) {
+
+		if (!keys.isSupported()) {
+			return null;
+		}
+
+		int separator = versioned.indexOf(':', 7);
+
+		if (!versioned.startsWith("vault:v") || separator == -1) {
+			return null;
+		}
+
+		int version;
+		byte[] value;
+
+		try {
+			version = Integer.parseInt(versioned.substring(7, separator));
+			value = Base64Utils.decodeFromString(versioned.substring(separator + 1));
+		}
+		catch (IllegalArgumentException e) {
+			return null;
+		}
+
+		if (version < keys.getMinDecryptionVersion()) {
+			return null;
+		}
+
+		if (!keys.hasVersion(version)) {
+
+			// key may have been rotated by a different client
+			verificationKeys.remove(keyName, keys);
+			return null;
+		}
+
+		try {
+			return verifier.verify(version, value);
+		}
+		catch (GeneralSecurityException e) {
+
+			if (logger.isDebugEnabled()) {
+				logger.debug(String.format(
+						"Cannot verify signature for key %s locally, falling back to Vault",
+						keyName), e);
+			}
+
+			return null;
+		}
+	}
+
+	/**
+	 * Obtain cached {@link VerificationKeys} or load these from Vault if absent or
+	 * expired.
+	 *
+	 * @return the verification keys or {@literal null} if the keys cannot be loaded.
+	 */
+	@Nullable
+	private VerificationKeys getVerificationKeys(String keyName) {
+
+		VerificationKeys keys = verificationKeys.get(keyName);
+
+		if (keys != null && !keys.isExpired(clock)) {
+			return keys;
+		}
+
+		try {
+			return verificationKeys.compute(keyName, (key, existing) -> {
+
+				if (existing != null && existing != keys && !existing.isExpired(clock)) {
+					return existing;
+				}
+
+				return loadVerificationKeys(key);
+			});
+		}
+		catch (RuntimeException e) {
+
+			logger.warn(String.format(
+					"Cannot read transit key %s, verifying signatures through Vault",
+					keyName), e);
+
+			return null;
+		}
+	}
+
+	private VerificationKeys loadVerificationKeys(String keyName) {
+
+		VaultTransitKey key = delegate.getKey(keyName);
+		Instant expiresAt = clock.instant().plus(timeToLive);
+
+		if (key == null || key.isDerived()) {
+			return VerificationKeys.unsupported(expiresAt);
+		}
+
+		Map<Integer, PublicKey> publicKeys = key.supportsSigning()
+				? getPublicKeys(key) : Collections.emptyMap();
+		Map<Integer, byte[]> hmacKeys = verifyHmacLocally && key.isExportable()
+				? getHmacKeys(keyName) : Collections.emptyMap();
+
+		return new VerificationKeys(key.getType(), publicKeys, hmacKeys,
+				key.getMinDecryptionVersion(), expiresAt);
+	}
+
+	private static Map<Integer, PublicKey> getPublicKeys(VaultTransitKey key) {
+
+		Map<Integer, PublicKey> publicKeys = new HashMap<>();
+
+		for (Map.Entry<String, Object> entry : key.getKeys().entrySet()) {
+
+			if (!(entry.getValue() instanceof Map)) {
+				continue;
+			}
+
+			Object publicKey = ((Map<?, ?>) entry.getValue()).get("public_key");
+
+			if (!(publicKey instanceof String)
+					|| !StringUtils.hasText((String) publicKey)) {
+				continue;
+			}
+
+			try {
+				publicKeys.put(Integer.parseInt(entry.getKey()),
+						toPublicKey(key.getType(), (String) publicKey));
+			}
+			catch (GeneralSecurityException | IllegalArgumentException e) {
+
+				if (logger.isDebugEnabled()) {
+					logger.debug(String.format(
+							"Cannot read public key version %s of transit key %s",
+							entry.getKey(), key.getName()), e);
+				}
+
+				return Collections.emptyMap();
+			}
+		}
+
+		return publicKeys;
+	}
+
+	private Map<Integer, byte[]> getHmacKeys(String keyName) {
+
+		RawTransitKey rawKey = delegate.exportKey(keyName, TransitKeyType.HMAC_KEY);
+
+		if (rawKey == null) {
+			return Collections.emptyMap();
+		}
+
+		Map<Integer, byte[]> hmacKeys = new HashMap<>();
+
+		for (Map.Entry<String, String> entry : rawKey.getKeys().entrySet()) {
+			hmacKeys.put(Integer.parseInt(entry.getKey()),
+					Base64Utils.decodeFromString(entry.getValue()));
+		}
+
+		return hmacKeys;
+	}
+
+	static PublicKey toPublicKey(String type, String publicKey)
+			throws GeneralSecurityException {
+
+		if (type.equals("ed25519")) {
+
+			byte[] raw = Base64Utils.decodeFromString(publicKey);
+			byte[] encoded = new byte[ED25519_X509_PREFIX.length + raw.length];
+
+			System.arraycopy(ED25519_X509_PREFIX, 0, encoded, 0,
+					ED25519_X509_PREFIX.length);
+			System.arraycopy(raw, 0, encoded, ED25519_X509_PREFIX.length, raw.length);
+
+			return KeyFactory.getInstance("Ed25519")
+					.generatePublic(new X509EncodedKeySpec(encoded));
+		}
+
+		X509EncodedKeySpec keySpec = new X509EncodedKeySpec(fromPem(publicKey));
+
+		if (type.startsWith("ecdsa-")) {
+			return KeyFactory.getInstance("EC").generatePublic(keySpec);
+		}
+
+		if (type.startsWith("rsa-")) {
+			return KeyFactory.getInstance("RSA").generatePublic(keySpec);
+		}
+
+		throw new GeneralSecurityException(
+				String.format("Unsupported key type %s", type));
+	}
+
+	private static byte[] fromPem(String pem) {
+
+		StringBuilder content = new StringBuilder();
+
+		for (String line : pem.split("\n")) {
+			if (!line.startsWith("-----")) {
+				content.append(line.trim());
+			}
+		}
+
+		return Base64Utils.decodeFromString(content.toString());
+	}
+
+	@Nullable
+	private static String getHashName(String algorithm) {
+
+		switch (algorithm) {
+		case "sha2-224":
+			return "SHA-224";
+		case "sha2-256":
+			return "SHA-256";
+		case "sha2-384":
+			return "SHA-384";
+		case "sha2-512":
+			return "SHA-512";
+		default:
+			return null;
+		}
+	}
+
+	@Override
+	public void createKey(String keyName) {
+
+		try {
+			delegate.createKey(keyName);
+		}
+		finally {
+			verificationKeys.remove(keyName);
+		}
+	}
+
+	@Override
+	public void createKey(String keyName,
+			VaultTransitKeyCreationRequest createKeyRequest) {
+
+		try {
+			delegate.createKey(keyName, createKeyRequest);
+		}
+		finally {
+			verificationKeys.remove(keyName);
+		}
+	}
+
+	@Override
+	public List<String> getKeys() {
+		return delegate.getKeys();
+	}
+
+	@Override
+	public void configureKey(String keyName,
+			VaultTransitKeyConfiguration keyConfiguration) {
+
+		try {
+			delegate.configureKey(keyName, keyConfiguration);
+		}
+		finally {
+			verificationKeys.remove(keyName);
+		}
+	}
+
+	@Override
+	@Nullable
+	public RawTransitKey exportKey(String keyName, TransitKeyType type) {
+		return delegate.exportKey(keyName, type);
+	}
+
+	@Override
+	@Nullable
+	public VaultTransitKey getKey(String keyName) {
+		return delegate.getKey(keyName);
+	}
+
+	@Override
+	public void deleteKey(String keyName) {
+
+		try {
+			delegate.deleteKey(keyName);
+		}
+		finally {
+			verificationKeys.remove(keyName);
+		}
+	}
+
+	@Override
+	public void rotate(String keyName) {
+
+		try {
+			delegate.rotate(keyName);
+		}
+		finally {
+			verificationKeys.remove(keyName);
+		}
+	}
+
+	@Override
+	public String encrypt(String keyName, String plaintext) {
+		return delegate.encrypt(keyName, plaintext);
+	}
+
+	@Override
+	public Ciphertext encrypt(String keyName, Plaintext plaintext) {
+		return delegate.encrypt(keyName, plaintext);
+	}
+
+	@Override
+	public String encrypt(String keyName, byte[] plaintext,
+			VaultTransitContext transitContext) {
+		return delegate.encrypt(keyName, plaintext, transitContext);
+	}
+
+	@Override
+	public List<VaultEncryptionResult> encrypt(String keyName,
+			List<Plaintext> batchRequest) {
+		return delegate.encrypt(keyName, batchRequest);
+	}
+
+	@Override
+	public String decrypt(String keyName, String ciphertext) {
+		return delegate.decrypt(keyName, ciphertext);
+	}
+
+	@Override
+	public Plaintext decrypt(String keyName, Ciphertext ciphertext) {
+		return delegate.decrypt(keyName, ciphertext);
+	}
+
+	@Override
+	public byte[] decrypt(String keyName, String ciphertext,
+			VaultTransitContext transitContext) {
+		return delegate.decrypt(keyName, ciphertext, transitContext);
+	}
+
+	@Override
+	public List<VaultDecryptionResult> decrypt(String keyName,
+			List<Ciphertext> batchRequest) {
+		return delegate.decrypt(keyName, batchRequest);
+	}
+
+	@Override
+	public String rewrap(String keyName, String ciphertext) {
+		return delegate.rewrap(keyName, ciphertext);
+	}
+
+	@Override
+	public String rewrap(String keyName, String ciphertext,
+			VaultTransitContext transitContext) {
+		return delegate.rewrap(keyName, ciphertext, transitContext);
+	}
+
+	@Override
+	public List<VaultEncryptionResult> rewrap(String keyName,
+			List<Ciphertext> batchRequest) {
+		return delegate.rewrap(keyName, batchRequest);
+	}
+
+	@Override
+	public Hmac getHmac(String keyName, Plaintext plaintext) {
+		return delegate.getHmac(keyName, plaintext);
+	}
+
+	@Override
+	public Hmac getHmac(String keyName, VaultHmacRequest request) {
+		return delegate.getHmac(keyName, request);
+	}
+
+	@Override
+	public Signature sign(String keyName, Plaintext plaintext) {
+		return delegate.sign(keyName, plaintext);
+	}
+
+	@Override
+	public Signature sign(String keyName, VaultSignRequest request) {
+		return delegate.sign(keyName, request);
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer sb = new StringBuffer();
+		sb.append(getClass().getSimpleName());
+		sb.append(" [delegate=").append(delegate);
+		sb.append(", verifyHmacLocally=").append(verifyHmacLocally);
+		sb.append(']');
+		return sb.toString();
+	}
+
+	/**
+	 * Verification callback for a decoded versioned value.
+	 */
+	interface VersionedVerifier {
+
+		boolean verify(int version, byte[] value) throws GeneralSecurityException;
+	}
+
+	/**
+	 * Public keys and HMAC keys of a transit key, by key version.
+	 */
+	static class VerificationKeys {
+
+		private final String type;
+
+		private final Map<Integer, PublicKey> publicKeys;
+
+		private final Map<Integer, byte[]> hmacKeys;
+
+		private final int minDecryptionVersion;
+
+		private final Instant expiresAt;
+
+		VerificationKeys(String type, Map<Integer, PublicKey> publicKeys,
+				Map<Integer, byte[]> hmacKeys, int minDecryptionVersion,
+				Instant expiresAt) {
+
+			this.type = type;
+			this.publicKeys = publicKeys;
+			this.hmacKeys = hmacKeys;
+			this.minDecryptionVersion = minDecryptionVersion;
+			this.expiresAt = expiresAt;
+		}
+
+		static VerificationKeys unsupported(Instant expiresAt) {
+			return new VerificationKeys("", Collections.emptyMap(),
+					Collections.emptyMap(), 0, expiresAt);
+		}
+
+		boolean isExpired(Clock clock) {
+			return !clock.instant().isBefore(expiresAt);
+		}
+
+		boolean isSupported() {
+			return !publicKeys.isEmpty() || !hmacKeys.isEmpty();
+		}
+
+		boolean hasVersion(int version) {
+			return publicKeys.containsKey(version) || hmacKeys.containsKey(version);
+		}
+
+		int getMinDecryptionVersion() {
+			return minDecryptionVersion;
+		}
+
+		boolean verifySignature(int version, byte[] input, byte[] signature,
+				String hashName) throws GeneralSecurityException {
+
+			PublicKey publicKey = publicKeys.get(version);
+
+			if (publicKey == null) {
+				throw new GeneralSecurityException(
+						String.format("No public key for version %d", version));
+			}
+
+			java.security.Signature verifier = createVerifier(publicKey, hashName);
+			verifier.update(input);
+
+			return verifier.verify(signature);
+		}
+
+		boolean verifyHmac(int version, byte[] input, byte[] hmac, String hashName)
+				throws GeneralSecurityException {
+
+			byte[] key = hmacKeys.get(version);
+
+			if (key == null) {
+				throw new GeneralSecurityException(
+						String.format("No HMAC key for version %d", version));
+			}
+
+			String algorithm = "Hmac" + hashName.replace("-", "");
+			Mac mac = Mac.getInstance(algorithm);
+			mac.init(new SecretKeySpec(key, algorithm));
+
+			return MessageDigest.isEqual(mac.doFinal(input), hmac);
+		}
+
+		private java.security.Signature createVerifier(PublicKey publicKey,
+				String hashName) throws GeneralSecurityException {
+
+			if (type.equals("ed25519")) {
+
+				java.security.Signature verifier = java.security.Signature
+						.getInstance("Ed25519");
+				verifier.initVerify(publicKey);
+				return verifier;
+			}
+
+			if (type.startsWith("ecdsa-")) {
+
+				java.security.Signature verifier = java.security.Signature
+						.getInstance(hashName.replace("-", "") + "withECDSA");
+				verifier.initVerify(publicKey);
+				return verifier;
+			}
+
+			if (type.startsWith("rsa-") && publicKey instanceof RSAPublicKey) {
+
+				// Vault signs using PSS with the maximum salt length
+				int modulusBits = ((RSAPublicKey) publicKey).getModulus().bitLength();
+				int encodedLength = (modulusBits - 1 + 7) / 8;
+				int hashLength = MessageDigest.getInstance(hashName).getDigestLength();
+
+				java.security.Signature verifier = java.security.Signature
+						.getInstance("RSASSA-PSS");
+				verifier.initVerify(publicKey);
+				verifier.setParameter(new PSSParameterSpec(hashName, "MGF1",
+						new MGF1ParameterSpec(hashName),
+						encodedLength - hashLength - 2, 1));
+				return verifier;
+			}
+
+			throw new GeneralSecurityException(
+					String.format("Unsupported key type %s", type));
+		}
+	}
+}
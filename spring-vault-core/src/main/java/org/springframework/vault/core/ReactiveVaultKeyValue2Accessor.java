@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.vault.core.VaultKeyValueOperationsSupport.KeyValueBackend;
+import org.springframework.vault.support.VaultResponseSupport;
+
+/**
+ * Support class to build reactive accessor methods for the Vault key-value backend
+ * version 2.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see KeyValueBackend#KV_2
+ */
+abstract class ReactiveVaultKeyValue2Accessor extends ReactiveVaultKeyValueAccessor {
+
+	private final String path;
+
+	/**
+	 * Create a new {@link ReactiveVaultKeyValue2Accessor} given
+	 * {@link ReactiveVaultOperations} and the mount {@code path}.
+	 *
+	 * @param reactiveVaultOperations must not be {@literal null}.
+	 * @param path must not be empty or {@literal null}.
+	 */
+	ReactiveVaultKeyValue2Accessor(ReactiveVaultOperations reactiveVaultOperations,
+			String path) {
+
+		super(reactiveVaultOperations, path);
+
+		this.path = path;
+	}
+
+	@Override
+	public Flux<String> list(String path) {
+
+		String pathToUse = path.equals("/") ? "" : path;
+
+		return getReactiveVaultOperations()
+				.list(createBackendPath("metadata", pathToUse));
+	}
+
+	@Override
+	public KeyValueBackend getApiVersion() {
+		return KeyValueBackend.KV_2;
+	}
+
+	@Override
+	ParameterizedTypeReference<? extends VaultResponseSupport<?>> getResponseType(
+			Class<?> type) {
+		return VaultKeyValue2Accessor.getVersionedTypeReference(type);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	<I> I getData(VaultResponseSupport<?> response, Class<I> type) {
+
+		VaultResponseSupport<?> data = (VaultResponseSupport<?>) response
+				.getRequiredData();
+
+		return (I) data.getData();
+	}
+
+	@Override
+	String createDataPath(String path) {
+		return createBackendPath("data", path);
+	}
+
+	String createBackendPath(String segment, String path) {
+		return String.format("%s/%s/%s", this.path, segment, path);
+	}
+}
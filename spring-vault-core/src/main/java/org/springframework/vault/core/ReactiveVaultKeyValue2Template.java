@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.util.Collections;
+import java.util.Map;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.util.Assert;
+import org.springframework.vault.core.VaultKeyValueOperationsSupport.KeyValueBackend;
+import org.springframework.vault.support.VaultResponse;
+import org.springframework.vault.support.VaultResponseSupport;
+
+/**
+ * Default implementation of {@link ReactiveVaultKeyValueOperations} for the
+ * versioned Key/Value backend (version 2) without using versioning features.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see KeyValueBackend#KV_2
+ */
+class ReactiveVaultKeyValue2Template extends ReactiveVaultKeyValue2Accessor
+		implements ReactiveVaultKeyValueOperations {
+
+	/**
+	 * Create a new {@link ReactiveVaultKeyValue2Template} given
+	 * {@link ReactiveVaultOperations} and the mount {@code path}.
+	 *
+	 * @param reactiveVaultOperations must not be {@literal null}.
+	 * @param path must not be empty or {@literal null}.
+	 */
+	ReactiveVaultKeyValue2Template(ReactiveVaultOperations reactiveVaultOperations,
+			String path) {
+		super(reactiveVaultOperations, path);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Mono<VaultResponse> get(String path) {
+
+		Assert.hasText(path, "Path must not be empty");
+
+		return doRead(path, Map.class,
+				(response, data) -> toVaultResponse(response, data));
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> Mono<VaultResponseSupport<T>> get(String path, Class<T> responseType) {
+
+		Assert.hasText(path, "Path must not be empty");
+		Assert.notNull(responseType, "Response type must not be null");
+
+		return doRead(path, responseType, (response, data) -> {
+
+			VaultResponseSupport result = response;
+			result.setData(data);
+			return result;
+		});
+	}
+
+	@Override
+	public Mono<Void> put(String path, Object body) {
+
+		Assert.hasText(path, "Path must not be empty");
+
+		return getReactiveVaultOperations()
+				.write(createDataPath(path), Collections.singletonMap("data", body))
+				.then();
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.util.Assert;
+import org.springframework.vault.support.VaultResponse;
+import org.springframework.vault.support.VaultResponseSupport;
+
+/**
+ * Base class for reactive Vault KV-accessing templates such as
+ * {@link ReactiveVaultVersionedKeyValueTemplate}. Secrets are decoded with
+ * {@link org.springframework.web.reactive.function.client.WebClient}'s non-blocking
+ * Jackson decoder directly into the requested type.
+ * <p/>
+ * Not intended to be used directly. See {@link ReactiveVaultVersionedKeyValueTemplate}
+ * and {@link ReactiveVaultOperations#opsForKeyValue(String, KeyValueBackend)}.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+abstract class ReactiveVaultKeyValueAccessor
+		implements ReactiveVaultKeyValueOperationsSupport {
+
+	private final ReactiveVaultOperations reactiveVaultOperations;
+
+	/**
+	 * Create a new {@link ReactiveVaultKeyValueAccessor} given
+	 * {@link ReactiveVaultOperations} and the mount {@code path}.
+	 *
+	 * @param reactiveVaultOperations must not be {@literal null}.
+	 * @param path must not be empty or {@literal null}.
+	 */
+	ReactiveVaultKeyValueAccessor(ReactiveVaultOperations reactiveVaultOperations,
+			String path) {
+
+		Assert.notNull(reactiveVaultOperations,
+				"ReactiveVaultOperations must not be null");
+		Assert.hasText(path, "Path must not be empty");
+
+		this.reactiveVaultOperations = reactiveVaultOperations;
+	}
+
+	@Override
+	public Mono<Void> delete(String path) {
+
+		Assert.hasText(path, "Path must not be empty");
+
+		return reactiveVaultOperations.delete(createDataPath(path));
+	}
+
+	/**
+	 * Read a secret at {@code path} and deserialize the {@literal data} element to the
+	 * given {@link Class type}.
+	 *
+	 * @param path must not be {@literal null}.
+	 * @param deserializeAs must not be {@literal null}.
+	 * @param mappingFunction Mapping function to convert from the intermediate to the
+	 *     target data type. Must not be {@literal null}.
+	 * @param <I> intermediate data type for {@literal data} deserialization.
+	 * @param <T> return type. Value is created by the {@code mappingFunction}.
+	 * @return mapped value.
+	 */
+	<I, T> Mono<T> doRead(String path, Class<I> deserializeAs,
+			BiFunction<VaultResponseSupport<?>, I, T> mappingFunction) {
+
+		return doRead(createDataPath(path), getResponseType(deserializeAs))
+				.map(response -> mappingFunction.apply(response,
+						getData(response, deserializeAs)));
+	}
+
+	/**
+	 * Read a secret at {@code path} and decode the response to the given
+	 * {@link ParameterizedTypeReference type}.
+	 *
+	 * @param path must not be {@literal null} or empty.
+	 * @param typeReference must not be {@literal null}
+	 * @return the decoded response. Empty if the path does not exist.
+	 */
+	<T> Mono<T> doRead(String path, ParameterizedTypeReference<T> typeReference) {
+
+		return reactiveVaultOperations.doWithSession(client -> client.get().uri(path)
+				.exchange()
+				.flatMap(ReactiveVaultTemplate.mapResponse(typeReference, path)));
+	}
+
+	/**
+	 * Create a {@link VaultResponse} from a response bound to
+	 * {@link #getResponseType(Class)} and its secret {@code data}.
+	 *
+	 * @param response must not be {@literal null}.
+	 * @param data the secret.
+	 * @return the {@link VaultResponse}.
+	 */
+	static VaultResponse toVaultResponse(VaultResponseSupport<?> response,
+			Map<String, Object> data) {
+
+		VaultResponse vaultResponse = new VaultResponse();
+		vaultResponse.setRenewable(response.isRenewable());
+		vaultResponse.setAuth(response.getAuth());
+		vaultResponse.setLeaseDuration(response.getLeaseDuration());
+		vaultResponse.setLeaseId(response.getLeaseId());
+		vaultResponse.setMetadata(response.getMetadata());
+		vaultResponse.setRequestId(response.getRequestId());
+		vaultResponse.setWarnings(response.getWarnings());
+		vaultResponse.setWrapInfo(response.getWrapInfo());
+		vaultResponse.setData(data);
+
+		return vaultResponse;
+	}
+
+	/**
+	 * @return the underlying {@link ReactiveVaultOperations}.
+	 */
+	ReactiveVaultOperations getReactiveVaultOperations() {
+		return reactiveVaultOperations;
+	}
+
+	/**
+	 * Return the {@link ParameterizedTypeReference type} to decode a response to so that
+	 * the actual secret is deserialized as {@code type}.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return the response type.
+	 */
+	abstract ParameterizedTypeReference<? extends VaultResponseSupport<?>> getResponseType(
+			Class<?> type);
+
+	/**
+	 * Return the actual secret from a response decoded to
+	 * {@link #getResponseType(Class)}.
+	 *
+	 * @param response must not be {@literal null}.
+	 * @param type must not be {@literal null}.
+	 * @return the secret.
+	 */
+	abstract <I> I getData(VaultResponseSupport<?> response, Class<I> type);
+
+	/**
+	 * @param path must not be {@literal null} or empty.
+	 * @return backend path representing the data path.
+	 */
+	abstract String createDataPath(String path);
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.vault.core.VaultKeyValueOperationsSupport.KeyValueBackend;
+
+/**
+ * Interface that specifies a basic set of reactive Vault operations using Vault's
+ * Key/Value secret backend. Paths used in this operations interface are relative and
+ * outgoing requests prepend paths with the according operation-specific prefix.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see VaultKeyValueOperationsSupport
+ */
+public interface ReactiveVaultKeyValueOperationsSupport {
+
+	/**
+	 * Enumerate keys from a Vault path.
+	 *
+	 * @param path must not be {@literal null}.
+	 * @return the keys. Empty if the path does not exist.
+	 */
+	Flux<String> list(String path);
+
+	/**
+	 * Read the secret at {@code path}.
+	 *
+	 * @param path must not be {@literal null}.
+	 * @return the data. Empty if the path does not exist.
+	 */
+	Mono<?> get(String path);
+
+	/**
+	 * Delete the secret at {@code path}.
+	 *
+	 * @param path must not be {@literal null}.
+	 * @return a {@link Mono} signalling completion.
+	 */
+	Mono<Void> delete(String path);
+
+	/**
+	 * @return the used API version.
+	 */
+	KeyValueBackend getApiVersion();
+}
@@ -23,6 +23,7 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.lang.Nullable;
 import org.springframework.vault.VaultException;
+import org.springframework.vault.core.VaultKeyValueOperationsSupport.KeyValueBackend;
 import org.springframework.vault.support.VaultResponse;
 import org.springframework.vault.support.VaultResponseSupport;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -49,6 +50,46 @@ import org.springframework.web.reactive.function.client.WebClientException;
  */
 public interface ReactiveVaultOperations {
 
+	/**
+	 * Return {@link ReactiveVaultKeyValueOperations}.
+	 *
+	 * @param path the mount path, must not be empty or {@literal null}.
+	 * @param apiVersion API version to use, must not be {@literal null}.
+	 * @return the reactive operations interface to interact with the Vault Key/Value
+	 * backend.
+	 * @since 2.2
+	 */
+	ReactiveVaultKeyValueOperations opsForKeyValue(String path,
+			KeyValueBackend apiVersion);
+
+	/**
+	 * Return {@link ReactiveVaultVersionedKeyValueOperations}.
+	 *
+	 * @param path the mount path
+	 * @return the reactive operations interface to interact with the versioned Vault
+	 * Key/Value (version 2) backend.
+	 * @since 2.2
+	 */
+	ReactiveVaultVersionedKeyValueOperations opsForVersionedKeyValue(String path);
+
+	/**
+	 * @return the reactive operations interface to interact with the Vault transit
+	 * backend.
+	 * @since 2.2
+	 */
+	ReactiveVaultTransitOperations opsForTransit();
+
+	/**
+	 * Return {@link ReactiveVaultTransitOperations} if the transit backend is mounted on
+	 * a different path than {@code transit}.
+	 *
+	 * @param path the mount path
+	 * @return the reactive operations interface to interact with the Vault transit
+	 * backend.
+	 * @since 2.2
+	 */
+	ReactiveVaultTransitOperations opsForTransit(String path);
+
 	/**
 	 * Read from a Vault path. Reading data using this method is suitable for API
 	 * calls/secret backends that do not require a request body.
@@ -37,6 +37,7 @@ import org.springframework.vault.client.VaultEndpointProvider;
 import org.springframework.vault.client.VaultHttpHeaders;
 import org.springframework.vault.client.VaultResponses;
 import org.springframework.vault.client.WebClientBuilder;
+import org.springframework.vault.core.VaultKeyValueOperationsSupport.KeyValueBackend;
 import org.springframework.vault.support.VaultResponse;
 import org.springframework.vault.support.VaultResponseSupport;
 import org.springframework.web.client.HttpStatusCodeException;
@@ -178,6 +179,36 @@ public class ReactiveVaultTemplate implements ReactiveVaultOperations {
 				}));
 	}
 
+	@Override
+	public ReactiveVaultTransitOperations opsForTransit() {
+		return opsForTransit("transit");
+	}
+
+	@Override
+	public ReactiveVaultTransitOperations opsForTransit(String path) {
+		return new ReactiveVaultTransitTemplate(this, path);
+	}
+
+	@Override
+	public ReactiveVaultKeyValueOperations opsForKeyValue(String path,
+			KeyValueBackend apiVersion) {
+
+		switch (apiVersion) {
+		case KV_1:
+			return new ReactiveVaultKeyValue1Template(this, path);
+		case KV_2:
+			return new ReactiveVaultKeyValue2Template(this, path);
+		}
+
+		throw new UnsupportedOperationException(
+				String.format("Key/Value backend version %s not supported", apiVersion));
+	}
+
+	@Override
+	public ReactiveVaultVersionedKeyValueOperations opsForVersionedKeyValue(String path) {
+		return new ReactiveVaultVersionedKeyValueTemplate(this, path);
+	}
+
 	@Override
 	public Mono<VaultResponse> read(String path) {
 
@@ -280,7 +311,7 @@ public class ReactiveVaultTemplate implements ReactiveVaultOperations {
 				: mapOtherwise(response, path);
 	}
 
-	private static <T> Function<ClientResponse, Mono<? extends T>> mapResponse(
+	static <T> Function<ClientResponse, Mono<? extends T>> mapResponse(
 			ParameterizedTypeReference<T> typeReference, String path) {
 
 		return response -> isSuccess(response)
@@ -0,0 +1,465 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.util.Assert;
+import org.springframework.util.Base64Utils;
+import org.springframework.vault.VaultException;
+import org.springframework.vault.core.VaultTransitTemplate.RawTransitKeyImpl;
+import org.springframework.vault.core.VaultTransitTemplate.VaultTransitKeyImpl;
+import org.springframework.vault.support.Ciphertext;
+import org.springframework.vault.support.Hmac;
+import org.springframework.vault.support.Plaintext;
+import org.springframework.vault.support.RawTransitKey;
+import org.springframework.vault.support.Signature;
+import org.springframework.vault.support.SignatureValidation;
+import org.springframework.vault.support.TransitKeyType;
+import org.springframework.vault.support.VaultDecryptionResult;
+import org.springframework.vault.support.VaultEncryptionResult;
+import org.springframework.vault.support.VaultHmacRequest;
+import org.springframework.vault.support.VaultResponse;
+import org.springframework.vault.support.VaultResponseSupport;
+import org.springframework.vault.support.VaultSignRequest;
+import org.springframework.vault.support.VaultSignatureVerificationRequest;
+import org.springframework.vault.support.VaultTransitContext;
+import org.springframework.vault.support.VaultTransitKey;
+import org.springframework.vault.support.VaultTransitKeyConfiguration;
+import org.springframework.vault.support.VaultTransitKeyCreationRequest;
+
+import static org.springframework.vault.core.VaultTransitTemplate.applyTransitOptions;
+import static org.springframework.vault.core.VaultTransitTemplate.createDecryptionBatch;
+import static org.springframework.vault.core.VaultTransitTemplate.createEncryptionBatch;
+import static org.springframework.vault.core.VaultTransitTemplate.createHmacRequest;
+import static org.springframework.vault.core.VaultTransitTemplate.createSignRequest;
+import static org.springframework.vault.core.VaultTransitTemplate.createVerificationRequest;
+import static org.springframework.vault.core.VaultTransitTemplate.mergeRewrapResults;
+import static org.springframework.vault.core.VaultTransitTemplate.requiresRewrap;
+import static org.springframework.vault.core.VaultTransitTemplate.toCiphertext;
+import static org.springframework.vault.core.VaultTransitTemplate.toDecryptionResults;
+import static org.springframework.vault.core.VaultTransitTemplate.toEncryptionResults;
+import static org.springframework.vault.core.VaultTransitTemplate.toRewrapResults;
+
+/**
+ * Default implementation of {@link ReactiveVaultTransitOperations}. Requests are
+ * executed through {@link ReactiveVaultOperations} and do not block the calling thread.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+public class ReactiveVaultTransitTemplate implements ReactiveVaultTransitOperations {
+
+	private final ReactiveVaultOperations reactiveVaultOperations;
+
+	private final String path;
+
+	/**
+	 * Create a new {@link ReactiveVaultTransitTemplate} given
+	 * {@link ReactiveVaultOperations} and the mount {@code path}.
+	 *
+	 * @param reactiveVaultOperations must not be {@literal null}.
+	 * @param path must not be empty or {@literal null}.
+	 */
+	public ReactiveVaultTransitTemplate(ReactiveVaultOperations reactiveVaultOperations,
+			String path) {
+
+		Assert.notNull(reactiveVaultOperations,
+				"ReactiveVaultOperations must not be null");
+		Assert.hasText(path, "Path must not be empty");
+
+		this.reactiveVaultOperations = reactiveVaultOperations;
+		this.path = path;
+	}
+
+	@Override
+	public Mono<Void> createKey(String keyName) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+
+		return reactiveVaultOperations
+				.write(String.format("%s/keys/%s", path, keyName), null).then();
+	}
+
+	@Override
+	public Mono<Void> createKey(String keyName,
+			VaultTransitKeyCreationRequest createKeyRequest) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(createKeyRequest,
+				"VaultTransitKeyCreationRequest must not be empty");
+
+		return reactiveVaultOperations.write(
+				String.format("%s/keys/%s", path, keyName), createKeyRequest).then();
+	}
+
+	@Override
+	public Flux<String> getKeys() {
+		return reactiveVaultOperations.list(String.format("%s/keys", path));
+	}
+
+	@Override
+	public Mono<Void> configureKey(String keyName,
+			VaultTransitKeyConfiguration keyConfiguration) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(keyConfiguration, "VaultKeyConfiguration must not be empty");
+
+		return reactiveVaultOperations.write(
+				String.format("%s/keys/%s/config", path, keyName), keyConfiguration)
+				.then();
+	}
+
+	@Override
+	public Mono<RawTransitKey> exportKey(String keyName, TransitKeyType type) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(type, "Key type must not be null");
+
+		return reactiveVaultOperations
+				.read(String.format("%s/export/%s/%s", path, type.getValue(), keyName),
+						RawTransitKeyImpl.class)
+				.map(VaultResponseSupport::getRequiredData);
+	}
+
+	@Override
+	public Mono<VaultTransitKey> getKey(String keyName) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+
+		return reactiveVaultOperations
+				.read(String.format("%s/keys/%s", path, keyName),
+						VaultTransitKeyImpl.class)
+				.map(VaultResponseSupport::getRequiredData);
+	}
+
+	@Override
+	public Mono<Void> deleteKey(String keyName) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+
+		return reactiveVaultOperations
+				.delete(String.format("%s/keys/%s", path, keyName));
+	}
+
+	@Override
+	public Mono<Void> rotate(String keyName) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+
+		return reactiveVaultOperations
+				.write(String.format("%s/keys/%s/rotate", path, keyName), null).then();
+	}
+
+	@Override
+	public Mono<String> encrypt(String keyName, String plaintext) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(plaintext, "Plaintext must not be null");
+
+		Map<String, String> request = new LinkedHashMap<>();
+
+		request.put("plaintext", Base64Utils.encodeToString(plaintext.getBytes()));
+
+		return reactiveVaultOperations
+				.write(String.format("%s/encrypt/%s", path, keyName), request)
+				.map(response -> (String) response.getRequiredData().get("ciphertext"));
+	}
+
+	@Override
+	public Mono<Ciphertext> encrypt(String keyName, Plaintext plaintext) {
+
+		Assert.notNull(plaintext, "Plaintext must not be null");
+
+		return encrypt(keyName, plaintext.getPlaintext(), plaintext.getContext())
+				.map(ciphertext -> toCiphertext(ciphertext, plaintext.getContext()));
+	}
+
+	@Override
+	public Mono<String> encrypt(String keyName, byte[] plaintext,
+			VaultTransitContext transitContext) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(plaintext, "Plaintext must not be null");
+		Assert.notNull(transitContext, "VaultTransitContext must not be null");
+
+		Map<String, String> request = new LinkedHashMap<>();
+
+		request.put("plaintext", Base64Utils.encodeToString(plaintext));
+
+		applyTransitOptions(transitContext, request);
+
+		return reactiveVaultOperations
+				.write(String.format("%s/encrypt/%s", path, keyName), request)
+				.map(response -> (String) response.getRequiredData().get("ciphertext"));
+	}
+
+	@Override
+	public Flux<VaultEncryptionResult> encrypt(String keyName,
+			List<Plaintext> batchRequest) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notEmpty(batchRequest,
+				"BatchRequest must not be null and must have at least one entry");
+
+		return reactiveVaultOperations
+				.write(String.format("%s/encrypt/%s", path, keyName),
+						createEncryptionBatch(batchRequest))
+				.flatMapIterable(
+						response -> toEncryptionResults(response, batchRequest));
+	}
+
+	@Override
+	public Mono<String> decrypt(String keyName, String ciphertext) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.hasText(ciphertext, "Cipher text must not be empty");
+
+		Map<String, String> request = new LinkedHashMap<>();
+
+		request.put("ciphertext", ciphertext);
+
+		return reactiveVaultOperations
+				.write(String.format("%s/decrypt/%s", path, keyName), request)
+				.map(response -> (String) response.getRequiredData().get("plaintext"))
+				.map(plaintext -> new String(Base64Utils.decodeFromString(plaintext)));
+	}
+
+	@Override
+	public Mono<Plaintext> decrypt(String keyName, Ciphertext ciphertext) {
+
+		Assert.notNull(ciphertext, "Ciphertext must not be null");
+
+		return decrypt(keyName, ciphertext.getCiphertext(), ciphertext.getContext())
+				.map(plaintext -> Plaintext.of(plaintext).with(ciphertext.getContext()));
+	}
+
+	@Override
+	public Mono<byte[]> decrypt(String keyName, String ciphertext,
+			VaultTransitContext transitContext) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.hasText(ciphertext, "Cipher text must not be empty");
+		Assert.notNull(transitContext, "VaultTransitContext must not be null");
+
+		Map<String, String> request = new LinkedHashMap<>();
+
+		request.put("ciphertext", ciphertext);
+
+		applyTransitOptions(transitContext, request);
+
+		return reactiveVaultOperations
+				.write(String.format("%s/decrypt/%s", path, keyName), request)
+				.map(response -> (String) response.getRequiredData().get("plaintext"))
+				.map(Base64Utils::decodeFromString);
+	}
+
+	@Override
+	public Flux<VaultDecryptionResult> decrypt(String keyName,
+			List<Ciphertext> batchRequest) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notEmpty(batchRequest,
+				"BatchRequest must not be null and must have at least one entry");
+
+		return reactiveVaultOperations
+				.write(String.format("%s/decrypt/%s", path, keyName),
+						createDecryptionBatch(batchRequest))
+				.flatMapIterable(
+						response -> toDecryptionResults(response, batchRequest));
+	}
+
+	@Override
+	public Mono<String> rewrap(String keyName, String ciphertext) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.hasText(ciphertext, "Ciphertext must not be empty");
+
+		Map<String, String> request = new LinkedHashMap<>();
+		request.put("ciphertext", ciphertext);
+
+		return reactiveVaultOperations
+				.write(String.format("%s/rewrap/%s", path, keyName), request)
+				.map(response -> (String) response.getRequiredData().get("ciphertext"));
+	}
+
+	@Override
+	public Mono<String> rewrap(String keyName, String ciphertext,
+			VaultTransitContext transitContext) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.hasText(ciphertext, "Ciphertext must not be empty");
+		Assert.notNull(transitContext, "VaultTransitContext must not be null");
+
+		Map<String, String> request = new LinkedHashMap<>();
+
+		request.put("ciphertext", ciphertext);
+
+		applyTransitOptions(transitContext, request);
+
+		return reactiveVaultOperations
+				.write(String.format("%s/rewrap/%s", path, keyName), request)
+				.map(response -> (String) response.getRequiredData().get("ciphertext"));
+	}
+
+	@Override
+	public Flux<VaultEncryptionResult> rewrap(String keyName,
+			List<Ciphertext> batchRequest) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notEmpty(batchRequest,
+				"BatchRequest must not be null and must have at least one entry");
+
+		return reactiveVaultOperations
+				.write(String.format("%s/rewrap/%s", path, keyName),
+						createDecryptionBatch(batchRequest))
+				.flatMapIterable(response -> toRewrapResults(response, batchRequest));
+	}
+
+	@Override
+	public Flux<VaultEncryptionResult> rewrap(String keyName,
+			Publisher<Ciphertext> ciphertexts, int batchSize, int concurrency) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(ciphertexts, "Ciphertexts must not be null");
+		Assert.isTrue(batchSize > 0, "Batch size must be greater 0");
+		Assert.isTrue(concurrency > 0, "Concurrency must be greater 0");
+
+		return getKey(keyName).map(VaultTransitKey::getLatestVersion)
+				.defaultIfEmpty(Integer.MAX_VALUE)
+				.flatMapMany(latestVersion -> Flux.from(ciphertexts).buffer(batchSize)
+						.flatMapSequential(
+								chunk -> rewrapChunk(keyName, chunk, latestVersion),
+								concurrency));
+	}
+
+	private Flux<VaultEncryptionResult> rewrapChunk(String keyName,
+			List<Ciphertext> chunk, int latestVersion) {
+
+		List<Ciphertext> outdated = new ArrayList<>(chunk.size());
+
+		for (Ciphertext ciphertext : chunk) {
+			if (requiresRewrap(ciphertext, latestVersion)) {
+				outdated.add(ciphertext);
+			}
+		}
+
+		if (outdated.isEmpty()) {
+			return Flux.fromIterable(mergeRewrapResults(chunk, latestVersion,
+					Collections.emptyList()));
+		}
+
+		return rewrap(keyName, outdated).collectList().onErrorResume(e -> {
+
+			VaultException exception = e instanceof VaultException ? (VaultException) e
+					: new VaultException(e.getMessage(), e);
+
+			return Flux.fromIterable(outdated)
+					.map(it -> new VaultEncryptionResult(exception)).collectList();
+		}).flatMapIterable(
+				results -> mergeRewrapResults(chunk, latestVersion, results));
+	}
+
+	@Override
+	public Mono<Hmac> getHmac(String keyName, Plaintext plaintext) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(plaintext, "Plaintext must not be null");
+
+		return getHmac(keyName, VaultHmacRequest.create(plaintext));
+	}
+
+	@Override
+	public Mono<Hmac> getHmac(String keyName, VaultHmacRequest hmacRequest) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(hmacRequest, "HMAC request must not be null");
+
+		return reactiveVaultOperations
+				.write(String.format("%s/hmac/%s", path, keyName),
+						createHmacRequest(hmacRequest))
+				.map(response -> (String) response.getRequiredData().get("hmac"))
+				.map(Hmac::of);
+	}
+
+	@Override
+	public Mono<Signature> sign(String keyName, Plaintext plaintext) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(plaintext, "Plaintext must not be null");
+
+		return sign(keyName, VaultSignRequest.create(plaintext));
+	}
+
+	@Override
+	public Mono<Signature> sign(String keyName, VaultSignRequest signRequest) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(signRequest, "Sign request must not be null");
+
+		return reactiveVaultOperations
+				.write(String.format("%s/sign/%s", path, keyName),
+						createSignRequest(signRequest))
+				.map(response -> (String) response.getRequiredData().get("signature"))
+				.map(Signature::of);
+	}
+
+	@Override
+	public Mono<Boolean> verify(String keyName, Plaintext plainText,
+			Signature signature) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(plainText, "Plaintext must not be null");
+		Assert.notNull(signature, "Signature must not be null");
+
+		return verify(keyName,
+				VaultSignatureVerificationRequest.create(plainText, signature))
+						.map(SignatureValidation::isValid);
+	}
+
+	@Override
+	public Mono<SignatureValidation> verify(String keyName,
+			VaultSignatureVerificationRequest verificationRequest) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notNull(verificationRequest,
+				"Signature verification request must not be null");
+
+		return reactiveVaultOperations
+				.write(String.format("%s/verify/%s", path, keyName),
+						createVerificationRequest(verificationRequest))
+				.map(VaultResponse::getRequiredData)
+				.map(VaultTransitTemplate::toSignatureValidation);
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer sb = new StringBuffer();
+		sb.append(getClass().getSimpleName());
+		sb.append(" [reactiveVaultOperations=").append(reactiveVaultOperations);
+		sb.append(", path='").append(path).append('\'');
+		sb.append(']');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.Assert;
+import org.springframework.vault.support.VaultResponseSupport;
+import org.springframework.vault.support.Versioned;
+import org.springframework.vault.support.Versioned.Metadata;
+import org.springframework.vault.support.Versioned.Version;
+import org.springframework.web.reactive.function.BodyExtractors;
+
+import static org.springframework.vault.core.VaultVersionedKeyValueTemplate.createWriteRequest;
+import static org.springframework.vault.core.VaultVersionedKeyValueTemplate.getMetadata;
+import static org.springframework.vault.core.VaultVersionedKeyValueTemplate.toVersionList;
+
+/**
+ * Default implementation of {@link ReactiveVaultVersionedKeyValueOperations}.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+public class ReactiveVaultVersionedKeyValueTemplate extends ReactiveVaultKeyValue2Accessor
+		implements ReactiveVaultVersionedKeyValueOperations {
+
+	/**
+	 * Create a new {@link ReactiveVaultVersionedKeyValueTemplate} given
+	 * {@link ReactiveVaultOperations} and the mount {@code path}.
+	 *
+	 * @param reactiveVaultOperations must not be {@literal null}.
+	 * @param path must not be empty or {@literal null}.
+	 */
+	public ReactiveVaultVersionedKeyValueTemplate(
+			ReactiveVaultOperations reactiveVaultOperations, String path) {
+		super(reactiveVaultOperations, path);
+	}
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public <T> Mono<Versioned<T>> get(String path, Version version) {
+
+		Assert.hasText(path, "Path must not be empty");
+		Assert.notNull(version, "Version must not be null");
+
+		return (Mono) doRead(path, version, Map.class);
+	}
+
+	@Override
+	public <T> Mono<Versioned<T>> get(String path, Version version,
+			Class<T> responseType) {
+
+		Assert.hasText(path, "Path must not be empty");
+		Assert.notNull(version, "Version must not be null");
+		Assert.notNull(responseType, "Response type must not be null");
+
+		return doRead(path, version, responseType);
+	}
+
+	private <T> Mono<Versioned<T>> doRead(String path, Version version, Class<T> type) {
+
+		String secretPath = version.isVersioned()
+				? String.format("%s?version=%d", createDataPath(path),
+						version.getVersion())
+				: createDataPath(path);
+
+		ParameterizedTypeReference<VaultResponseSupport<VaultResponseSupport<T>>> responseType = VaultKeyValue2Accessor
+				.getVersionedTypeReference(type);
+
+		Mono<VaultResponseSupport<VaultResponseSupport<T>>> response = getReactiveVaultOperations()
+				.doWithSession(client -> client.get().uri(secretPath).exchange()
+						.flatMap(it -> {
+
+							// deleted and destroyed versions report their metadata
+							if (it.statusCode() == HttpStatus.NOT_FOUND) {
+								return it.body(BodyExtractors.toMono(responseType))
+										.filter(body -> body.getData() != null);
+							}
+
+							return ReactiveVaultTemplate
+									.mapResponse(responseType, path).apply(it);
+						}));
+
+		return response.map(it -> {
+
+			VaultResponseSupport<T> data = it.getRequiredData();
+			Metadata metadata = getMetadata(data.getMetadata());
+
+			return Versioned.create(data.getData(), metadata);
+		});
+	}
+
+	@Override
+	public Mono<Metadata> put(String path, Object body) {
+
+		Assert.hasText(path, "Path must not be empty");
+
+		return getReactiveVaultOperations()
+				.write(createDataPath(path), createWriteRequest(body))
+				.switchIfEmpty(Mono.error(() -> new IllegalStateException(
+						"ReactiveVaultVersionedKeyValueOperations cannot be used with a Key-Value version 1 mount")))
+				.map(response -> getMetadata(response.getRequiredData()));
+	}
+
+	@Override
+	public Mono<Void> delete(String path, Version... versionsToDelete) {
+
+		Assert.hasText(path, "Path must not be empty");
+		Assert.noNullElements(versionsToDelete, "Versions must not be null");
+
+		if (versionsToDelete.length == 0) {
+			return delete(path);
+		}
+
+		return writeVersions("delete", path, versionsToDelete);
+	}
+
+	@Override
+	public Mono<Void> undelete(String path, Version... versionsToDelete) {
+
+		Assert.hasText(path, "Path must not be empty");
+		Assert.noNullElements(versionsToDelete, "Versions must not be null");
+
+		return writeVersions("undelete", path, versionsToDelete);
+	}
+
+	@Override
+	public Mono<Void> destroy(String path, Version... versionsToDelete) {
+
+		Assert.hasText(path, "Path must not be empty");
+		Assert.noNullElements(versionsToDelete, "Versions must not be null");
+
+		return writeVersions("destroy", path, versionsToDelete);
+	}
+
+	private Mono<Void> writeVersions(String segment, String path,
+			Version[] versionsToDelete) {
+
+		List<Integer> versions = toVersionList(versionsToDelete);
+
+		return getReactiveVaultOperations()
+				.write(createBackendPath(segment, path),
+						Collections.singletonMap("versions", versions))
+				.then();
+	}
+}
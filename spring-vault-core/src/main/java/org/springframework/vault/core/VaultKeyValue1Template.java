@@ -18,10 +18,10 @@ package org.springframework.vault.core;
 import java.util.List;
 import java.util.Map;
 
-import com.fasterxml.jackson.databind.JsonNode;
-
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.vault.client.VaultResponses;
 import org.springframework.vault.support.VaultResponse;
 import org.springframework.vault.support.VaultResponseSupport;
 
@@ -113,8 +113,16 @@ class VaultKeyValue1Template extends VaultKeyValueAccessor
 	}
 
 	@Override
-	JsonNode getJsonNode(VaultResponseSupport<JsonNode> response) {
-		return response.getRequiredData();
+	ParameterizedTypeReference<? extends VaultResponseSupport<?>> getResponseType(
+			Class<?> type) {
+		return VaultResponses.getTypeReference(type);
+	}
+
+	@Nullable
+	@Override
+	@SuppressWarnings("unchecked")
+	<I> I getData(VaultResponseSupport<?> response, Class<I> type) {
+		return (I) response.getRequiredData();
 	}
 
 	@Override
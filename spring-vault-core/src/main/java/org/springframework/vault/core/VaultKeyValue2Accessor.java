@@ -18,8 +18,8 @@ package org.springframework.vault.core;
 import java.util.Collections;
 import java.util.List;
 
-import com.fasterxml.jackson.databind.JsonNode;
-
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
 import org.springframework.http.HttpMethod;
 import org.springframework.lang.Nullable;
 import org.springframework.vault.support.VaultResponseSupport;
@@ -76,8 +76,40 @@ abstract class VaultKeyValue2Accessor extends VaultKeyValueAccessor {
 		return KeyValueBackend.KV_2;
 	}
 
-	JsonNode getJsonNode(VaultResponseSupport<JsonNode> response) {
-		return response.getRequiredData().at("/data");
+	@Override
+	ParameterizedTypeReference<? extends VaultResponseSupport<?>> getResponseType(
+			Class<?> type) {
+		return getVersionedTypeReference(type);
+	}
+
+	@Nullable
+	@Override
+	@SuppressWarnings("unchecked")
+	<I> I getData(VaultResponseSupport<?> response, Class<I> type) {
+
+		VaultResponseSupport<?> data = (VaultResponseSupport<?>) response
+				.getRequiredData();
+
+		return (I) data.getData();
+	}
+
+	/**
+	 * Create a {@link ParameterizedTypeReference} for versioned responses that nest
+	 * {@literal data} and {@literal metadata} within the {@literal data} element and
+	 * bind the secret as {@code type}.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return the {@link ParameterizedTypeReference} for
+	 *     {@code VaultResponseSupport<VaultResponseSupport<T>>}.
+	 */
+	static <T> ParameterizedTypeReference<VaultResponseSupport<VaultResponseSupport<T>>> getVersionedTypeReference(
+			Class<T> type) {
+
+		ResolvableType data = ResolvableType.forClassWithGenerics(
+				VaultResponseSupport.class, type);
+
+		return ParameterizedTypeReference.forType(ResolvableType
+				.forClassWithGenerics(VaultResponseSupport.class, data).getType());
 	}
 
 	String createDataPath(String path) {
@@ -20,7 +20,6 @@ import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.core.ParameterizedTypeReference;
@@ -89,7 +88,8 @@ abstract class VaultKeyValueAccessor implements VaultKeyValueOperationsSupport {
 
 	/**
 	 * Read a secret at {@code path} and deserialize the {@literal data} element to the
-	 * given {@link Class type}.
+	 * given {@link Class type}. The secret is bound in a single pass while reading the
+	 * response without an intermediate tree representation.
 	 *
 	 * @param path must not be {@literal null}.
 	 * @param deserializeAs must not be {@literal null}.
@@ -103,16 +103,11 @@ abstract class VaultKeyValueAccessor implements VaultKeyValueOperationsSupport {
 	<I, T> T doRead(String path, Class<I> deserializeAs,
 			BiFunction<VaultResponseSupport<?>, I, T> mappingFunction) {
 
-		ParameterizedTypeReference<VaultResponseSupport<JsonNode>> ref = VaultResponses
-				.getTypeReference(JsonNode.class);
-
-		VaultResponseSupport<JsonNode> response = doRead(createDataPath(path), ref);
+		VaultResponseSupport<?> response = doRead(createDataPath(path),
+				getResponseType(deserializeAs));
 
 		if (response != null) {
-
-			JsonNode jsonNode = getJsonNode(response);
-
-			return mappingFunction.apply(response, deserialize(jsonNode, deserializeAs));
+			return mappingFunction.apply(response, getData(response, deserializeAs));
 		}
 
 		return null;
@@ -135,16 +130,17 @@ abstract class VaultKeyValueAccessor implements VaultKeyValueOperationsSupport {
 	}
 
 	/**
-	 * Deserialize a {@link JsonNode} to the requested {@link Class type}.
+	 * Deserialize a JSON document to the requested {@link ParameterizedTypeReference
+	 * type}.
 	 *
-	 * @param jsonNode must not be {@literal null}.
+	 * @param json must not be {@literal null}.
 	 * @param type must not be {@literal null}.
 	 * @return the deserialized object.
 	 */
-	<T> T deserialize(JsonNode jsonNode, Class<T> type) {
+	<T> T deserialize(String json, ParameterizedTypeReference<T> type) {
 
 		try {
-			return mapper.reader().readValue(jsonNode.traverse(), type);
+			return mapper.readValue(json, mapper.constructType(type.getType()));
 		}
 		catch (IOException e) {
 			throw new VaultException("Cannot deserialize response", e);
@@ -203,12 +199,25 @@ abstract class VaultKeyValueAccessor implements VaultKeyValueOperationsSupport {
 	}
 
 	/**
-	 * Return the {@link JsonNode} that contains the actual response body.
+	 * Return the {@link ParameterizedTypeReference type} to bind a response to so that
+	 * the actual secret is deserialized as {@code type}.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return the response type.
+	 */
+	abstract ParameterizedTypeReference<? extends VaultResponseSupport<?>> getResponseType(
+			Class<?> type);
+
+	/**
+	 * Return the actual secret from a response bound to
+	 * {@link #getResponseType(Class)}.
 	 *
-	 * @param response
-	 * @return
+	 * @param response must not be {@literal null}.
+	 * @param type must not be {@literal null}.
+	 * @return the secret.
 	 */
-	abstract JsonNode getJsonNode(VaultResponseSupport<JsonNode> response);
+	@Nullable
+	abstract <I> I getData(VaultResponseSupport<?> response, Class<I> type);
 
 	/**
 	 * @param path must not be {@literal null} or empty.
@@ -15,6 +15,9 @@
  */
 package org.springframework.vault.core;
 
+import java.util.Map;
+import java.util.stream.Stream;
+
 import org.springframework.lang.Nullable;
 import org.springframework.vault.support.VaultResponse;
 import org.springframework.vault.support.VaultResponseSupport;
@@ -62,4 +65,36 @@ public interface VaultKeyValueOperations extends VaultKeyValueOperationsSupport
 	 * @return the resulting {@link VaultResponse}.
 	 */
 	void put(String path, Object body);
+
+	/**
+	 * Recursively read all secrets below {@code path} using
+	 * {@link KeyValueWalkOptions#defaults() default options}. The returned
+	 * {@link Stream} should be closed to release resources if it is not consumed
+	 * entirely.
+	 *
+	 * @param path must not be {@literal null}. Use {@code "/"} to read the whole mount.
+	 * @return the {@link Stream} of secret paths and their secrets.
+	 * @since 2.2
+	 * @see #readTree(String, KeyValueWalkOptions)
+	 */
+	default Stream<Map.Entry<String, VaultResponse>> readTree(String path) {
+		return readTree(path, KeyValueWalkOptions.defaults());
+	}
+
+	/**
+	 * Recursively read all secrets below {@code path}. Directories are listed and
+	 * secrets are read concurrently according to {@link KeyValueWalkOptions} while the
+	 * {@link Stream} is consumed. Secrets are emitted in no particular order. Secrets
+	 * deleted during the traversal are skipped. The returned {@link Stream} should be
+	 * closed to release resources if it is not consumed entirely.
+	 *
+	 * @param path must not be {@literal null}. Use {@code "/"} to read the whole mount.
+	 * @param options must not be {@literal null}.
+	 * @return the {@link Stream} of secret paths and their secrets.
+	 * @since 2.2
+	 */
+	default Stream<Map.Entry<String, VaultResponse>> readTree(String path,
+			KeyValueWalkOptions options) {
+		return KeyValueTreeWalker.readTree(this::list, this::get, path, options);
+	}
 }
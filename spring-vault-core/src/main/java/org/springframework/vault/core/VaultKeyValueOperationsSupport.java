@@ -16,6 +16,7 @@
 package org.springframework.vault.core;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.lang.Nullable;
 
@@ -39,6 +40,39 @@ public interface VaultKeyValueOperationsSupport {
 	@Nullable
 	List<String> list(String path);
 
+	/**
+	 * Recursively traverse the tree below {@code path} and return a lazily populated
+	 * {@link Stream} of secret paths using {@link KeyValueWalkOptions#defaults() default
+	 * options}. The returned {@link Stream} should be closed to release resources if it
+	 * is not consumed entirely.
+	 *
+	 * @param path must not be {@literal null}. Use {@code "/"} to traverse the whole
+	 *     mount.
+	 * @return the {@link Stream} of secret paths relative to the mount.
+	 * @since 2.2
+	 * @see #walk(String, KeyValueWalkOptions)
+	 */
+	default Stream<String> walk(String path) {
+		return walk(path, KeyValueWalkOptions.defaults());
+	}
+
+	/**
+	 * Recursively traverse the tree below {@code path} and return a lazily populated
+	 * {@link Stream} of secret paths. Directories are listed concurrently according to
+	 * {@link KeyValueWalkOptions}. Paths are emitted in no particular order. The
+	 * returned {@link Stream} should be closed to release resources if it is not
+	 * consumed entirely.
+	 *
+	 * @param path must not be {@literal null}. Use {@code "/"} to traverse the whole
+	 *     mount.
+	 * @param options must not be {@literal null}.
+	 * @return the {@link Stream} of secret paths relative to the mount.
+	 * @since 2.2
+	 */
+	default Stream<String> walk(String path, KeyValueWalkOptions options) {
+		return KeyValueTreeWalker.walk(this::list, path, options);
+	}
+
 	/**
 	 * Read the secret at {@code path}.
 	 *
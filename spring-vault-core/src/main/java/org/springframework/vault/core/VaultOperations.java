@@ -16,8 +16,11 @@
 package org.springframework.vault.core;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.vault.VaultException;
 import org.springframework.vault.core.VaultKeyValueOperationsSupport.KeyValueBackend;
 import org.springframework.vault.support.VaultResponse;
@@ -139,6 +142,46 @@ public interface VaultOperations {
 	@Nullable
 	List<String> list(String path);
 
+	/**
+	 * Recursively traverse the tree below {@code path} by {@link #list(String) listing}
+	 * paths and return a lazily populated {@link Stream} of leaf paths. Directories are
+	 * listed concurrently according to {@link KeyValueWalkOptions}. Paths are emitted in
+	 * no particular order. The returned {@link Stream} should be closed to release
+	 * resources if it is not consumed entirely.
+	 *
+	 * @param path must not be empty or {@literal null}.
+	 * @param options must not be {@literal null}.
+	 * @return the {@link Stream} of leaf paths.
+	 * @since 2.2
+	 */
+	default Stream<String> walk(String path, KeyValueWalkOptions options) {
+
+		Assert.hasText(path, "Path must not be empty");
+
+		return KeyValueTreeWalker.walk(this::list, path, options);
+	}
+
+	/**
+	 * Recursively {@link #read(String) read} all leaves below {@code path}. Directories
+	 * are listed and leaves are read concurrently according to
+	 * {@link KeyValueWalkOptions} while the {@link Stream} is consumed. Leaves are
+	 * emitted in no particular order. Leaves deleted during the traversal are skipped.
+	 * The returned {@link Stream} should be closed to release resources if it is not
+	 * consumed entirely.
+	 *
+	 * @param path must not be empty or {@literal null}.
+	 * @param options must not be {@literal null}.
+	 * @return the {@link Stream} of leaf paths and their {@link VaultResponse}.
+	 * @since 2.2
+	 */
+	default Stream<Map.Entry<String, VaultResponse>> readTree(String path,
+			KeyValueWalkOptions options) {
+
+		Assert.hasText(path, "Path must not be empty");
+
+		return KeyValueTreeWalker.readTree(this::list, this::read, path, options);
+	}
+
 	/**
 	 * Write to a Vault path.
 	 *
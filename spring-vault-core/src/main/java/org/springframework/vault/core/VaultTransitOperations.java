@@ -15,9 +15,11 @@
  */
 package org.springframework.vault.core;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.lang.Nullable;
+import org.springframework.vault.VaultException;
 import org.springframework.vault.support.Ciphertext;
 import org.springframework.vault.support.Hmac;
 import org.springframework.vault.support.Plaintext;
@@ -230,6 +232,41 @@ public interface VaultTransitOperations {
 	 */
 	String rewrap(String keyName, String ciphertext, VaultTransitContext transitContext);
 
+	/**
+	 * Rewrap the provided batch of ciphertext using the latest version of the named key.
+	 * {@link VaultTransitTemplate} uses the transit backend's batch operation. The
+	 * default implementation rewraps each ciphertext individually using
+	 * {@link #rewrap(String, String, VaultTransitContext)} and reports failures per item.
+	 *
+	 * @param keyName must not be empty or {@literal null}.
+	 * @param batchRequest a list of {@link Ciphertext} which includes the ciphertext and
+	 *     an optional context.
+	 * @return the rewrapped result in the order of {@code batchRequest} ciphertexts.
+	 * @since 2.2
+	 * @see #rotate(String)
+	 */
+	default List<VaultEncryptionResult> rewrap(String keyName,
+			List<Ciphertext> batchRequest) {
+
+		List<VaultEncryptionResult> results = new ArrayList<>(batchRequest.size());
+
+		for (Ciphertext ciphertext : batchRequest) {
+
+			try {
+
+				String rewrapped = rewrap(keyName, ciphertext.getCiphertext(),
+						ciphertext.getContext());
+				results.add(new VaultEncryptionResult(
+						Ciphertext.of(rewrapped).with(ciphertext.getContext())));
+			}
+			catch (VaultException e) {
+				results.add(new VaultEncryptionResult(e));
+			}
+		}
+
+		return results;
+	}
+
 	/**
 	 * Create a HMAC using {@code keyName} of given {@link Plaintext} using the default
 	 * hash algorithm. The key can be of any type supported by transit; the raw key will
@@ -17,6 +17,7 @@ package org.springframework.vault.core;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -220,26 +221,9 @@ public class VaultTransitTemplate implements VaultTransitOperations {
 		Assert.notEmpty(batchRequest,
 				"BatchRequest must not be null and must have at least one entry");
 
-		List<Map<String, String>> batch = new ArrayList<Map<String, String>>(
-				batchRequest.size());
-
-		for (Plaintext request : batchRequest) {
-
-			Map<String, String> vaultRequest = new LinkedHashMap<String, String>(2);
-
-			vaultRequest.put("plaintext",
-					Base64Utils.encodeToString(request.getPlaintext()));
-
-			if (request.getContext() != null) {
-				applyTransitOptions(request.getContext(), vaultRequest);
-			}
-
-			batch.add(vaultRequest);
-		}
-
 		VaultResponse vaultResponse = vaultOperations.write(
 				String.format("%s/encrypt/%s", path, keyName),
-				Collections.singletonMap("batch_input", batch));
+				createEncryptionBatch(batchRequest));
 
 		return toEncryptionResults(vaultResponse, batchRequest);
 	}
@@ -301,25 +285,9 @@ public class VaultTransitTemplate implements VaultTransitOperations {
 		Assert.notEmpty(batchRequest,
 				"BatchRequest must not be null and must have at least one entry");
 
-		List<Map<String, String>> batch = new ArrayList<Map<String, String>>(
-				batchRequest.size());
-
-		for (Ciphertext request : batchRequest) {
-
-			Map<String, String> vaultRequest = new LinkedHashMap<String, String>(2);
-
-			vaultRequest.put("ciphertext", request.getCiphertext());
-
-			if (request.getContext() != null) {
-				applyTransitOptions(request.getContext(), vaultRequest);
-			}
-
-			batch.add(vaultRequest);
-		}
-
 		VaultResponse vaultResponse = vaultOperations.write(
 				String.format("%s/decrypt/%s", path, keyName),
-				Collections.singletonMap("batch_input", batch));
+				createDecryptionBatch(batchRequest));
 
 		return toDecryptionResults(vaultResponse, batchRequest);
 	}
@@ -357,6 +325,21 @@ public class VaultTransitTemplate implements VaultTransitOperations {
 				.getRequiredData().get("ciphertext");
 	}
 
+	@Override
+	public List<VaultEncryptionResult> rewrap(String keyName,
+			List<Ciphertext> batchRequest) {
+
+		Assert.hasText(keyName, "KeyName must not be empty");
+		Assert.notEmpty(batchRequest,
+				"BatchRequest must not be null and must have at least one entry");
+
+		VaultResponse vaultResponse = vaultOperations.write(
+				String.format("%s/rewrap/%s", path, keyName),
+				createDecryptionBatch(batchRequest));
+
+		return toRewrapResults(vaultResponse, batchRequest);
+	}
+
 	@Override
 	public Hmac getHmac(String keyName, Plaintext plaintext) {
 
@@ -374,17 +357,7 @@ public class VaultTransitTemplate implements VaultTransitOperations {
 		Assert.hasText(keyName, "KeyName must not be empty");
 		Assert.notNull(hmacRequest, "HMAC request must not be null");
 
-		Map<String, Object> request = new LinkedHashMap<>();
-		request.put("input",
-				Base64Utils.encodeToString(hmacRequest.getPlaintext().getPlaintext()));
-
-		if (StringUtils.hasText(hmacRequest.getAlgorithm())) {
-			request.put("algorithm", hmacRequest.getAlgorithm());
-		}
-
-		if (hmacRequest.getKeyVersion() != null) {
-			request.put("key_version ", hmacRequest.getKeyVersion());
-		}
+		Map<String, Object> request = createHmacRequest(hmacRequest);
 
 		String hmac = (String) vaultOperations
 				.write(String.format("%s/hmac/%s", path, keyName), request)
@@ -410,13 +383,7 @@ public class VaultTransitTemplate implements VaultTransitOperations {
 		Assert.hasText(keyName, "KeyName must not be empty");
 		Assert.notNull(signRequest, "Sign request must not be null");
 
-		Map<String, Object> request = new LinkedHashMap<>();
-		request.put("input",
-				Base64Utils.encodeToString(signRequest.getPlaintext().getPlaintext()));
-
-		if (StringUtils.hasText(signRequest.getAlgorithm())) {
-			request.put("algorithm", signRequest.getAlgorithm());
-		}
+		Map<String, Object> request = createSignRequest(signRequest);
 
 		String signature = (String) vaultOperations
 				.write(String.format("%s/sign/%s", path, keyName), request)
@@ -445,6 +412,93 @@ public class VaultTransitTemplate implements VaultTransitOperations {
 		Assert.notNull(verificationRequest,
 				"Signature verification request must not be null");
 
+		Map<String, Object> request = createVerificationRequest(verificationRequest);
+
+		Map<String, Object> response = vaultOperations
+				.write(String.format("%s/verify/%s", path, keyName), request)
+				.getRequiredData();
+
+		return toSignatureValidation(response);
+	}
+
+	static Map<String, List<Map<String, String>>> createEncryptionBatch(
+			List<Plaintext> batchRequest) {
+
+		List<Map<String, String>> batch = new ArrayList<Map<String, String>>(
+				batchRequest.size());
+
+		for (Plaintext request : batchRequest) {
+
+			Map<String, String> vaultRequest = new LinkedHashMap<String, String>(2);
+
+			vaultRequest.put("plaintext",
+					Base64Utils.encodeToString(request.getPlaintext()));
+
+			if (request.getContext() != null) {
+				applyTransitOptions(request.getContext(), vaultRequest);
+			}
+
+			batch.add(vaultRequest);
+		}
+
+		return Collections.singletonMap("batch_input", batch);
+	}
+
+	static Map<String, List<Map<String, String>>> createDecryptionBatch(
+			List<Ciphertext> batchRequest) {
+
+		List<Map<String, String>> batch = new ArrayList<Map<String, String>>(
+				batchRequest.size());
+
+		for (Ciphertext request : batchRequest) {
+
+			Map<String, String> vaultRequest = new LinkedHashMap<String, String>(2);
+
+			vaultRequest.put("ciphertext", request.getCiphertext());
+
+			if (request.getContext() != null) {
+				applyTransitOptions(request.getContext(), vaultRequest);
+			}
+
+			batch.add(vaultRequest);
+		}
+
+		return Collections.singletonMap("batch_input", batch);
+	}
+
+	static Map<String, Object> createHmacRequest(VaultHmacRequest hmacRequest) {
+
+		Map<String, Object> request = new LinkedHashMap<>();
+		request.put("input",
+				Base64Utils.encodeToString(hmacRequest.getPlaintext().getPlaintext()));
+
+		if (StringUtils.hasText(hmacRequest.getAlgorithm())) {
+			request.put("algorithm", hmacRequest.getAlgorithm());
+		}
+
+		if (hmacRequest.getKeyVersion() != null) {
+			request.put("key_version ", hmacRequest.getKeyVersion());
+		}
+
+		return request;
+	}
+
+	static Map<String, Object> createSignRequest(VaultSignRequest signRequest) {
+
+		Map<String, Object> request = new LinkedHashMap<>();
+		request.put("input",
+				Base64Utils.encodeToString(signRequest.getPlaintext().getPlaintext()));
+
+		if (StringUtils.hasText(signRequest.getAlgorithm())) {
+			request.put("algorithm", signRequest.getAlgorithm());
+		}
+
+		return request;
+	}
+
+	static Map<String, Object> createVerificationRequest(
+			VaultSignatureVerificationRequest verificationRequest) {
+
 		Map<String, Object> request = new LinkedHashMap<>();
 		request.put("input", Base64Utils
 				.encodeToString(verificationRequest.getPlaintext().getPlaintext()));
@@ -461,9 +515,10 @@ public class VaultTransitTemplate implements VaultTransitOperations {
 			request.put("algorithm", verificationRequest.getAlgorithm());
 		}
 
-		Map<String, Object> response = vaultOperations
-				.write(String.format("%s/verify/%s", path, keyName), request)
-				.getRequiredData();
+		return request;
+	}
+
+	static SignatureValidation toSignatureValidation(Map<String, Object> response) {
 
 		if (response.containsKey("valid")
 				&& Boolean.valueOf("" + response.get("valid"))) {
@@ -473,7 +528,7 @@ public class VaultTransitTemplate implements VaultTransitOperations {
 		return SignatureValidation.invalid();
 	}
 
-	private static void applyTransitOptions(VaultTransitContext context,
+	static void applyTransitOptions(VaultTransitContext context,
 			Map<String, String> request) {
 
 		if (!ObjectUtils.isEmpty(context.getContext())) {
@@ -485,7 +540,7 @@ public class VaultTransitTemplate implements VaultTransitOperations {
 		}
 	}
 
-	private static List<VaultEncryptionResult> toEncryptionResults(
+	static List<VaultEncryptionResult> toEncryptionResults(
 			VaultResponse vaultResponse, List<Plaintext> batchRequest) {
 
 		List<VaultEncryptionResult> result = new ArrayList<VaultEncryptionResult>(
@@ -519,7 +574,113 @@ public class VaultTransitTemplate implements VaultTransitOperations {
 		return result;
 	}
 
-	private static List<VaultDecryptionResult> toDecryptionResults(
+	static List<VaultEncryptionResult> toRewrapResults(VaultResponse vaultResponse,
+			List<Ciphertext> batchRequest) {
+
+		List<VaultEncryptionResult> result = new ArrayList<VaultEncryptionResult>(
+				batchRequest.size());
+		List<Map<String, String>> batchData = getBatchData(vaultResponse);
+
+		for (int i = 0; i < batchRequest.size(); i++) {
+
+			VaultEncryptionResult rewrapped;
+			Ciphertext ciphertext = batchRequest.get(i);
+
+			if (batchData.size() > i) {
+
+				Map<String, String> data = batchData.get(i);
+				if (StringUtils.hasText(data.get("error"))) {
+					rewrapped = new VaultEncryptionResult(
+							new VaultException(data.get("error")));
+				}
+				else {
+					rewrapped = new VaultEncryptionResult(toCiphertext(
+							data.get("ciphertext"), ciphertext.getContext()));
+				}
+			}
+			else {
+				rewrapped = new VaultEncryptionResult(
+						new VaultException("No result for ciphertext #" + i));
+			}
+
+			result.add(rewrapped);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Determine the key version from a {@code vault:v<version>:…} ciphertext.
+	 *
+	 * @param ciphertext the ciphertext.
+	 * @return the key version or {@literal -1} if the ciphertext does not carry a
+	 * version.
+	 */
+	static int getKeyVersion(String ciphertext) {
+
+		if (!ciphertext.startsWith("vault:v")) {
+			return -1;
+		}
+
+		int separator = ciphertext.indexOf(':', 7);
+
+		if (separator == -1) {
+			return -1;
+		}
+
+		try {
+			return Integer.parseInt(ciphertext.substring(7, separator));
+		}
+		catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Check whether {@link Ciphertext} is encrypted with a key version older than
+	 * {@code latestVersion}. Ciphertexts without a version are considered outdated.
+	 *
+	 * @param ciphertext the ciphertext.
+	 * @param latestVersion the latest key version.
+	 * @return {@literal true} if the ciphertext requires a rewrap.
+	 */
+	static boolean requiresRewrap(Ciphertext ciphertext, int latestVersion) {
+		return getKeyVersion(ciphertext.getCiphertext()) < latestVersion;
+	}
+
+	/**
+	 * Merge rewrap results of the {@link #requiresRewrap(Ciphertext, int) outdated}
+	 * items of {@code chunk} with the items that are already up to date.
+	 *
+	 * @param chunk all ciphertexts.
+	 * @param latestVersion the latest key version.
+	 * @param results rewrap results of the outdated ciphertexts.
+	 * @return results for all ciphertexts in the order of {@code chunk}.
+	 */
+	static List<VaultEncryptionResult> mergeRewrapResults(List<Ciphertext> chunk,
+			int latestVersion, List<VaultEncryptionResult> results) {
+
+		List<VaultEncryptionResult> merged = new ArrayList<>(chunk.size());
+		Iterator<VaultEncryptionResult> iterator = results.iterator();
+
+		for (Ciphertext ciphertext : chunk) {
+
+			if (!requiresRewrap(ciphertext, latestVersion)) {
+				merged.add(new VaultEncryptionResult(ciphertext));
+			}
+			else if (iterator.hasNext()) {
+				merged.add(iterator.next());
+			}
+			else {
+				merged.add(new VaultEncryptionResult(
+						new VaultException("No rewrap result for ciphertext")));
+			}
+		}
+
+		return merged;
+	}
+
+	static List<VaultDecryptionResult> toDecryptionResults(
 			VaultResponse vaultResponse, List<Ciphertext> batchRequest) {
 
 		List<VaultDecryptionResult> result = new ArrayList<VaultDecryptionResult>(
@@ -562,7 +723,7 @@ public class VaultTransitTemplate implements VaultTransitOperations {
 		return new VaultDecryptionResult(Plaintext.empty().with(ciphertext.getContext()));
 	}
 
-	private static Ciphertext toCiphertext(String ciphertext,
+	static Ciphertext toCiphertext(String ciphertext,
 			@Nullable VaultTransitContext context) {
 		return context != null ? Ciphertext.of(ciphertext).with(context)
 				: Ciphertext.of(ciphertext);
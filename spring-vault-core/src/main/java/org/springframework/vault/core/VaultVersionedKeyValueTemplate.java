@@ -25,8 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import com.fasterxml.jackson.databind.JsonNode;
-
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.Nullable;
@@ -90,45 +89,46 @@ public class VaultVersionedKeyValueTemplate extends VaultKeyValue2Accessor
 	}
 
 	@Nullable
-	private <T> Versioned<T> doRead(String path, Version version, Class<T> responseType) {
+	private <T> Versioned<T> doRead(String path, Version version, Class<T> type) {
 
 		String secretPath = version.isVersioned()
 				? String.format("%s?version=%d", createDataPath(path),
 						version.getVersion())
 				: createDataPath(path);
 
-		VersionedResponse response = vaultOperations.doWithSession(restOperations -> {
-
-			try {
-				return restOperations.exchange(secretPath, HttpMethod.GET, null,
-						VersionedResponse.class).getBody();
-			}
-			catch (HttpStatusCodeException e) {
+		ParameterizedTypeReference<VaultResponseSupport<VaultResponseSupport<T>>> responseType = getVersionedTypeReference(
+				type);
 
-				if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-					if (e.getResponseBodyAsString().contains("deletion_time")) {
+		VaultResponseSupport<VaultResponseSupport<T>> response = vaultOperations
+				.doWithSession(restOperations -> {
 
-						return VaultResponses.unwrap(e.getResponseBodyAsString(),
-								VersionedResponse.class);
+					try {
+						return restOperations.exchange(secretPath, HttpMethod.GET,
+								null, responseType).getBody();
 					}
+					catch (HttpStatusCodeException e) {
 
-					return null;
-				}
+						if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+							if (e.getResponseBodyAsString().contains("deletion_time")) {
+								return deserialize(e.getResponseBodyAsString(),
+										responseType);
+							}
 
-				throw VaultResponses.buildException(e, path);
-			}
-		});
+							return null;
+						}
+
+						throw VaultResponses.buildException(e, path);
+					}
+				});
 
 		if (response == null) {
 			return null;
 		}
 
-		VaultResponseSupport<JsonNode> data = response.getRequiredData();
+		VaultResponseSupport<T> data = response.getRequiredData();
 		Metadata metadata = getMetadata(data.getMetadata());
 
-		T body = deserialize(data.getRequiredData(), responseType);
-
-		return Versioned.create(body, metadata);
+		return Versioned.create(data.getData(), metadata);
 	}
 
 	@Override
@@ -136,6 +136,22 @@ public class VaultVersionedKeyValueTemplate extends VaultKeyValue2Accessor
 
 		Assert.hasText(path, "Path must not be empty");
 
+		VaultResponse response = doWrite(createDataPath(path), createWriteRequest(body));
+
+		if (response == null) {
+			throw new IllegalStateException(
+					"VaultVersionedKeyValueOperations cannot be used with a Key-Value version 1 mount");
+		}
+
+		return getMetadata(response.getRequiredData());
+	}
+
+	/**
+	 * Create the request body to write {@code body}. {@link Versioned} bodies apply
+	 * Compare-and-Set (CAS) using their version.
+	 */
+	static Map<Object, Object> createWriteRequest(Object body) {
+
 		Map<Object, Object> data = new LinkedHashMap<>();
 		Map<Object, Object> requestOptions = new LinkedHashMap<>();
 
@@ -152,17 +168,10 @@ public class VaultVersionedKeyValueTemplate extends VaultKeyValue2Accessor
 			data.put("data", body);
 		}
 
-		VaultResponse response = doWrite(createDataPath(path), data);
-
-		if (response == null) {
-			throw new IllegalStateException(
-					"VaultVersionedKeyValueOperations cannot be used with a Key-Value version 1 mount");
-		}
-
-		return getMetadata(response.getRequiredData());
+		return data;
 	}
 
-	private static Metadata getMetadata(Map<String, Object> responseMetadata) {
+	static Metadata getMetadata(Map<String, Object> responseMetadata) {
 
 		MetadataBuilder builder = Metadata.builder();
 		TemporalAccessor created_time = getDate(responseMetadata, "created_time");
@@ -212,7 +221,7 @@ public class VaultVersionedKeyValueTemplate extends VaultKeyValue2Accessor
 				Collections.singletonMap("versions", versions));
 	}
 
-	private static List<Integer> toVersionList(Version[] versionsToDelete) {
+	static List<Integer> toVersionList(Version[] versionsToDelete) {
 		return Arrays.stream(versionsToDelete).filter(Version::isVersioned)
 				.map(Version::getVersion).collect(Collectors.toList());
 	}
@@ -240,8 +249,4 @@ public class VaultVersionedKeyValueTemplate extends VaultKeyValue2Accessor
 		doWrite(createBackendPath("destroy", path),
 				Collections.singletonMap("versions", versions));
 	}
-
-	private static class VersionedResponse
-			extends VaultResponseSupport<VaultResponseSupport<JsonNode>> {
-	}
 }
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.lease;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link RenewalScheduler} decorator that groups renewals whose due time lies within a
+ * {@code window}. When the first renewal of a group becomes due, all other renewals
+ * that are due within the {@code window} are run in the same tick instead of waking up
+ * the scheduler for each of them. Renewals of a group are run with bounded concurrency:
+ * the triggering thread runs renewals itself and up to {@code maxConcurrency - 1}
+ * helpers are submitted to an {@link Executor}. The triggering thread does not wait for
+ * helpers so a single-threaded scheduler cannot dead-lock.
+ * <p>
+ * Renewals pulled into a group run earlier than requested by at most {@code window}.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see SecretLeaseContainer#setBatchRenewals(boolean)
+ */
+class BatchingRenewalScheduler implements RenewalScheduler {
+
+	private static final Log log = LogFactory.getLog(BatchingRenewalScheduler.class);
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	private final ConcurrentSkipListSet<PendingRenewal> pending = new ConcurrentSkipListSet<>();
+
+	private final RenewalScheduler delegate;
+
+	private final long windowNanos;
+
+	private final Executor executor;
+
+	private final int maxConcurrency;
+
+	/**
+	 * @param delegate the actual scheduler, must not be {@literal null}.
+	 * @param window window within which renewals are grouped, must not be
+	 *     {@literal null}.
+	 * @param executor executor to run helpers, must not be {@literal null}.
+	 * @param maxConcurrency maximum number of renewals per group running concurrently.
+	 */
+	BatchingRenewalScheduler(RenewalScheduler delegate, Duration window,
+			Executor executor, int maxConcurrency) {
+
+		this.delegate = delegate;
+		this.windowNanos = window.toNanos();
+		this.executor = executor;
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	@Override
+	public ScheduledRenewal schedule(Runnable task, Duration delay) {
+
+		PendingRenewal renewal = new PendingRenewal(task,
+				System.nanoTime() + delay.toNanos(), this.sequence.incrementAndGet());
+
+		this.pending.add(renewal);
+		renewal.scheduled = this.delegate.schedule(() -> fire(renewal), delay);
+
+		return renewal;
+	}
+
+	/**
+	 * Run the due {@link PendingRenewal} along with all renewals due within the window.
+	 */
+	void fire(PendingRenewal trigger) {
+
+		if (!trigger.claim()) {
+			return;
+		}
+
+		Queue<Runnable> group = new ConcurrentLinkedQueue<>();
+		group.add(trigger.task);
+
+		// group relative to the later of the trigger deadline and the current time
+		long now = System.nanoTime();
+		long horizon = (trigger.deadline - now > 0 ? trigger.deadline : now)
+				+ this.windowNanos;
+		List<PendingRenewal> claimed = new ArrayList<>();
+		claimed.add(trigger);
+
+		for (PendingRenewal renewal : this.pending) {
+
+			if (renewal.deadline > horizon) {
+				break;
+			}
+
+			if (renewal.claim()) {
+
+				ScheduledRenewal scheduled = renewal.scheduled;
+				if (scheduled != null) {
+					scheduled.cancel();
+				}
+
+				claimed.add(renewal);
+				group.add(renewal.task);
+			}
+		}
+
+		this.pending.removeAll(claimed);
+
+		if (log.isDebugEnabled() && group.size() > 1) {
+			log.debug(String.format("Renewing %d leases in a single batch", group.size()));
+		}
+
+		int helpers = Math.min(this.maxConcurrency, group.size()) - 1;
+		for (int i = 0; i < helpers; i++) {
+
+			try {
+				this.executor.execute(() -> drain(group));
+			}
+			catch (RejectedExecutionException e) {
+				break;
+			}
+		}
+
+		drain(group);
+	}
+
+	private static void drain(Queue<Runnable> group) {
+
+		Runnable task;
+		while ((task = group.poll()) != null) {
+
+			try {
+				task.run();
+			}
+			catch (RuntimeException e) {
+				log.error("Renewal task failed", e);
+			}
+		}
+	}
+
+	/**
+	 * Pending renewal ordered by deadline. A renewal is run at most once: either by its
+	 * own schedule or as part of a group, whoever claims it first.
+	 */
+	class PendingRenewal implements ScheduledRenewal, Comparable<PendingRenewal> {
+
+		final Runnable task;
+
+		final long deadline;
+
+		final long sequence;
+
+		final AtomicBoolean claimed = new AtomicBoolean();
+
+		@Nullable
+		volatile ScheduledRenewal scheduled;
+
+		PendingRenewal(Runnable task, long deadline, long sequence) {
+			this.task = task;
+			this.deadline = deadline;
+			this.sequence = sequence;
+		}
+
+		boolean claim() {
+			return this.claimed.compareAndSet(false, true);
+		}
+
+		@Override
+		public void cancel() {
+
+			if (claim()) {
+
+				pending.remove(this);
+
+				ScheduledRenewal scheduled = this.scheduled;
+				if (scheduled != null) {
+					scheduled.cancel();
+				}
+			}
+		}
+
+		@Override
+		public int compareTo(PendingRenewal o) {
+
+			int result = Long.compare(this.deadline - o.deadline, 0);
+			return result != 0 ? result : Long.compare(this.sequence, o.sequence);
+		}
+	}
+}
@@ -0,0 +1,481 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.lease;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.vault.core.lease.domain.Lease;
+import org.springframework.vault.core.lease.domain.RequestedSecret;
+import org.springframework.vault.core.lease.domain.RequestedSecret.Mode;
+
+/**
+ * {@link LeaseJournal} backed by an encrypted, append-only file. Each change is appended
+ * as a record encrypted with {@code AES/GCM} using the given {@link SecretKey} and a
+ * random nonce per record. The journal is read into memory on
+ * {@link #afterPropertiesSet() initialization} and compacted once the number of obsolete
+ * records exceeds the {@link #setCompactionThreshold(int) compaction threshold}.
+ * <p>
+ * Records that cannot be read (a truncated tail after a crash, a tampered file or a
+ * different key) end replay: the journal retains records read so far and rewrites the
+ * file. The journal file is created with owner-only permissions on file systems
+ * supporting POSIX permissions.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see SecretLeaseContainer#setLeaseJournal(LeaseJournal)
+ */
+public class FileLeaseJournal implements LeaseJournal, InitializingBean, DisposableBean {
+
+	private static final Log log = LogFactory.getLog(FileLeaseJournal.class);
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final TypeReference<Map<String, Object>> RECORD_TYPE = new TypeReference<Map<String, Object>>() {
+	};
+
+	private static final String CIPHER = "AES/GCM/NoPadding";
+
+	private static final byte[] ASSOCIATED_DATA = "spring-vault-lease-journal-v1"
+			.getBytes(StandardCharsets.US_ASCII);
+
+	private static final int NONCE_LENGTH = 12;
+
+	private static final int TAG_LENGTH = 128;
+
+	private static final int MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+
+	private final SecureRandom random = new SecureRandom();
+
+	private final Map<RequestedSecret, Entry> entries = new ConcurrentHashMap<>();
+
+	private final Path file;
+
+	private final SecretKey key;
+
+	private Clock clock = Clock.systemUTC();
+
+	private int compactionThreshold = 128;
+
+	private boolean sync = true;
+
+	// guarded by this
+	@Nullable
+	private FileChannel channel;
+
+	// guarded by this
+	private int obsoleteRecords;
+
+	/**
+	 * Create a new {@link FileLeaseJournal} given {@link Path} and {@link SecretKey}.
+	 *
+	 * @param file the journal file, must not be {@literal null}.
+	 * @param key the {@code AES} key to encrypt and decrypt journal records, must not be
+	 *     {@literal null}.
+	 */
+	public FileLeaseJournal(Path file, SecretKey key) {
+
+		Assert.notNull(file, "Journal file must not be null");
+		Assert.notNull(key, "SecretKey must not be null");
+		Assert.isTrue("AES".equalsIgnoreCase(key.getAlgorithm()),
+				"SecretKey must be an AES key");
+
+		this.file = file;
+		this.key = key;
+	}
+
+	/**
+	 * Set the {@link Clock} to record the time a lease was obtained. Defaults to
+	 * {@link Clock#systemUTC()}.
+	 *
+	 * @param clock must not be {@literal null}.
+	 */
+	public void setClock(Clock clock) {
+
+		Assert.notNull(clock, "Clock must not be null");
+
+		this.clock = clock;
+	}
+
+	/**
+	 * Set the number of obsolete records after which the journal file gets compacted.
+	 * Defaults to {@literal 128}.
+	 *
+	 * @param compactionThreshold must be greater or equal to {@literal 0}.
+	 */
+	public void setCompactionThreshold(int compactionThreshold) {
+
+		Assert.isTrue(compactionThreshold >= 0,
+				"Compaction threshold must be greater or equal to 0");
+
+		this.compactionThreshold = compactionThreshold;
+	}
+
+	/**
+	 * Configure whether to force each record to the storage device before returning.
+	 * Enabled by default.
+	 *
+	 * @param sync {@literal true} to force each record to the storage device.
+	 */
+	public void setSync(boolean sync) {
+		this.sync = sync;
+	}
+
+	@Override
+	public synchronized void afterPropertiesSet() throws Exception {
+
+		if (this.channel != null) {
+			return;
+		}
+
+		boolean rewrite = false;
+
+		if (Files.exists(this.file)) {
+			rewrite = !replay(ByteBuffer.wrap(Files.readAllBytes(this.file)));
+		}
+
+		if (rewrite || this.obsoleteRecords > this.compactionThreshold) {
+			compact();
+		}
+		else {
+			this.channel = open(this.file, StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		}
+	}
+
+	@Override
+	public synchronized void destroy() throws Exception {
+
+		if (this.channel != null) {
+			this.channel.close();
+			this.channel = null;
+		}
+	}
+
+	@Nullable
+	@Override
+	public Entry get(RequestedSecret requestedSecret) {
+
+		Assert.notNull(requestedSecret, "RequestedSecret must not be null");
+
+		return this.entries.get(requestedSecret);
+	}
+
+	@Override
+	public synchronized void put(RequestedSecret requestedSecret, Lease lease,
+			Map<String, Object> secrets) {
+
+		Assert.notNull(requestedSecret, "RequestedSecret must not be null");
+		Assert.notNull(lease, "Lease must not be null");
+		Assert.notNull(secrets, "Secrets must not be null");
+
+		Entry entry = new Entry(lease, secrets, this.clock.instant());
+
+		append(toRecord(requestedSecret, entry));
+
+		if (this.entries.put(requestedSecret, entry) != null) {
+			this.obsoleteRecords++;
+		}
+
+		compactIfNecessary();
+	}
+
+	@Override
+	public synchronized void remove(RequestedSecret requestedSecret) {
+
+		Assert.notNull(requestedSecret, "RequestedSecret must not be null");
+
+		if (this.entries.remove(requestedSecret) == null) {
+			return;
+		}
+
+		Map<String, Object> record = new LinkedHashMap<>();
+		record.put("path", requestedSecret.getPath());
+		record.put("mode", requestedSecret.getMode().name());
+		record.put("removed", true);
+
+		append(record);
+
+		// the removed entry and the removal record
+		this.obsoleteRecords += 2;
+
+		compactIfNecessary();
+	}
+
+	/**
+	 * Replay journal records into {@link #entries}.
+	 *
+	 * @return {@literal true} if all records were read; {@literal false} if replay
+	 *     stopped at an unreadable record.
+	 */
+	private boolean replay(ByteBuffer buffer) {
+
+		while (buffer.hasRemaining()) {
+
+			if (buffer.remaining() < Integer.BYTES) {
+				log.warn(String.format("Lease journal %s ends with a truncated record",
+						this.file));
+				return false;
+			}
+
+			int length = buffer.getInt();
+
+			if (length <= NONCE_LENGTH || length > MAX_RECORD_LENGTH
+					|| length > buffer.remaining()) {
+				log.warn(String.format("Lease journal %s ends with a truncated record",
+						this.file));
+				return false;
+			}
+
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+
+			Map<String, Object> record;
+			try {
+				record = OBJECT_MAPPER.readValue(decrypt(bytes), RECORD_TYPE);
+			}
+			catch (GeneralSecurityException | IOException e) {
+				log.warn(String.format(
+						"Cannot read lease journal %s; discarding remaining records",
+						this.file), e);
+				return false;
+			}
+
+			apply(record);
+		}
+
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void apply(Map<String, Object> record) {
+
+		String path = (String) record.get("path");
+		Mode mode = Mode.valueOf((String) record.get("mode"));
+		RequestedSecret requestedSecret = mode == Mode.ROTATE ? RequestedSecret
+				.rotating(path) : RequestedSecret.renewable(path);
+
+		Entry previous;
+		if (Boolean.TRUE.equals(record.get("removed"))) {
+			previous = this.entries.remove(requestedSecret);
+			this.obsoleteRecords++;
+		}
+		else {
+
+			String leaseId = (String) record.get("leaseId");
+			Duration leaseDuration = Duration
+					.ofMillis(((Number) record.get("leaseDuration")).longValue());
+			boolean renewable = Boolean.TRUE.equals(record.get("renewable"));
+
+			Lease lease = leaseId != null ? Lease.of(leaseId, leaseDuration, renewable)
+					: Lease.fromTimeToLive(leaseDuration);
+
+			Map<String, Object> secrets = (Map<String, Object>) record.get("secrets");
+			Instant recordedAt = Instant
+					.ofEpochMilli(((Number) record.get("recordedAt")).longValue());
+
+			previous = this.entries.put(requestedSecret, new Entry(lease,
+					secrets != null ? secrets : Collections.emptyMap(), recordedAt));
+		}
+
+		if (previous != null) {
+			this.obsoleteRecords++;
+		}
+	}
+
+	private void compactIfNecessary() {
+
+		if (this.obsoleteRecords > this.compactionThreshold) {
+			compact();
+		}
+	}
+
+	/**
+	 * Rewrite the journal file to contain only live entries and replace the journal file
+	 * atomically.
+	 */
+	private void compact() {
+
+		Path temp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+
+		try {
+
+			try (FileChannel channel = open(temp, StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+				for (Map.Entry<RequestedSecret, Entry> entry : this.entries.entrySet()) {
+					write(channel, toRecord(entry.getKey(), entry.getValue()));
+				}
+
+				channel.force(true);
+			}
+
+			if (this.channel != null) {
+				this.channel.close();
+				this.channel = null;
+			}
+
+			try {
+				Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			this.channel = open(this.file, StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+			this.obsoleteRecords = 0;
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(
+					String.format("Cannot compact lease journal %s", this.file), e);
+		}
+	}
+
+	private void append(Map<String, Object> record) {
+
+		Assert.state(this.channel != null, "Lease journal is not initialized");
+
+		try {
+
+			write(this.channel, record);
+
+			if (this.sync) {
+				this.channel.force(false);
+			}
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(
+					String.format("Cannot write to lease journal %s", this.file), e);
+		}
+	}
+
+	private void write(FileChannel channel, Map<String, Object> record)
+			throws IOException {
+
+		byte[] bytes;
+		try {
+			bytes = encrypt(OBJECT_MAPPER.writeValueAsBytes(record));
+		}
+		catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Cannot encrypt lease journal record", e);
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + bytes.length);
+		buffer.putInt(bytes.length).put(bytes).flip();
+
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private byte[] encrypt(byte[] plaintext) throws GeneralSecurityException {
+
+		byte[] nonce = new byte[NONCE_LENGTH];
+		this.random.nextBytes(nonce);
+
+		Cipher cipher = Cipher.getInstance(CIPHER);
+		cipher.init(Cipher.ENCRYPT_MODE, this.key,
+				new GCMParameterSpec(TAG_LENGTH, nonce));
+		cipher.updateAAD(ASSOCIATED_DATA);
+
+		byte[] ciphertext = cipher.doFinal(plaintext);
+
+		byte[] result = new byte[NONCE_LENGTH + ciphertext.length];
+		System.arraycopy(nonce, 0, result, 0, NONCE_LENGTH);
+		System.arraycopy(ciphertext, 0, result, NONCE_LENGTH, ciphertext.length);
+
+		return result;
+	}
+
+	private byte[] decrypt(byte[] record) throws GeneralSecurityException {
+
+		Cipher cipher = Cipher.getInstance(CIPHER);
+		cipher.init(Cipher.DECRYPT_MODE, this.key,
+				new GCMParameterSpec(TAG_LENGTH, record, 0, NONCE_LENGTH));
+		cipher.updateAAD(ASSOCIATED_DATA);
+
+		return cipher.doFinal(record, NONCE_LENGTH, record.length - NONCE_LENGTH);
+	}
+
+	private static Map<String, Object> toRecord(RequestedSecret requestedSecret,
+			Entry entry) {
+
+		Lease lease = entry.getLease();
+
+		Map<String, Object> record = new LinkedHashMap<>();
+		record.put("path", requestedSecret.getPath());
+		record.put("mode", requestedSecret.getMode().name());
+		record.put("leaseId", lease.hasLeaseId() ? lease.getLeaseId() : null);
+		record.put("leaseDuration", lease.getLeaseDuration().toMillis());
+		record.put("renewable", lease.isRenewable());
+		record.put("recordedAt", entry.getRecordedAt().toEpochMilli());
+		record.put("secrets", entry.getSecrets());
+
+		return record;
+	}
+
+	private static FileChannel open(Path path, OpenOption... options)
+			throws IOException {
+
+		Set<OpenOption> openOptions = new HashSet<>();
+		Collections.addAll(openOptions, options);
+
+		if (path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+
+			FileAttribute<?> ownerOnly = PosixFilePermissions
+					.asFileAttribute(PosixFilePermissions.fromString("rw-------"));
+			return FileChannel.open(path, openOptions, ownerOnly);
+		}
+
+		return FileChannel.open(path, openOptions);
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.lease;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.vault.core.lease.domain.Lease;
+import org.springframework.vault.core.lease.domain.RequestedSecret;
+
+/**
+ * Journal of {@link Lease}s and their secrets per {@link RequestedSecret} that survives
+ * application restarts. {@link SecretLeaseContainer} records obtained and renewed leases
+ * and re-adopts still-valid leases on startup instead of requesting new secrets.
+ * <p>
+ * Journals hold secret material and should protect their contents accordingly.
+ * Implementations must be thread-safe.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see FileLeaseJournal
+ * @see SecretLeaseContainer#setLeaseJournal(LeaseJournal)
+ */
+public interface LeaseJournal {
+
+	/**
+	 * Retrieve the journaled {@link Entry} for a {@link RequestedSecret}.
+	 *
+	 * @param requestedSecret must not be {@literal null}.
+	 * @return the {@link Entry} or {@literal null} if the journal holds no lease for
+	 *     {@link RequestedSecret}.
+	 */
+	@Nullable
+	Entry get(RequestedSecret requestedSecret);
+
+	/**
+	 * Record a {@link Lease} along with its secrets for a {@link RequestedSecret}.
+	 * Replaces a previously recorded lease.
+	 *
+	 * @param requestedSecret must not be {@literal null}.
+	 * @param lease must not be {@literal null}.
+	 * @param secrets must not be {@literal null}.
+	 */
+	void put(RequestedSecret requestedSecret, Lease lease, Map<String, Object> secrets);
+
+	/**
+	 * Remove the lease recorded for a {@link RequestedSecret}.
+	 *
+	 * @param requestedSecret must not be {@literal null}.
+	 */
+	void remove(RequestedSecret requestedSecret);
+
+	/**
+	 * Journaled {@link Lease} along with its secrets and the time the lease was
+	 * recorded.
+	 */
+	class Entry {
+
+		private final Lease lease;
+
+		private final Map<String, Object> secrets;
+
+		private final Instant recordedAt;
+
+		/**
+		 * Create a new {@link Entry}.
+		 *
+		 * @param lease must not be {@literal null}.
+		 * @param secrets must not be {@literal null}.
+		 * @param recordedAt must not be {@literal null}.
+		 */
+		public Entry(Lease lease, Map<String, Object> secrets, Instant recordedAt) {
+
+			Assert.notNull(lease, "Lease must not be null");
+			Assert.notNull(secrets, "Secrets must not be null");
+			Assert.notNull(recordedAt, "Recorded at must not be null");
+
+			this.lease = lease;
+			this.secrets = Collections.unmodifiableMap(new LinkedHashMap<>(secrets));
+			this.recordedAt = recordedAt;
+		}
+
+		public Lease getLease() {
+			return this.lease;
+		}
+
+		public Map<String, Object> getSecrets() {
+			return this.secrets;
+		}
+
+		public Instant getRecordedAt() {
+			return this.recordedAt;
+		}
+
+		/**
+		 * @return the point in time at which the {@link Lease} expires unless renewed.
+		 */
+		public Instant getExpiry() {
+			return this.recordedAt.plus(this.lease.getLeaseDuration());
+		}
+
+		/**
+		 * @param now the current time.
+		 * @return remaining lease duration relative to {@code now}, or
+		 *     {@link Duration#ZERO} if the lease has already expired.
+		 */
+		public Duration getRemaining(Instant now) {
+
+			Duration remaining = Duration.between(now, getExpiry());
+			return remaining.isNegative() ? Duration.ZERO : remaining;
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.lease;
+
+import java.time.Duration;
+
+import org.springframework.vault.core.lease.domain.Lease;
+import org.springframework.vault.core.lease.domain.RequestedSecret;
+import org.springframework.vault.support.LeaseStrategy;
+
+/**
+ * Instrumentation callback for {@link SecretLeaseContainer} to record lease acquisition,
+ * renewal and expiry per {@link RequestedSecret}. Implementations bind these callbacks to
+ * a metrics system, typically recording renewal durations in a timer or histogram and
+ * the remaining lease TTL per {@link RequestedSecret} in a gauge. All methods have empty
+ * default implementations.
+ * <p>
+ * Callbacks are invoked on the thread obtaining or renewing the lease and should return
+ * quickly. Implementations must be thread-safe.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see SimpleLeaseMetrics
+ * @see SecretLeaseContainer#setLeaseMetrics(LeaseMetrics)
+ */
+public interface LeaseMetrics {
+
+	/**
+	 * Callback after secrets were obtained.
+	 *
+	 * @param requestedSecret the requested secret.
+	 * @param lease the lease associated with the secrets.
+	 */
+	default void onSecretsObtained(RequestedSecret requestedSecret, Lease lease) {
+	}
+
+	/**
+	 * Callback after a lease was renewed.
+	 *
+	 * @param requestedSecret the requested secret.
+	 * @param lease the renewed lease carrying the remaining TTL.
+	 * @param duration the time spent to renew the lease.
+	 */
+	default void onLeaseRenewed(RequestedSecret requestedSecret, Lease lease,
+			Duration duration) {
+	}
+
+	/**
+	 * Callback after a lease renewal failed.
+	 *
+	 * @param requestedSecret the requested secret.
+	 * @param lease the lease that failed renewal.
+	 * @param duration the time spent until renewal failed.
+	 * @param exception the failure cause.
+	 * @param dropped whether the lease was dropped as result of the {@link LeaseStrategy}
+	 *     outcome or because Vault reported the lease as expired.
+	 */
+	default void onLeaseRenewalFailed(RequestedSecret requestedSecret, Lease lease,
+			Duration duration, Exception exception, boolean dropped) {
+	}
+
+	/**
+	 * Callback after a lease expired.
+	 *
+	 * @param requestedSecret the requested secret.
+	 * @param lease the expired lease.
+	 */
+	default void onLeaseExpired(RequestedSecret requestedSecret, Lease lease) {
+	}
+
+	/**
+	 * Callback after a lease was revoked.
+	 *
+	 * @param requestedSecret the requested secret.
+	 * @param lease the revoked lease.
+	 */
+	default void onLeaseRevoked(RequestedSecret requestedSecret, Lease lease) {
+	}
+
+	/**
+	 * Return a {@link LeaseMetrics} instance that does not record anything.
+	 *
+	 * @return a no-op {@link LeaseMetrics}.
+	 */
+	static LeaseMetrics none() {
+		return NoOpLeaseMetrics.INSTANCE;
+	}
+
+	/**
+	 * No-op {@link LeaseMetrics}.
+	 */
+	enum NoOpLeaseMetrics implements LeaseMetrics {
+		INSTANCE
+	}
+}
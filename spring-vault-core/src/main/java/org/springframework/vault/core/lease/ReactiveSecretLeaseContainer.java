@@ -0,0 +1,995 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.lease;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.vault.VaultException;
+import org.springframework.vault.client.VaultResponses;
+import org.springframework.vault.core.ReactiveVaultOperations;
+import org.springframework.vault.core.lease.domain.Lease;
+import org.springframework.vault.core.lease.domain.RequestedSecret;
+import org.springframework.vault.core.lease.domain.RequestedSecret.Mode;
+import org.springframework.vault.core.lease.event.LeaseErrorListener;
+import org.springframework.vault.core.lease.event.LeaseListener;
+import org.springframework.vault.core.lease.event.SecretLeaseErrorEvent;
+import org.springframework.vault.core.lease.event.SecretLeaseEvent;
+import org.springframework.vault.core.util.ReactiveKeyValueDelegate;
+import org.springframework.vault.support.AdaptiveRenewalTiming;
+import org.springframework.vault.support.LeaseStrategy;
+import org.springframework.vault.support.RenewalTiming;
+import org.springframework.vault.support.VaultResponse;
+import org.springframework.vault.support.VaultResponseSupport;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Reactive event-based container to request secrets from Vault and renew the associated
+ * {@link Lease}. Secrets can be rotated, depending on the requested
+ * {@link RequestedSecret#getMode()}. This container is the non-blocking counterpart of
+ * {@link SecretLeaseContainer} using {@link ReactiveVaultOperations} and a Reactor
+ * {@link Scheduler} instead of {@link org.springframework.vault.core.VaultOperations}
+ * and a {@link org.springframework.scheduling.TaskScheduler}.
+ *
+ * Usage example:
+ *
+ * <pre>
+ * <code>
+ * ReactiveSecretLeaseContainer container = new ReactiveSecretLeaseContainer(
+ * 		reactiveVaultOperations);
+ *
+ * RequestedSecret requestedSecret = container
+ * 		.requestRotatingSecret("mysql/creds/my-role");
+ *
+ * container.events().filter(event -> event.getSource() == requestedSecret)
+ * 		.ofType(SecretLeaseCreatedEvent.class).subscribe(event -> {
+ * 			// apply credentials
+ * 		});
+ *
+ * container.afterPropertiesSet();
+ * container.start().subscribe(); // events are triggered after starting the container
+ * </code>
+ * </pre>
+ * <p>
+ * This container keeps track over {@link RequestedSecret}s and requests secrets upon
+ * {@link #start()}. Leases qualified for {@link Lease#isRenewable() renewal} are renewed
+ * by this container applying {@code minRenewal}/{@code expiryThreshold} using timers on
+ * the configured {@link Scheduler}. Renewal and revocation requests are issued through
+ * {@link ReactiveVaultOperations#doWithSession(Function) WebClient} without blocking a
+ * thread while waiting for Vault.
+ * <p>
+ * The container dispatches lease events to {@link LeaseListener},
+ * {@link LeaseErrorListener} and to subscribers of {@link #events()}. Event
+ * notifications are dispatched on the thread that completes the Vault interaction.
+ * <p>
+ * Instances are thread-safe once {@link #afterPropertiesSet() initialized}.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see SecretLeaseContainer
+ * @see RequestedSecret
+ * @see Lease
+ * @see LeaseEndpoints
+ * @see LeaseStrategy
+ */
+public class ReactiveSecretLeaseContainer extends SecretLeaseEventPublisher
+		implements InitializingBean, DisposableBean {
+
+	private static final AtomicIntegerFieldUpdater<ReactiveSecretLeaseContainer> UPDATER = AtomicIntegerFieldUpdater
+			.newUpdater(ReactiveSecretLeaseContainer.class, "status");
+
+	private static final int STATUS_INITIAL = 0;
+	private static final int STATUS_STARTED = 1;
+	private static final int STATUS_DESTROYED = 2;
+	private static final Log log = LogFactory.getLog(ReactiveSecretLeaseContainer.class);
+
+	private final List<RequestedSecret> requestedSecrets = new CopyOnWriteArrayList<>();
+
+	private final Map<RequestedSecret, LeaseRenewalScheduler> renewals = new ConcurrentHashMap<>();
+
+	private final DirectProcessor<SecretLeaseEvent> processor = DirectProcessor.create();
+
+	private final FluxSink<SecretLeaseEvent> sink = this.processor.sink();
+
+	private final ReactiveVaultOperations operations;
+
+	private final ReactiveKeyValueDelegate keyValueDelegate;
+
+	private LeaseEndpoints leaseEndpoints = LeaseEndpoints.Legacy;
+
+	private Duration minRenewal = Duration.ofSeconds(10);
+
+	private Duration expiryThreshold = Duration.ofSeconds(60);
+
+	private LeaseStrategy leaseStrategy = LeaseStrategy.dropOnError();
+
+	private LeaseMetrics leaseMetrics = LeaseMetrics.none();
+
+	private RenewalTiming renewalTiming = RenewalTiming.fixed();
+
+	private Scheduler scheduler;
+
+	private volatile boolean initialized;
+
+	private volatile int status = STATUS_INITIAL;
+
+	/**
+	 * Create a new {@link ReactiveSecretLeaseContainer} given
+	 * {@link ReactiveVaultOperations}. Renewals are scheduled on
+	 * {@link Schedulers#parallel()}.
+	 *
+	 * @param operations must not be {@literal null}.
+	 */
+	public ReactiveSecretLeaseContainer(ReactiveVaultOperations operations) {
+		this(operations, Schedulers.parallel());
+	}
+
+	/**
+	 * Create a new {@link ReactiveSecretLeaseContainer} given
+	 * {@link ReactiveVaultOperations} and {@link Scheduler}.
+	 *
+	 * @param operations must not be {@literal null}.
+	 * @param scheduler must not be {@literal null}.
+	 */
+	public ReactiveSecretLeaseContainer(ReactiveVaultOperations operations,
+			Scheduler scheduler) {
+
+		Assert.notNull(operations, "ReactiveVaultOperations must not be null");
+		Assert.notNull(scheduler, "Scheduler must not be null");
+
+		this.operations = operations;
+		this.keyValueDelegate = new ReactiveKeyValueDelegate(this.operations);
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Set the {@link LeaseEndpoints} to delegate renewal/revocation calls to.
+	 * {@link LeaseEndpoints} encapsulates differences between Vault versions that affect
+	 * the location of renewal/revocation endpoints.
+	 *
+	 * @param leaseEndpoints must not be {@literal null}.
+	 * @see LeaseEndpoints
+	 */
+	public void setLeaseEndpoints(LeaseEndpoints leaseEndpoints) {
+
+		Assert.notNull(leaseEndpoints, "LeaseEndpoints must not be null");
+
+		this.leaseEndpoints = leaseEndpoints;
+	}
+
+	/**
+	 * Sets the amount {@link Duration} that is at least required before renewing a lease.
+	 * {@code minRenewal} prevents renewals from happening too often.
+	 *
+	 * @param minRenewal duration that is at least required before renewing a
+	 *     {@link Lease}, must not be {@literal null} or negative.
+	 */
+	public void setMinRenewal(Duration minRenewal) {
+
+		Assert.notNull(minRenewal, "Minimal renewal time must not be null");
+		Assert.isTrue(!minRenewal.isNegative(),
+				"Minimal renewal time must not be negative");
+
+		this.minRenewal = minRenewal;
+	}
+
+	/**
+	 * Set the expiry threshold. A {@link Lease} is renewed the given time before it
+	 * expires.
+	 *
+	 * @param expiryThreshold duration before {@link Lease} expiry, must not be
+	 *     {@literal null} or negative.
+	 */
+	public void setExpiryThreshold(Duration expiryThreshold) {
+
+		Assert.notNull(expiryThreshold, "Expiry threshold must not be null");
+		Assert.isTrue(!expiryThreshold.isNegative(),
+				"Expiry threshold must not be negative");
+
+		this.expiryThreshold = expiryThreshold;
+	}
+
+	/**
+	 * @return minimum renewal timeout.
+	 */
+	public Duration getMinRenewal() {
+		return minRenewal;
+	}
+
+	/**
+	 * @return expiry threshold.
+	 */
+	public Duration getExpiryThreshold() {
+		return expiryThreshold;
+	}
+
+	/**
+	 * Set the {@link LeaseStrategy} for lease renewal error handling.
+	 *
+	 * @param leaseStrategy the {@link LeaseStrategy}, must not be {@literal null}.
+	 */
+	public void setLeaseStrategy(LeaseStrategy leaseStrategy) {
+
+		Assert.notNull(leaseStrategy, "LeaseStrategy must not be null");
+		this.leaseStrategy = leaseStrategy;
+	}
+
+	/**
+	 * Set the {@link LeaseMetrics} to record lease acquisition, renewal latency, renewal
+	 * failures and expiry.
+	 *
+	 * @param leaseMetrics must not be {@literal null}.
+	 * @see SimpleLeaseMetrics
+	 */
+	public void setLeaseMetrics(LeaseMetrics leaseMetrics) {
+
+		Assert.notNull(leaseMetrics, "LeaseMetrics must not be null");
+		this.leaseMetrics = leaseMetrics;
+	}
+
+	/**
+	 * Set the {@link RenewalTiming} to determine when to renew leases. Defaults to
+	 * {@link RenewalTiming#fixed()} renewing at {@code leaseDuration - expiryThreshold}.
+	 * Use a randomized strategy such as {@link RenewalTiming#jittered(double)},
+	 * {@link RenewalTiming#fractionOfTtl(double, double)} or {@link AdaptiveRenewalTiming}
+	 * to spread renewals of many clients over time.
+	 *
+	 * @param renewalTiming must not be {@literal null}.
+	 */
+	public void setRenewalTiming(RenewalTiming renewalTiming) {
+
+		Assert.notNull(renewalTiming, "RenewalTiming must not be null");
+
+		this.renewalTiming = renewalTiming;
+	}
+
+	/**
+	 * Sets the {@link Scheduler} to use for lease renewal timers. The scheduler is not
+	 * disposed when this container is {@link #destroy() destroyed}.
+	 *
+	 * @param scheduler must not be {@literal null}.
+	 */
+	public void setScheduler(Scheduler scheduler) {
+
+		Assert.notNull(scheduler, "Scheduler must not be null");
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Request a renewable secret at {@code path}.
+	 *
+	 * @param path must not be {@literal null} or empty.
+	 * @return the {@link RequestedSecret}.
+	 */
+	public RequestedSecret requestRenewableSecret(String path) {
+		return addRequestedSecret(RequestedSecret.renewable(path));
+	}
+
+	/**
+	 * Request a rotating secret at {@code path}.
+	 *
+	 * @param path must not be {@literal null} or empty.
+	 * @return the {@link RequestedSecret}.
+	 */
+	public RequestedSecret requestRotatingSecret(String path) {
+		return addRequestedSecret(RequestedSecret.rotating(path));
+	}
+
+	/**
+	 * Add a {@link RequestedSecret}. Secrets added to a {@link #start() started}
+	 * container are requested asynchronously.
+	 *
+	 * @param requestedSecret must not be {@literal null}.
+	 */
+	public RequestedSecret addRequestedSecret(RequestedSecret requestedSecret) {
+
+		Assert.notNull(requestedSecret, "RequestedSecret must not be null");
+
+		this.requestedSecrets.add(requestedSecret);
+
+		if (initialized) {
+
+			LeaseRenewalScheduler leaseRenewalScheduler = new LeaseRenewalScheduler(
+					this.scheduler);
+			this.renewals.put(requestedSecret, leaseRenewalScheduler);
+
+			if (this.status == STATUS_STARTED) {
+				start(requestedSecret, leaseRenewalScheduler).subscribe();
+			}
+		}
+
+		return requestedSecret;
+	}
+
+	/**
+	 * Return a {@link Flux} of {@link SecretLeaseEvent}s published by this container,
+	 * including {@link SecretLeaseErrorEvent error events}. The returned {@link Flux} is
+	 * hot: subscribers receive events that are published after subscribing. Events are
+	 * buffered per subscriber if the subscriber cannot keep up. The {@link Flux}
+	 * completes when the container is {@link #destroy() destroyed}.
+	 *
+	 * @return the lease event stream.
+	 */
+	public Flux<SecretLeaseEvent> events() {
+		return this.processor.onBackpressureBuffer();
+	}
+
+	/**
+	 * Start the {@link ReactiveSecretLeaseContainer}. Starting the container will
+	 * initially obtain secrets and leases for the requested secrets. A started container
+	 * publishes events through {@link LeaseListener} and {@link #events()}. Additional
+	 * secrets can be requested at any time.
+	 * <p>
+	 * The container is started on subscription. The returned {@link Mono} completes once
+	 * secrets for all requested secrets were requested. Multiple subscriptions are
+	 * synchronized to start the container only once. Container start requires
+	 * {@link #afterPropertiesSet() initialization} and cannot be started once the
+	 * container was {@link #destroy() destroyed}.
+	 *
+	 * @return a {@link Mono} signalling completion of the startup.
+	 * @see #afterPropertiesSet()
+	 * @see #stop()
+	 */
+	public Mono<Void> start() {
+
+		return Mono.defer(() -> {
+
+			Assert.state(this.initialized, "Container is not initialized");
+			Assert.state(this.status != STATUS_DESTROYED,
+					"Container is destroyed and cannot be started");
+
+			Map<RequestedSecret, LeaseRenewalScheduler> renewals = new HashMap<>(
+					this.renewals);
+
+			if (!UPDATER.compareAndSet(this, STATUS_INITIAL, STATUS_STARTED)) {
+				return Mono.empty();
+			}
+
+			return Flux.fromIterable(renewals.entrySet())
+					.concatMap(entry -> start(entry.getKey(), entry.getValue())).then();
+		});
+	}
+
+	private Mono<Void> start(RequestedSecret requestedSecret,
+			LeaseRenewalScheduler renewalScheduler) {
+
+		return doGetSecrets(requestedSecret).doOnNext(secrets -> {
+
+			Lease lease;
+
+			if (StringUtils.hasText(secrets.getLeaseId())) {
+				lease = Lease.of(secrets.getLeaseId(),
+						Duration.ofSeconds(secrets.getLeaseDuration()),
+						secrets.isRenewable());
+			}
+			else if (isRotatingGenericSecret(requestedSecret, secrets)) {
+				lease = Lease
+						.fromTimeToLive(Duration.ofSeconds(secrets.getLeaseDuration()));
+			}
+			else {
+				lease = Lease.none();
+			}
+
+			if (isLeaseRenewable(lease, requestedSecret)) {
+				scheduleLeaseRenewal(requestedSecret, lease, renewalScheduler);
+			}
+			else if (isLeaseRotateOnly(lease, requestedSecret)) {
+				scheduleLeaseRotation(requestedSecret, lease, renewalScheduler);
+			}
+
+			this.leaseMetrics.onSecretsObtained(requestedSecret, lease);
+
+			onSecretsObtained(requestedSecret, lease, secrets.getRequiredData());
+		}).then();
+	}
+
+	private static boolean isRotatingGenericSecret(RequestedSecret requestedSecret,
+			VaultResponseSupport<Map<String, Object>> secrets) {
+
+		return Mode.ROTATE.equals(requestedSecret.getMode()) && !secrets.isRenewable()
+				&& secrets.getLeaseDuration() > 0;
+	}
+
+	/**
+	 * Stop the {@link ReactiveSecretLeaseContainer}. Stopping the container will stop
+	 * lease renewal, secrets rotation and event publishing. Active leases are not
+	 * expired.
+	 * <p>
+	 * Multiple calls are synchronized to stop the container only once.
+	 *
+	 * @see #start()
+	 */
+	public void stop() {
+
+		if (UPDATER.compareAndSet(this, STATUS_STARTED, STATUS_INITIAL)) {
+
+			for (LeaseRenewalScheduler leaseRenewal : this.renewals.values()) {
+				leaseRenewal.disableScheduleRenewal();
+			}
+		}
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+
+		if (!this.initialized) {
+
+			super.afterPropertiesSet();
+
+			this.initialized = true;
+
+			for (RequestedSecret requestedSecret : requestedSecrets) {
+				this.renewals.put(requestedSecret,
+						new LeaseRenewalScheduler(this.scheduler));
+			}
+		}
+	}
+
+	/**
+	 * Shutdown this {@link ReactiveSecretLeaseContainer}, disable lease renewal and
+	 * revoke leases. The returned {@link Mono} completes once all leases were revoked
+	 * and completes the {@link #events() event stream}.
+	 *
+	 * @return a {@link Mono} signalling completion of the shutdown.
+	 * @see #destroy()
+	 */
+	public Mono<Void> shutdown() {
+
+		return Mono.defer(() -> {
+
+			int status = this.status;
+
+			if (status == STATUS_DESTROYED
+					|| !UPDATER.compareAndSet(this, status, STATUS_DESTROYED)) {
+				return Mono.empty();
+			}
+
+			List<Mono<Void>> revocations = new ArrayList<>();
+
+			for (Entry<RequestedSecret, LeaseRenewalScheduler> entry : renewals
+					.entrySet()) {
+
+				Lease lease = entry.getValue().getLease();
+				entry.getValue().disableScheduleRenewal();
+
+				if (lease != null && lease.hasLeaseId()) {
+					revocations.add(doRevokeLease(entry.getKey(), lease));
+				}
+			}
+
+			return Flux.merge(revocations).then().doFinally(signal -> sink.complete());
+		});
+	}
+
+	/**
+	 * Shutdown this {@link ReactiveSecretLeaseContainer}, disable lease renewal and
+	 * revoke leases. This method awaits completion of lease revocation and must not be
+	 * called from a non-blocking thread. Use {@link #shutdown()} to compose shutdown
+	 * into a reactive flow.
+	 *
+	 * @see #shutdown()
+	 * @see #afterPropertiesSet()
+	 * @see #start()
+	 * @see #stop()
+	 */
+	@Override
+	public void destroy() throws Exception {
+		shutdown().block();
+	}
+
+	/**
+	 * Renew a {@link RequestedSecret secret}.
+	 *
+	 * @param secret the {@link RequestedSecret secret}' to renew.
+	 * @return a {@link Mono} emitting {@literal true} if the lease was renewed.
+	 * @throws IllegalArgumentException if the {@link RequestedSecret secret} was not
+	 *     previously {@link #addRequestedSecret(RequestedSecret) registered}.
+	 * @throws IllegalStateException if there's no {@link Lease} associated with the
+	 *     {@link RequestedSecret secret} or the secret is not qualified for renewal.
+	 */
+	public Mono<Boolean> renew(RequestedSecret secret) {
+
+		LeaseRenewalScheduler renewalScheduler = getRenewalScheduler(secret);
+		Lease lease = renewalScheduler.getLease();
+
+		if (lease == null) {
+			throw new IllegalStateException(
+					String.format("No lease associated with secret %s", secret));
+		}
+
+		if (!isLeaseRenewable(lease, secret)) {
+			throw new IllegalStateException("Secret is not qualified for renewal");
+		}
+
+		return renewAndSchedule(secret, renewalScheduler, lease)
+				.map(renewed -> renewed != lease);
+	}
+
+	/**
+	 * Rotate a {@link RequestedSecret secret}.
+	 *
+	 * @param secret the {@link RequestedSecret secret}' to rotate.
+	 * @return a {@link Mono} signalling completion of the rotation.
+	 * @throws IllegalArgumentException if the {@link RequestedSecret secret} was not
+	 *     previously {@link #addRequestedSecret(RequestedSecret) registered}.
+	 * @throws IllegalStateException if there's no {@link Lease} associated with the
+	 *     {@link RequestedSecret secret} or the secret is not qualified for rotation.
+	 */
+	public Mono<Void> rotate(RequestedSecret secret) {
+
+		LeaseRenewalScheduler renewalScheduler = getRenewalScheduler(secret);
+		Lease lease = renewalScheduler.getLease();
+
+		if (lease == null) {
+			throw new IllegalStateException(
+					String.format("No lease associated with secret %s", secret));
+		}
+
+		if (!isLeaseRenewable(lease, secret) && !isLeaseRotateOnly(lease, secret)) {
+			throw new IllegalStateException("Secret is not qualified for rotation");
+		}
+
+		return expire(secret, lease);
+	}
+
+	private void scheduleLeaseRenewal(RequestedSecret requestedSecret, Lease lease,
+			LeaseRenewalScheduler leaseRenewal) {
+
+		logRenewalCandidate(requestedSecret, lease, "renewal");
+
+		leaseRenewal.scheduleRenewal(requestedSecret,
+				leaseToRenew -> renewAndSchedule(requestedSecret, leaseRenewal,
+						leaseToRenew),
+				lease, getMinRenewal(), getExpiryThreshold(), this.renewalTiming);
+	}
+
+	private Mono<Lease> renewAndSchedule(RequestedSecret requestedSecret,
+			LeaseRenewalScheduler leaseRenewal, Lease leaseToRenew) {
+
+		return doRenewLease(requestedSecret, leaseToRenew).doOnNext(newLease -> {
+
+			if (!Lease.none().equals(newLease)) {
+
+				scheduleLeaseRenewal(requestedSecret, newLease, leaseRenewal);
+
+				onAfterLeaseRenewed(requestedSecret, newLease);
+			}
+		});
+	}
+
+	private void scheduleLeaseRotation(RequestedSecret secret, Lease lease,
+			LeaseRenewalScheduler leaseRenewal) {
+
+		logRenewalCandidate(secret, lease, "rotation");
+
+		// rotation creates a new lease.
+		leaseRenewal.scheduleRenewal(secret,
+				leaseToRotate -> expire(secret, lease).thenReturn(Lease.none()), lease,
+				getMinRenewal(), getExpiryThreshold(), this.renewalTiming);
+	}
+
+	private LeaseRenewalScheduler getRenewalScheduler(RequestedSecret secret) {
+
+		LeaseRenewalScheduler renewalScheduler = this.renewals.get(secret);
+
+		if (renewalScheduler == null) {
+			throw new IllegalArgumentException(
+					String.format("No such secret %s", secret));
+		}
+		return renewalScheduler;
+	}
+
+	/**
+	 * Notify listeners about the expired {@link Lease} and request a new secret if the
+	 * {@link RequestedSecret} is {@link Mode#ROTATE rotating}.
+	 */
+	private Mono<Void> expire(RequestedSecret requestedSecret, Lease lease) {
+
+		return Mono.defer(() -> {
+
+			this.leaseMetrics.onLeaseExpired(requestedSecret, lease);
+
+			onLeaseExpired(requestedSecret, lease);
+
+			LeaseRenewalScheduler renewalScheduler = renewals.get(requestedSecret);
+
+			if (requestedSecret.getMode() == Mode.ROTATE && renewalScheduler != null) {
+				return start(requestedSecret, renewalScheduler);
+			}
+
+			return Mono.empty();
+		});
+	}
+
+	private static void logRenewalCandidate(RequestedSecret requestedSecret, Lease lease,
+			String action) {
+
+		if (log.isDebugEnabled()) {
+
+			if (lease.hasLeaseId()) {
+				log.debug(String.format("Secret %s with Lease %s qualified for %s",
+						requestedSecret.getPath(), lease.getLeaseId(), action));
+			}
+			else {
+				log.debug(String.format("Secret %s with cache hint is qualified for %s",
+						requestedSecret.getPath(), action));
+			}
+		}
+	}
+
+	private static boolean isLeaseRenewable(@Nullable Lease lease,
+			RequestedSecret requestedSecret) {
+
+		if (lease == null) {
+			return false;
+		}
+
+		return lease.isRenewable()
+				|| (!lease.hasLeaseId() && requestedSecret.getMode() == Mode.ROTATE);
+	}
+
+	private static boolean isLeaseRotateOnly(@Nullable Lease lease,
+			RequestedSecret requestedSecret) {
+
+		if (lease == null) {
+			return false;
+		}
+
+		return lease.hasLeaseId() && !lease.isRenewable()
+				&& requestedSecret.getMode() == Mode.ROTATE;
+	}
+
+	// -------------------------------------------------------------------------
+	// Implementation hooks and helper methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Retrieve secrets from {@link ReactiveVaultOperations}. Errors are reported through
+	 * {@link #onError(RequestedSecret, Lease, Exception)} and result in an empty
+	 * {@link Mono}.
+	 *
+	 * @param requestedSecret the {@link RequestedSecret} providing the secret
+	 *     {@code path}.
+	 * @return the response. Emits no element if the secret was not found.
+	 */
+	protected Mono<VaultResponse> doGetSecrets(RequestedSecret requestedSecret) {
+
+		return this.keyValueDelegate.getSecret(requestedSecret.getPath())
+				.switchIfEmpty(
+						Mono.fromRunnable(() -> onSecretsNotFound(requestedSecret)))
+				.onErrorResume(Exception.class, e -> {
+
+					onError(requestedSecret, Lease.none(), e);
+					return Mono.empty();
+				});
+	}
+
+	/**
+	 * Renew a {@link Lease} for a {@link RequestedSecret}.
+	 *
+	 * @param requestedSecret the requested secret.
+	 * @param lease the lease.
+	 * @return the new lease or {@link Lease#none()} if expired/secret cannot be rotated.
+	 */
+	protected Mono<Lease> doRenewLease(RequestedSecret requestedSecret, Lease lease) {
+
+		Mono<Lease> renewal = lease.hasLeaseId() ? doRenew(lease) : Mono.just(lease);
+
+		return Mono.defer(() -> {
+
+			long start = System.nanoTime();
+
+			return renewal.flatMap(renewed -> {
+
+				if (!renewed.hasLeaseId() || renewed.getLeaseDuration().isZero() || renewed
+						.getLeaseDuration().getSeconds() < minRenewal.getSeconds()) {
+
+					return expire(requestedSecret, lease).thenReturn(Lease.none());
+				}
+
+				if (lease.hasLeaseId()) {
+
+					Duration duration = Duration.ofNanos(System.nanoTime() - start);
+
+					this.renewalTiming.onRenewal(duration, null);
+					this.leaseMetrics.onLeaseRenewed(requestedSecret, renewed, duration);
+				}
+
+				return Mono.just(renewed);
+			}).onErrorResume(Exception.class, e -> {
+
+				WebClientResponseException responseException = potentiallyUnwrapResponseException(
+						e);
+
+				boolean expired = false;
+				Exception exceptionToUse;
+				if (responseException != null) {
+
+					expired = responseException.getStatusCode() == HttpStatus.BAD_REQUEST;
+
+					exceptionToUse = new VaultException(String.format(
+							"Cannot renew lease: Status %s %s%s",
+							responseException.getRawStatusCode(),
+							responseException.getStatusText(),
+							VaultResponses.getError(responseException.getResponseBodyAsString())),
+							e);
+				}
+				else {
+					exceptionToUse = new VaultException("Cannot renew lease", e);
+				}
+
+				Mono<Void> expiry = expired ? expire(requestedSecret, lease) : Mono.empty();
+				boolean dropped = expired || leaseStrategy.shouldDrop(exceptionToUse);
+
+				Duration duration = Duration.ofNanos(System.nanoTime() - start);
+
+				this.renewalTiming.onRenewal(duration, exceptionToUse);
+				this.leaseMetrics.onLeaseRenewalFailed(requestedSecret, lease, duration,
+						exceptionToUse, dropped);
+
+				return expiry.then(Mono.fromSupplier(() -> {
+
+					onError(requestedSecret, lease, exceptionToUse);
+					return dropped ? Lease.none() : lease;
+				}));
+			});
+		});
+	}
+
+	@Nullable
+	private static WebClientResponseException potentiallyUnwrapResponseException(
+			Throwable e) {
+
+		if (e instanceof WebClientResponseException) {
+			return (WebClientResponseException) e;
+		}
+
+		if (e.getCause() instanceof WebClientResponseException) {
+			return (WebClientResponseException) e.getCause();
+		}
+
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Mono<Lease> doRenew(Lease lease) {
+
+		return this.operations.doWithSession(client -> client.put()
+				.uri(getRenewPath(this.leaseEndpoints))
+				.syncBody(getLeaseRenewalBody(lease)).retrieve().bodyToMono(Map.class)
+				.map(ReactiveSecretLeaseContainer::toLease));
+	}
+
+	/**
+	 * Revoke the {@link Lease}. Errors are reported through
+	 * {@link #onError(RequestedSecret, Lease, Exception)}.
+	 *
+	 * @param requestedSecret must not be {@literal null}.
+	 * @param lease must not be {@literal null}.
+	 * @return a {@link Mono} signalling completion of the revocation.
+	 */
+	protected Mono<Void> doRevokeLease(RequestedSecret requestedSecret, Lease lease) {
+
+		Mono<Void> revoke = this.operations.doWithSession(client -> client.put()
+				.uri(getRevokePath(this.leaseEndpoints))
+				.syncBody(getLeaseRevocationBody(lease)).retrieve()
+				.bodyToMono(String.class).then());
+
+		return Mono.fromRunnable(() -> onBeforeLeaseRevocation(requestedSecret, lease))
+				.then(revoke)
+				.then(Mono.<Void> fromRunnable(() -> {
+
+					this.leaseMetrics.onLeaseRevoked(requestedSecret, lease);
+					onAfterLeaseRevocation(requestedSecret, lease);
+				}))
+				.onErrorResume(Exception.class, e -> {
+
+					if (e instanceof WebClientResponseException) {
+						onError(requestedSecret, lease,
+								new VaultException(String.format(
+										"Cannot revoke lease: %s",
+										VaultResponses.getError(((WebClientResponseException) e)
+												.getResponseBodyAsString()))));
+					}
+					else {
+						onError(requestedSecret, lease, e);
+					}
+
+					return Mono.empty();
+				});
+	}
+
+	@Override
+	void dispatch(SecretLeaseEvent leaseEvent) {
+
+		super.dispatch(leaseEvent);
+		this.sink.next(leaseEvent);
+	}
+
+	@Override
+	void dispatch(SecretLeaseErrorEvent errorEvent) {
+
+		super.dispatch(errorEvent);
+		this.sink.next(errorEvent);
+	}
+
+	private static String getRenewPath(LeaseEndpoints leaseEndpoints) {
+		return leaseEndpoints == LeaseEndpoints.Legacy ? "sys/renew" : "sys/leases/renew";
+	}
+
+	private static String getRevokePath(LeaseEndpoints leaseEndpoints) {
+		return leaseEndpoints == LeaseEndpoints.Legacy ? "sys/revoke"
+				: "sys/leases/revoke";
+	}
+
+	private static Lease toLease(Map<String, Object> body) {
+
+		String leaseId = (String) body.get("lease_id");
+		Number leaseDuration = (Number) body.get("lease_duration");
+		boolean renewable = (Boolean) body.get("renewable");
+
+		return Lease.of(leaseId,
+				Duration.ofSeconds(leaseDuration != null ? leaseDuration.longValue() : 0),
+				renewable);
+	}
+
+	private static Map<String, String> getLeaseRenewalBody(Lease lease) {
+
+		Map<String, String> leaseRenewalData = new HashMap<>();
+		leaseRenewalData.put("lease_id", lease.getLeaseId());
+		leaseRenewalData.put("increment",
+				Long.toString(lease.getLeaseDuration().getSeconds()));
+
+		return leaseRenewalData;
+	}
+
+	private static Map<String, String> getLeaseRevocationBody(Lease lease) {
+		return Collections.singletonMap("lease_id", lease.getLeaseId());
+	}
+
+	/**
+	 * Abstracts scheduled lease renewal using Reactor timers. A
+	 * {@link LeaseRenewalScheduler} can be accessed concurrently to schedule lease
+	 * renewal. Each renewal run checks if the previously attached {@link Lease} is still
+	 * relevant to update. If any other process scheduled a newer {@link Lease} for
+	 * renewal, the previously registered renewal timer is disposed.
+	 */
+	static class LeaseRenewalScheduler {
+
+		private static final Log log = LogFactory.getLog(LeaseRenewalScheduler.class);
+
+		private final Scheduler scheduler;
+
+		final AtomicReference<Lease> currentLeaseRef = new AtomicReference<>();
+
+		final AtomicReference<Disposable> timerRef = new AtomicReference<>();
+
+		/**
+		 * @param scheduler must not be {@literal null}.
+		 */
+		LeaseRenewalScheduler(Scheduler scheduler) {
+			this.scheduler = scheduler;
+		}
+
+		/**
+		 * Schedule {@link Lease} renewal. A previously registered renewal timer is
+		 * disposed to prevent renewal of stale {@link Lease}s.
+		 *
+		 * @param requestedSecret the requested secret.
+		 * @param renewLease strategy to renew a {@link Lease}.
+		 * @param lease the current {@link Lease}.
+		 * @param minRenewal minimum duration before renewing a {@link Lease}. This is to
+		 *     prevent too many renewals in a very short timeframe.
+		 * @param expiryThreshold duration to renew before {@link Lease}.
+		 * @param renewalTiming strategy to determine the renewal delay.
+		 */
+		void scheduleRenewal(RequestedSecret requestedSecret,
+				Function<Lease, Mono<Lease>> renewLease, Lease lease,
+				Duration minRenewal, Duration expiryThreshold,
+				RenewalTiming renewalTiming) {
+
+			if (log.isDebugEnabled()) {
+				log.debug(String.format(
+						"Scheduling renewal for secret %s with lease %s, lease duration %d",
+						requestedSecret.getPath(), lease.getLeaseId(),
+						lease.getLeaseDuration().getSeconds()));
+			}
+
+			this.currentLeaseRef.set(lease);
+
+			// The timer only triggers renewal so that a renewal in progress is not
+			// canceled when it schedules its successor.
+			Disposable timer = Mono
+					.delay(renewalTiming.getRenewalDelay(lease.getLeaseDuration(),
+							minRenewal, expiryThreshold),
+							this.scheduler)
+					.subscribe(tick -> renew(requestedSecret, renewLease, lease));
+
+			Disposable previous = this.timerRef.getAndSet(timer);
+			if (previous != null) {
+				previous.dispose();
+			}
+		}
+
+		private void renew(RequestedSecret requestedSecret,
+				Function<Lease, Mono<Lease>> renewLease, Lease lease) {
+
+			if (this.currentLeaseRef.get() != lease) {
+				log.debug("Current lease has changed. Skipping renewal");
+				return;
+			}
+
+			if (log.isDebugEnabled()) {
+				log.debug(String.format("Renewing lease %s for secret %s",
+						lease.getLeaseId(), requestedSecret.getPath()));
+			}
+
+			// Renew lease may call scheduleRenewal(…) with a different lease Id to set up
+			// its own renewal schedule. If it's the old lease, then the renewLease()
+			// outcome controls the current lease.
+			renewLease.apply(lease).subscribe(
+					renewed -> this.currentLeaseRef.compareAndSet(lease, renewed),
+					e -> log.error(
+							String.format("Cannot renew lease %s", lease.getLeaseId()),
+							e));
+		}
+
+		/**
+		 * Disables schedule for already scheduled renewals.
+		 */
+		void disableScheduleRenewal() {
+
+			this.currentLeaseRef.set(null);
+
+			Disposable timer = this.timerRef.getAndSet(null);
+			if (timer != null) {
+				timer.dispose();
+			}
+		}
+
+
+		@Nullable
+		Lease getLease() {
+			return this.currentLeaseRef.get();
+		}
+	}
+}
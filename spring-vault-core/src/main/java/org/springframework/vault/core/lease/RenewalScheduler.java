@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.lease;
+
+import java.time.Duration;
+
+/**
+ * Strategy interface to schedule one-shot lease renewal tasks. A
+ * {@link RenewalScheduler} is used by {@link SecretLeaseContainer} as an alternative to
+ * a {@link org.springframework.scheduling.TaskScheduler} to decouple renewal scheduling
+ * from a general-purpose scheduler.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see SecretLeaseContainer#setRenewalScheduler(RenewalScheduler)
+ * @see TimingWheelRenewalScheduler
+ */
+@FunctionalInterface
+public interface RenewalScheduler {
+
+	/**
+	 * Schedule a renewal {@code task} to run once after the given {@code delay}.
+	 * Implementations may run the task earlier than the requested {@code delay} but must
+	 * not defer it beyond the {@code delay} by more than their scheduling resolution.
+	 *
+	 * @param task the renewal task, must not be {@literal null}.
+	 * @param delay the delay after which to run the task, must not be {@literal null}.
+	 * @return the {@link ScheduledRenewal} to cancel the scheduled task.
+	 */
+	ScheduledRenewal schedule(Runnable task, Duration delay);
+
+	/**
+	 * Handle to a scheduled renewal task.
+	 */
+	@FunctionalInterface
+	interface ScheduledRenewal {
+
+		/**
+		 * Cancel the scheduled task. Canceling a task that already ran or is currently
+		 * running has no effect.
+		 */
+		void cancel();
+	}
+}
@@ -16,17 +16,27 @@
 package org.springframework.vault.core.lease;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReference;
@@ -36,6 +46,8 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.Nullable;
 import org.springframework.scheduling.TaskScheduler;
@@ -47,13 +59,18 @@ import org.springframework.util.StringUtils;
 import org.springframework.vault.VaultException;
 import org.springframework.vault.client.VaultResponses;
 import org.springframework.vault.core.VaultOperations;
+import org.springframework.vault.core.lease.RenewalScheduler.ScheduledRenewal;
 import org.springframework.vault.core.lease.domain.Lease;
 import org.springframework.vault.core.lease.domain.RequestedSecret;
 import org.springframework.vault.core.lease.domain.RequestedSecret.Mode;
 import org.springframework.vault.core.lease.event.LeaseErrorListener;
 import org.springframework.vault.core.lease.event.LeaseListener;
+import org.springframework.vault.core.lease.event.SecretLeaseErrorEvent;
+import org.springframework.vault.core.lease.event.SecretLeaseEvent;
 import org.springframework.vault.core.util.KeyValueDelegate;
+import org.springframework.vault.support.AdaptiveRenewalTiming;
 import org.springframework.vault.support.LeaseStrategy;
+import org.springframework.vault.support.RenewalTiming;
 import org.springframework.vault.support.VaultResponseSupport;
 import org.springframework.web.client.HttpStatusCodeException;
 
@@ -96,7 +113,10 @@ import org.springframework.web.client.HttpStatusCodeException;
  * This container keeps track over {@link RequestedSecret}s and requests secrets upon
  * {@link #start()}. Leases qualified for {@link Lease#isRenewable() renewal} are renewed
  * by this container applying {@code minRenewalSeconds}/{@code expiryThresholdSeconds} on
- * a {@link TaskScheduler background thread}.
+ * a {@link TaskScheduler background thread}. Renewal scheduling can be customized by
+ * providing a {@link RenewalScheduler}, such as {@link TimingWheelRenewalScheduler} for
+ * containers that manage a large number of leases. Configuring a {@link LeaseJournal}
+ * allows re-adopting still-valid leases after a restart.
  * <p>
  * Requests for secrets can define either renewal or rotation. The container renews leases
  * until expiry. Rotating secrets renew their associated lease until expiry and request
@@ -118,6 +138,8 @@ import org.springframework.web.client.HttpStatusCodeException;
  * @see Lease
  * @see LeaseEndpoints
  * @see LeaseStrategy
+ * @see RenewalScheduler
+ * @see LeaseJournal
  */
 public class SecretLeaseContainer extends SecretLeaseEventPublisher
 		implements InitializingBean, DisposableBean {
@@ -127,6 +149,12 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 
 	private static final AtomicInteger poolId = new AtomicInteger();
 
+	/**
+	 * Events published while obtaining secrets concurrently. Deferred events are
+	 * dispatched in request order by the starting thread.
+	 */
+	private static final ThreadLocal<List<Runnable>> DEFERRED_EVENTS = new ThreadLocal<>();
+
 	private static final int STATUS_INITIAL = 0;
 	private static final int STATUS_STARTED = 1;
 	private static final int STATUS_DESTROYED = 2;
@@ -153,6 +181,25 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 
 	private boolean manageTaskScheduler;
 
+	@Nullable
+	private RenewalScheduler renewalScheduler;
+
+	private boolean batchRenewals;
+
+	private int maxConcurrentRenewals = 4;
+
+	private int startupConcurrency = 1;
+
+	@Nullable
+	private volatile TaskExecutor startupExecutor;
+
+	@Nullable
+	private LeaseJournal leaseJournal;
+
+	private LeaseMetrics leaseMetrics = LeaseMetrics.none();
+
+	private RenewalTiming renewalTiming = RenewalTiming.fixed();
+
 	private volatile boolean initialized;
 
 	private volatile int status = STATUS_INITIAL;
@@ -187,6 +234,25 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 		setTaskScheduler(taskScheduler);
 	}
 
+	/**
+	 * Create a new {@link SecretLeaseContainer} given {@link VaultOperations} and
+	 * {@link RenewalScheduler}.
+	 *
+	 * @param operations must not be {@literal null}.
+	 * @param renewalScheduler must not be {@literal null}.
+	 * @since 2.2
+	 */
+	public SecretLeaseContainer(VaultOperations operations,
+			RenewalScheduler renewalScheduler) {
+
+		Assert.notNull(operations, "VaultOperations must not be null");
+		Assert.notNull(renewalScheduler, "RenewalScheduler must not be null");
+
+		this.operations = operations;
+		this.keyValueDelegate = new KeyValueDelegate(this.operations);
+		setRenewalScheduler(renewalScheduler);
+	}
+
 	/**
 	 * Set the {@link LeaseEndpoints} to delegate renewal/revocation calls to.
 	 * {@link LeaseEndpoints} encapsulates differences between Vault versions that affect
@@ -312,6 +378,147 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 		this.taskScheduler = taskScheduler;
 	}
 
+	/**
+	 * Sets the {@link RenewalScheduler} to use for scheduling lease renewals. A
+	 * {@link RenewalScheduler} takes precedence over a {@link TaskScheduler}. The
+	 * {@link RenewalScheduler} lifecycle is not managed by this container.
+	 *
+	 * @param renewalScheduler must not be {@literal null}.
+	 * @since 2.2
+	 * @see TimingWheelRenewalScheduler
+	 */
+	public void setRenewalScheduler(RenewalScheduler renewalScheduler) {
+
+		Assert.notNull(renewalScheduler, "RenewalScheduler must not be null");
+		this.renewalScheduler = renewalScheduler;
+	}
+
+	/**
+	 * Enable or disable batched lease renewal. Batched renewal groups leases whose
+	 * renewal is due within {@link #setMinRenewal(Duration) min renewal} of each other
+	 * and renews them in a single scheduler tick instead of waking up for each lease.
+	 * Renewals of a batch are issued with at most
+	 * {@link #setMaxConcurrentRenewals(int) max concurrent renewals} concurrent requests
+	 * and reuse connections of the underlying HTTP client if it is configured with
+	 * connection pooling. Each renewed lease is published through its own
+	 * {@link org.springframework.vault.core.lease.event.AfterSecretLeaseRenewedEvent}.
+	 * <p>
+	 * Concurrent renewal requires a {@link TaskScheduler} that also implements
+	 * {@link Executor}, such as {@link ThreadPoolTaskScheduler}. Renewals are issued
+	 * sequentially otherwise. Must be configured before
+	 * {@link #afterPropertiesSet() initialization}. Disabled by default.
+	 *
+	 * @param batchRenewals {@literal true} to group renewals.
+	 * @since 2.2
+	 */
+	public void setBatchRenewals(boolean batchRenewals) {
+		this.batchRenewals = batchRenewals;
+	}
+
+	/**
+	 * Set the maximum number of concurrent renewal requests of a renewal batch. Defaults
+	 * to {@literal 4}.
+	 *
+	 * @param maxConcurrentRenewals must be greater {@literal 0}.
+	 * @since 2.2
+	 * @see #setBatchRenewals(boolean)
+	 */
+	public void setMaxConcurrentRenewals(int maxConcurrentRenewals) {
+
+		Assert.isTrue(maxConcurrentRenewals > 0,
+				"Max concurrent renewals must be greater 0");
+
+		this.maxConcurrentRenewals = maxConcurrentRenewals;
+	}
+
+	/**
+	 * Set the number of secrets that are obtained concurrently when
+	 * {@link #start() starting} the container or when
+	 * {@link #addRequestedSecrets(Collection) adding multiple secrets} to a started
+	 * container. Events are dispatched in the order in which secrets were requested,
+	 * regardless of the order in which responses arrive. Defaults to {@literal 1}
+	 * (sequential acquisition).
+	 *
+	 * @param startupConcurrency must be greater {@literal 0}.
+	 * @since 2.2
+	 * @see #setStartupExecutor(TaskExecutor)
+	 */
+	public void setStartupConcurrency(int startupConcurrency) {
+
+		Assert.isTrue(startupConcurrency > 0, "Startup concurrency must be greater 0");
+
+		this.startupConcurrency = startupConcurrency;
+	}
+
+	/**
+	 * Sets the {@link TaskExecutor} to obtain secrets concurrently. If not set, the
+	 * container uses a {@link SimpleAsyncTaskExecutor} creating daemon threads on demand.
+	 *
+	 * @param startupExecutor must not be {@literal null}.
+	 * @since 2.2
+	 * @see #setStartupConcurrency(int)
+	 */
+	public void setStartupExecutor(TaskExecutor startupExecutor) {
+
+		Assert.notNull(startupExecutor, "Startup TaskExecutor must not be null");
+
+		this.startupExecutor = startupExecutor;
+	}
+
+	/**
+	 * Set the {@link LeaseJournal} to record obtained leases. A journal allows a
+	 * restarted application to re-adopt still-valid leases: on {@link #start() start},
+	 * the container renews a journaled lease and reuses its secrets instead of requesting
+	 * new secrets. Leases that cannot be renewed are discarded and secrets are requested
+	 * as usual.
+	 * <p>
+	 * Leases are not revoked on {@link #destroy()} when using a journal so that they can
+	 * be re-adopted after a restart. The journal lifecycle is not managed by the
+	 * container.
+	 *
+	 * @param leaseJournal must not be {@literal null}.
+	 * @since 2.2
+	 * @see FileLeaseJournal
+	 */
+	public void setLeaseJournal(LeaseJournal leaseJournal) {
+
+		Assert.notNull(leaseJournal, "LeaseJournal must not be null");
+
+		this.leaseJournal = leaseJournal;
+	}
+
+	/**
+	 * Set the {@link LeaseMetrics} to record lease acquisition, renewal latency, renewal
+	 * failures and expiry.
+	 *
+	 * @param leaseMetrics must not be {@literal null}.
+	 * @since 2.2
+	 * @see SimpleLeaseMetrics
+	 */
+	public void setLeaseMetrics(LeaseMetrics leaseMetrics) {
+
+		Assert.notNull(leaseMetrics, "LeaseMetrics must not be null");
+
+		this.leaseMetrics = leaseMetrics;
+	}
+
+	/**
+	 * Set the {@link RenewalTiming} to determine when to renew leases. Defaults to
+	 * {@link RenewalTiming#fixed()} renewing at {@code leaseDuration - expiryThreshold}.
+	 * Use a randomized strategy such as {@link RenewalTiming#jittered(double)},
+	 * {@link RenewalTiming#fractionOfTtl(double, double)} or {@link AdaptiveRenewalTiming}
+	 * to spread renewals of many clients over time.
+	 *
+	 * @param renewalTiming must not be {@literal null}.
+	 * @since 2.2
+	 */
+	public void setRenewalTiming(RenewalTiming renewalTiming) {
+
+		Assert.notNull(renewalTiming, "RenewalTiming must not be null");
+
+		this.renewalTiming = renewalTiming;
+	}
+
 	/**
 	 * Request a renewable secret at {@code path}.
 	 *
@@ -345,10 +552,11 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 
 		if (initialized) {
 
-			Assert.state(this.taskScheduler != null, "TaskScheduler must not be null");
+			Assert.state(this.renewalScheduler != null,
+					"RenewalScheduler must not be null");
 
 			LeaseRenewalScheduler leaseRenewalScheduler = new LeaseRenewalScheduler(
-					this.taskScheduler);
+					this.renewalScheduler);
 			this.renewals.put(requestedSecret, leaseRenewalScheduler);
 
 			if (this.status == STATUS_STARTED) {
@@ -359,6 +567,43 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 		return requestedSecret;
 	}
 
+	/**
+	 * Add multiple {@link RequestedSecret}s. Secrets added to a {@link #start() started}
+	 * container are obtained concurrently according to
+	 * {@link #setStartupConcurrency(int) startup concurrency}. This method returns after
+	 * all secrets were obtained.
+	 *
+	 * @param requestedSecrets must not be {@literal null}.
+	 * @since 2.2
+	 */
+	public void addRequestedSecrets(Collection<RequestedSecret> requestedSecrets) {
+
+		Assert.notNull(requestedSecrets, "RequestedSecrets must not be null");
+
+		List<RequestedSecret> secrets = new ArrayList<>(requestedSecrets.size());
+
+		for (RequestedSecret requestedSecret : requestedSecrets) {
+
+			Assert.notNull(requestedSecret, "RequestedSecret must not be null");
+
+			this.requestedSecrets.add(requestedSecret);
+
+			if (initialized) {
+
+				Assert.state(this.renewalScheduler != null,
+						"RenewalScheduler must not be null");
+
+				this.renewals.put(requestedSecret,
+						new LeaseRenewalScheduler(this.renewalScheduler));
+				secrets.add(requestedSecret);
+			}
+		}
+
+		if (this.status == STATUS_STARTED) {
+			start(secrets);
+		}
+	}
+
 	/**
 	 * Start the {@link SecretLeaseContainer}. Starting the container will initially
 	 * obtain secrets and leases for the requested secrets. A started container publishes
@@ -378,22 +623,235 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 		Assert.state(this.status != STATUS_DESTROYED,
 				"Container is destroyed and cannot be started");
 
-		Map<RequestedSecret, LeaseRenewalScheduler> renewals = new HashMap<>(
-				this.renewals);
+		Set<RequestedSecret> requestedSecrets = new LinkedHashSet<>(
+				this.requestedSecrets);
 
 		if (UPDATER.compareAndSet(this, STATUS_INITIAL, STATUS_STARTED)) {
+			start(requestedSecrets);
+		}
+	}
+
+	/**
+	 * Obtain secrets for {@code requestedSecrets}, potentially concurrently. Events of
+	 * each secret are dispatched on the calling thread in the order of
+	 * {@code requestedSecrets}. Returns once all secrets are obtained.
+	 */
+	private void start(Collection<RequestedSecret> requestedSecrets) {
 
-			for (Entry<RequestedSecret, LeaseRenewalScheduler> entry : renewals
-					.entrySet()) {
-				start(entry.getKey(), entry.getValue());
+		if (this.startupConcurrency == 1 || requestedSecrets.size() < 2) {
+
+			for (RequestedSecret requestedSecret : requestedSecrets) {
+
+				LeaseRenewalScheduler renewalScheduler = this.renewals
+						.get(requestedSecret);
+				if (renewalScheduler != null) {
+					start(requestedSecret, renewalScheduler);
+				}
+			}
+
+			return;
+		}
+
+		Deque<SecretAcquisition> inFlight = new ArrayDeque<>(this.startupConcurrency);
+		Iterator<RequestedSecret> iterator = requestedSecrets.iterator();
+
+		while (iterator.hasNext() || !inFlight.isEmpty()) {
+
+			while (iterator.hasNext() && inFlight.size() < this.startupConcurrency) {
+
+				RequestedSecret requestedSecret = iterator.next();
+				LeaseRenewalScheduler renewalScheduler = this.renewals
+						.get(requestedSecret);
+
+				if (renewalScheduler != null) {
+					inFlight.add(new SecretAcquisition(requestedSecret, renewalScheduler));
+				}
+			}
+
+			SecretAcquisition acquisition = inFlight.poll();
+			if (acquisition != null) {
+				acquisition.complete();
 			}
 		}
 	}
 
+	/**
+	 * Return the {@link TaskExecutor} to obtain secrets concurrently, creating a default
+	 * executor on first use so that the startup concurrency can be changed after
+	 * {@link #afterPropertiesSet() initialization}.
+	 */
+	private TaskExecutor getStartupExecutor() {
+
+		TaskExecutor executor = this.startupExecutor;
+
+		if (executor != null) {
+			return executor;
+		}
+
+		synchronized (this) {
+
+			if (this.startupExecutor == null) {
+
+				SimpleAsyncTaskExecutor startupExecutor = new SimpleAsyncTaskExecutor(
+						String.format("%s-startup-%d-", getClass().getSimpleName(),
+								poolId.incrementAndGet()));
+				startupExecutor.setDaemon(true);
+				startupExecutor.setConcurrencyLimit(this.startupConcurrency);
+
+				this.startupExecutor = startupExecutor;
+			}
+
+			return this.startupExecutor;
+		}
+	}
+
 	private void start(RequestedSecret requestedSecret,
 			LeaseRenewalScheduler renewalScheduler) {
+		applySecrets(requestedSecret, renewalScheduler, obtainSecrets(requestedSecret));
+	}
+
+	/**
+	 * Obtain secrets by re-adopting a journaled lease or by requesting secrets from
+	 * Vault.
+	 */
+	@Nullable
+	private VaultResponseSupport<Map<String, Object>> obtainSecrets(
+			RequestedSecret requestedSecret) {
+
+		VaultResponseSupport<Map<String, Object>> adopted = adoptLease(requestedSecret);
+
+		return adopted != null ? adopted : doGetSecrets(requestedSecret);
+	}
+
+	/**
+	 * Re-adopt a journaled lease by renewing it. Leases that are about to expire or that
+	 * cannot be renewed are removed from the journal.
+	 *
+	 * @return the journaled secrets along with the renewed lease or {@literal null} if
+	 *     no lease could be re-adopted.
+	 */
+	@Nullable
+	private VaultResponseSupport<Map<String, Object>> adoptLease(
+			RequestedSecret requestedSecret) {
 
-		VaultResponseSupport<Map<String, Object>> secrets = doGetSecrets(requestedSecret);
+		LeaseJournal journal = this.leaseJournal;
+
+		if (journal == null) {
+			return null;
+		}
+
+		LeaseJournal.Entry entry;
+		try {
+			entry = journal.get(requestedSecret);
+		}
+		catch (RuntimeException e) {
+
+			log.warn(String.format("Cannot read lease journal for secret %s",
+					requestedSecret.getPath()), e);
+			return null;
+		}
+
+		if (entry == null) {
+			return null;
+		}
+
+		Lease lease = entry.getLease();
+		Duration remaining = entry.getRemaining(Instant.now());
+
+		if (lease.hasLeaseId() && lease.isRenewable()
+				&& remaining.compareTo(getExpiryThreshold()) > 0) {
+
+			try {
+
+				Lease renewed = doRenew(lease);
+
+				if (renewed.hasLeaseId()
+						&& renewed.getLeaseDuration().compareTo(getMinRenewal()) >= 0) {
+
+					if (log.isDebugEnabled()) {
+						log.debug(String.format("Re-adopting lease %s for secret %s",
+								lease.getLeaseId(), requestedSecret.getPath()));
+					}
+
+					VaultResponseSupport<Map<String, Object>> secrets = new VaultResponseSupport<>();
+					secrets.setLeaseId(renewed.getLeaseId());
+					secrets.setLeaseDuration(renewed.getLeaseDuration().getSeconds());
+					secrets.setRenewable(renewed.isRenewable());
+					secrets.setData(new LinkedHashMap<>(entry.getSecrets()));
+
+					return secrets;
+				}
+			}
+			catch (RuntimeException e) {
+
+				if (log.isDebugEnabled()) {
+					log.debug(String.format("Cannot re-adopt lease %s for secret %s",
+							lease.getLeaseId(), requestedSecret.getPath()), e);
+				}
+			}
+		}
+
+		journalRemove(requestedSecret);
+
+		return null;
+	}
+
+	private void journalPut(RequestedSecret requestedSecret, Lease lease,
+			Map<String, Object> secrets) {
+
+		LeaseJournal journal = this.leaseJournal;
+
+		if (journal != null && lease.hasLeaseId()) {
+
+			try {
+				journal.put(requestedSecret, lease, secrets);
+			}
+			catch (RuntimeException e) {
+				log.warn(String.format("Cannot journal lease for secret %s",
+						requestedSecret.getPath()), e);
+			}
+		}
+	}
+
+	private void journalRenewal(RequestedSecret requestedSecret, Lease lease) {
+
+		LeaseJournal journal = this.leaseJournal;
+
+		if (journal != null) {
+
+			try {
+
+				LeaseJournal.Entry entry = journal.get(requestedSecret);
+				if (entry != null) {
+					journal.put(requestedSecret, lease, entry.getSecrets());
+				}
+			}
+			catch (RuntimeException e) {
+				log.warn(String.format("Cannot journal lease for secret %s",
+						requestedSecret.getPath()), e);
+			}
+		}
+	}
+
+	private void journalRemove(RequestedSecret requestedSecret) {
+
+		LeaseJournal journal = this.leaseJournal;
+
+		if (journal != null) {
+
+			try {
+				journal.remove(requestedSecret);
+			}
+			catch (RuntimeException e) {
+				log.warn(String.format("Cannot remove lease of secret %s from journal",
+						requestedSecret.getPath()), e);
+			}
+		}
+	}
+
+	private void applySecrets(RequestedSecret requestedSecret,
+			LeaseRenewalScheduler renewalScheduler,
+			@Nullable VaultResponseSupport<Map<String, Object>> secrets) {
 
 		if (secrets != null) {
 
@@ -419,6 +877,10 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 				scheduleLeaseRotation(requestedSecret, lease, renewalScheduler);
 			}
 
+			journalPut(requestedSecret, lease, secrets.getRequiredData());
+
+			this.leaseMetrics.onSecretsObtained(requestedSecret, lease);
+
 			onSecretsObtained(requestedSecret, lease, secrets.getRequiredData());
 		}
 	}
@@ -457,10 +919,13 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 
 			this.initialized = true;
 
-			if (this.taskScheduler == null) {
+			if (this.renewalScheduler == null && this.taskScheduler == null) {
 
 				ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
 				scheduler.setDaemon(true);
+				if (this.batchRenewals) {
+					scheduler.setPoolSize(this.maxConcurrentRenewals);
+				}
 				scheduler.setThreadNamePrefix(String.format("%s-%d-",
 						getClass().getSimpleName(), poolId.incrementAndGet()));
 				scheduler.afterPropertiesSet();
@@ -469,9 +934,25 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 				this.manageTaskScheduler = true;
 			}
 
+			if (this.renewalScheduler == null) {
+				this.renewalScheduler = new TaskSchedulerRenewalScheduler(
+						this.taskScheduler);
+			}
+
+			if (this.batchRenewals) {
+
+				Executor executor = this.taskScheduler instanceof Executor
+						? (Executor) this.taskScheduler
+						: Runnable::run;
+
+				this.renewalScheduler = new BatchingRenewalScheduler(
+						this.renewalScheduler, this.minRenewal, executor,
+						this.maxConcurrentRenewals);
+			}
+
 			for (RequestedSecret requestedSecret : requestedSecrets) {
 				this.renewals.put(requestedSecret,
-						new LeaseRenewalScheduler(this.taskScheduler));
+						new LeaseRenewalScheduler(this.renewalScheduler));
 			}
 		}
 	}
@@ -499,7 +980,8 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 					Lease lease = entry.getValue().getLease();
 					entry.getValue().disableScheduleRenewal();
 
-					if (lease != null && lease.hasLeaseId()) {
+					if (lease != null && lease.hasLeaseId()
+							&& this.leaseJournal == null) {
 						doRevokeLease(entry.getKey(), lease);
 					}
 				}
@@ -579,7 +1061,7 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 		leaseRenewal.scheduleRenewal(requestedSecret, leaseToRenew -> {
 
 			return renewAndSchedule(requestedSecret, leaseRenewal, leaseToRenew);
-		}, lease, getMinRenewal(), getExpiryThreshold());
+		}, lease, getMinRenewal(), getExpiryThreshold(), this.renewalTiming);
 
 	}
 
@@ -592,8 +1074,15 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 
 			scheduleLeaseRenewal(requestedSecret, newLease, leaseRenewal);
 
+			if (newLease != leaseToRenew) {
+				journalRenewal(requestedSecret, newLease);
+			}
+
 			onAfterLeaseRenewed(requestedSecret, newLease);
 		}
+		else {
+			journalRemove(requestedSecret);
+		}
 
 		return newLease;
 	}
@@ -608,7 +1097,7 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 			onLeaseExpired(secret, lease);
 
 			return Lease.none(); // rotation creates a new lease.
-		}, lease, getMinRenewal(), getExpiryThreshold());
+		}, lease, getMinRenewal(), getExpiryThreshold(), this.renewalTiming);
 	}
 
 	private LeaseRenewalScheduler getRenewalSchedulder(RequestedSecret secret) {
@@ -684,6 +1173,8 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 	 */
 	protected Lease doRenewLease(RequestedSecret requestedSecret, Lease lease) {
 
+		long start = System.nanoTime();
+
 		try {
 			Lease renewed = lease.hasLeaseId() ? doRenew(lease) : lease;
 
@@ -694,6 +1185,14 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 				return Lease.none();
 			}
 
+			if (lease.hasLeaseId()) {
+
+				Duration duration = Duration.ofNanos(System.nanoTime() - start);
+
+				this.renewalTiming.onRenewal(duration, null);
+				this.leaseMetrics.onLeaseRenewed(requestedSecret, renewed, duration);
+			}
+
 			return renewed;
 		}
 		catch (RuntimeException e) {
@@ -722,12 +1221,15 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 
 			onError(requestedSecret, lease, exceptionToUse);
 
-			if (expired || leaseStrategy.shouldDrop(exceptionToUse)) {
-				return Lease.none();
-			}
-			else {
-				return lease;
-			}
+			boolean dropped = expired || leaseStrategy.shouldDrop(exceptionToUse);
+
+			Duration duration = Duration.ofNanos(System.nanoTime() - start);
+
+			this.renewalTiming.onRenewal(duration, exceptionToUse);
+			this.leaseMetrics.onLeaseRenewalFailed(requestedSecret, lease, duration,
+					exceptionToUse, dropped);
+
+			return dropped ? Lease.none() : lease;
 		}
 	}
 
@@ -762,6 +1264,10 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 	 */
 	protected void onLeaseExpired(RequestedSecret requestedSecret, Lease lease) {
 
+		journalRemove(requestedSecret);
+
+		this.leaseMetrics.onLeaseExpired(requestedSecret, lease);
+
 		super.onLeaseExpired(requestedSecret, lease);
 
 		if (requestedSecret.getMode() == Mode.ROTATE) {
@@ -787,6 +1293,10 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 				return null;
 			});
 
+			journalRemove(requestedSecret);
+
+			this.leaseMetrics.onLeaseRevoked(requestedSecret, lease);
+
 			onAfterLeaseRevocation(requestedSecret, lease);
 		}
 		catch (HttpStatusCodeException e) {
@@ -799,6 +1309,109 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 		}
 	}
 
+	@Override
+	void dispatch(SecretLeaseEvent leaseEvent) {
+
+		List<Runnable> deferred = DEFERRED_EVENTS.get();
+
+		if (deferred != null) {
+			deferred.add(() -> super.dispatch(leaseEvent));
+		}
+		else {
+			super.dispatch(leaseEvent);
+		}
+	}
+
+	@Override
+	void dispatch(SecretLeaseErrorEvent errorEvent) {
+
+		List<Runnable> deferred = DEFERRED_EVENTS.get();
+
+		if (deferred != null) {
+			deferred.add(() -> super.dispatch(errorEvent));
+		}
+		else {
+			super.dispatch(errorEvent);
+		}
+	}
+
+	/**
+	 * Concurrent acquisition of a {@link RequestedSecret}. Secrets are obtained on the
+	 * startup {@link TaskExecutor} while events published during acquisition are deferred
+	 * until {@link #complete() completion} on the starting thread.
+	 */
+	class SecretAcquisition {
+
+		private final RequestedSecret requestedSecret;
+
+		private final LeaseRenewalScheduler renewalScheduler;
+
+		private final List<Runnable> events = new ArrayList<>();
+
+		private final CompletableFuture<VaultResponseSupport<Map<String, Object>>> future;
+
+		SecretAcquisition(RequestedSecret requestedSecret,
+				LeaseRenewalScheduler renewalScheduler) {
+
+			this.requestedSecret = requestedSecret;
+			this.renewalScheduler = renewalScheduler;
+
+			CompletableFuture<VaultResponseSupport<Map<String, Object>>> future;
+			try {
+				future = CompletableFuture.supplyAsync(this::obtain,
+						getStartupExecutor());
+			}
+			catch (RejectedExecutionException e) {
+
+				future = new CompletableFuture<>();
+				try {
+					future.complete(obtain());
+				}
+				catch (RuntimeException cause) {
+					future.completeExceptionally(cause);
+				}
+			}
+
+			this.future = future;
+		}
+
+		@Nullable
+		private VaultResponseSupport<Map<String, Object>> obtain() {
+
+			DEFERRED_EVENTS.set(this.events);
+			try {
+				return obtainSecrets(this.requestedSecret);
+			}
+			finally {
+				DEFERRED_EVENTS.remove();
+			}
+		}
+
+		/**
+		 * Await the secret, dispatch deferred events and schedule lease renewal.
+		 */
+		void complete() {
+
+			VaultResponseSupport<Map<String, Object>> secrets;
+			try {
+				secrets = this.future.join();
+			}
+			catch (CompletionException e) {
+
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw e;
+			}
+
+			for (Runnable event : this.events) {
+				event.run();
+			}
+
+			applySecrets(this.requestedSecret, this.renewalScheduler, secrets);
+		}
+	}
+
 	/**
 	 * Abstracts scheduled lease renewal. A {@link LeaseRenewalScheduler} can be accessed
 	 * concurrently to schedule lease renewal. Each renewal run checks if the previously
@@ -810,18 +1423,18 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 
 		private static final Log log = org.apache.commons.logging.LogFactory
 				.getLog(LeaseRenewalScheduler.class);
-		private final TaskScheduler taskScheduler;
+		private final RenewalScheduler renewalScheduler;
 
 		final AtomicReference<Lease> currentLeaseRef = new AtomicReference<>();
 
-		final Map<Lease, ScheduledFuture<?>> schedules = new ConcurrentHashMap<>();
+		final Map<Lease, ScheduledRenewal> schedules = new ConcurrentHashMap<>();
 
 		/**
 		 *
-		 * @param taskScheduler must not be {@literal null}.
+		 * @param renewalScheduler must not be {@literal null}.
 		 */
-		LeaseRenewalScheduler(TaskScheduler taskScheduler) {
-			this.taskScheduler = taskScheduler;
+		LeaseRenewalScheduler(RenewalScheduler renewalScheduler) {
+			this.renewalScheduler = renewalScheduler;
 		}
 
 		/**
@@ -833,9 +1446,11 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 		 * @param minRenewal minimum duration before renewing a {@link Lease}. This is to
 		 *     prevent too many renewals in a very short timeframe.
 		 * @param expiryThreshold duration to renew before {@link Lease}.
+		 * @param renewalTiming strategy to determine the renewal delay.
 		 */
 		void scheduleRenewal(RequestedSecret requestedSecret, RenewLease renewLease,
-				Lease lease, Duration minRenewal, Duration expiryThreshold) {
+				Lease lease, Duration minRenewal, Duration expiryThreshold,
+				RenewalTiming renewalTiming) {
 
 			if (log.isDebugEnabled()) {
 				if (lease.hasLeaseId()) {
@@ -897,17 +1512,17 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 				}
 			};
 
-			ScheduledFuture<?> scheduledFuture = taskScheduler.schedule(task,
-					new OneShotTrigger(
-							getRenewalSeconds(lease, minRenewal, expiryThreshold)));
+			ScheduledRenewal scheduledRenewal = renewalScheduler.schedule(task,
+					renewalTiming.getRenewalDelay(lease.getLeaseDuration(),
+							minRenewal, expiryThreshold));
 
-			schedules.put(lease, scheduledFuture);
+			schedules.put(lease, scheduledRenewal);
 		}
 
 		private void cancelSchedule(Lease lease) {
 
-			ScheduledFuture<?> scheduledFuture = schedules.get(lease);
-			if (scheduledFuture != null) {
+			ScheduledRenewal scheduledRenewal = schedules.get(lease);
+			if (scheduledRenewal != null) {
 
 				if (log.isDebugEnabled()) {
 					log.debug(String.format(
@@ -915,7 +1530,7 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 							lease.getLeaseId()));
 				}
 
-				scheduledFuture.cancel(false);
+				scheduledRenewal.cancel();
 			}
 		}
 
@@ -933,11 +1548,6 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 			}
 		}
 
-		private long getRenewalSeconds(Lease lease, Duration minRenewal,
-				Duration expiryThreshold) {
-			return Math.max(minRenewal.getSeconds(),
-					lease.getLeaseDuration().getSeconds() - expiryThreshold.getSeconds());
-		}
 
 		private boolean isLeaseRenewable(@Nullable Lease lease,
 				RequestedSecret requestedSecret) {
@@ -973,6 +1583,28 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 		}
 	}
 
+	/**
+	 * {@link RenewalScheduler} adapter for {@link TaskScheduler} scheduling renewal
+	 * tasks using {@link OneShotTrigger}.
+	 */
+	static class TaskSchedulerRenewalScheduler implements RenewalScheduler {
+
+		private final TaskScheduler taskScheduler;
+
+		TaskSchedulerRenewalScheduler(TaskScheduler taskScheduler) {
+			this.taskScheduler = taskScheduler;
+		}
+
+		@Override
+		public ScheduledRenewal schedule(Runnable task, Duration delay) {
+
+			ScheduledFuture<?> scheduledFuture = this.taskScheduler.schedule(task,
+					new OneShotTrigger(delay));
+
+			return () -> scheduledFuture.cancel(false);
+		}
+	}
+
 	/**
 	 * This one-shot trigger creates only one execution time to trigger an execution only
 	 * once.
@@ -988,10 +1620,10 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 		// see AtomicIntegerFieldUpdater UPDATER
 		private volatile int status = 0;
 
-		private final long seconds;
+		private final Duration delay;
 
-		OneShotTrigger(long seconds) {
-			this.seconds = seconds;
+		OneShotTrigger(Duration delay) {
+			this.delay = delay;
 		}
 
 		@Override
@@ -999,8 +1631,7 @@ public class SecretLeaseContainer extends SecretLeaseEventPublisher
 		public Date nextExecutionTime(TriggerContext triggerContext) {
 
 			if (UPDATER.compareAndSet(this, STATUS_ARMED, STATUS_FIRED)) {
-				return new Date(
-						System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(seconds));
+				return new Date(System.currentTimeMillis() + delay.toMillis());
 			}
 
 			return null;
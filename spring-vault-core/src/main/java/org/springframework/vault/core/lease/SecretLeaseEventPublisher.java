@@ -15,20 +15,28 @@
  */
 package org.springframework.vault.core.lease;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.vault.core.lease.domain.Lease;
 import org.springframework.vault.core.lease.domain.RequestedSecret;
 import org.springframework.vault.core.lease.event.AfterSecretLeaseRenewedEvent;
 import org.springframework.vault.core.lease.event.AfterSecretLeaseRevocationEvent;
+import org.springframework.vault.core.lease.event.AsyncLeaseListener;
+import org.springframework.vault.core.lease.event.AsyncLeaseListener.OverflowPolicy;
 import org.springframework.vault.core.lease.event.BeforeSecretLeaseRevocationEvent;
 import org.springframework.vault.core.lease.event.LeaseErrorListener;
 import org.springframework.vault.core.lease.event.LeaseListener;
@@ -42,8 +50,9 @@ import org.springframework.vault.core.lease.event.SecretNotFoundEvent;
  * Publisher for {@link SecretLeaseEvent}s.
  * <p>
  * This publisher dispatches events to {@link LeaseListener} and
- * {@link LeaseErrorListener}. Instances are thread-safe once {@link #afterPropertiesSet()
- * initialized}.
+ * {@link LeaseErrorListener}. Events are dispatched on the publishing thread unless
+ * {@link #setAsyncDispatch(boolean) asynchronous dispatch} is enabled. Instances are
+ * thread-safe once {@link #afterPropertiesSet() initialized}.
  *
  * @author Mark Paluch
  * @see SecretLeaseEvent
@@ -56,6 +65,97 @@ public class SecretLeaseEventPublisher implements InitializingBean {
 
 	private final Set<LeaseErrorListener> leaseErrorListeners = new CopyOnWriteArraySet<>();
 
+	private final Map<LeaseListener, AsyncLeaseListener> asyncLeaseListeners = new ConcurrentHashMap<>();
+
+	private final Map<LeaseErrorListener, AsyncLeaseListener> asyncErrorListeners = new ConcurrentHashMap<>();
+
+	private boolean asyncDispatch;
+
+	private int dispatchQueueCapacity = 256;
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+	@Nullable
+	private Executor dispatchExecutor;
+
+	/**
+	 * Enable or disable asynchronous event dispatch. Asynchronous dispatch decouples
+	 * listeners from the thread publishing events: each listener receives events through
+	 * its own bounded queue that is drained on the
+	 * {@link #setDispatchExecutor(Executor) dispatch executor}, so a slow listener does
+	 * not delay lease renewal. Events are delivered to each listener in publishing
+	 * order. Disabled by default.
+	 *
+	 * @param asyncDispatch {@literal true} to dispatch events asynchronously.
+	 * @since 2.2
+	 * @see AsyncLeaseListener
+	 */
+	public void setAsyncDispatch(boolean asyncDispatch) {
+		this.asyncDispatch = asyncDispatch;
+	}
+
+	/**
+	 * Set the capacity of the per-listener queue used with
+	 * {@link #setAsyncDispatch(boolean) asynchronous dispatch}. Defaults to
+	 * {@literal 256}.
+	 *
+	 * @param dispatchQueueCapacity must be greater {@literal 0}.
+	 * @since 2.2
+	 */
+	public void setDispatchQueueCapacity(int dispatchQueueCapacity) {
+
+		Assert.isTrue(dispatchQueueCapacity > 0,
+				"Dispatch queue capacity must be greater 0");
+
+		this.dispatchQueueCapacity = dispatchQueueCapacity;
+	}
+
+	/**
+	 * Set the {@link OverflowPolicy} to apply when a listener queue is full. Defaults to
+	 * {@link OverflowPolicy#BLOCK}.
+	 *
+	 * @param overflowPolicy must not be {@literal null}.
+	 * @since 2.2
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+
+		Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Set the {@link Executor} to drain listener queues. Each listener occupies at most
+	 * one thread at a time. Defaults to a {@link SimpleAsyncTaskExecutor} creating
+	 * daemon threads on demand.
+	 *
+	 * @param dispatchExecutor must not be {@literal null}.
+	 * @since 2.2
+	 */
+	public void setDispatchExecutor(Executor dispatchExecutor) {
+
+		Assert.notNull(dispatchExecutor, "Dispatch Executor must not be null");
+
+		this.dispatchExecutor = dispatchExecutor;
+	}
+
+	/**
+	 * Return the {@link AsyncLeaseListener}s created for registered listeners when using
+	 * {@link #setAsyncDispatch(boolean) asynchronous dispatch}, for example to monitor
+	 * queue depth and listener latency.
+	 *
+	 * @return the {@link AsyncLeaseListener}s.
+	 * @since 2.2
+	 */
+	public Collection<AsyncLeaseListener> getAsyncListeners() {
+
+		List<AsyncLeaseListener> listeners = new ArrayList<>(
+				this.asyncLeaseListeners.values());
+		listeners.addAll(this.asyncErrorListeners.values());
+
+		return listeners;
+	}
+
 	/**
 	 * Add a {@link LeaseListener} to the container. The listener starts receiving events
 	 * as soon as possible.
@@ -75,7 +175,13 @@ public class SecretLeaseEventPublisher implements InitializingBean {
 	 * @param listener must not be {@literal null}.
 	 */
 	public void removeLeaseListener(LeaseListener listener) {
+
 		this.leaseListeners.remove(listener);
+
+		AsyncLeaseListener asyncListener = this.asyncLeaseListeners.remove(listener);
+		if (asyncListener != null) {
+			asyncListener.clear();
+		}
 	}
 
 	/**
@@ -97,7 +203,13 @@ public class SecretLeaseEventPublisher implements InitializingBean {
 	 * @param listener must not be {@literal null}.
 	 */
 	public void removeLeaseErrorListener(LeaseErrorListener listener) {
+
 		this.leaseErrorListeners.remove(listener);
+
+		AsyncLeaseListener asyncListener = this.asyncErrorListeners.remove(listener);
+		if (asyncListener != null) {
+			asyncListener.clear();
+		}
 	}
 
 	@Override
@@ -106,6 +218,15 @@ public class SecretLeaseEventPublisher implements InitializingBean {
 		if (this.leaseErrorListeners.isEmpty()) {
 			addErrorListener(LoggingErrorListener.INSTANCE);
 		}
+
+		if (this.asyncDispatch && this.dispatchExecutor == null) {
+
+			SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(
+					String.format("%s-events-", getClass().getSimpleName()));
+			executor.setDaemon(true);
+
+			this.dispatchExecutor = executor;
+		}
 	}
 
 	/**
@@ -203,7 +324,7 @@ public class SecretLeaseEventPublisher implements InitializingBean {
 	void dispatch(SecretLeaseEvent leaseEvent) {
 
 		for (LeaseListener listener : leaseListeners) {
-			listener.onLeaseEvent(leaseEvent);
+			getListener(listener).onLeaseEvent(leaseEvent);
 		}
 	}
 
@@ -215,8 +336,35 @@ public class SecretLeaseEventPublisher implements InitializingBean {
 	void dispatch(SecretLeaseErrorEvent errorEvent) {
 
 		for (LeaseErrorListener listener : leaseErrorListeners) {
-			listener.onLeaseError(errorEvent, (Exception) errorEvent.getException());
+			getListener(listener).onLeaseError(errorEvent,
+					(Exception) errorEvent.getException());
+		}
+	}
+
+	private LeaseListener getListener(LeaseListener listener) {
+
+		Executor executor = this.dispatchExecutor;
+
+		if (!this.asyncDispatch || executor == null) {
+			return listener;
 		}
+
+		return this.asyncLeaseListeners.computeIfAbsent(listener,
+				it -> new AsyncLeaseListener(it, executor, this.dispatchQueueCapacity,
+						this.overflowPolicy));
+	}
+
+	private LeaseErrorListener getListener(LeaseErrorListener listener) {
+
+		Executor executor = this.dispatchExecutor;
+
+		if (!this.asyncDispatch || executor == null) {
+			return listener;
+		}
+
+		return this.asyncErrorListeners.computeIfAbsent(listener,
+				it -> new AsyncLeaseListener(it, executor, this.dispatchQueueCapacity,
+						this.overflowPolicy));
 	}
 
 	/**
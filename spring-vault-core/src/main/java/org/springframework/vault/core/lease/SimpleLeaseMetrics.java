@@ -0,0 +1,238 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.lease;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.vault.core.lease.domain.Lease;
+import org.springframework.vault.core.lease.domain.RequestedSecret;
+
+/**
+ * {@link LeaseMetrics} keeping counters, renewal latency and the lease expiry per
+ * {@link RequestedSecret} in memory. Values can be polled directly or exposed through
+ * gauges and function counters of a metrics registry.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+public class SimpleLeaseMetrics implements LeaseMetrics {
+
+	private final Map<RequestedSecret, Instant> expiries = new ConcurrentHashMap<>();
+
+	private final AtomicLong obtained = new AtomicLong();
+
+	private final AtomicLong renewed = new AtomicLong();
+
+	private final AtomicLong renewalsRetained = new AtomicLong();
+
+	private final AtomicLong renewalsDropped = new AtomicLong();
+
+	private final AtomicLong expired = new AtomicLong();
+
+	private final AtomicLong revoked = new AtomicLong();
+
+	private final AtomicLong totalRenewalNanos = new AtomicLong();
+
+	private final AtomicLong maxRenewalNanos = new AtomicLong();
+
+	private final Clock clock;
+
+	/**
+	 * Create a new {@link SimpleLeaseMetrics} using the system clock.
+	 */
+	public SimpleLeaseMetrics() {
+		this(Clock.systemUTC());
+	}
+
+	/**
+	 * Create a new {@link SimpleLeaseMetrics} given {@link Clock}.
+	 *
+	 * @param clock must not be {@literal null}.
+	 */
+	public SimpleLeaseMetrics(Clock clock) {
+
+		Assert.notNull(clock, "Clock must not be null");
+
+		this.clock = clock;
+	}
+
+	@Override
+	public void onSecretsObtained(RequestedSecret requestedSecret, Lease lease) {
+
+		this.obtained.incrementAndGet();
+		updateExpiry(requestedSecret, lease);
+	}
+
+	@Override
+	public void onLeaseRenewed(RequestedSecret requestedSecret, Lease lease,
+			Duration duration) {
+
+		this.renewed.incrementAndGet();
+		recordRenewal(duration);
+		updateExpiry(requestedSecret, lease);
+	}
+
+	@Override
+	public void onLeaseRenewalFailed(RequestedSecret requestedSecret, Lease lease,
+			Duration duration, Exception exception, boolean dropped) {
+
+		recordRenewal(duration);
+
+		if (dropped) {
+			this.renewalsDropped.incrementAndGet();
+			this.expiries.remove(requestedSecret);
+		}
+		else {
+			this.renewalsRetained.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void onLeaseExpired(RequestedSecret requestedSecret, Lease lease) {
+
+		this.expired.incrementAndGet();
+		this.expiries.remove(requestedSecret);
+	}
+
+	@Override
+	public void onLeaseRevoked(RequestedSecret requestedSecret, Lease lease) {
+
+		this.revoked.incrementAndGet();
+		this.expiries.remove(requestedSecret);
+	}
+
+	/**
+	 * Return the remaining time until the lease of {@link RequestedSecret} expires unless
+	 * renewed.
+	 *
+	 * @param requestedSecret must not be {@literal null}.
+	 * @return the remaining time or {@literal null} if there's no lease with a TTL for
+	 *     {@link RequestedSecret}.
+	 */
+	@Nullable
+	public Duration getTimeToExpiry(RequestedSecret requestedSecret) {
+
+		Assert.notNull(requestedSecret, "RequestedSecret must not be null");
+
+		Instant expiry = this.expiries.get(requestedSecret);
+		return expiry != null ? timeToExpiry(expiry) : null;
+	}
+
+	/**
+	 * @return the remaining time until expiry for each tracked {@link RequestedSecret}.
+	 */
+	public Map<RequestedSecret, Duration> getTimeToExpiry() {
+
+		Map<RequestedSecret, Duration> result = new LinkedHashMap<>();
+		this.expiries.forEach((secret, expiry) -> result.put(secret,
+				timeToExpiry(expiry)));
+
+		return result;
+	}
+
+	/**
+	 * @return the shortest remaining time until expiry across all tracked leases or
+	 *     {@literal null} if no lease is tracked.
+	 */
+	@Nullable
+	public Duration getMinTimeToExpiry() {
+
+		return this.expiries.values().stream().min(Instant::compareTo)
+				.map(this::timeToExpiry).orElse(null);
+	}
+
+	public long getSecretsObtained() {
+		return this.obtained.get();
+	}
+
+	public long getLeasesRenewed() {
+		return this.renewed.get();
+	}
+
+	/**
+	 * @return the number of failed renewals that retained the lease.
+	 */
+	public long getRenewalFailuresRetained() {
+		return this.renewalsRetained.get();
+	}
+
+	/**
+	 * @return the number of failed renewals that dropped the lease.
+	 */
+	public long getRenewalFailuresDropped() {
+		return this.renewalsDropped.get();
+	}
+
+	public long getLeasesExpired() {
+		return this.expired.get();
+	}
+
+	public long getLeasesRevoked() {
+		return this.revoked.get();
+	}
+
+	/**
+	 * @return the mean duration of renewal requests, including failed renewals.
+	 */
+	public Duration getMeanRenewalDuration() {
+
+		long count = this.renewed.get() + this.renewalsRetained.get()
+				+ this.renewalsDropped.get();
+
+		return count == 0 ? Duration.ZERO
+				: Duration.ofNanos(this.totalRenewalNanos.get() / count);
+	}
+
+	/**
+	 * @return the maximum duration of renewal requests, including failed renewals.
+	 */
+	public Duration getMaxRenewalDuration() {
+		return Duration.ofNanos(this.maxRenewalNanos.get());
+	}
+
+	private void recordRenewal(Duration duration) {
+
+		long nanos = duration.toNanos();
+
+		this.totalRenewalNanos.addAndGet(nanos);
+		this.maxRenewalNanos.accumulateAndGet(nanos, Math::max);
+	}
+
+	private void updateExpiry(RequestedSecret requestedSecret, Lease lease) {
+
+		if (lease.getLeaseDuration().isZero()) {
+			this.expiries.remove(requestedSecret);
+		}
+		else {
+			this.expiries.put(requestedSecret,
+					this.clock.instant().plus(lease.getLeaseDuration()));
+		}
+	}
+
+	private Duration timeToExpiry(Instant expiry) {
+
+		Duration remaining = Duration.between(this.clock.instant(), expiry);
+		return remaining.isNegative() ? Duration.ZERO : remaining;
+	}
+}
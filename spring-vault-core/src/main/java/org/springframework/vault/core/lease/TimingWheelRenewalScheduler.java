@@ -0,0 +1,535 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.lease;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+
+/**
+ * {@link RenewalScheduler} backed by a hashed timing wheel. Scheduled renewals are
+ * assigned to one of {@link #setWheelSize(int) wheel size} buckets based on their
+ * deadline. A single timer thread advances the wheel every {@link #setTickDuration(Duration)
+ * tick} and hands over due renewals to a {@link TaskExecutor}. Scheduling and
+ * cancellation are constant-time operations that do not allocate scheduler-internal
+ * futures so that the scheduling overhead remains flat regardless of the number of
+ * leases.
+ * <p>
+ * Renewals are run at the time determined by the container. Use a randomized
+ * {@link org.springframework.vault.support.RenewalTiming} such as
+ * {@link org.springframework.vault.support.RenewalTiming#jittered(double)} to spread
+ * renewals of leases that were obtained at the same time. The number of renewals running
+ * at the same time is limited by
+ * {@link #setMaxConcurrentRenewals(int) max concurrent renewals}. Due renewals exceeding
+ * the limit are queued until a running renewal completes.
+ * <p>
+ * Renewals are run with a scheduling resolution of one tick. Instances are thread-safe
+ * once {@link #afterPropertiesSet() initialized}.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see SecretLeaseContainer#setRenewalScheduler(RenewalScheduler)
+ */
+public class TimingWheelRenewalScheduler
+		implements RenewalScheduler, InitializingBean, DisposableBean {
+
+	private static final Log log = LogFactory.getLog(TimingWheelRenewalScheduler.class);
+
+	private static final AtomicInteger poolId = new AtomicInteger();
+
+	private final Queue<WheelTimeout> timeouts = new ConcurrentLinkedQueue<>();
+
+	private final Queue<WheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+	private final Queue<Runnable> dueRenewals = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger activeRenewals = new AtomicInteger();
+
+	private final AtomicLong pendingRenewals = new AtomicLong();
+
+	private Duration tickDuration = Duration.ofMillis(100);
+
+	private int wheelSize = 512;
+
+	private int maxConcurrentRenewals = 8;
+
+	@Nullable
+	private TaskExecutor taskExecutor;
+
+	private boolean manageTaskExecutor;
+
+	@Nullable
+	private Thread workerThread;
+
+	private volatile long startTime;
+
+	private volatile boolean running;
+
+	/**
+	 * Create a new {@link TimingWheelRenewalScheduler}. Renewals are executed on a
+	 * managed {@link TaskExecutor} that is created on {@link #afterPropertiesSet()
+	 * initialization}.
+	 */
+	public TimingWheelRenewalScheduler() {
+	}
+
+	/**
+	 * Create a new {@link TimingWheelRenewalScheduler} given a {@link TaskExecutor} to
+	 * run renewals.
+	 *
+	 * @param taskExecutor must not be {@literal null}.
+	 */
+	public TimingWheelRenewalScheduler(TaskExecutor taskExecutor) {
+		setTaskExecutor(taskExecutor);
+	}
+
+	/**
+	 * Set the duration of a single wheel tick. The tick duration determines the
+	 * scheduling resolution. Defaults to {@literal 100 milliseconds}.
+	 *
+	 * @param tickDuration must not be {@literal null} and must be positive.
+	 */
+	public void setTickDuration(Duration tickDuration) {
+
+		Assert.notNull(tickDuration, "Tick duration must not be null");
+		Assert.isTrue(!tickDuration.isNegative() && !tickDuration.isZero(),
+				"Tick duration must be positive");
+
+		this.tickDuration = tickDuration;
+	}
+
+	/**
+	 * Set the number of wheel buckets. The value is rounded up to the next power of two.
+	 * Defaults to {@literal 512}.
+	 *
+	 * @param wheelSize must be greater {@literal 0}.
+	 */
+	public void setWheelSize(int wheelSize) {
+
+		Assert.isTrue(wheelSize > 0, "Wheel size must be greater 0");
+		Assert.isTrue(wheelSize <= 1 << 30, "Wheel size must not exceed 2^30");
+
+		int size = 1;
+		while (size < wheelSize) {
+			size <<= 1;
+		}
+
+		this.wheelSize = size;
+	}
+
+	/**
+	 * Set the maximum number of renewals that run concurrently. Defaults to
+	 * {@literal 8}.
+	 *
+	 * @param maxConcurrentRenewals must be greater {@literal 0}.
+	 */
+	public void setMaxConcurrentRenewals(int maxConcurrentRenewals) {
+
+		Assert.isTrue(maxConcurrentRenewals > 0,
+				"Max concurrent renewals must be greater 0");
+
+		this.maxConcurrentRenewals = maxConcurrentRenewals;
+	}
+
+	/**
+	 * Sets the {@link TaskExecutor} to run renewals.
+	 *
+	 * @param taskExecutor must not be {@literal null}.
+	 */
+	public void setTaskExecutor(TaskExecutor taskExecutor) {
+
+		Assert.notNull(taskExecutor, "TaskExecutor must not be null");
+
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * @return the number of scheduled renewals that did not run yet and that were not
+	 *     canceled.
+	 */
+	public long getPendingRenewals() {
+		return this.pendingRenewals.get();
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+
+		if (this.running) {
+			return;
+		}
+
+		if (this.taskExecutor == null) {
+
+			ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+			executor.setDaemon(true);
+			executor.setCorePoolSize(this.maxConcurrentRenewals);
+			executor.setThreadNamePrefix(String.format("%s-%d-",
+					getClass().getSimpleName(), poolId.incrementAndGet()));
+			executor.afterPropertiesSet();
+
+			this.taskExecutor = executor;
+			this.manageTaskExecutor = true;
+		}
+
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				String.format("%s-timer-%d-", getClass().getSimpleName(),
+						poolId.incrementAndGet()));
+		threadFactory.setDaemon(true);
+
+		this.startTime = System.nanoTime();
+		this.running = true;
+		this.workerThread = threadFactory.newThread(new Worker(this.wheelSize,
+				this.tickDuration.toNanos()));
+		this.workerThread.start();
+	}
+
+	@Override
+	public void destroy() throws Exception {
+
+		this.running = false;
+
+		Thread workerThread = this.workerThread;
+		if (workerThread != null) {
+
+			workerThread.interrupt();
+			workerThread.join(TimeUnit.SECONDS.toMillis(1));
+			this.workerThread = null;
+		}
+
+		this.timeouts.clear();
+		this.cancelledTimeouts.clear();
+		this.dueRenewals.clear();
+		this.pendingRenewals.set(0);
+
+		if (this.manageTaskExecutor && this.taskExecutor instanceof DisposableBean) {
+			((DisposableBean) this.taskExecutor).destroy();
+			this.taskExecutor = null;
+		}
+	}
+
+	@Override
+	public ScheduledRenewal schedule(Runnable task, Duration delay) {
+
+		Assert.notNull(task, "Task must not be null");
+		Assert.notNull(delay, "Delay must not be null");
+		Assert.state(this.running, "TimingWheelRenewalScheduler is not running");
+
+		long delayNanos = Math.max(0, delay.toNanos());
+
+		WheelTimeout timeout = new WheelTimeout(task,
+				System.nanoTime() - this.startTime + delayNanos);
+
+		this.pendingRenewals.incrementAndGet();
+		this.timeouts.add(timeout);
+
+		return timeout;
+	}
+
+	/**
+	 * Hand over a due renewal to the {@link TaskExecutor} respecting
+	 * {@link #setMaxConcurrentRenewals(int) max concurrent renewals}.
+	 */
+	private void dispatch(Runnable task) {
+
+		this.dueRenewals.add(task);
+		drain();
+	}
+
+	private void drain() {
+
+		for (;;) {
+
+			int active = this.activeRenewals.get();
+
+			if (active >= this.maxConcurrentRenewals || this.dueRenewals.isEmpty()) {
+				return;
+			}
+
+			if (!this.activeRenewals.compareAndSet(active, active + 1)) {
+				continue;
+			}
+
+			Runnable task = this.dueRenewals.poll();
+
+			if (task == null) {
+				this.activeRenewals.decrementAndGet();
+				continue;
+			}
+
+			try {
+				this.taskExecutor.execute(() -> {
+
+					try {
+						task.run();
+					}
+					catch (RuntimeException e) {
+						log.error("Renewal task failed", e);
+					}
+					finally {
+						this.activeRenewals.decrementAndGet();
+						drain();
+					}
+				});
+			}
+			catch (RejectedExecutionException e) {
+
+				this.activeRenewals.decrementAndGet();
+				log.error("Cannot execute renewal task", e);
+			}
+		}
+	}
+
+	/**
+	 * Timer thread advancing the wheel. Buckets are confined to the timer thread.
+	 */
+	private class Worker implements Runnable {
+
+		private final Bucket[] wheel;
+
+		private final int mask;
+
+		private final long tickNanos;
+
+		private long tick;
+
+		Worker(int wheelSize, long tickNanos) {
+
+			this.wheel = new Bucket[wheelSize];
+			for (int i = 0; i < wheelSize; i++) {
+				this.wheel[i] = new Bucket();
+			}
+
+			this.mask = wheelSize - 1;
+			this.tickNanos = tickNanos;
+		}
+
+		@Override
+		public void run() {
+
+			while (running) {
+
+				long deadline = waitForNextTick();
+
+				if (deadline < 0) {
+					continue;
+				}
+
+				removeCancelledTimeouts();
+				transferTimeouts();
+
+				this.wheel[(int) (this.tick & this.mask)].expireTimeouts(deadline);
+				this.tick++;
+			}
+		}
+
+		/**
+		 * @return the deadline of the current tick relative to the start time or
+		 *     {@literal -1} if interrupted.
+		 */
+		private long waitForNextTick() {
+
+			long deadline = this.tickNanos * (this.tick + 1);
+
+			for (;;) {
+
+				long sleepNanos = deadline - (System.nanoTime() - startTime);
+
+				if (sleepNanos <= 0) {
+					return deadline;
+				}
+
+				try {
+					TimeUnit.NANOSECONDS.sleep(sleepNanos);
+				}
+				catch (InterruptedException e) {
+					if (!running) {
+						return -1;
+					}
+				}
+			}
+		}
+
+		private void transferTimeouts() {
+
+			WheelTimeout timeout;
+			while ((timeout = timeouts.poll()) != null) {
+
+				if (timeout.isCancelled()) {
+					continue;
+				}
+
+				long calculated = timeout.deadline / this.tickNanos;
+				timeout.remainingRounds = (calculated - this.tick) / this.wheel.length;
+
+				long ticks = Math.max(calculated, this.tick);
+				this.wheel[(int) (ticks & this.mask)].add(timeout);
+			}
+		}
+
+		private void removeCancelledTimeouts() {
+
+			WheelTimeout timeout;
+			while ((timeout = cancelledTimeouts.poll()) != null) {
+
+				if (timeout.bucket != null) {
+					timeout.bucket.remove(timeout);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Doubly-linked list of {@link WheelTimeout}s belonging to a wheel slot.
+	 */
+	private class Bucket {
+
+		@Nullable
+		private WheelTimeout head;
+
+		@Nullable
+		private WheelTimeout tail;
+
+		void add(WheelTimeout timeout) {
+
+			timeout.bucket = this;
+
+			if (this.head == null) {
+				this.head = this.tail = timeout;
+			}
+			else {
+				this.tail.next = timeout;
+				timeout.prev = this.tail;
+				this.tail = timeout;
+			}
+		}
+
+		void expireTimeouts(long deadline) {
+
+			WheelTimeout timeout = this.head;
+
+			while (timeout != null) {
+
+				WheelTimeout next = timeout.next;
+
+				if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+					remove(timeout);
+					timeout.expire();
+				}
+				else if (timeout.isCancelled()) {
+					remove(timeout);
+				}
+				else {
+					timeout.remainingRounds--;
+				}
+
+				timeout = next;
+			}
+		}
+
+		void remove(WheelTimeout timeout) {
+
+			if (timeout.bucket != this) {
+				return;
+			}
+
+			if (timeout.prev != null) {
+				timeout.prev.next = timeout.next;
+			}
+			if (timeout.next != null) {
+				timeout.next.prev = timeout.prev;
+			}
+			if (timeout == this.head) {
+				this.head = timeout.next;
+			}
+			if (timeout == this.tail) {
+				this.tail = timeout.prev;
+			}
+
+			timeout.prev = null;
+			timeout.next = null;
+			timeout.bucket = null;
+		}
+	}
+
+	/**
+	 * A scheduled renewal within the wheel.
+	 */
+	private class WheelTimeout implements ScheduledRenewal {
+
+		private static final int STATE_PENDING = 0;
+		private static final int STATE_CANCELLED = 1;
+		private static final int STATE_EXPIRED = 2;
+
+		private final Runnable task;
+
+		private final long deadline;
+
+		private final AtomicInteger state = new AtomicInteger(STATE_PENDING);
+
+		// Fields below are confined to the timer thread.
+		long remainingRounds;
+
+		@Nullable
+		WheelTimeout prev;
+
+		@Nullable
+		WheelTimeout next;
+
+		@Nullable
+		Bucket bucket;
+
+		WheelTimeout(Runnable task, long deadline) {
+			this.task = task;
+			this.deadline = deadline;
+		}
+
+		@Override
+		public void cancel() {
+
+			if (this.state.compareAndSet(STATE_PENDING, STATE_CANCELLED)) {
+				pendingRenewals.decrementAndGet();
+				cancelledTimeouts.add(this);
+			}
+		}
+
+		boolean isCancelled() {
+			return this.state.get() == STATE_CANCELLED;
+		}
+
+		void expire() {
+
+			if (this.state.compareAndSet(STATE_PENDING, STATE_EXPIRED)) {
+				pendingRenewals.decrementAndGet();
+				dispatch(this.task);
+			}
+		}
+	}
+}
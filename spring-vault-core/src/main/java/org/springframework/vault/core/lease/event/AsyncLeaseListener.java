@@ -0,0 +1,388 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.lease.event;
+
+import java.time.Duration;
+import java.util.LinkedList;
+import java.util.ListIterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link LeaseListener} and {@link LeaseErrorListener} decorator that dispatches events
+ * asynchronously to its delegate. Events are enqueued in a bounded queue and delivered
+ * in order by a single drain task at a time running on the given {@link Executor}, so a
+ * slow listener does not delay the publishing thread (typically the lease renewal
+ * thread) nor other listeners.
+ * <p>
+ * When the queue is full, the {@link OverflowPolicy} determines whether the publishing
+ * thread {@link OverflowPolicy#BLOCK blocks}, the {@link OverflowPolicy#DROP_OLDEST
+ * oldest event is dropped} or whether events are {@link OverflowPolicy#COALESCE
+ * coalesced} per {@link org.springframework.vault.core.lease.domain.RequestedSecret} and
+ * event type.
+ * <p>
+ * Instances expose queue depth, processed and dropped event counts and listener latency
+ * for monitoring.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see org.springframework.vault.core.lease.SecretLeaseEventPublisher#setAsyncDispatch(boolean)
+ */
+public class AsyncLeaseListener implements LeaseListener, LeaseErrorListener {
+
+	private static final Log log = LogFactory.getLog(AsyncLeaseListener.class);
+
+	@Nullable
+	private final LeaseListener leaseListener;
+
+	@Nullable
+	private final LeaseErrorListener errorListener;
+
+	private final Executor executor;
+
+	private final int capacity;
+
+	private final OverflowPolicy overflowPolicy;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition notFull = this.lock.newCondition();
+
+	// guarded by lock
+	private final LinkedList<QueuedEvent> queue = new LinkedList<>();
+
+	private final AtomicBoolean draining = new AtomicBoolean();
+
+	private final AtomicLong processed = new AtomicLong();
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	private final AtomicLong totalLatencyNanos = new AtomicLong();
+
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+	/**
+	 * Create a new {@link AsyncLeaseListener} dispatching {@link SecretLeaseEvent}s to a
+	 * {@link LeaseListener}.
+	 *
+	 * @param delegate must not be {@literal null}.
+	 * @param executor must not be {@literal null}.
+	 * @param capacity queue capacity, must be greater {@literal 0}.
+	 * @param overflowPolicy must not be {@literal null}.
+	 */
+	public AsyncLeaseListener(LeaseListener delegate, Executor executor, int capacity,
+			OverflowPolicy overflowPolicy) {
+		this(delegate, null, executor, capacity, overflowPolicy);
+	}
+
+	/**
+	 * Create a new {@link AsyncLeaseListener} dispatching error events to a
+	 * {@link LeaseErrorListener}.
+	 *
+	 * @param delegate must not be {@literal null}.
+	 * @param executor must not be {@literal null}.
+	 * @param capacity queue capacity, must be greater {@literal 0}.
+	 * @param overflowPolicy must not be {@literal null}.
+	 */
+	public AsyncLeaseListener(LeaseErrorListener delegate, Executor executor,
+			int capacity, OverflowPolicy overflowPolicy) {
+		this(null, delegate, executor, capacity, overflowPolicy);
+	}
+
+	private AsyncLeaseListener(@Nullable LeaseListener leaseListener,
+			@Nullable LeaseErrorListener errorListener, Executor executor, int capacity,
+			OverflowPolicy overflowPolicy) {
+
+		Assert.isTrue(leaseListener != null || errorListener != null,
+				"Delegate listener must not be null");
+		Assert.notNull(executor, "Executor must not be null");
+		Assert.isTrue(capacity > 0, "Capacity must be greater 0");
+		Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+
+		this.leaseListener = leaseListener;
+		this.errorListener = errorListener;
+		this.executor = executor;
+		this.capacity = capacity;
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	@Override
+	public void onLeaseEvent(SecretLeaseEvent leaseEvent) {
+
+		if (this.leaseListener != null) {
+			enqueue(new QueuedEvent(leaseEvent, null));
+		}
+	}
+
+	@Override
+	public void onLeaseError(SecretLeaseEvent leaseEvent, Exception exception) {
+
+		if (this.errorListener != null) {
+			enqueue(new QueuedEvent(leaseEvent, exception));
+		}
+	}
+
+	/**
+	 * @return the number of events waiting for dispatch.
+	 */
+	public int getQueueDepth() {
+
+		this.lock.lock();
+		try {
+			return this.queue.size();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of events dispatched to the delegate listener.
+	 */
+	public long getProcessedEvents() {
+		return this.processed.get();
+	}
+
+	/**
+	 * @return the number of events that were dropped or replaced by a newer event
+	 *     because of the {@link OverflowPolicy}.
+	 */
+	public long getDroppedEvents() {
+		return this.dropped.get();
+	}
+
+	/**
+	 * @return the mean duration the delegate listener took to process an event.
+	 */
+	public Duration getMeanListenerLatency() {
+
+		long processed = this.processed.get();
+		return processed == 0 ? Duration.ZERO
+				: Duration.ofNanos(this.totalLatencyNanos.get() / processed);
+	}
+
+	/**
+	 * @return the maximum duration the delegate listener took to process an event.
+	 */
+	public Duration getMaxListenerLatency() {
+		return Duration.ofNanos(this.maxLatencyNanos.get());
+	}
+
+	/**
+	 * Discard all pending events.
+	 */
+	public void clear() {
+
+		this.lock.lock();
+		try {
+			this.queue.clear();
+			this.notFull.signalAll();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void enqueue(QueuedEvent event) {
+
+		this.lock.lock();
+		try {
+
+			while (this.queue.size() >= this.capacity) {
+
+				if (this.overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+
+					this.queue.removeFirst();
+					this.dropped.incrementAndGet();
+				}
+				else if (this.overflowPolicy == OverflowPolicy.COALESCE
+						&& coalesce(event)) {
+
+					this.dropped.incrementAndGet();
+					return;
+				}
+				else {
+					this.notFull.awaitUninterruptibly();
+				}
+			}
+
+			this.queue.addLast(event);
+		}
+		finally {
+			this.lock.unlock();
+		}
+
+		scheduleDrain();
+	}
+
+	/**
+	 * Replace a queued event that is superseded by {@code event}. Must be called while
+	 * holding the lock.
+	 *
+	 * @return {@literal true} if a queued event was replaced.
+	 */
+	private boolean coalesce(QueuedEvent event) {
+
+		ListIterator<QueuedEvent> iterator = this.queue.listIterator();
+
+		while (iterator.hasNext()) {
+
+			if (iterator.next().isSupersededBy(event)) {
+
+				// replace in place to retain the position of the secret in the queue
+				iterator.set(event);
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Nullable
+	private QueuedEvent poll() {
+
+		this.lock.lock();
+		try {
+
+			QueuedEvent event = this.queue.pollFirst();
+
+			if (event != null) {
+				this.notFull.signal();
+			}
+
+			return event;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void scheduleDrain() {
+
+		if (!this.draining.compareAndSet(false, true)) {
+			return;
+		}
+
+		try {
+			this.executor.execute(this::drain);
+		}
+		catch (RejectedExecutionException e) {
+
+			this.draining.set(false);
+			log.error("Cannot dispatch lease events", e);
+		}
+	}
+
+	private void drain() {
+
+		QueuedEvent event;
+		while ((event = poll()) != null) {
+			deliver(event);
+		}
+
+		this.draining.set(false);
+
+		// events enqueued after the last poll but before resetting the drain flag
+		if (getQueueDepth() > 0) {
+			scheduleDrain();
+		}
+	}
+
+	private void deliver(QueuedEvent event) {
+
+		long start = System.nanoTime();
+
+		try {
+
+			if (event.exception != null) {
+				this.errorListener.onLeaseError(event.leaseEvent, event.exception);
+			}
+			else {
+				this.leaseListener.onLeaseEvent(event.leaseEvent);
+			}
+		}
+		catch (RuntimeException e) {
+			log.error(String.format("Lease listener failed to process %s",
+					event.leaseEvent), e);
+		}
+		finally {
+
+			long latency = System.nanoTime() - start;
+
+			this.processed.incrementAndGet();
+			this.totalLatencyNanos.addAndGet(latency);
+			this.maxLatencyNanos.accumulateAndGet(latency, Math::max);
+		}
+	}
+
+	/**
+	 * Policy to apply when a lease event is published and the queue is full.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Block the publishing thread until the queue has capacity.
+		 */
+		BLOCK,
+
+		/**
+		 * Drop the oldest queued event to make room for the new event.
+		 */
+		DROP_OLDEST,
+
+		/**
+		 * Replace a queued event of the same type for the same
+		 * {@link org.springframework.vault.core.lease.domain.RequestedSecret} with the new
+		 * event. {@link SecretLeaseCreatedEvent}s carry new secrets and are never
+		 * replaced. Blocks the publishing thread if there is no event to replace.
+		 */
+		COALESCE
+	}
+
+	private static class QueuedEvent {
+
+		final SecretLeaseEvent leaseEvent;
+
+		@Nullable
+		final Exception exception;
+
+		QueuedEvent(SecretLeaseEvent leaseEvent, @Nullable Exception exception) {
+			this.leaseEvent = leaseEvent;
+			this.exception = exception;
+		}
+
+		boolean isSupersededBy(QueuedEvent other) {
+
+			if (this.leaseEvent instanceof SecretLeaseCreatedEvent) {
+				return false;
+			}
+
+			return this.leaseEvent.getClass() == other.leaseEvent.getClass()
+					&& (this.exception == null) == (other.exception == null)
+					&& this.leaseEvent.getSource().equals(other.leaseEvent.getSource());
+		}
+	}
+}
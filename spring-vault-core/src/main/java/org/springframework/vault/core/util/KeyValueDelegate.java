@@ -99,7 +99,7 @@ public class KeyValueDelegate {
 	}
 
 	@SuppressWarnings("unchecked")
-	private static void unwrapDataResponse(@Nullable VaultResponse response) {
+	static void unwrapDataResponse(@Nullable VaultResponse response) {
 
 		if (response == null || response.getData() == null
 				|| !response.getData().containsKey("data")) {
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.util;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.vault.core.ReactiveVaultOperations;
+import org.springframework.vault.core.VaultKeyValueOperationsSupport.KeyValueBackend;
+import org.springframework.vault.core.util.KeyValueDelegate.MountInfo;
+import org.springframework.vault.support.VaultResponse;
+
+/**
+ * Reactive Key-Value utility to retrieve secrets from a versioned key-value backend. For
+ * internal use within the framework.
+ * <p/>
+ * Uses Vault's internal API {@code sys/internal/ui/mounts} to determine mount
+ * information.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see KeyValueDelegate
+ */
+public class ReactiveKeyValueDelegate {
+
+	private final Map<String, MountInfo> mountInfo;
+
+	private final ReactiveVaultOperations operations;
+
+	public ReactiveKeyValueDelegate(ReactiveVaultOperations operations) {
+		this(operations, ConcurrentReferenceHashMap::new);
+	}
+
+	@SuppressWarnings("unchecked")
+	public ReactiveKeyValueDelegate(ReactiveVaultOperations operations,
+			Supplier<Map<String, ?>> cacheSupplier) {
+		this.operations = operations;
+		this.mountInfo = (Map) cacheSupplier.get();
+	}
+
+	/**
+	 * Determine whether the {@code path} belongs to a versioned Key-Value mount.
+	 *
+	 * @param path the path to inspect.
+	 * @return {@literal true} if the {@code path} belongs to a versioned Key-Value mount.
+	 */
+	public Mono<Boolean> isVersioned(String path) {
+		return getMountInfo(path)
+				.map(it -> it.isKeyValue(KeyValueBackend.versioned()));
+	}
+
+	/**
+	 * Read a secret from a key-value backend. Considers the backend type and whether the
+	 * backend is a versioned key-value backend.
+	 *
+	 * @param path the path to fetch the secret from.
+	 * @return the secret. Emits no element if the secret was not found.
+	 */
+	public Mono<VaultResponse> getSecret(String path) {
+
+		return getMountInfo(path).flatMap(mountInfo -> {
+
+			if (!mountInfo.isKeyValue(KeyValueBackend.versioned())) {
+				return this.operations.read(path);
+			}
+
+			return this.operations
+					.read(KeyValueDelegate.getKeyValue2Path(mountInfo.getPath(), path))
+					.doOnNext(KeyValueDelegate::unwrapDataResponse);
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private Mono<MountInfo> doGetMountInfo(String path) {
+
+		return this.operations.read(String.format("sys/internal/ui/mounts/%s", path))
+				.filter(response -> response.getData() != null)
+				.map(response -> {
+
+					Map<String, Object> data = response.getRequiredData();
+					return MountInfo.from((String) data.get("path"),
+							(Map) data.get("options"));
+				}).defaultIfEmpty(MountInfo.unavailable());
+	}
+
+	private Mono<MountInfo> getMountInfo(String path) {
+
+		MountInfo mountInfo = this.mountInfo.get(path);
+
+		if (mountInfo != null) {
+			return Mono.just(mountInfo);
+		}
+
+		return doGetMountInfo(path) //
+				.onErrorReturn(MountInfo.unavailable()) //
+				.doOnNext(it -> this.mountInfo.put(path, it));
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.configuration;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.repository.config.DefaultRepositoryBaseClass;
+import org.springframework.data.repository.query.QueryLookupStrategy;
+import org.springframework.data.repository.query.QueryLookupStrategy.Key;
+import org.springframework.vault.repository.support.ReactiveVaultRepositoryFactoryBean;
+
+/**
+ * Annotation to activate reactive Vault repositories. If no base package is configured
+ * through either {@link #value()}, {@link #basePackages()} or
+ * {@link #basePackageClasses()} it will trigger scanning of the package of annotated
+ * class.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see EnableVaultRepositories
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@Import(ReactiveVaultRepositoriesRegistrar.class)
+public @interface EnableReactiveVaultRepositories {
+
+	/**
+	 * Alias for the {@link #basePackages()} attribute. Allows for more concise annotation
+	 * declarations e.g.: {@code @EnableReactiveVaultRepositories("org.my.pkg")} instead of
+	 * {@code @EnableReactiveVaultRepositories(basePackages="org.my.pkg")}.
+	 */
+	String[] value() default {};
+
+	/**
+	 * Base packages to scan for annotated components. {@link #value()} is an alias for
+	 * (and mutually exclusive with) this attribute. Use {@link #basePackageClasses()} for
+	 * a type-safe alternative to String-based package names.
+	 */
+	String[] basePackages() default {};
+
+	/**
+	 * Type-safe alternative to {@link #basePackages()} for specifying the packages to
+	 * scan for annotated components. The package of each class specified will be scanned.
+	 * Consider creating a special no-op marker class or interface in each package that
+	 * serves no purpose other than being referenced by this attribute.
+	 */
+	Class<?>[] basePackageClasses() default {};
+
+	/**
+	 * Specifies which types are not eligible for component scanning.
+	 */
+	Filter[] excludeFilters() default {};
+
+	/**
+	 * Specifies which types are eligible for component scanning. Further narrows the set
+	 * of candidate components from everything in {@link #basePackages()} to everything in
+	 * the base packages that matches the given filter or filters.
+	 */
+	Filter[] includeFilters() default {};
+
+	/**
+	 * Returns the postfix to be used when looking up custom repository implementations.
+	 * Defaults to {@literal Impl}. So for a repository named {@code PersonRepository} the
+	 * corresponding implementation class will be looked up scanning for
+	 * {@code PersonRepositoryImpl}.
+	 */
+	String repositoryImplementationPostfix() default "Impl";
+
+	/**
+	 * Configures the location of where to find the Spring Data named queries properties
+	 * file.
+	 */
+	String namedQueriesLocation() default "";
+
+	/**
+	 * Returns the key of the {@link QueryLookupStrategy} to be used for lookup queries
+	 * for query methods. Defaults to {@link Key#CREATE_IF_NOT_FOUND}.
+	 */
+	Key queryLookupStrategy() default Key.CREATE_IF_NOT_FOUND;
+
+	/**
+	 * Returns the {@link FactoryBean} class to be used for each repository instance.
+	 * Defaults to {@link ReactiveVaultRepositoryFactoryBean}.
+	 */
+	Class<?> repositoryFactoryBeanClass() default ReactiveVaultRepositoryFactoryBean.class;
+
+	/**
+	 * Configure the repository base class to be used to create repository proxies for
+	 * this particular configuration.
+	 */
+	Class<?> repositoryBaseClass() default DefaultRepositoryBaseClass.class;
+
+	/**
+	 * Configures the name of the
+	 * {@link org.springframework.vault.repository.core.ReactiveVaultKeyValueTemplate}
+	 * bean to be used with the repositories detected.
+	 */
+	String reactiveVaultKeyValueTemplateRef() default "reactiveVaultKeyValueTemplate";
+
+	/**
+	 * Configures whether nested repository-interfaces (e.g. defined as inner classes)
+	 * should be discovered by the repositories infrastructure.
+	 */
+	boolean considerNestedRepositories() default false;
+
+	/**
+	 * Configures the bean name of the
+	 * {@link org.springframework.vault.core.ReactiveVaultOperations} to be used.
+	 * Defaulted to {@literal reactiveVaultTemplate}.
+	 */
+	String reactiveVaultTemplateRef() default "reactiveVaultTemplate";
+}
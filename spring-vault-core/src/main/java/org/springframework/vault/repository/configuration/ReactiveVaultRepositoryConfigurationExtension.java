@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.configuration;
+
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.data.repository.config.AnnotationRepositoryConfigurationSource;
+import org.springframework.data.repository.config.RepositoryConfigurationExtension;
+import org.springframework.data.repository.config.RepositoryConfigurationExtensionSupport;
+import org.springframework.data.repository.config.RepositoryConfigurationSource;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.vault.repository.convert.MappingVaultConverter;
+import org.springframework.vault.repository.core.ReactiveVaultKeyValueTemplate;
+import org.springframework.vault.repository.mapping.Secret;
+import org.springframework.vault.repository.mapping.VaultMappingContext;
+import org.springframework.vault.repository.support.ReactiveVaultRepositoryFactoryBean;
+
+/**
+ * {@link RepositoryConfigurationExtension} for reactive Vault repositories.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+public class ReactiveVaultRepositoryConfigurationExtension
+		extends RepositoryConfigurationExtensionSupport {
+
+	private static final String VAULT_MAPPING_CONTEXT_BEAN_NAME = "vaultMappingContext";
+
+	private static final String DEFAULT_TEMPLATE_REF = "reactiveVaultKeyValueTemplate";
+
+	private static final String TEMPLATE_REF_ATTRIBUTE = "reactiveVaultKeyValueTemplateRef";
+
+	@Override
+	public String getModuleName() {
+		return "Reactive Vault";
+	}
+
+	@Override
+	protected String getModulePrefix() {
+		return "vault";
+	}
+
+	@Override
+	public String getRepositoryFactoryBeanClassName() {
+		return ReactiveVaultRepositoryFactoryBean.class.getName();
+	}
+
+	@Override
+	public void registerBeansForRoot(BeanDefinitionRegistry registry,
+			RepositoryConfigurationSource configurationSource) {
+
+		super.registerBeansForRoot(registry, configurationSource);
+
+		RootBeanDefinition mappingContextDefinition = new RootBeanDefinition(
+				VaultMappingContext.class);
+		mappingContextDefinition.setSource(configurationSource.getSource());
+
+		registerIfNotAlreadyRegistered(() -> mappingContextDefinition, registry,
+				VAULT_MAPPING_CONTEXT_BEAN_NAME, configurationSource);
+
+		String templateName = configurationSource.getAttribute(TEMPLATE_REF_ATTRIBUTE)
+				.orElse(DEFAULT_TEMPLATE_REF);
+
+		// No custom template reference configured and no matching bean definition found
+		if (DEFAULT_TEMPLATE_REF.equals(templateName)
+				&& !registry.containsBeanDefinition(templateName)) {
+
+			registerIfNotAlreadyRegistered(
+					() -> createTemplateDefinition(configurationSource), registry,
+					templateName, configurationSource.getSource());
+		}
+	}
+
+	private static RootBeanDefinition createTemplateDefinition(
+			RepositoryConfigurationSource configurationSource) {
+
+		String vaultTemplateRef = configurationSource
+				.getAttribute("reactiveVaultTemplateRef")
+				.orElse("reactiveVaultTemplate");
+
+		RootBeanDefinition converterDefinition = new RootBeanDefinition(
+				MappingVaultConverter.class);
+
+		ConstructorArgumentValues converterArgs = new ConstructorArgumentValues();
+		converterArgs.addIndexedArgumentValue(0,
+				new RuntimeBeanReference(VAULT_MAPPING_CONTEXT_BEAN_NAME));
+		converterDefinition.setConstructorArgumentValues(converterArgs);
+
+		RootBeanDefinition templateDefinition = new RootBeanDefinition(
+				ReactiveVaultKeyValueTemplate.class);
+
+		ConstructorArgumentValues templateArgs = new ConstructorArgumentValues();
+		templateArgs.addIndexedArgumentValue(0,
+				new RuntimeBeanReference(vaultTemplateRef));
+		templateArgs.addIndexedArgumentValue(1, converterDefinition);
+
+		templateDefinition.setConstructorArgumentValues(templateArgs);
+		templateDefinition.setSource(configurationSource.getSource());
+
+		return templateDefinition;
+	}
+
+	@Override
+	public void postProcess(BeanDefinitionBuilder builder,
+			AnnotationRepositoryConfigurationSource config) {
+
+		builder.addPropertyReference("reactiveVaultKeyValueTemplate", config
+				.getAttribute(TEMPLATE_REF_ATTRIBUTE).orElse(DEFAULT_TEMPLATE_REF));
+	}
+
+	@Override
+	protected Collection<Class<? extends Annotation>> getIdentifyingAnnotations() {
+		return Collections.<Class<? extends Annotation>> singleton(Secret.class);
+	}
+
+	@Override
+	protected boolean useRepositoryConfiguration(RepositoryMetadata metadata) {
+		return metadata.isReactiveRepository();
+	}
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.convert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.convert.CustomConversions;
+import org.springframework.data.convert.EntityInstantiator;
+import org.springframework.data.convert.EntityInstantiators;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.lang.Nullable;
+import org.springframework.vault.repository.mapping.VaultPersistentEntity;
+import org.springframework.vault.repository.mapping.VaultPersistentProperty;
+
+/**
+ * Read and write plan for a {@link VaultPersistentEntity} used by
+ * {@link MappingVaultConverter}. A plan is computed once per entity and captures the
+ * {@link EntityInstantiator}, the properties to populate on read and to write along with
+ * their field paths. Custom conversions are resolved per property and value type and
+ * retained for subsequent conversions of the same value type.
+ * <p>
+ * Plans depend on {@link CustomConversions} and {@link EntityInstantiators} and must be
+ * discarded when either changes.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+class EntityConversionPlan {
+
+	@Nullable
+	private final VaultPersistentProperty idProperty;
+
+	private final boolean populateId;
+
+	private final boolean requiresPropertyPopulation;
+
+	private final EntityInstantiator instantiator;
+
+	private final List<PropertyPlan> readProperties;
+
+	private final List<PropertyPlan> writeProperties;
+
+	private EntityConversionPlan(@Nullable VaultPersistentProperty idProperty,
+			boolean populateId, boolean requiresPropertyPopulation,
+			EntityInstantiator instantiator, List<PropertyPlan> readProperties,
+			List<PropertyPlan> writeProperties) {
+
+		this.idProperty = idProperty;
+		this.populateId = populateId;
+		this.requiresPropertyPopulation = requiresPropertyPopulation;
+		this.instantiator = instantiator;
+		this.readProperties = readProperties;
+		this.writeProperties = writeProperties;
+	}
+
+	/**
+	 * Create a new {@link EntityConversionPlan} for a {@link VaultPersistentEntity}.
+	 *
+	 * @param entity must not be {@literal null}.
+	 * @param instantiators must not be {@literal null}.
+	 * @param conversions must not be {@literal null}.
+	 * @return the {@link EntityConversionPlan}.
+	 */
+	static EntityConversionPlan create(VaultPersistentEntity<?> entity,
+			EntityInstantiators instantiators, CustomConversions conversions) {
+
+		VaultPersistentProperty idProperty = entity.getIdProperty();
+
+		List<PropertyPlan> readProperties = new ArrayList<>();
+		List<PropertyPlan> writeProperties = new ArrayList<>();
+
+		for (VaultPersistentProperty property : entity) {
+
+			if (property.equals(idProperty)) {
+				continue;
+			}
+
+			PropertyPlan plan = new PropertyPlan(property, conversions);
+
+			if (!entity.isConstructorArgument(property)) {
+				readProperties.add(plan);
+			}
+
+			if (property.isWritable()) {
+				writeProperties.add(plan);
+			}
+		}
+
+		return new EntityConversionPlan(idProperty,
+				idProperty != null && !entity.isConstructorArgument(idProperty),
+				entity.requiresPropertyPopulation(),
+				instantiators.getInstantiatorFor(entity),
+				Collections.unmodifiableList(readProperties),
+				Collections.unmodifiableList(writeProperties));
+	}
+
+	/**
+	 * @return the id property or {@literal null} if the entity has no id property.
+	 */
+	@Nullable
+	VaultPersistentProperty getIdProperty() {
+		return this.idProperty;
+	}
+
+	/**
+	 * @return {@literal true} if the id property is populated after instantiation.
+	 */
+	boolean isPopulateId() {
+		return this.populateId;
+	}
+
+	/**
+	 * @return {@literal true} if properties need to be populated after instantiation.
+	 */
+	boolean isRequiresPropertyPopulation() {
+		return this.requiresPropertyPopulation;
+	}
+
+	EntityInstantiator getInstantiator() {
+		return this.instantiator;
+	}
+
+	/**
+	 * @return non-id properties that are not populated through the constructor.
+	 */
+	List<PropertyPlan> getReadProperties() {
+		return this.readProperties;
+	}
+
+	/**
+	 * @return writable non-id properties.
+	 */
+	List<PropertyPlan> getWriteProperties() {
+		return this.writeProperties;
+	}
+
+	/**
+	 * Per-property plan holding the field path and resolved conversions.
+	 */
+	static class PropertyPlan {
+
+		private final VaultPersistentProperty property;
+
+		private final String[] path;
+
+		private final CustomConversions conversions;
+
+		// single-entry caches, values are usually of the same type for a property
+		@Nullable
+		private volatile ReadConversion readConversion;
+
+		@Nullable
+		private volatile WriteConversion writeConversion;
+
+		PropertyPlan(VaultPersistentProperty property, CustomConversions conversions) {
+
+			this.property = property;
+			this.path = SecretDocumentAccessor.toPath(property.getName());
+			this.conversions = conversions;
+		}
+
+		VaultPersistentProperty getProperty() {
+			return this.property;
+		}
+
+		/**
+		 * @return the field path within the secret body.
+		 */
+		String[] getPath() {
+			return this.path;
+		}
+
+		TypeInformation<?> getTypeInformation() {
+			return this.property.getTypeInformation();
+		}
+
+		/**
+		 * @param valueType the type of the value read from the secret body.
+		 * @return {@literal true} if a custom converter reads {@code valueType} into the
+		 *     property type.
+		 */
+		boolean hasCustomReadTarget(Class<?> valueType) {
+
+			ReadConversion conversion = this.readConversion;
+
+			if (conversion == null || conversion.valueType != valueType) {
+
+				conversion = new ReadConversion(valueType, this.conversions
+						.hasCustomReadTarget(valueType, this.property.getType()));
+				this.readConversion = conversion;
+			}
+
+			return conversion.custom;
+		}
+
+		/**
+		 * @param valueType the type of the property value.
+		 * @return the {@link WriteConversion} for {@code valueType}.
+		 */
+		WriteConversion getWriteConversion(Class<?> valueType) {
+
+			WriteConversion conversion = this.writeConversion;
+
+			if (conversion == null || conversion.valueType != valueType) {
+
+				conversion = new WriteConversion(valueType,
+						this.conversions.isSimpleType(valueType),
+						this.conversions.getCustomWriteTarget(valueType));
+				this.writeConversion = conversion;
+			}
+
+			return conversion;
+		}
+	}
+
+	/**
+	 * Resolved read conversion for a value type.
+	 */
+	static class ReadConversion {
+
+		final Class<?> valueType;
+
+		final boolean custom;
+
+		ReadConversion(Class<?> valueType, boolean custom) {
+			this.valueType = valueType;
+			this.custom = custom;
+		}
+	}
+
+	/**
+	 * Resolved write conversion for a value type.
+	 */
+	static class WriteConversion {
+
+		final Class<?> valueType;
+
+		final boolean simpleType;
+
+		final Optional<Class<?>> customTarget;
+
+		WriteConversion(Class<?> valueType, boolean simpleType,
+				Optional<Class<?>> customTarget) {
+			this.valueType = valueType;
+			this.simpleType = simpleType;
+			this.customTarget = customTarget;
+		}
+	}
+}
@@ -23,10 +23,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.CollectionFactory;
 import org.springframework.core.convert.support.DefaultConversionService;
-import org.springframework.data.convert.EntityInstantiator;
+import org.springframework.data.convert.CustomConversions;
+import org.springframework.data.convert.EntityInstantiators;
 import org.springframework.data.mapping.MappingException;
 import org.springframework.data.mapping.PersistentPropertyAccessor;
 import org.springframework.data.mapping.PreferredConstructor.Parameter;
@@ -42,6 +44,8 @@ import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.ObjectUtils;
+import org.springframework.vault.repository.convert.EntityConversionPlan.PropertyPlan;
+import org.springframework.vault.repository.convert.EntityConversionPlan.WriteConversion;
 import org.springframework.vault.repository.mapping.VaultPersistentEntity;
 import org.springframework.vault.repository.mapping.VaultPersistentProperty;
 
@@ -50,6 +54,10 @@ import org.springframework.vault.repository.mapping.VaultPersistentProperty;
  * of domain objects to {@link SecretDocument}. This converter converts between Map-typed
  * representations and domain objects without use of a JSON library.
  * {@link SecretDocument} is the input to JSON mapping to exchange secrets with Vault.
+ * <p>
+ * Entity metadata required for conversion (properties to read and write, field paths,
+ * instantiators and resolved custom conversions) is computed once per entity and reused
+ * across conversions.
  *
  * @author Mark Paluch
  * @since 2.0
@@ -60,6 +68,8 @@ public class MappingVaultConverter extends AbstractVaultConverter {
 
 	private VaultTypeMapper typeMapper;
 
+	private final Map<VaultPersistentEntity<?>, EntityConversionPlan> plans = new ConcurrentHashMap<>();
+
 	public MappingVaultConverter(
 			MappingContext<? extends VaultPersistentEntity<?>, VaultPersistentProperty> mappingContext) {
 
@@ -87,6 +97,20 @@ public class MappingVaultConverter extends AbstractVaultConverter {
 		this.typeMapper = typeMapper;
 	}
 
+	@Override
+	public void setCustomConversions(CustomConversions conversions) {
+
+		super.setCustomConversions(conversions);
+		this.plans.clear();
+	}
+
+	@Override
+	public void setInstantiators(EntityInstantiators instantiators) {
+
+		super.setInstantiators(instantiators);
+		this.plans.clear();
+	}
+
 	@Override
 	public MappingContext<? extends VaultPersistentEntity<?>, VaultPersistentProperty> getMappingContext() {
 		return mappingContext;
@@ -168,34 +192,32 @@ public class MappingVaultConverter extends AbstractVaultConverter {
 
 	private <S> S read(VaultPersistentEntity<S> entity, SecretDocument source) {
 
+		EntityConversionPlan plan = getPlan(entity);
+
 		ParameterValueProvider<VaultPersistentProperty> provider = getParameterProvider(
 				entity, source);
-		EntityInstantiator instantiator = instantiators.getInstantiatorFor(entity);
-		S instance = instantiator.createInstance(entity, provider);
+		S instance = plan.getInstantiator().createInstance(entity, provider);
+
+		if (!plan.isRequiresPropertyPopulation()) {
+			return instance;
+		}
 
 		PersistentPropertyAccessor accessor = new ConvertingPropertyAccessor(
 				entity.getPropertyAccessor(instance), conversionService);
 
-		VaultPersistentProperty idProperty = entity.getIdProperty();
+		VaultPersistentProperty idProperty = plan.getIdProperty();
 		SecretDocumentAccessor documentAccessor = new SecretDocumentAccessor(source);
 
 		// make sure id property is set before all other properties
-		Object idValue;
-
-		if (entity.requiresPropertyPopulation()) {
-			if (idProperty != null && !entity.isConstructorArgument(idProperty)
-					&& documentAccessor.hasValue(idProperty)) {
-
-				idValue = readIdValue(idProperty, documentAccessor);
-				accessor.setProperty(idProperty, idValue);
-			}
-
-			VaultPropertyValueProvider valueProvider = new VaultPropertyValueProvider(
-					documentAccessor);
+		if (idProperty != null && plan.isPopulateId()
+				&& documentAccessor.hasValue(idProperty)) {
 
-			readProperties(entity, accessor, idProperty, documentAccessor, valueProvider);
+			Object idValue = readIdValue(idProperty, documentAccessor);
+			accessor.setProperty(idProperty, idValue);
 		}
 
+		readProperties(plan, accessor, documentAccessor);
+
 		return instance;
 	}
 
@@ -210,34 +232,45 @@ public class MappingVaultConverter extends AbstractVaultConverter {
 				: null;
 	}
 
-	private void readProperties(VaultPersistentEntity<?> entity,
+	private void readProperties(EntityConversionPlan plan,
 			PersistentPropertyAccessor accessor,
-			@Nullable VaultPersistentProperty idProperty,
-			SecretDocumentAccessor documentAccessor,
-			VaultPropertyValueProvider valueProvider) {
+			SecretDocumentAccessor documentAccessor) {
 
-		for (VaultPersistentProperty prop : entity) {
+		// id and constructor properties are excluded from the plan
+		for (PropertyPlan prop : plan.getReadProperties()) {
 
-			// we skip the id property since it was already set
-			if (idProperty != null && idProperty.equals(prop)) {
-				continue;
-			}
+			String[] path = prop.getPath();
+			Object value = documentAccessor.get(path);
+
+			if (value == null) {
+
+				if (documentAccessor.hasValue(path)) {
+					accessor.setProperty(prop.getProperty(), null);
+				}
 
-			if (entity.isConstructorArgument(prop) || !documentAccessor.hasValue(prop)) {
 				continue;
 			}
 
-			accessor.setProperty(prop, valueProvider.getPropertyValue(prop));
+			accessor.setProperty(prop.getProperty(),
+					readValue(value, prop.getTypeInformation(),
+							prop.hasCustomReadTarget(value.getClass())));
 		}
 	}
 
 	@Nullable
-	@SuppressWarnings("unchecked")
 	private <T> T readValue(Object value, TypeInformation<?> type) {
+		return readValue(value, type,
+				conversions.hasCustomReadTarget(value.getClass(), type.getType()));
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private <T> T readValue(Object value, TypeInformation<?> type,
+			boolean customReadTarget) {
 
 		Class<?> rawType = type.getType();
 
-		if (conversions.hasCustomReadTarget(value.getClass(), rawType)) {
+		if (customReadTarget) {
 			return (T) conversionService.convert(value, rawType);
 		}
 		else if (value instanceof List) {
@@ -402,6 +435,29 @@ public class MappingVaultConverter extends AbstractVaultConverter {
 		}
 	}
 
+	@Override
+	@Nullable
+	public Object convertToVaultType(@Nullable Object value) {
+
+		if (value == null) {
+			return null;
+		}
+
+		if (value instanceof Collection
+				|| (ObjectUtils.isArray(value) && !(value instanceof byte[]))) {
+
+			List<Object> result = new ArrayList<>();
+
+			for (Object element : asCollection(value)) {
+				result.add(convertToVaultType(element));
+			}
+
+			return result;
+		}
+
+		return getPotentiallyConvertedSimpleWrite(value);
+	}
+
 	/**
 	 * Internal write conversion method which should be used for nested invocations.
 	 *
@@ -444,9 +500,10 @@ public class MappingVaultConverter extends AbstractVaultConverter {
 	protected void writeInternal(Object obj, SecretDocumentAccessor sink,
 			VaultPersistentEntity<?> entity) {
 
+		EntityConversionPlan plan = getPlan(entity);
 		PersistentPropertyAccessor accessor = entity.getPropertyAccessor(obj);
 
-		VaultPersistentProperty idProperty = entity.getIdProperty();
+		VaultPersistentProperty idProperty = plan.getIdProperty();
 		if (idProperty != null && !sink.hasValue(idProperty)) {
 
 			Object value = accessor.getProperty(idProperty);
@@ -455,36 +512,39 @@ public class MappingVaultConverter extends AbstractVaultConverter {
 				sink.put(idProperty, value);
 			}
 		}
-		writeProperties(entity, accessor, sink, idProperty);
+		writeProperties(plan, accessor, sink);
 	}
 
-	private void writeProperties(VaultPersistentEntity<?> entity,
-			PersistentPropertyAccessor accessor, SecretDocumentAccessor sink,
-			@Nullable VaultPersistentProperty idProperty) {
+	private void writeProperties(EntityConversionPlan plan,
+			PersistentPropertyAccessor accessor, SecretDocumentAccessor sink) {
 
-		// Write the properties
-		for (VaultPersistentProperty prop : entity) {
+		// id and read-only properties are excluded from the plan
+		for (PropertyPlan prop : plan.getWriteProperties()) {
 
-			if (prop.equals(idProperty) || !prop.isWritable()) {
-				continue;
-			}
-
-			Object value = accessor.getProperty(prop);
+			Object value = accessor.getProperty(prop.getProperty());
 
 			if (value == null) {
 				continue;
 			}
 
-			if (!conversions.isSimpleType(value.getClass())) {
-				writePropertyInternal(value, sink, prop);
+			WriteConversion conversion = prop.getWriteConversion(value.getClass());
+
+			if (!conversion.simpleType) {
+				writePropertyInternal(value, sink, prop.getProperty());
 			}
 			else {
 
-				sink.put(prop, getPotentiallyConvertedSimpleWrite(value));
+				sink.put(prop.getPath(),
+						getPotentiallyConvertedSimpleWrite(value, conversion.customTarget));
 			}
 		}
 	}
 
+	private EntityConversionPlan getPlan(VaultPersistentEntity<?> entity) {
+		return plans.computeIfAbsent(entity,
+				it -> EntityConversionPlan.create(it, instantiators, conversions));
+	}
+
 	@SuppressWarnings({ "unchecked" })
 	protected void writePropertyInternal(@Nullable Object obj,
 			SecretDocumentAccessor accessor, VaultPersistentProperty prop) {
@@ -688,8 +748,12 @@ public class MappingVaultConverter extends AbstractVaultConverter {
 			return null;
 		}
 
-		Optional<Class<?>> customTarget = conversions
-				.getCustomWriteTarget(value.getClass());
+		return getPotentiallyConvertedSimpleWrite(value,
+				conversions.getCustomWriteTarget(value.getClass()));
+	}
+
+	private Object getPotentiallyConvertedSimpleWrite(Object value,
+			Optional<Class<?>> customTarget) {
 
 		if (customTarget.isPresent()) {
 			return conversionService.convert(value, customTarget.get());
@@ -744,13 +808,6 @@ public class MappingVaultConverter extends AbstractVaultConverter {
 			this.source = new SecretDocumentAccessor(source);
 		}
 
-		VaultPropertyValueProvider(SecretDocumentAccessor accessor) {
-
-			Assert.notNull(accessor, "SecretDocumentAccessor must no be null!");
-
-			this.source = accessor;
-		}
-
 		@Nullable
 		public <T> T getPropertyValue(VaultPersistentProperty property) {
 
@@ -15,8 +15,6 @@
  */
 package org.springframework.vault.repository.convert;
 
-import java.util.Arrays;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -95,20 +93,26 @@ class SecretDocumentAccessor {
 			return;
 		}
 
-		Iterator<String> parts = Arrays.asList(fieldName.split("\\.")).iterator();
-		Map<String, Object> document = this.body;
+		put(toPath(fieldName), value);
+	}
 
-		while (parts.hasNext()) {
+	/**
+	 * Puts the given value into the backing {@link SecretDocument} at a path of field
+	 * names. Creates intermediate {@link Map}s for nested paths.
+	 *
+	 * @param path must not be {@literal null} or empty.
+	 * @param value
+	 * @see #toPath(String)
+	 */
+	void put(String[] path, @Nullable Object value) {
 
-			String part = parts.next();
+		Map<String, Object> document = this.body;
 
-			if (parts.hasNext()) {
-				document = getOrCreateNestedDocument(part, document);
-			}
-			else {
-				document.put(fieldName, value);
-			}
+		for (int i = 0; i < path.length - 1; i++) {
+			document = getOrCreateNestedDocument(path[i], document);
 		}
+
+		document.put(path[path.length - 1], value);
 	}
 
 	/**
@@ -133,20 +137,22 @@ class SecretDocumentAccessor {
 			return this.body.get(fieldName);
 		}
 
-		Iterator<String> parts = Arrays.asList(fieldName.split("\\.")).iterator();
-		Map<String, Object> source = this.body;
-		Object result = null;
-
-		while (source != null && parts.hasNext()) {
+		return get(toPath(fieldName));
+	}
 
-			result = source.get(parts.next());
+	/**
+	 * Returns the value at a path of field names.
+	 *
+	 * @param path must not be {@literal null} or empty.
+	 * @return
+	 * @see #toPath(String)
+	 */
+	@Nullable
+	Object get(String[] path) {
 
-			if (parts.hasNext()) {
-				source = getAsMap(result);
-			}
-		}
+		Map<String, Object> source = getParent(path);
 
-		return result;
+		return source != null ? source.get(path[path.length - 1]) : null;
 	}
 
 	/**
@@ -170,22 +176,49 @@ class SecretDocumentAccessor {
 			return this.body.containsKey(fieldName);
 		}
 
-		String[] parts = fieldName.split("\\.");
-		Map<String, Object> source = this.body;
+		return hasValue(toPath(fieldName));
+	}
+
+	/**
+	 * Returns whether the underlying {@link SecretDocument} has a value ({@literal null}
+	 * or non-{@literal null}) at a path of field names.
+	 *
+	 * @param path must not be {@literal null} or empty.
+	 * @return
+	 * @see #toPath(String)
+	 */
+	boolean hasValue(String[] path) {
+
+		Map<String, Object> source = getParent(path);
+
+		return source != null && source.containsKey(path[path.length - 1]);
+	}
 
-		Object result = null;
+	/**
+	 * Split a field name into its path segments. Field names may refer to nested values
+	 * through a dot-separated path expression.
+	 *
+	 * @param fieldName must not be {@literal null}.
+	 * @return the path segments.
+	 */
+	static String[] toPath(String fieldName) {
+		return fieldName.contains(".") ? fieldName.split("\\.")
+				: new String[] { fieldName };
+	}
 
-		for (int i = 1; i < parts.length; i++) {
+	/**
+	 * Resolve the {@link Map} containing the last path segment.
+	 */
+	@Nullable
+	private Map<String, Object> getParent(String[] path) {
 
-			result = source.get(parts[i - 1]);
-			source = getAsMap(result);
+		Map<String, Object> source = this.body;
 
-			if (source == null) {
-				return false;
-			}
+		for (int i = 0; i < path.length - 1 && source != null; i++) {
+			source = getAsMap(source.get(path[i]));
 		}
 
-		return source.containsKey(parts[parts.length - 1]);
+		return source;
 	}
 
 	/**
@@ -16,6 +16,7 @@
 package org.springframework.vault.repository.convert;
 
 import org.springframework.data.convert.EntityConverter;
+import org.springframework.lang.Nullable;
 import org.springframework.vault.repository.mapping.VaultPersistentEntity;
 import org.springframework.vault.repository.mapping.VaultPersistentProperty;
 
@@ -26,4 +27,17 @@ import org.springframework.vault.repository.mapping.VaultPersistentProperty;
  */
 public interface VaultConverter extends
 		EntityConverter<VaultPersistentEntity<?>, VaultPersistentProperty, Object, SecretDocument> {
+
+	/**
+	 * Convert a property value to its representation within a {@link SecretDocument}.
+	 * Used to compare query arguments with written property values.
+	 *
+	 * @param value the value to convert, can be {@literal null}.
+	 * @return the converted value.
+	 * @since 2.2
+	 */
+	@Nullable
+	default Object convertToVaultType(@Nullable Object value) {
+		return value;
+	}
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.core;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.util.Assert;
+
+/**
+ * Cache of keyspace listings. Each keyspace is cached as a sorted set of ids for the
+ * configured time to live. Caching is disabled unless a positive time to live is
+ * configured. Writes through the repository update cached listings in place
+ * so that listings remain consistent with changes made by the same application
+ * instance. Changes made by other clients become visible once the cached listing
+ * expires.
+ * <p>
+ * A per-keyspace generation counter prevents listings that were loaded while a change
+ * was applied from being cached.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+class KeyspaceCache {
+
+	private final ConcurrentMap<String, CachedKeyspace> keyspaces = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+	private volatile Duration timeToLive = Duration.ZERO;
+
+	private volatile Clock clock = Clock.systemUTC();
+
+	void setTimeToLive(Duration timeToLive) {
+
+		Assert.notNull(timeToLive, "Time to live must not be null");
+		Assert.isTrue(!timeToLive.isNegative(), "Time to live must not be negative");
+
+		this.timeToLive = timeToLive;
+		this.keyspaces.clear();
+	}
+
+	void setClock(Clock clock) {
+
+		Assert.notNull(clock, "Clock must not be null");
+
+		this.clock = clock;
+	}
+
+	/**
+	 * Return the ids of a keyspace, loading and caching them if the keyspace is not
+	 * cached or its cached listing has expired.
+	 *
+	 * @param keyspace the keyspace.
+	 * @param loader function to list the keyspace.
+	 * @return unmodifiable sorted set of ids.
+	 */
+	NavigableSet<String> getIds(String keyspace,
+			Function<String, Collection<String>> loader) {
+
+		Duration timeToLive = this.timeToLive;
+
+		if (timeToLive.isZero()) {
+			return Collections.unmodifiableNavigableSet(
+					new TreeSet<>(loader.apply(keyspace)));
+		}
+
+		CachedKeyspace cached = this.keyspaces.get(keyspace);
+
+		if (cached != null && !cached.isExpired(this.clock)) {
+			return cached.view;
+		}
+
+		AtomicLong generation = getGeneration(keyspace);
+		long expected = generation.get();
+
+		CachedKeyspace loaded = new CachedKeyspace(
+				new ConcurrentSkipListSet<>(loader.apply(keyspace)),
+				this.clock.instant().plus(timeToLive));
+
+		// concurrent changes are applied within compute(…) of the same key
+		this.keyspaces.compute(keyspace,
+				(key, existing) -> generation.get() == expected ? loaded : existing);
+
+		return loaded.view;
+	}
+
+	/**
+	 * Record that {@code id} was written to {@code keyspace}.
+	 */
+	void added(String keyspace, String id) {
+
+		getGeneration(keyspace).incrementAndGet();
+		this.keyspaces.computeIfPresent(keyspace, (key, cached) -> {
+			cached.ids.add(id);
+			return cached;
+		});
+	}
+
+	/**
+	 * Record that {@code id} was removed from {@code keyspace}.
+	 */
+	void removed(String keyspace, String id) {
+
+		getGeneration(keyspace).incrementAndGet();
+		this.keyspaces.computeIfPresent(keyspace, (key, cached) -> {
+			cached.ids.remove(id);
+			return cached;
+		});
+	}
+
+	/**
+	 * Evict the cached listing of {@code keyspace}.
+	 */
+	void evict(String keyspace) {
+
+		getGeneration(keyspace).incrementAndGet();
+		this.keyspaces.remove(keyspace);
+	}
+
+	private AtomicLong getGeneration(String keyspace) {
+		return this.generations.computeIfAbsent(keyspace, key -> new AtomicLong());
+	}
+
+	static class CachedKeyspace {
+
+		final NavigableSet<String> ids;
+
+		final NavigableSet<String> view;
+
+		private final Instant expiresAt;
+
+		CachedKeyspace(NavigableSet<String> ids, Instant expiresAt) {
+			this.ids = ids;
+			this.view = Collections.unmodifiableNavigableSet(ids);
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired(Clock clock) {
+			return !clock.instant().isBefore(expiresAt);
+		}
+	}
+}
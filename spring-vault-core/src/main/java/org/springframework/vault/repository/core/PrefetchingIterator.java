@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.core;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link CloseableIterator} that maps ids to elements using a fetch {@link Function}.
+ * Fetches run on an {@link Executor} up to {@code prefetch} elements ahead of the
+ * consumer. Elements are returned in the order of their ids.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+class PrefetchingIterator<T> implements CloseableIterator<T> {
+
+	private final Iterator<String> ids;
+
+	private final Function<String, T> fetcher;
+
+	private final Executor executor;
+
+	private final int prefetch;
+
+	private final Deque<CompletableFuture<T>> window = new ArrayDeque<>();
+
+	private boolean closed;
+
+	/**
+	 * Create a new {@link PrefetchingIterator}.
+	 *
+	 * @param ids the ids to fetch.
+	 * @param fetcher function to fetch an element by its id. May return {@literal null}.
+	 * @param executor the executor to run fetches on.
+	 * @param prefetch number of elements to fetch ahead, must be greater {@literal 0}.
+	 */
+	PrefetchingIterator(Iterator<String> ids, Function<String, T> fetcher,
+			Executor executor, int prefetch) {
+
+		this.ids = ids;
+		this.fetcher = fetcher;
+		this.executor = executor;
+		this.prefetch = prefetch;
+	}
+
+	@Override
+	public boolean hasNext() {
+
+		fill();
+
+		return !this.window.isEmpty();
+	}
+
+	@Override
+	@Nullable
+	public T next() {
+
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		CompletableFuture<T> future = this.window.poll();
+
+		// keep the window filled while waiting for the head element
+		fill();
+
+		try {
+			return future.join();
+		}
+		catch (CompletionException e) {
+
+			close();
+
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+
+			throw e;
+		}
+	}
+
+	@Override
+	public void close() {
+
+		this.closed = true;
+
+		CompletableFuture<T> future;
+		while ((future = this.window.poll()) != null) {
+			future.cancel(false);
+		}
+	}
+
+	private void fill() {
+
+		while (!this.closed && this.window.size() < this.prefetch
+				&& this.ids.hasNext()) {
+
+			String id = this.ids.next();
+			this.window.add(CompletableFuture.supplyAsync(() -> this.fetcher.apply(id),
+					this.executor));
+		}
+	}
+}
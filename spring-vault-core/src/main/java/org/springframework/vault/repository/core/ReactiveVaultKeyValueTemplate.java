@@ -0,0 +1,534 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.core;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.keyvalue.core.SpelSortAccessor;
+import org.springframework.data.keyvalue.core.query.KeyValueQuery;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.vault.core.ReactiveVaultOperations;
+import org.springframework.vault.repository.convert.MappingVaultConverter;
+import org.springframework.vault.repository.convert.SecretDocument;
+import org.springframework.vault.repository.convert.VaultConverter;
+import org.springframework.vault.repository.core.SecretIndex.IndexChanges;
+import org.springframework.vault.repository.mapping.VaultMappingContext;
+import org.springframework.vault.repository.mapping.VaultPersistentEntity;
+import org.springframework.vault.repository.mapping.VaultPersistentProperty;
+import org.springframework.vault.repository.query.VaultQuery;
+import org.springframework.vault.repository.query.VaultQuery.IndexCriteria;
+
+/**
+ * Reactive counterpart of {@link VaultKeyValueTemplate} and {@link VaultKeyValueAdapter}
+ * using {@link ReactiveVaultOperations}. Entities are mapped with {@link VaultConverter}
+ * and stored as secrets at {@code <keyspace>/<id>}.
+ * <p>
+ * Retrieving multiple entities lists the keyspace (or resolves ids from the index) and
+ * fetches secrets with up to {@link #setConcurrency(int) concurrency} requests in flight
+ * while retaining the order of ids. Queries accept the {@link VaultQuery} criteria
+ * created by {@link org.springframework.vault.repository.query.VaultQueryCreator}
+ * including criteria on {@link org.springframework.vault.repository.mapping.Indexed
+ * indexed} properties. Keyspace listings are not cached.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see VaultKeyValueAdapter
+ */
+public class ReactiveVaultKeyValueTemplate {
+
+	private static final String INDEX_DIRECTORY = SecretIndex.INDEX_SEGMENT + "/";
+
+	private static final SpelSortAccessor sortAccessor = new SpelSortAccessor(
+			new SpelExpressionParser());
+
+	private final ReactiveVaultOperations vaultOperations;
+
+	private final VaultConverter vaultConverter;
+
+	private final SecretIndex index;
+
+	private int concurrency = 4;
+
+	/**
+	 * Create a new {@link ReactiveVaultKeyValueTemplate} given
+	 * {@link ReactiveVaultOperations}.
+	 *
+	 * @param vaultOperations must not be {@literal null}.
+	 */
+	public ReactiveVaultKeyValueTemplate(ReactiveVaultOperations vaultOperations) {
+		this(vaultOperations, new MappingVaultConverter(new VaultMappingContext()));
+	}
+
+	/**
+	 * Create a new {@link ReactiveVaultKeyValueTemplate} given
+	 * {@link ReactiveVaultOperations} and {@link VaultConverter}.
+	 *
+	 * @param vaultOperations must not be {@literal null}.
+	 * @param vaultConverter must not be {@literal null}.
+	 */
+	public ReactiveVaultKeyValueTemplate(ReactiveVaultOperations vaultOperations,
+			VaultConverter vaultConverter) {
+
+		Assert.notNull(vaultOperations, "ReactiveVaultOperations must not be null");
+		Assert.notNull(vaultConverter, "VaultConverter must not be null");
+
+		this.vaultOperations = vaultOperations;
+		this.vaultConverter = vaultConverter;
+		this.index = new SecretIndex(vaultConverter);
+	}
+
+	/**
+	 * Set the maximum number of concurrent requests to fetch, delete and index entities.
+	 * Defaults to {@literal 4}.
+	 *
+	 * @param concurrency must be greater {@literal 0}.
+	 */
+	public void setConcurrency(int concurrency) {
+
+		Assert.isTrue(concurrency > 0, "Concurrency must be greater 0");
+
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * @return the {@link VaultConverter}.
+	 */
+	public VaultConverter getConverter() {
+		return vaultConverter;
+	}
+
+	/**
+	 * @return the mapping context.
+	 */
+	public MappingContext<? extends VaultPersistentEntity<?>, VaultPersistentProperty> getMappingContext() {
+		return vaultConverter.getMappingContext();
+	}
+
+	/**
+	 * Save an entity. Entities without an id are assigned a random {@link UUID} if their
+	 * id property is of type {@link String}.
+	 *
+	 * @param objectToSave must not be {@literal null}.
+	 * @return the saved entity.
+	 */
+	public <T> Mono<T> save(T objectToSave) {
+
+		Assert.notNull(objectToSave, "Object to save must not be null");
+
+		VaultPersistentEntity<?> entity = getRequiredPersistentEntity(
+				ClassUtils.getUserClass(objectToSave));
+		VaultPersistentProperty idProperty = entity.getRequiredIdProperty();
+		PersistentPropertyAccessor<T> accessor = entity
+				.getPropertyAccessor(objectToSave);
+
+		Object id = accessor.getProperty(idProperty);
+
+		if (id == null) {
+
+			id = generateId(entity, idProperty);
+			accessor.setProperty(idProperty, id);
+		}
+
+		return doSave(id.toString(), accessor.getBean(), entity);
+	}
+
+	/**
+	 * Retrieve an entity by its id.
+	 *
+	 * @param id must not be {@literal null}.
+	 * @param type must not be {@literal null}.
+	 * @return the entity or an empty {@link Mono} if not found.
+	 */
+	public <T> Mono<T> findById(Object id, Class<T> type) {
+
+		Assert.notNull(id, "Id must not be null");
+		Assert.notNull(type, "Type must not be null");
+
+		return doGet(id.toString(), getKeySpace(type), type);
+	}
+
+	/**
+	 * Retrieve entities by their ids. Absent entities are skipped.
+	 *
+	 * @param ids must not be {@literal null}.
+	 * @param type must not be {@literal null}.
+	 * @return the entities in the order of {@code ids}.
+	 */
+	public <T> Flux<T> findAllById(Publisher<?> ids, Class<T> type) {
+
+		Assert.notNull(ids, "Ids must not be null");
+		Assert.notNull(type, "Type must not be null");
+
+		String keyspace = getKeySpace(type);
+
+		return Flux.from(ids).flatMapSequential(
+				id -> doGet(id.toString(), keyspace, type), concurrency);
+	}
+
+	/**
+	 * Retrieve all entities of {@code type}.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return the entities ordered by id.
+	 */
+	public <T> Flux<T> findAll(Class<T> type) {
+
+		Assert.notNull(type, "Type must not be null");
+
+		String keyspace = getKeySpace(type);
+
+		return doList(keyspace).flatMapSequential(id -> doGet(id, keyspace, type),
+				concurrency);
+	}
+
+	/**
+	 * Retrieve entities of {@code type} matching a {@link KeyValueQuery}. The query
+	 * criteria may be {@literal null} to match all entities.
+	 *
+	 * @param query must not be {@literal null}.
+	 * @param type must not be {@literal null}.
+	 * @return the matching entities.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Flux<T> find(KeyValueQuery<VaultQuery> query, Class<T> type) {
+
+		Assert.notNull(query, "Query must not be null");
+		Assert.notNull(type, "Type must not be null");
+
+		String keyspace = getKeySpace(type);
+		Flux<String> ids = getIds(query.getCriteria(), keyspace);
+		Comparator<?> comparator = sortAccessor.resolve(query);
+
+		if (comparator == null) {
+
+			// ids resolved from the index may refer to entities deleted in the meantime,
+			// these must not count towards offset and rows
+			if (query.getCriteria() != null
+					&& !query.getCriteria().getIndexCriteria().isEmpty()) {
+				return slice(ids.flatMapSequential(id -> doGet(id, keyspace, type),
+						concurrency), query);
+			}
+
+			return slice(ids, query).flatMapSequential(id -> doGet(id, keyspace, type),
+					concurrency);
+		}
+
+		Flux<T> sorted = ids.flatMap(id -> doGet(id, keyspace, type), concurrency)
+				.sort((Comparator<T>) comparator);
+
+		return slice(sorted, query);
+	}
+
+	/**
+	 * Count entities of {@code type}.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return the number of entities.
+	 */
+	public Mono<Long> count(Class<?> type) {
+
+		Assert.notNull(type, "Type must not be null");
+
+		return doList(getKeySpace(type)).count();
+	}
+
+	/**
+	 * Count entities of {@code type} matching a {@link KeyValueQuery}. Ids resolved from
+	 * the index are counted only if they are contained in the keyspace listing so that
+	 * index entries of deleted entities are not counted.
+	 *
+	 * @param query must not be {@literal null}.
+	 * @param type must not be {@literal null}.
+	 * @return the number of matching entities.
+	 */
+	public Mono<Long> count(KeyValueQuery<VaultQuery> query, Class<?> type) {
+
+		Assert.notNull(query, "Query must not be null");
+		Assert.notNull(type, "Type must not be null");
+
+		String keyspace = getKeySpace(type);
+		VaultQuery criteria = query.getCriteria();
+		Flux<String> ids = getIds(criteria, keyspace);
+
+		if (criteria == null || criteria.getIndexCriteria().isEmpty()) {
+			return ids.count();
+		}
+
+		return doList(keyspace).collect(TreeSet::new, Set::add)
+				.flatMap(existing -> ids.filter(existing::contains).count());
+	}
+
+	/**
+	 * Check whether an entity with the given id exists.
+	 *
+	 * @param id must not be {@literal null}.
+	 * @param type must not be {@literal null}.
+	 * @return {@literal true} if the entity exists.
+	 */
+	public Mono<Boolean> exists(Object id, Class<?> type) {
+
+		Assert.notNull(id, "Id must not be null");
+		Assert.notNull(type, "Type must not be null");
+
+		String key = id.toString();
+
+		return doList(getKeySpace(type)).any(key::equals);
+	}
+
+	/**
+	 * Delete an entity by its id.
+	 *
+	 * @param id must not be {@literal null}.
+	 * @param type must not be {@literal null}.
+	 * @return the deleted entity or an empty {@link Mono} if not found.
+	 */
+	public <T> Mono<T> delete(Object id, Class<T> type) {
+
+		Assert.notNull(id, "Id must not be null");
+		Assert.notNull(type, "Type must not be null");
+
+		VaultPersistentEntity<?> persistentEntity = getRequiredPersistentEntity(type);
+		String keyspace = persistentEntity.getKeySpace();
+		String key = createKey(id, keyspace);
+
+		return vaultOperations.read(key).flatMap(response -> {
+
+			T entity = vaultConverter.read(type,
+					SecretDocument.from(id.toString(), response));
+
+			if (entity == null) {
+				return Mono.empty();
+			}
+
+			Mono<Void> delete = vaultOperations.delete(key);
+
+			if (index.isIndexed(persistentEntity)) {
+				delete = delete.then(updateIndex(index.getChanges(id.toString(),
+						keyspace, persistentEntity, response.getData(), null)));
+			}
+
+			return delete.thenReturn(entity);
+		});
+	}
+
+	/**
+	 * Delete all entities of {@code type} including their index entries.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @return a {@link Mono} completing when all entities are deleted.
+	 */
+	public Mono<Void> deleteAll(Class<?> type) {
+
+		Assert.notNull(type, "Type must not be null");
+
+		VaultPersistentEntity<?> entity = getRequiredPersistentEntity(type);
+		String keyspace = entity.getKeySpace();
+
+		Mono<Void> deleteEntities = doList(keyspace)
+				.flatMap(id -> vaultOperations.delete(createKey(id, keyspace)),
+						concurrency)
+				.then();
+
+		if (!index.isIndexed(entity)) {
+			return deleteEntities;
+		}
+
+		return deleteEntities.thenMany(listLeaves(SecretIndex.getIndexRoot(keyspace)))
+				.flatMap(vaultOperations::delete, concurrency).then();
+	}
+
+	private <T> Mono<T> doSave(String id, T objectToSave,
+			VaultPersistentEntity<?> entity) {
+
+		String keyspace = entity.getKeySpace();
+		String key = createKey(id, keyspace);
+
+		SecretDocument secretDocument = new SecretDocument(id);
+		vaultConverter.write(objectToSave, secretDocument);
+
+		if (!index.isIndexed(entity)) {
+			return vaultOperations.write(key, secretDocument.getBody())
+					.thenReturn(objectToSave);
+		}
+
+		return vaultOperations.read(key)
+				.map(response -> Optional.ofNullable(response.getData()))
+				.defaultIfEmpty(Optional.empty())
+				.flatMap(previous -> vaultOperations
+						.write(key, secretDocument.getBody())
+						.then(updateIndex(index.getChanges(id, keyspace, entity,
+								previous.orElse(null), secretDocument.getBody()))))
+				.thenReturn(objectToSave);
+	}
+
+	private <T> Mono<T> doGet(String id, String keyspace, Class<T> type) {
+
+		return vaultOperations.read(createKey(id, keyspace))
+				.flatMap(response -> Mono.justOrEmpty(
+						vaultConverter.read(type, SecretDocument.from(id, response))));
+	}
+
+	/**
+	 * List the ids of a keyspace in ascending order, excluding the index directory.
+	 */
+	private Flux<String> doList(String keyspace) {
+		return vaultOperations.list(keyspace)
+				.filter(id -> !INDEX_DIRECTORY.equals(id)).sort();
+	}
+
+	/**
+	 * Determine ids matching {@link VaultQuery}. Index criteria are resolved
+	 * concurrently before evaluating the predicate. Queries requiring index criteria
+	 * start from the smallest set of indexed ids instead of listing the whole keyspace.
+	 */
+	private Flux<String> getIds(@Nullable VaultQuery vaultQuery, String keyspace) {
+
+		if (vaultQuery == null) {
+			return doList(keyspace);
+		}
+
+		if (vaultQuery.getIndexCriteria().isEmpty()) {
+			return doList(keyspace).filter(vaultQuery::test);
+		}
+
+		return Flux.fromIterable(new LinkedHashSet<>(vaultQuery.getIndexCriteria()))
+				.flatMap(criteria -> doLookup(keyspace, criteria)
+						.map(ids -> new SimpleImmutableEntry<>(criteria, ids)),
+						concurrency)
+				.collectMap(Entry::getKey, Entry::getValue)
+				.flatMapMany(resolved -> {
+
+					Predicate<String> predicate = vaultQuery
+							.getPredicate(resolved::get);
+					Set<String> candidates = getCandidates(vaultQuery, resolved);
+
+					Flux<String> ids = candidates != null
+							? Flux.fromIterable(candidates)
+							: doList(keyspace);
+
+					return ids.filter(predicate);
+				});
+	}
+
+	@Nullable
+	private static Set<String> getCandidates(VaultQuery vaultQuery,
+			Map<IndexCriteria, Set<String>> resolved) {
+
+		Set<String> candidates = null;
+
+		for (IndexCriteria criteria : vaultQuery.getRequiredIndexCriteria()) {
+
+			Set<String> ids = resolved.get(criteria);
+
+			if (candidates == null || ids.size() < candidates.size()) {
+				candidates = ids;
+			}
+		}
+
+		return candidates;
+	}
+
+	private Mono<Set<String>> doLookup(String keyspace, IndexCriteria criteria) {
+
+		return Flux.fromIterable(index.getIndexPaths(keyspace, criteria))
+				.flatMap(vaultOperations::list, concurrency)
+				.collect(TreeSet::new, Set::add);
+	}
+
+	private Mono<Void> updateIndex(IndexChanges changes) {
+
+		Flux<Void> removals = Flux.fromIterable(changes.getRemovals())
+				.flatMap(vaultOperations::delete, concurrency);
+
+		Flux<?> additions = Flux.fromIterable(changes.getAdditions()).flatMap(
+				path -> vaultOperations.write(path, changes.getEntry()), concurrency);
+
+		return removals.thenMany(additions).then();
+	}
+
+	/**
+	 * List all leaf paths below {@code path} recursively.
+	 */
+	private Flux<String> listLeaves(String path) {
+
+		return vaultOperations.list(path).flatMap(child -> {
+
+			if (child.endsWith("/")) {
+				return listLeaves(path + "/" + child.substring(0, child.length() - 1));
+			}
+
+			return Mono.just(path + "/" + child);
+		}, concurrency);
+	}
+
+	private static <T> Flux<T> slice(Flux<T> flux, KeyValueQuery<?> query) {
+
+		Flux<T> result = flux;
+
+		if (query.getOffset() > 0) {
+			result = result.skip(query.getOffset());
+		}
+
+		if (query.getRows() > 0) {
+			result = result.take(query.getRows());
+		}
+
+		return result;
+	}
+
+	private static Object generateId(VaultPersistentEntity<?> entity,
+			VaultPersistentProperty idProperty) {
+
+		if (ClassUtils.isAssignable(idProperty.getType(), String.class)) {
+			return UUID.randomUUID().toString();
+		}
+
+		throw new InvalidDataAccessApiUsageException(String.format(
+				"Cannot generate id of type %s for entity %s. Provide an id before saving.",
+				idProperty.getType().getName(), entity.getName()));
+	}
+
+	private String getKeySpace(Class<?> type) {
+		return getRequiredPersistentEntity(type).getKeySpace();
+	}
+
+	private VaultPersistentEntity<?> getRequiredPersistentEntity(Class<?> type) {
+		return getMappingContext().getRequiredPersistentEntity(type);
+	}
+
+	private static String createKey(Object id, String keyspace) {
+		return String.format("%s/%s", keyspace, id);
+	}
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.lang.Nullable;
+import org.springframework.vault.repository.convert.VaultConverter;
+import org.springframework.vault.repository.mapping.VaultPersistentEntity;
+import org.springframework.vault.repository.mapping.VaultPersistentProperty;
+import org.springframework.vault.repository.query.VaultQuery.IndexCriteria;
+
+/**
+ * Secondary index for {@link org.springframework.vault.repository.mapping.Indexed}
+ * properties. Index entries are stored as secrets in a companion path of the keyspace:
+ * {@code <keyspace>/_idx/<property>/<value>/<id>}. Values are encoded using URL-safe
+ * Base64 so that arbitrary values form a single path segment. Listing
+ * {@code <keyspace>/_idx/<property>/<value>} returns the ids of entities indexed with
+ * {@code value}. Index values are derived from the converted secret body. Query values
+ * are converted through the same {@link VaultConverter} so that both sides match for
+ * enums and properties using custom conversions.
+ * <p>
+ * Index entries are maintained without transactional guarantees: concurrent updates of
+ * the same entity may leave stale entries behind. This class computes index paths and
+ * changes; adapters apply them using their respective Vault client.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+class SecretIndex {
+
+	/**
+	 * Path segment below a keyspace that holds index entries.
+	 */
+	static final String INDEX_SEGMENT = "_idx";
+
+	private final Map<Class<?>, List<VaultPersistentProperty>> indexedProperties = new ConcurrentHashMap<>();
+
+	private final VaultConverter converter;
+
+	/**
+	 * Create a new {@link SecretIndex} given {@link VaultConverter}.
+	 *
+	 * @param converter the converter used to write entities.
+	 */
+	SecretIndex(VaultConverter converter) {
+		this.converter = converter;
+	}
+
+	/**
+	 * @param entity the persistent entity.
+	 * @return {@literal true} if the entity declares indexed properties.
+	 */
+	boolean isIndexed(VaultPersistentEntity<?> entity) {
+		return !getIndexedProperties(entity).isEmpty();
+	}
+
+	/**
+	 * Compute the index entries to remove and to write when an entity changes from its
+	 * {@code previous} to its {@code current} state.
+	 *
+	 * @param id the entity id.
+	 * @param keyspace the keyspace.
+	 * @param entity the persistent entity.
+	 * @param previous the previous secret body, may be {@literal null} if the entity is
+	 *     new.
+	 * @param current the current secret body, may be {@literal null} if the entity was
+	 *     deleted.
+	 * @return the {@link IndexChanges}.
+	 */
+	IndexChanges getChanges(String id, String keyspace, VaultPersistentEntity<?> entity,
+			@Nullable Map<String, Object> previous,
+			@Nullable Map<String, Object> current) {
+
+		Map<String, Set<String>> previousValues = getIndexValues(entity, previous);
+		Map<String, Set<String>> currentValues = getIndexValues(entity, current);
+
+		List<String> removals = new ArrayList<>();
+		List<String> additions = new ArrayList<>();
+
+		for (VaultPersistentProperty property : getIndexedProperties(entity)) {
+
+			String name = property.getName();
+			Set<String> before = previousValues.get(name);
+			Set<String> after = currentValues.get(name);
+
+			for (String value : before) {
+				if (!after.contains(value)) {
+					removals.add(createIndexKey(keyspace, name, value, id));
+				}
+			}
+
+			for (String value : after) {
+				if (!before.contains(value)) {
+					additions.add(createIndexKey(keyspace, name, value, id));
+				}
+			}
+		}
+
+		return new IndexChanges(removals, additions, Collections.singletonMap("id", id));
+	}
+
+	/**
+	 * Return the paths to list to resolve {@link IndexCriteria}. Each listing returns
+	 * the ids of entities indexed with one of the criteria values.
+	 *
+	 * @param keyspace the keyspace.
+	 * @param criteria the criteria to resolve.
+	 * @return the index paths.
+	 */
+	List<String> getIndexPaths(String keyspace, IndexCriteria criteria) {
+
+		Set<String> values = new LinkedHashSet<>();
+
+		for (Object value : criteria.getValues()) {
+			values.addAll(toIndexValues(converter.convertToVaultType(value)));
+		}
+
+		List<String> paths = new ArrayList<>(values.size());
+
+		for (String value : values) {
+			paths.add(createIndexPath(keyspace, criteria.getProperty(), value));
+		}
+
+		return paths;
+	}
+
+	/**
+	 * @param keyspace the keyspace.
+	 * @return the path holding all index entries of {@code keyspace}.
+	 */
+	static String getIndexRoot(String keyspace) {
+		return String.format("%s/%s", keyspace, INDEX_SEGMENT);
+	}
+
+	private Map<String, Set<String>> getIndexValues(VaultPersistentEntity<?> entity,
+			@Nullable Map<String, Object> body) {
+
+		Map<String, Set<String>> values = new LinkedHashMap<>();
+
+		for (VaultPersistentProperty property : getIndexedProperties(entity)) {
+
+			Object value = body != null ? body.get(property.getName()) : null;
+			values.put(property.getName(), toIndexValues(value));
+		}
+
+		return values;
+	}
+
+	private List<VaultPersistentProperty> getIndexedProperties(
+			VaultPersistentEntity<?> entity) {
+
+		return this.indexedProperties.computeIfAbsent(entity.getType(), type -> {
+
+			List<VaultPersistentProperty> properties = new ArrayList<>();
+
+			for (VaultPersistentProperty property : entity) {
+				if (property.isIndexed()) {
+					properties.add(property);
+				}
+			}
+
+			return properties;
+		});
+	}
+
+	private static Set<String> toIndexValues(@Nullable Object value) {
+
+		if (value == null) {
+			return Collections.emptySet();
+		}
+
+		if (!(value instanceof Collection)) {
+			return Collections.singleton(String.valueOf(value));
+		}
+
+		Set<String> values = new LinkedHashSet<>();
+
+		for (Object element : (Collection<?>) value) {
+			if (element != null) {
+				values.add(String.valueOf(element));
+			}
+		}
+
+		return values;
+	}
+
+	private static String createIndexPath(String keyspace, String property,
+			String value) {
+
+		return String.format("%s/%s/%s", getIndexRoot(keyspace), property,
+				Base64.getUrlEncoder().withoutPadding()
+						.encodeToString(value.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static String createIndexKey(String keyspace, String property, String value,
+			String id) {
+		return String.format("%s/%s", createIndexPath(keyspace, property, value), id);
+	}
+
+	/**
+	 * Index entries to remove and to write.
+	 */
+	static class IndexChanges {
+
+		private final List<String> removals;
+
+		private final List<String> additions;
+
+		private final Map<String, Object> entry;
+
+		IndexChanges(List<String> removals, List<String> additions,
+				Map<String, Object> entry) {
+			this.removals = removals;
+			this.additions = additions;
+			this.entry = entry;
+		}
+
+		/**
+		 * @return paths of index entries to delete.
+		 */
+		List<String> getRemovals() {
+			return this.removals;
+		}
+
+		/**
+		 * @return paths of index entries to write.
+		 */
+		List<String> getAdditions() {
+			return this.additions;
+		}
+
+		/**
+		 * @return the body of index entries to write.
+		 */
+		Map<String, Object> getEntry() {
+			return this.entry;
+		}
+	}
+}
@@ -15,38 +15,92 @@
  */
 package org.springframework.vault.repository.core;
 
+import java.time.Duration;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.springframework.data.keyvalue.core.AbstractKeyValueAdapter;
 import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.data.util.CloseableIterator;
 import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.vault.core.KeyValueWalkOptions;
 import org.springframework.vault.core.VaultOperations;
 import org.springframework.vault.repository.convert.MappingVaultConverter;
 import org.springframework.vault.repository.convert.SecretDocument;
 import org.springframework.vault.repository.convert.VaultConverter;
+import org.springframework.vault.repository.core.SecretIndex.IndexChanges;
 import org.springframework.vault.repository.mapping.VaultMappingContext;
 import org.springframework.vault.repository.mapping.VaultPersistentEntity;
 import org.springframework.vault.repository.mapping.VaultPersistentProperty;
+import org.springframework.vault.repository.query.VaultQuery.IndexCriteria;
 import org.springframework.vault.support.VaultResponse;
 
 /**
  * Vault-specific {@link org.springframework.data.keyvalue.core.KeyValueAdapter}.
+ * <p>
+ * Retrieving multiple entities ({@link #getAllOf(String)}, {@link #entries(String)} and
+ * queries) lists the keyspace and fetches secrets concurrently using up to
+ * {@link #setParallelism(int) parallelism} requests, prefetching up to
+ * {@link #setPrefetch(int) prefetch} entities ahead of the consumer. Fetches run on a
+ * dedicated thread pool unless an {@link #setExecutor(Executor) Executor} is configured.
+ * {@link #getAllOf(String)} and {@link #entries(String)} fetch lazily while iterating
+ * so that a keyspace is never held in memory as a whole.
+ * <p>
+ * Entities declaring {@link org.springframework.vault.repository.mapping.Indexed}
+ * properties maintain index entries below {@code <keyspace>/_idx} on {@link #put},
+ * {@link #delete} and {@link #deleteAllOf}. Maintaining the index requires reading the
+ * previous state of an entity before saving it.
+ * <p>
+ * Keyspace listings used by {@link #contains}, {@link #count} and queries can be cached
+ * as sorted sets for a {@link #setKeyspaceCacheTimeToLive(Duration) configured time to
+ * live} and are kept up to date with changes made through this adapter.
  *
  * @author Mark Paluch
  * @since 2.0
  */
 public class VaultKeyValueAdapter extends AbstractKeyValueAdapter {
 
+	private static final Executor DIRECT = Runnable::run;
+
+	private static final String INDEX_DIRECTORY = SecretIndex.INDEX_SEGMENT + "/";
+
+	private static final AtomicInteger poolId = new AtomicInteger();
+
 	private final VaultOperations vaultOperations;
 
 	private final VaultConverter vaultConverter;
 
+	private final SecretIndex index;
+
+	private final KeyspaceCache keyspaceCache = new KeyspaceCache();
+
+	private int parallelism = 4;
+
+	private int prefetch = 32;
+
+	@Nullable
+	private Executor executor;
+
+	@Nullable
+	private ExecutorService managedExecutor;
+
 	/**
 	 * Create a new {@link VaultKeyValueAdapter} given {@link VaultOperations}.
 	 *
@@ -73,6 +127,64 @@ public class VaultKeyValueAdapter extends AbstractKeyValueAdapter {
 
 		this.vaultOperations = vaultOperations;
 		this.vaultConverter = vaultConverter;
+		this.index = new SecretIndex(vaultConverter);
+	}
+
+	/**
+	 * Set the maximum number of concurrent requests to fetch entities. Defaults to
+	 * {@literal 4}. A parallelism of {@literal 1} fetches entities sequentially on the
+	 * calling thread. Has no effect if an {@link #setExecutor(Executor) Executor} is
+	 * configured.
+	 *
+	 * @param parallelism must be greater {@literal 0}.
+	 */
+	public void setParallelism(int parallelism) {
+
+		Assert.isTrue(parallelism > 0, "Parallelism must be greater 0");
+
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Set the number of entities to fetch ahead of the consumer. Defaults to
+	 * {@literal 32}.
+	 *
+	 * @param prefetch must be greater {@literal 0}.
+	 */
+	public void setPrefetch(int prefetch) {
+
+		Assert.isTrue(prefetch > 0, "Prefetch must be greater 0");
+
+		this.prefetch = prefetch;
+	}
+
+	/**
+	 * Set the {@link Executor} to fetch entities on. The executor bounds the
+	 * concurrency. Defaults to a dedicated thread pool sized to
+	 * {@link #setParallelism(int) parallelism}.
+	 *
+	 * @param executor must not be {@literal null}.
+	 */
+	public void setExecutor(Executor executor) {
+
+		Assert.notNull(executor, "Executor must not be null");
+
+		this.executor = executor;
+	}
+
+	/**
+	 * Set the time to live of cached keyspace listings. Defaults to {@link Duration#ZERO}
+	 * which lists the keyspace on each access. Listings are updated in place when
+	 * entities are saved or deleted through this adapter; changes made by other clients
+	 * become visible only after the time to live. Enabling the cache is therefore safe
+	 * only if this adapter is the single writer to its keyspaces, i.e. no other
+	 * application instance or client writes to the same paths.
+	 *
+	 * @param timeToLive must not be {@literal null} or negative.
+	 * @since 2.2
+	 */
+	public void setKeyspaceCacheTimeToLive(Duration timeToLive) {
+		keyspaceCache.setTimeToLive(timeToLive);
 	}
 
 	@Override
@@ -81,7 +193,24 @@ public class VaultKeyValueAdapter extends AbstractKeyValueAdapter {
 		SecretDocument secretDocument = new SecretDocument(id.toString());
 		vaultConverter.write(item, secretDocument);
 
-		vaultOperations.write(createKey(id, keyspace), secretDocument.getBody());
+		String key = createKey(id, keyspace);
+		VaultPersistentEntity<?> entity = getIndexedEntity(item.getClass());
+
+		if (entity == null) {
+
+			vaultOperations.write(key, secretDocument.getBody());
+			keyspaceCache.added(keyspace, id.toString());
+
+			return secretDocument;
+		}
+
+		VaultResponse previous = vaultOperations.read(key);
+
+		vaultOperations.write(key, secretDocument.getBody());
+		keyspaceCache.added(keyspace, id.toString());
+
+		updateIndex(index.getChanges(id.toString(), keyspace, entity,
+				previous != null ? previous.getData() : null, secretDocument.getBody()));
 
 		return secretDocument;
 	}
@@ -122,13 +251,29 @@ public class VaultKeyValueAdapter extends AbstractKeyValueAdapter {
 	@Override
 	public <T> T delete(Object id, String keyspace, Class<T> type) {
 
-		T entity = get(id, keyspace, type);
+		String key = createKey(id, keyspace);
+		VaultResponse response = vaultOperations.read(key);
+
+		if (response == null) {
+			return null;
+		}
+
+		T entity = vaultConverter.read(type,
+				SecretDocument.from(id.toString(), response));
 
 		if (entity == null) {
 			return null;
 		}
 
-		vaultOperations.delete(createKey(id, keyspace));
+		vaultOperations.delete(key);
+		keyspaceCache.removed(keyspace, id.toString());
+
+		VaultPersistentEntity<?> persistentEntity = getIndexedEntity(entity.getClass());
+
+		if (persistentEntity != null) {
+			updateIndex(index.getChanges(id.toString(), keyspace, persistentEntity,
+					response.getData(), null));
+		}
 
 		return entity;
 	}
@@ -136,71 +281,47 @@ public class VaultKeyValueAdapter extends AbstractKeyValueAdapter {
 	@Override
 	public Iterable<?> getAllOf(String keyspace) {
 
-		List<String> list = doList(keyspace);
-		List<Object> items = new ArrayList<>(list.size());
-
-		for (String id : list) {
-			items.add(get(id, keyspace));
-		}
-
-		return items;
+		// each iteration lists the keyspace and fetches entities as they are consumed
+		return () -> doFetch(doList(keyspace).iterator(), id -> get(id, keyspace));
 	}
 
 	@Override
 	public CloseableIterator<Entry<Object, Object>> entries(String keyspace) {
 
-		List<String> list = doList(keyspace);
-		Iterator<String> iterator = list.iterator();
-
-		return new CloseableIterator<Entry<Object, Object>>() {
-			@Override
-			public void close() {
-
-			}
-
-			@Override
-			public boolean hasNext() {
-				return iterator.hasNext();
-			}
+		return doFetch(doList(keyspace).iterator(),
+				id -> new SimpleImmutableEntry<>(id, get(id, keyspace)));
+	}
 
-			@Override
-			public Entry<Object, Object> next() {
+	@Override
+	public void deleteAllOf(String keyspace) {
 
-				final String key = iterator.next();
+		// list from Vault to include ids written by other clients
+		List<String> entries = vaultOperations.list(keyspace);
+		boolean indexed = false;
 
-				return new Entry<Object, Object>() {
-					@Override
-					public Object getKey() {
-						return key;
-					}
+		if (entries != null) {
 
-					@Nullable
-					@Override
-					public Object getValue() {
-						return get(key, keyspace);
-					}
+			for (String entry : entries) {
 
-					@Override
-					public Object setValue(Object value) {
-						throw new UnsupportedOperationException();
-					}
-				};
-			}
+				if (INDEX_DIRECTORY.equals(entry)) {
+					indexed = true;
+					continue;
+				}
 
-			@Override
-			public void remove() {
-				throw new UnsupportedOperationException();
+				vaultOperations.delete(createKey(entry, keyspace));
 			}
-		};
-	}
+		}
 
-	@Override
-	public void deleteAllOf(String keyspace) {
+		keyspaceCache.evict(keyspace);
 
-		List<String> ids = doList(keyspace);
+		// walk the index only if the keyspace listing contains an index directory
+		if (!indexed) {
+			return;
+		}
 
-		for (String id : ids) {
-			vaultOperations.delete(createKey(id, keyspace));
+		try (Stream<String> indexEntries = vaultOperations.walk(
+				SecretIndex.getIndexRoot(keyspace), KeyValueWalkOptions.defaults())) {
+			indexEntries.forEach(vaultOperations::delete);
 		}
 	}
 
@@ -212,20 +333,151 @@ public class VaultKeyValueAdapter extends AbstractKeyValueAdapter {
 	@Override
 	public long count(String keyspace) {
 
-		List<String> list = doList(keyspace);
-
-		return list.size();
+		return doList(keyspace).size();
 	}
 
 	@Override
 	public void destroy() throws Exception {
+
+		synchronized (this) {
+
+			if (this.managedExecutor != null) {
+				this.managedExecutor.shutdown();
+				this.managedExecutor = null;
+			}
+		}
+	}
+
+	/**
+	 * List the ids of a keyspace using the keyspace cache.
+	 *
+	 * @param keyspace the keyspace.
+	 * @return unmodifiable sorted set of ids.
+	 */
+	NavigableSet<String> doList(String keyspace) {
+		return keyspaceCache.getIds(keyspace, this::listKeyspace);
 	}
 
-	List<String> doList(String keyspace) {
+	private List<String> listKeyspace(String keyspace) {
 
 		List<String> list = vaultOperations.list(keyspace);
 
-		return list == null ? Collections.emptyList() : list;
+		if (list == null) {
+			return Collections.emptyList();
+		}
+
+		if (!list.contains(INDEX_DIRECTORY)) {
+			return list;
+		}
+
+		List<String> ids = new ArrayList<>(list);
+		ids.remove(INDEX_DIRECTORY);
+
+		return ids;
+	}
+
+	/**
+	 * Resolve {@link IndexCriteria} to the ids of entities indexed with any of its
+	 * values.
+	 *
+	 * @param keyspace the keyspace.
+	 * @param criteria the criteria to resolve.
+	 * @return the sorted set of matching ids.
+	 */
+	Set<String> doLookup(String keyspace, IndexCriteria criteria) {
+
+		Set<String> ids = new TreeSet<>();
+
+		for (String path : index.getIndexPaths(keyspace, criteria)) {
+
+			List<String> list = vaultOperations.list(path);
+
+			if (list != null) {
+				ids.addAll(list);
+			}
+		}
+
+		return ids;
+	}
+
+	private void updateIndex(IndexChanges changes) {
+
+		for (String path : changes.getRemovals()) {
+			vaultOperations.delete(path);
+		}
+
+		for (String path : changes.getAdditions()) {
+			vaultOperations.write(path, changes.getEntry());
+		}
+	}
+
+	@Nullable
+	private VaultPersistentEntity<?> getIndexedEntity(Class<?> type) {
+
+		VaultPersistentEntity<?> entity = getMappingContext()
+				.getPersistentEntity(ClassUtils.getUserClass(type));
+
+		return entity != null && index.isIndexed(entity) ? entity : null;
+	}
+
+	/**
+	 * Fetch entities for {@code ids} concurrently.
+	 *
+	 * @param ids the ids to fetch.
+	 * @param keyspace the keyspace.
+	 * @param type the entity type.
+	 * @return entities in the order of {@code ids}. Contains {@literal null} for absent
+	 *     entities.
+	 */
+	<T> List<T> doGetAll(Collection<String> ids, String keyspace, Class<T> type) {
+
+		List<T> items = new ArrayList<>(ids.size());
+
+		try (CloseableIterator<T> iterator = doFetch(ids.iterator(),
+				id -> get(id, keyspace, type))) {
+
+			while (iterator.hasNext()) {
+				items.add(iterator.next());
+			}
+		}
+
+		return items;
+	}
+
+	private <T> CloseableIterator<T> doFetch(Iterator<String> ids,
+			Function<String, T> fetcher) {
+
+		Executor executor = getExecutor();
+
+		return new PrefetchingIterator<>(ids, fetcher, executor,
+				executor == DIRECT ? 1 : this.prefetch);
+	}
+
+	private Executor getExecutor() {
+
+		if (this.executor != null) {
+			return this.executor;
+		}
+
+		if (this.parallelism == 1) {
+			return DIRECT;
+		}
+
+		synchronized (this) {
+
+			if (this.managedExecutor == null) {
+
+				CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+						String.format("%s-%d-", getClass().getSimpleName(),
+								poolId.incrementAndGet()));
+				threadFactory.setDaemon(true);
+
+				this.managedExecutor = Executors.newFixedThreadPool(this.parallelism,
+						threadFactory);
+			}
+
+			return this.managedExecutor;
+		}
 	}
 
 	private String createKey(Object id, String keyspace) {
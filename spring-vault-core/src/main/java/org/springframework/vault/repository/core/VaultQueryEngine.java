@@ -18,6 +18,12 @@ package org.springframework.vault.repository.core;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -28,12 +34,18 @@ import org.springframework.data.keyvalue.core.query.KeyValueQuery;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.lang.Nullable;
 import org.springframework.vault.repository.query.VaultQuery;
+import org.springframework.vault.repository.query.VaultQuery.IndexCriteria;
+import org.springframework.vault.repository.query.VaultQuery.IndexLookup;
 
 /**
  * Query engine for Vault repository query methods. This engine queries Vault for all
  * elements in the keyspace and applies {@link java.util.function.Predicate}s to the
- * object id. Queries can contain only predicate subjects pointing to the
- * {@link org.springframework.data.annotation.Id} property.
+ * object id. Matching entities are fetched concurrently through
+ * {@link VaultKeyValueAdapter}. Queries can contain only predicate subjects pointing to
+ * the {@link org.springframework.data.annotation.Id} property and to
+ * {@link org.springframework.vault.repository.mapping.Indexed indexed} properties.
+ * Queries constrained by index criteria resolve candidate ids from the index instead of
+ * listing the keyspace.
  *
  * @author Mark Paluch
  * @since 2.0
@@ -62,51 +74,141 @@ class VaultQueryEngine
 			@Nullable Comparator<?> comparator, long offset, int rows, String keyspace,
 			Class<T> type) {
 
-		Stream<String> stream = getRequiredAdapter().doList(keyspace).stream();
+		Stream<String> stream = getIds(vaultQuery, keyspace);
 
-		if (vaultQuery != null) {
-			stream = stream.filter(vaultQuery::test);
-		}
+		if (comparator == null && (offset > 0 || rows > 0)) {
 
-		if (comparator == null) {
+			// ids resolved from the index may refer to entities deleted in the meantime,
+			// these must not count towards offset and rows
+			boolean indexed = vaultQuery != null
+					&& !vaultQuery.getIndexCriteria().isEmpty();
 
-			if (offset > 0) {
+			if (!indexed && offset > 0) {
 				stream = stream.skip(offset);
 			}
 
-			if (rows > 0) {
-				stream = stream.limit(rows);
-			}
+			return getPage(stream.collect(Collectors.toList()), indexed ? offset : 0,
+					rows, keyspace, type);
 		}
 
-		Stream<T> typed = stream.map(it -> getRequiredAdapter().get(it, keyspace, type));
+		List<String> ids = stream.collect(Collectors.toList());
+		List<T> result = getRequiredAdapter().doGetAll(ids, keyspace, type);
 
-		if (comparator != null) {
+		result.removeIf(Objects::isNull);
+
+		if (comparator == null) {
+			return result;
+		}
 
-			typed = typed.sorted((Comparator) comparator);
+		Stream<T> typed = result.stream().sorted((Comparator) comparator);
 
-			if (offset > 0) {
-				typed = typed.skip(offset);
-			}
+		if (offset > 0) {
+			typed = typed.skip(offset);
+		}
 
-			if (rows > 0) {
-				typed = typed.limit(rows);
-			}
+		if (rows > 0) {
+			typed = typed.limit(rows);
 		}
 
 		return typed.collect(Collectors.toCollection(ArrayList::new));
 	}
 
+	/**
+	 * Fetch entities for {@code ids} in batches, skipping {@code offset} existing
+	 * entities, until {@code rows} entities are found or all ids are consumed. Absent
+	 * entities are skipped.
+	 */
+	private <T> List<T> getPage(List<String> ids, long offset, int rows,
+			String keyspace, Class<T> type) {
+
+		List<T> page = new ArrayList<>();
+		long toSkip = offset;
+		int position = 0;
+
+		while (position < ids.size() && (rows <= 0 || page.size() < rows)) {
+
+			long wanted = rows > 0 ? toSkip + rows - page.size() : ids.size();
+			int end = (int) Math.min(ids.size(), position + wanted);
+
+			List<T> fetched = getRequiredAdapter().doGetAll(ids.subList(position, end),
+					keyspace, type);
+			position = end;
+
+			for (T entity : fetched) {
+
+				if (entity == null) {
+					continue;
+				}
+
+				if (toSkip > 0) {
+					toSkip--;
+				}
+				else {
+					page.add(entity);
+				}
+			}
+		}
+
+		return page;
+	}
+
+	/**
+	 * Count ids matching {@link VaultQuery}. Ids resolved from the index are counted only
+	 * if they are contained in the keyspace listing so that index entries of deleted
+	 * entities are not counted, consistent with {@link #execute}.
+	 */
 	@Override
 	public long count(@Nullable VaultQuery vaultQuery, String keyspace) {
 
-		Stream<String> stream = getRequiredAdapter().doList(keyspace).stream();
+		Stream<String> ids = getIds(vaultQuery, keyspace);
+
+		if (vaultQuery != null && !vaultQuery.getIndexCriteria().isEmpty()) {
+
+			Set<String> existing = getRequiredAdapter().doList(keyspace);
+			ids = ids.filter(existing::contains);
+		}
+
+		return ids.count();
+	}
+
+	/**
+	 * Determine ids matching {@link VaultQuery}. Queries requiring index criteria start
+	 * from the smallest set of indexed ids instead of listing the whole keyspace.
+	 */
+	private Stream<String> getIds(@Nullable VaultQuery vaultQuery, String keyspace) {
+
+		VaultKeyValueAdapter adapter = getRequiredAdapter();
+
+		if (vaultQuery == null) {
+			return adapter.doList(keyspace).stream();
+		}
+
+		if (vaultQuery.getIndexCriteria().isEmpty()) {
+			return adapter.doList(keyspace).stream().filter(vaultQuery::test);
+		}
+
+		Map<IndexCriteria, Set<String>> resolved = new HashMap<>();
+		IndexLookup lookup = criteria -> resolved.computeIfAbsent(criteria,
+				it -> adapter.doLookup(keyspace, it));
+
+		Predicate<String> predicate = vaultQuery.getPredicate(lookup);
+
+		Collection<String> candidates = null;
+
+		for (IndexCriteria criteria : vaultQuery.getRequiredIndexCriteria()) {
+
+			Set<String> ids = lookup.getIds(criteria);
+
+			if (candidates == null || ids.size() < candidates.size()) {
+				candidates = ids;
+			}
+		}
 
-		if (vaultQuery != null) {
-			stream = stream.filter(vaultQuery::test);
+		if (candidates == null) {
+			candidates = adapter.doList(keyspace);
 		}
 
-		return stream.count();
+		return candidates.stream().filter(predicate);
 	}
 
 	enum VaultCriteriaAccessor implements CriteriaAccessor<VaultQuery> {
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.mapping;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a top-level property of a {@link Secret} entity to be indexed. Indexed
+ * properties are maintained as index entries in a companion path of the keyspace
+ * ({@code <keyspace>/_idx/<property>/<value>/<id>}) when entities are saved or deleted.
+ * Repository query methods can use equality ({@code findByName(…)}) and {@code In}
+ * ({@code findByNameIn(…)}) criteria on indexed properties without scanning the whole
+ * keyspace.
+ * <p>
+ * Property values are indexed using their {@link String} representation. Collection
+ * values are indexed per element. Entities stored without the repository abstraction
+ * are not indexed.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(value = { ElementType.FIELD, ElementType.METHOD, ElementType.ANNOTATION_TYPE })
+public @interface Indexed {
+}
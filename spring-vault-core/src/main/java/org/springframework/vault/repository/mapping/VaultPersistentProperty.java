@@ -57,4 +57,12 @@ public class VaultPersistentProperty
 	public boolean isIdProperty() {
 		return super.isIdProperty() || SUPPORTED_ID_PROPERTY_NAMES.contains(getName());
 	}
+
+	/**
+	 * @return {@literal true} if the property is annotated with {@link Indexed}.
+	 * @since 2.2
+	 */
+	public boolean isIndexed() {
+		return !isIdProperty() && isAnnotationPresent(Indexed.class);
+	}
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.query;
+
+import reactor.core.publisher.Flux;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.keyvalue.core.query.KeyValueQuery;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.repository.query.ParameterAccessor;
+import org.springframework.data.repository.query.ParametersParameterAccessor;
+import org.springframework.data.repository.query.QueryMethod;
+import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.data.repository.query.ResultProcessor;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.util.Assert;
+import org.springframework.vault.repository.core.ReactiveVaultKeyValueTemplate;
+import org.springframework.vault.repository.mapping.VaultPersistentEntity;
+import org.springframework.vault.repository.mapping.VaultPersistentProperty;
+
+/**
+ * Reactive {@link RepositoryQuery} deriving Vault queries from query method names using
+ * {@link VaultQueryCreator}. Supports finder, count and exists queries returning
+ * {@link reactor.core.publisher.Mono} or {@link Flux}.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see VaultPartTreeQuery
+ */
+public class ReactiveVaultPartTreeQuery implements RepositoryQuery {
+
+	private final QueryMethod queryMethod;
+
+	private final ReactiveVaultKeyValueTemplate operations;
+
+	private final MappingContext<VaultPersistentEntity<?>, VaultPersistentProperty> mappingContext;
+
+	private final PartTree tree;
+
+	/**
+	 * Creates a new {@link ReactiveVaultPartTreeQuery} for the given {@link QueryMethod}
+	 * and {@link ReactiveVaultKeyValueTemplate}.
+	 *
+	 * @param queryMethod must not be {@literal null}.
+	 * @param operations must not be {@literal null}.
+	 */
+	@SuppressWarnings("unchecked")
+	public ReactiveVaultPartTreeQuery(QueryMethod queryMethod,
+			ReactiveVaultKeyValueTemplate operations) {
+
+		Assert.notNull(queryMethod, "Query method must not be null");
+		Assert.notNull(operations, "ReactiveVaultKeyValueTemplate must not be null");
+
+		this.queryMethod = queryMethod;
+		this.operations = operations;
+		this.mappingContext = (MappingContext) operations.getMappingContext();
+		this.tree = new PartTree(queryMethod.getName(),
+				queryMethod.getEntityInformation().getJavaType());
+
+		if (this.tree.isDelete()) {
+			throw new UnsupportedOperationException(String.format(
+					"Delete query method %s not supported.", queryMethod.getName()));
+		}
+	}
+
+	@Override
+	public Object execute(Object[] parameters) {
+
+		ParameterAccessor accessor = new ParametersParameterAccessor(
+				queryMethod.getParameters(), parameters);
+		KeyValueQuery<VaultQuery> query = createQuery(accessor);
+
+		ResultProcessor processor = queryMethod.getResultProcessor()
+				.withDynamicProjection(accessor);
+
+		return processor.processResult(doExecute(query));
+	}
+
+	@Override
+	public QueryMethod getQueryMethod() {
+		return queryMethod;
+	}
+
+	private Object doExecute(KeyValueQuery<VaultQuery> query) {
+
+		Class<?> type = queryMethod.getEntityInformation().getJavaType();
+
+		if (tree.isCountProjection()) {
+			return operations.count(query, type);
+		}
+
+		if (tree.isExistsProjection()) {
+			return operations.count(query, type).map(count -> count > 0);
+		}
+
+		Flux<?> result = operations.find(query, type);
+
+		return queryMethod.isCollectionQuery() ? result : result.next();
+	}
+
+	/**
+	 * Create a {@link KeyValueQuery} applying dynamic sorting, paging and result limits.
+	 */
+	private KeyValueQuery<VaultQuery> createQuery(ParameterAccessor accessor) {
+
+		KeyValueQuery<VaultQuery> query = new VaultQueryCreator(tree, accessor,
+				mappingContext).createQuery();
+
+		Pageable pageable = accessor.getPageable();
+
+		if (pageable.isPaged()) {
+			query.setOffset(pageable.getOffset());
+			query.setRows(pageable.getPageSize());
+		}
+
+		if (tree.isLimiting()) {
+
+			int maxResults = tree.getMaxResults();
+			query.setRows(query.getRows() > 0 ? Math.min(query.getRows(), maxResults)
+					: maxResults);
+		}
+
+		return query;
+	}
+}
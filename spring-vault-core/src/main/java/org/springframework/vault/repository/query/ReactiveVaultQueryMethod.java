@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.query;
+
+import java.lang.reflect.Method;
+
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.query.QueryMethod;
+import org.springframework.data.repository.util.ReactiveWrappers;
+
+/**
+ * Reactive Vault-specific {@link QueryMethod}. Query methods returning a multi-value
+ * reactive type such as {@link reactor.core.publisher.Flux} are considered collection
+ * queries.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+public class ReactiveVaultQueryMethod extends QueryMethod {
+
+	private final Method method;
+
+	/**
+	 * Creates a new {@link ReactiveVaultQueryMethod} from the given {@link Method}.
+	 *
+	 * @param method must not be {@literal null}.
+	 * @param metadata must not be {@literal null}.
+	 * @param projectionFactory must not be {@literal null}.
+	 */
+	public ReactiveVaultQueryMethod(Method method, RepositoryMetadata metadata,
+			ProjectionFactory projectionFactory) {
+
+		super(method, metadata, projectionFactory);
+
+		this.method = method;
+	}
+
+	@Override
+	public boolean isCollectionQuery() {
+		return ReactiveWrappers.isMultiValueType(method.getReturnType());
+	}
+}
@@ -15,6 +15,13 @@
  */
 package org.springframework.vault.repository.query;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.springframework.util.Assert;
@@ -26,14 +33,22 @@ import org.springframework.vault.repository.convert.SecretDocument;
  * and {@link #or(VaultQuery)}.
  * <p />
  * A query can express predicates only against the
- * {@link org.springframework.data.annotation.Id} field of a {@link SecretDocument}.
+ * {@link org.springframework.data.annotation.Id} field of a {@link SecretDocument} and
+ * against {@link org.springframework.vault.repository.mapping.Indexed indexed}
+ * properties through {@link IndexCriteria}. Index criteria are resolved to sets of ids
+ * using an {@link IndexLookup} when {@link #getPredicate(IndexLookup) obtaining the
+ * predicate}.
  *
  * @author Mark Paluch
  * @since 2.0
  */
 public class VaultQuery {
 
-	private final Predicate<String> predicate;
+	private final Function<IndexLookup, Predicate<String>> predicate;
+
+	private final List<IndexCriteria> indexCriteria;
+
+	private final List<IndexCriteria> requiredIndexCriteria;
 
 	/**
 	 * Create a new {@link VaultQuery} that evaluates unconditionally to {@literal true}.
@@ -51,7 +66,39 @@ public class VaultQuery {
 
 		Assert.notNull(predicate, "Predicate must not be null");
 
+		this.predicate = lookup -> predicate;
+		this.indexCriteria = Collections.emptyList();
+		this.requiredIndexCriteria = Collections.emptyList();
+	}
+
+	private VaultQuery(Function<IndexLookup, Predicate<String>> predicate,
+			List<IndexCriteria> indexCriteria, List<IndexCriteria> requiredIndexCriteria) {
+
 		this.predicate = predicate;
+		this.indexCriteria = indexCriteria;
+		this.requiredIndexCriteria = requiredIndexCriteria;
+	}
+
+	/**
+	 * Create a new {@link VaultQuery} matching ids whose entity is indexed with any of
+	 * the given {@code values} for the indexed {@code property}. Values are converted
+	 * the same way as property values written to Vault before looking up the index.
+	 *
+	 * @param property the property name, must not be {@literal null} or empty.
+	 * @param values the values to match, must not be {@literal null}.
+	 * @return the {@link VaultQuery} for the index lookup.
+	 * @since 2.2
+	 */
+	public static VaultQuery indexed(String property, Collection<?> values) {
+
+		IndexCriteria criteria = new IndexCriteria(property, values);
+		List<IndexCriteria> list = Collections.singletonList(criteria);
+
+		return new VaultQuery(lookup -> {
+
+			Set<String> ids = lookup.getIds(criteria);
+			return ids::contains;
+		}, list, list);
 	}
 
 	/**
@@ -62,9 +109,9 @@ public class VaultQuery {
 	 */
 	public boolean test(SecretDocument document) {
 
-		Assert.notNull(predicate, "Predicate must not be null");
+		Assert.notNull(document, "SecretDocument must not be null");
 
-		return predicate.test(document.getId());
+		return getPredicate().test(document.getId());
 	}
 
 	/**
@@ -77,7 +124,7 @@ public class VaultQuery {
 
 		Assert.notNull(id, "Id to test must not be null");
 
-		return predicate.test(id);
+		return getPredicate().test(id);
 	}
 
 	/**
@@ -89,7 +136,11 @@ public class VaultQuery {
 	 * @see Predicate#and(Predicate)
 	 */
 	public VaultQuery and(VaultQuery other) {
-		return new VaultQuery(this.predicate.and(other.predicate));
+
+		return new VaultQuery(
+				lookup -> this.predicate.apply(lookup).and(other.predicate.apply(lookup)),
+				concat(this.indexCriteria, other.indexCriteria),
+				concat(this.requiredIndexCriteria, other.requiredIndexCriteria));
 	}
 
 	/**
@@ -101,7 +152,7 @@ public class VaultQuery {
 	 * @see Predicate#and(Predicate)
 	 */
 	public VaultQuery and(Predicate<String> predicate) {
-		return new VaultQuery(this.predicate.and(predicate));
+		return and(new VaultQuery(predicate));
 	}
 
 	/**
@@ -113,13 +164,152 @@ public class VaultQuery {
 	 * @see Predicate#and(Predicate)
 	 */
 	public VaultQuery or(VaultQuery other) {
-		return new VaultQuery(this.predicate.or(other.predicate));
+
+		return new VaultQuery(
+				lookup -> this.predicate.apply(lookup).or(other.predicate.apply(lookup)),
+				concat(this.indexCriteria, other.indexCriteria),
+				Collections.emptyList());
 	}
 
 	/**
 	 * @return the underlying predicate.
+	 * @throws IllegalStateException if the query contains {@link IndexCriteria}.
 	 */
 	public Predicate<String> getPredicate() {
-		return predicate;
+
+		return getPredicate(criteria -> {
+			throw new IllegalStateException(String.format(
+					"Query requires an index lookup for %s", criteria));
+		});
+	}
+
+	/**
+	 * Return the underlying predicate resolving {@link IndexCriteria} through the given
+	 * {@link IndexLookup}.
+	 *
+	 * @param lookup must not be {@literal null}.
+	 * @return the underlying predicate.
+	 * @since 2.2
+	 */
+	public Predicate<String> getPredicate(IndexLookup lookup) {
+
+		Assert.notNull(lookup, "IndexLookup must not be null");
+
+		return this.predicate.apply(lookup);
+	}
+
+	/**
+	 * @return all {@link IndexCriteria} this query refers to.
+	 * @since 2.2
+	 */
+	public List<IndexCriteria> getIndexCriteria() {
+		return this.indexCriteria;
+	}
+
+	/**
+	 * @return {@link IndexCriteria} that each matching id must satisfy. Matches are a
+	 *     subset of the ids resolved for any of these criteria. Empty if the query
+	 *     requires a keyspace scan.
+	 * @since 2.2
+	 */
+	public List<IndexCriteria> getRequiredIndexCriteria() {
+		return this.requiredIndexCriteria;
+	}
+
+	private static <T> List<T> concat(List<T> left, List<T> right) {
+
+		if (left.isEmpty()) {
+			return right;
+		}
+
+		if (right.isEmpty()) {
+			return left;
+		}
+
+		List<T> result = new ArrayList<>(left.size() + right.size());
+		result.addAll(left);
+		result.addAll(right);
+
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Strategy to resolve {@link IndexCriteria} to the set of matching ids.
+	 *
+	 * @since 2.2
+	 */
+	@FunctionalInterface
+	public interface IndexLookup {
+
+		/**
+		 * Resolve {@link IndexCriteria} to the ids of entities indexed with any of the
+		 * criteria values.
+		 *
+		 * @param criteria the criteria to resolve.
+		 * @return the set of matching ids.
+		 */
+		Set<String> getIds(IndexCriteria criteria);
+	}
+
+	/**
+	 * Criteria matching entities whose indexed property equals any of the given
+	 * values.
+	 *
+	 * @since 2.2
+	 */
+	public static class IndexCriteria {
+
+		private final String property;
+
+		private final Set<Object> values;
+
+		IndexCriteria(String property, Collection<?> values) {
+
+			Assert.hasText(property, "Property must not be empty");
+			Assert.notNull(values, "Values must not be null");
+
+			this.property = property;
+			this.values = Collections.unmodifiableSet(new LinkedHashSet<>(values));
+		}
+
+		/**
+		 * @return the property name.
+		 */
+		public String getProperty() {
+			return this.property;
+		}
+
+		/**
+		 * @return the values to match as passed to the query method.
+		 */
+		public Set<Object> getValues() {
+			return this.values;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o)
+				return true;
+			if (!(o instanceof IndexCriteria))
+				return false;
+			IndexCriteria that = (IndexCriteria) o;
+			return this.property.equals(that.property)
+					&& this.values.equals(that.values);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * this.property.hashCode() + this.values.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			StringBuffer sb = new StringBuffer();
+			sb.append(getClass().getSimpleName());
+			sb.append(" [property=").append(this.property);
+			sb.append(", values=").append(this.values);
+			sb.append(']');
+			return sb.toString();
+		}
 	}
 }
@@ -17,6 +17,7 @@ package org.springframework.vault.repository.query;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
@@ -33,13 +34,17 @@ import org.springframework.data.repository.query.parser.Part;
 import org.springframework.data.repository.query.parser.Part.IgnoreCaseType;
 import org.springframework.data.repository.query.parser.Part.Type;
 import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.lang.Nullable;
+import org.springframework.util.CollectionUtils;
 import org.springframework.vault.repository.mapping.VaultPersistentEntity;
 import org.springframework.vault.repository.mapping.VaultPersistentProperty;
 
 /**
  * Query creator for Vault queries. Vault queries are limited to criterias constraining
  * the {@link org.springframework.data.annotation.Id} property. A query consists of
- * chained {@link Predicate}s that are evaluated for each Id value.
+ * chained {@link Predicate}s that are evaluated for each Id value. Equality and
+ * {@code In} criteria on {@link org.springframework.vault.repository.mapping.Indexed
+ * indexed} properties are resolved through index lookups.
  *
  * @author Mark Paluch
  * @since 2.0
@@ -66,31 +71,74 @@ public class VaultQueryCreator
 
 	@Override
 	protected VaultQuery create(Part part, Iterator<Object> parameters) {
-		return new VaultQuery(createPredicate(part, parameters));
+		return createQuery(part, parameters);
 	}
 
 	@Override
 	protected VaultQuery and(Part part, VaultQuery base, Iterator<Object> parameters) {
-		return base.and(createPredicate(part, parameters));
+		return base.and(createQuery(part, parameters));
 	}
 
-	private Predicate<String> createPredicate(Part part, Iterator<Object> parameters) {
+	private VaultQuery createQuery(Part part, Iterator<Object> parameters) {
 
 		PersistentPropertyPath<VaultPersistentProperty> propertyPath = mappingContext
 				.getPersistentPropertyPath(part.getProperty());
+		VaultPersistentProperty leafProperty = propertyPath.getLeafProperty();
 
-		if (propertyPath.getLeafProperty() != null
-				&& !propertyPath.getLeafProperty().isIdProperty()) {
-			throw new InvalidDataAccessApiUsageException(
-					String.format("Cannot create criteria for non-@Id property %s",
-							propertyPath.getLeafProperty()));
+		if (leafProperty != null && !leafProperty.isIdProperty()) {
+
+			if (leafProperty.isIndexed() && propertyPath.getLength() == 1) {
+				return createIndexQuery(part, leafProperty, parameters);
+			}
+
+			throw new InvalidDataAccessApiUsageException(String.format(
+					"Cannot create criteria for non-@Id property %s; "
+							+ "Annotate top-level properties with @Indexed to query them",
+					leafProperty));
 		}
 
 		VariableAccessor accessor = getVariableAccessor(part);
 
 		Predicate<String> predicate = from(part, accessor, parameters);
 
-		return it -> predicate.test(accessor.toString(it));
+		return new VaultQuery(it -> predicate.test(accessor.toString(it)));
+	}
+
+	/**
+	 * Create an index-backed {@link VaultQuery} for an
+	 * {@link org.springframework.vault.repository.mapping.Indexed} property. Index
+	 * lookups support case-sensitive equality and {@code In} criteria.
+	 */
+	private static VaultQuery createIndexQuery(Part part,
+			VaultPersistentProperty property, Iterator<Object> parameters) {
+
+		if (isIgnoreCase(part)) {
+			throw new InvalidDataAccessApiUsageException(String.format(
+					"Cannot create case-insensitive criteria for indexed property %s",
+					property));
+		}
+
+		switch (part.getType()) {
+		case SIMPLE_PROPERTY:
+			return VaultQuery.indexed(property.getName(),
+					Collections.singleton(parameters.next()));
+		case IN:
+			return VaultQuery.indexed(property.getName(),
+					toCollection(parameters.next()));
+		default:
+			throw new InvalidDataAccessApiUsageException(String.format(
+					"Unsupported criteria %s for indexed property %s; "
+							+ "Only equality and In criteria are supported",
+					part.getType(), property));
+		}
+	}
+
+	private static Collection<?> toCollection(@Nullable Object value) {
+
+		return value instanceof Collection ? (Collection<?>) value
+				: value != null && value.getClass().isArray()
+						? CollectionUtils.arrayToList(value)
+						: Collections.singletonList(value);
 	}
 
 	/**
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.support;
+
+import java.util.Optional;
+
+import org.springframework.data.repository.core.EntityInformation;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.core.support.ReactiveRepositoryFactorySupport;
+import org.springframework.data.repository.query.QueryLookupStrategy;
+import org.springframework.data.repository.query.QueryLookupStrategy.Key;
+import org.springframework.data.repository.query.QueryMethodEvaluationContextProvider;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.vault.repository.core.MappingVaultEntityInformation;
+import org.springframework.vault.repository.core.ReactiveVaultKeyValueTemplate;
+import org.springframework.vault.repository.mapping.VaultPersistentEntity;
+import org.springframework.vault.repository.query.ReactiveVaultPartTreeQuery;
+import org.springframework.vault.repository.query.ReactiveVaultQueryMethod;
+
+/**
+ * {@link ReactiveRepositoryFactorySupport} to create reactive Vault repositories backed
+ * by {@link ReactiveVaultKeyValueTemplate}.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+public class ReactiveVaultRepositoryFactory extends ReactiveRepositoryFactorySupport {
+
+	private final ReactiveVaultKeyValueTemplate operations;
+
+	/**
+	 * Creates a new {@link ReactiveVaultRepositoryFactory} given
+	 * {@link ReactiveVaultKeyValueTemplate}.
+	 *
+	 * @param operations must not be {@literal null}.
+	 */
+	public ReactiveVaultRepositoryFactory(ReactiveVaultKeyValueTemplate operations) {
+
+		Assert.notNull(operations, "ReactiveVaultKeyValueTemplate must not be null");
+
+		this.operations = operations;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T, ID> EntityInformation<T, ID> getEntityInformation(Class<T> domainClass) {
+
+		VaultPersistentEntity<T> entity = (VaultPersistentEntity<T>) operations
+				.getMappingContext().getRequiredPersistentEntity(domainClass);
+
+		return new MappingVaultEntityInformation<>(entity);
+	}
+
+	@Override
+	protected Object getTargetRepository(RepositoryInformation metadata) {
+
+		EntityInformation<?, Object> entityInformation = getEntityInformation(
+				metadata.getDomainType());
+
+		return getTargetRepositoryViaReflection(metadata, entityInformation, operations);
+	}
+
+	@Override
+	protected Class<?> getRepositoryBaseClass(RepositoryMetadata metadata) {
+		return SimpleReactiveVaultRepository.class;
+	}
+
+	@Override
+	protected Optional<QueryLookupStrategy> getQueryLookupStrategy(@Nullable Key key,
+			QueryMethodEvaluationContextProvider evaluationContextProvider) {
+
+		return Optional.of((method, metadata, factory,
+				namedQueries) -> new ReactiveVaultPartTreeQuery(
+						new ReactiveVaultQueryMethod(method, metadata, factory),
+						operations));
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.support;
+
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.vault.repository.core.ReactiveVaultKeyValueTemplate;
+
+/**
+ * Adapter for Springs {@link FactoryBean} interface to allow easy setup of
+ * {@link ReactiveVaultRepositoryFactory} via Spring configuration.
+ *
+ * @param <T> The repository type.
+ * @param <S> The repository domain type.
+ * @param <ID> The repository id type.
+ * @author Mark Paluch
+ * @since 2.2
+ */
+public class ReactiveVaultRepositoryFactoryBean<T extends Repository<S, ID>, S, ID>
+		extends RepositoryFactoryBeanSupport<T, S, ID> {
+
+	@Nullable
+	private ReactiveVaultKeyValueTemplate operations;
+
+	/**
+	 * Creates a new {@link ReactiveVaultRepositoryFactoryBean} for the given repository
+	 * interface.
+	 *
+	 * @param repositoryInterface must not be {@literal null}.
+	 */
+	public ReactiveVaultRepositoryFactoryBean(Class<? extends T> repositoryInterface) {
+		super(repositoryInterface);
+	}
+
+	/**
+	 * Configures the {@link ReactiveVaultKeyValueTemplate} used for Vault data access
+	 * operations.
+	 *
+	 * @param operations must not be {@literal null}.
+	 */
+	public void setReactiveVaultKeyValueTemplate(
+			ReactiveVaultKeyValueTemplate operations) {
+
+		Assert.notNull(operations, "ReactiveVaultKeyValueTemplate must not be null");
+
+		this.operations = operations;
+		setMappingContext(operations.getMappingContext());
+	}
+
+	@Override
+	protected RepositoryFactorySupport createRepositoryFactory() {
+
+		Assert.state(operations != null,
+				"ReactiveVaultKeyValueTemplate must not be null");
+
+		return new ReactiveVaultRepositoryFactory(operations);
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+
+		Assert.state(operations != null,
+				"ReactiveVaultKeyValueTemplate must not be null");
+
+		super.afterPropertiesSet();
+	}
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.support;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.keyvalue.core.query.KeyValueQuery;
+import org.springframework.data.repository.reactive.ReactiveSortingRepository;
+import org.springframework.util.Assert;
+import org.springframework.vault.repository.core.ReactiveVaultKeyValueTemplate;
+import org.springframework.vault.repository.core.VaultEntityInformation;
+import org.springframework.vault.repository.query.VaultQuery;
+
+/**
+ * Reactive repository base implementation for Vault using
+ * {@link ReactiveVaultKeyValueTemplate}.
+ *
+ * @param <T> the domain type.
+ * @param <ID> the id type.
+ * @author Mark Paluch
+ * @since 2.2
+ */
+public class SimpleReactiveVaultRepository<T, ID>
+		implements ReactiveSortingRepository<T, ID> {
+
+	private final VaultEntityInformation<T, ID> entityInformation;
+
+	private final ReactiveVaultKeyValueTemplate operations;
+
+	/**
+	 * Creates a new {@link SimpleReactiveVaultRepository}.
+	 *
+	 * @param metadata must not be {@literal null}.
+	 * @param operations must not be {@literal null}.
+	 */
+	public SimpleReactiveVaultRepository(VaultEntityInformation<T, ID> metadata,
+			ReactiveVaultKeyValueTemplate operations) {
+
+		Assert.notNull(metadata, "VaultEntityInformation must not be null");
+		Assert.notNull(operations, "ReactiveVaultKeyValueTemplate must not be null");
+
+		this.entityInformation = metadata;
+		this.operations = operations;
+	}
+
+	@Override
+	public <S extends T> Mono<S> save(S entity) {
+
+		Assert.notNull(entity, "Entity must not be null");
+
+		return operations.save(entity);
+	}
+
+	@Override
+	public <S extends T> Flux<S> saveAll(Iterable<S> entities) {
+
+		Assert.notNull(entities, "Entities must not be null");
+
+		return saveAll(Flux.fromIterable(entities));
+	}
+
+	@Override
+	public <S extends T> Flux<S> saveAll(Publisher<S> entityStream) {
+
+		Assert.notNull(entityStream, "Entity stream must not be null");
+
+		return Flux.from(entityStream).concatMap(operations::save);
+	}
+
+	@Override
+	public Mono<T> findById(ID id) {
+
+		Assert.notNull(id, "Id must not be null");
+
+		return operations.findById(id, getJavaType());
+	}
+
+	@Override
+	public Mono<T> findById(Publisher<ID> publisher) {
+
+		Assert.notNull(publisher, "Id publisher must not be null");
+
+		return Mono.from(publisher).flatMap(this::findById);
+	}
+
+	@Override
+	public Mono<Boolean> existsById(ID id) {
+
+		Assert.notNull(id, "Id must not be null");
+
+		return operations.exists(id, getJavaType());
+	}
+
+	@Override
+	public Mono<Boolean> existsById(Publisher<ID> publisher) {
+
+		Assert.notNull(publisher, "Id publisher must not be null");
+
+		return Mono.from(publisher).flatMap(this::existsById);
+	}
+
+	@Override
+	public Flux<T> findAll() {
+		return operations.findAll(getJavaType());
+	}
+
+	@Override
+	public Flux<T> findAll(Sort sort) {
+
+		Assert.notNull(sort, "Sort must not be null");
+
+		return operations.find(new KeyValueQuery<VaultQuery>(sort), getJavaType());
+	}
+
+	@Override
+	public Flux<T> findAllById(Iterable<ID> ids) {
+
+		Assert.notNull(ids, "Ids must not be null");
+
+		return operations.findAllById(Flux.fromIterable(ids), getJavaType());
+	}
+
+	@Override
+	public Flux<T> findAllById(Publisher<ID> idStream) {
+
+		Assert.notNull(idStream, "Id stream must not be null");
+
+		return operations.findAllById(idStream, getJavaType());
+	}
+
+	@Override
+	public Mono<Long> count() {
+		return operations.count(getJavaType());
+	}
+
+	@Override
+	public Mono<Void> deleteById(ID id) {
+
+		Assert.notNull(id, "Id must not be null");
+
+		return operations.delete(id, getJavaType()).then();
+	}
+
+	@Override
+	public Mono<Void> deleteById(Publisher<ID> publisher) {
+
+		Assert.notNull(publisher, "Id publisher must not be null");
+
+		return Mono.from(publisher).flatMap(this::deleteById);
+	}
+
+	@Override
+	public Mono<Void> delete(T entity) {
+
+		Assert.notNull(entity, "Entity must not be null");
+
+		return deleteById(entityInformation.getRequiredId(entity));
+	}
+
+	@Override
+	public Mono<Void> deleteAll(Iterable<? extends T> entities) {
+
+		Assert.notNull(entities, "Entities must not be null");
+
+		return deleteAll(Flux.fromIterable(entities));
+	}
+
+	@Override
+	public Mono<Void> deleteAll(Publisher<? extends T> entityStream) {
+
+		Assert.notNull(entityStream, "Entity stream must not be null");
+
+		return Flux.from(entityStream).concatMap(this::delete).then();
+	}
+
+	@Override
+	public Mono<Void> deleteAll() {
+		return operations.deleteAll(getJavaType());
+	}
+
+	private Class<T> getJavaType() {
+		return entityInformation.getJavaType();
+	}
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.security;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.Base64Utils;
+import org.springframework.vault.VaultException;
+import org.springframework.vault.core.VaultOperations;
+import org.springframework.vault.support.Ciphertext;
+import org.springframework.vault.support.VaultResponse;
+
+/**
+ * Cache for data keys obtained from Vault's {@literal transit} backend. Data keys are
+ * generated through {@code transit/datakey/plaintext/<key>} and kept in memory for local
+ * encryption until they exceed their time to live or their maximum number of usages.
+ * Wrapped data keys read from encrypted payloads are unwrapped through
+ * {@code transit/decrypt/<key>} and retained in a bounded cache for subsequent
+ * decryption.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+class DataKeyCache {
+
+	private static final String ALGORITHM = "AES";
+
+	private final VaultOperations vaultOperations;
+
+	private final String transitPath;
+
+	private final String keyName;
+
+	private volatile int keySize = 256;
+
+	private volatile Duration timeToLive = Duration.ofMinutes(5);
+
+	private volatile long maxUsages = 1_000_000;
+
+	private volatile int maxDecryptionKeys = 128;
+
+	private final Map<String, DataKey> decryptionKeys = Collections
+			.synchronizedMap(new LinkedHashMap<String, DataKey>(16, 0.75f, true) {
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, DataKey> eldest) {
+					return size() > maxDecryptionKeys;
+				}
+			});
+
+	@Nullable
+	private volatile DataKey encryptionKey;
+
+	DataKeyCache(VaultOperations vaultOperations, String transitPath, String keyName) {
+
+		Assert.notNull(vaultOperations, "VaultOperations must not be null");
+		Assert.hasText(transitPath, "Transit path must not be null or empty");
+		Assert.hasText(keyName, "Key name must not be null or empty");
+
+		this.vaultOperations = vaultOperations;
+		this.transitPath = transitPath;
+		this.keyName = keyName;
+	}
+
+	void setKeySize(int keySize) {
+
+		Assert.isTrue(keySize == 128 || keySize == 256,
+				"Key size must be either 128 or 256");
+
+		this.keySize = keySize;
+	}
+
+	void setTimeToLive(Duration timeToLive) {
+
+		Assert.notNull(timeToLive, "Time to live must not be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(),
+				"Time to live must be positive");
+
+		this.timeToLive = timeToLive;
+	}
+
+	void setMaxUsages(long maxUsages) {
+
+		Assert.isTrue(maxUsages > 0, "Max usages must be greater 0");
+
+		this.maxUsages = maxUsages;
+	}
+
+	void setMaxDecryptionKeys(int maxDecryptionKeys) {
+
+		Assert.isTrue(maxDecryptionKeys > 0, "Max decryption keys must be greater 0");
+
+		this.maxDecryptionKeys = maxDecryptionKeys;
+	}
+
+	/**
+	 * Obtain a data key for encryption. Consumes one usage of the current data key or
+	 * generates a new data key if the current one is expired or exhausted.
+	 *
+	 * @return the data key to encrypt data with.
+	 */
+	DataKey getEncryptionKey() {
+
+		DataKey dataKey = this.encryptionKey;
+
+		if (dataKey != null && dataKey.tryAcquire()) {
+			return dataKey;
+		}
+
+		synchronized (this) {
+
+			dataKey = this.encryptionKey;
+
+			if (dataKey != null && dataKey.tryAcquire()) {
+				return dataKey;
+			}
+
+			dataKey = generateDataKey();
+			dataKey.tryAcquire();
+
+			this.decryptionKeys.put(dataKey.getWrappedKey(), dataKey);
+			this.encryptionKey = dataKey;
+
+			return dataKey;
+		}
+	}
+
+	/**
+	 * Obtain the plaintext data key for a {@code wrappedKey} to decrypt data.
+	 *
+	 * @param wrappedKey the wrapped data key as returned by Vault.
+	 * @return the unwrapped data key.
+	 */
+	SecretKey getDecryptionKey(String wrappedKey) {
+
+		DataKey dataKey = this.decryptionKeys.get(wrappedKey);
+
+		if (dataKey != null && !dataKey.isExpired()) {
+			return dataKey.getKey();
+		}
+
+		byte[] plaintext = vaultOperations.opsForTransit(transitPath)
+				.decrypt(keyName, Ciphertext.of(wrappedKey)).getPlaintext();
+
+		dataKey = new DataKey(wrappedKey, new SecretKeySpec(plaintext, ALGORITHM),
+				System.nanoTime() + timeToLive.toNanos(), 0);
+
+		this.decryptionKeys.put(wrappedKey, dataKey);
+
+		return dataKey.getKey();
+	}
+
+	private DataKey generateDataKey() {
+
+		VaultResponse response = vaultOperations.write(
+				String.format("%s/datakey/plaintext/%s", transitPath, keyName),
+				Collections.singletonMap("bits", keySize));
+
+		if (response == null) {
+			throw new VaultException(
+					String.format("Cannot generate data key using %s", keyName));
+		}
+
+		Map<String, Object> data = response.getRequiredData();
+
+		byte[] plaintext = Base64Utils.decodeFromString((String) data.get("plaintext"));
+		String wrappedKey = (String) data.get("ciphertext");
+
+		return new DataKey(wrappedKey, new SecretKeySpec(plaintext, ALGORITHM),
+				System.nanoTime() + timeToLive.toNanos(), maxUsages);
+	}
+
+	/**
+	 * A plaintext data key along with its wrapped representation and usage bounds.
+	 */
+	static class DataKey {
+
+		private final String wrappedKey;
+
+		private final SecretKey key;
+
+		private final long expiresAtNanos;
+
+		private final AtomicLong remainingUsages;
+
+		DataKey(String wrappedKey, SecretKey key, long expiresAtNanos,
+				long remainingUsages) {
+
+			this.wrappedKey = wrappedKey;
+			this.key = key;
+			this.expiresAtNanos = expiresAtNanos;
+			this.remainingUsages = new AtomicLong(remainingUsages);
+		}
+
+		String getWrappedKey() {
+			return wrappedKey;
+		}
+
+		SecretKey getKey() {
+			return key;
+		}
+
+		boolean isExpired() {
+			return System.nanoTime() - expiresAtNanos > 0;
+		}
+
+		boolean tryAcquire() {
+			return !isExpired() && remainingUsages.getAndDecrement() > 0;
+		}
+	}
+}
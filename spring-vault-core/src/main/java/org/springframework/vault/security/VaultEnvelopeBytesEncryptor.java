@@ -0,0 +1,241 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+import org.springframework.security.crypto.encrypt.BytesEncryptor;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+import org.springframework.vault.core.VaultOperations;
+import org.springframework.vault.security.DataKeyCache.DataKey;
+
+/**
+ * Vault-based {@link BytesEncryptor} applying envelope encryption with data keys from
+ * Vault's {@literal transit} backend. Payloads are encrypted locally using AES-GCM with
+ * a data key obtained from {@code transit/datakey/plaintext/<key>}. Vault is involved
+ * only to generate data keys and to unwrap data keys when decrypting, which makes
+ * throughput independent of the payload size.
+ * <p>
+ * Data keys are cached in memory and replaced once they exceed their
+ * {@link #setDataKeyTimeToLive(Duration) time to live} or their
+ * {@link #setMaxDataKeyUsages(long) maximum number of usages}. Unwrapped data keys are
+ * retained in a bounded cache to decrypt subsequent payloads without contacting Vault.
+ * <p>
+ * The ciphertext uses the following binary layout:
+ *
+ * <pre class="code">
+ * +---------+--------------------+-------------+-----------+--------------------+
+ * | version | wrapped key length | wrapped key | nonce     | ciphertext and tag |
+ * | 1 byte  | 2 bytes            | n bytes     | 12 bytes  | m + 16 bytes       |
+ * +---------+--------------------+-------------+-----------+--------------------+
+ * </pre>
+ *
+ * The header (version, wrapped key length and wrapped key) is authenticated as
+ * additional data.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see VaultBytesEncryptor
+ */
+public class VaultEnvelopeBytesEncryptor implements BytesEncryptor {
+
+	static final byte VERSION = 1;
+
+	static final int NONCE_LENGTH = 12;
+
+	static final int TAG_LENGTH_BITS = 128;
+
+	private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+	private final DataKeyCache dataKeyCache;
+
+	private final SecureRandom secureRandom = new SecureRandom();
+
+	/**
+	 * Create a new {@link VaultEnvelopeBytesEncryptor} given {@link VaultOperations} and
+	 * {@code keyName} using the {@code transit} mount path.
+	 *
+	 * @param vaultOperations must not be {@literal null}.
+	 * @param keyName must not be {@literal null} or empty.
+	 */
+	public VaultEnvelopeBytesEncryptor(VaultOperations vaultOperations, String keyName) {
+		this(vaultOperations, "transit", keyName);
+	}
+
+	/**
+	 * Create a new {@link VaultEnvelopeBytesEncryptor} given {@link VaultOperations}, the
+	 * {@code transitPath} and {@code keyName}.
+	 *
+	 * @param vaultOperations must not be {@literal null}.
+	 * @param transitPath path of the transit backend, must not be {@literal null} or
+	 *     empty.
+	 * @param keyName must not be {@literal null} or empty.
+	 */
+	public VaultEnvelopeBytesEncryptor(VaultOperations vaultOperations,
+			String transitPath, String keyName) {
+		this.dataKeyCache = new DataKeyCache(vaultOperations, transitPath, keyName);
+	}
+
+	/**
+	 * Set the data key size in bits. Defaults to {@literal 256}.
+	 *
+	 * @param dataKeySize either {@literal 128} or {@literal 256}.
+	 */
+	public void setDataKeySize(int dataKeySize) {
+		this.dataKeyCache.setKeySize(dataKeySize);
+	}
+
+	/**
+	 * Set the time to live for cached data keys. Defaults to five minutes.
+	 *
+	 * @param dataKeyTimeToLive must not be {@literal null}, must be positive.
+	 */
+	public void setDataKeyTimeToLive(Duration dataKeyTimeToLive) {
+		this.dataKeyCache.setTimeToLive(dataKeyTimeToLive);
+	}
+
+	/**
+	 * Set the maximum number of encryptions per data key. Defaults to
+	 * {@literal 1,000,000}.
+	 *
+	 * @param maxDataKeyUsages must be greater {@literal 0}.
+	 */
+	public void setMaxDataKeyUsages(long maxDataKeyUsages) {
+		this.dataKeyCache.setMaxUsages(maxDataKeyUsages);
+	}
+
+	/**
+	 * Set the maximum number of unwrapped data keys to retain for decryption. Defaults
+	 * to {@literal 128}.
+	 *
+	 * @param maxDecryptionKeys must be greater {@literal 0}.
+	 */
+	public void setMaxDecryptionKeys(int maxDecryptionKeys) {
+		this.dataKeyCache.setMaxDecryptionKeys(maxDecryptionKeys);
+	}
+
+	@Override
+	public byte[] encrypt(byte[] plaintext) {
+
+		Assert.notNull(plaintext, "Plaintext must not be null");
+		Assert.isTrue(!ObjectUtils.isEmpty(plaintext), "Plaintext must not be empty");
+
+		DataKey dataKey = dataKeyCache.getEncryptionKey();
+		byte[] header = createHeader(dataKey.getWrappedKey());
+
+		byte[] nonce = new byte[NONCE_LENGTH];
+		secureRandom.nextBytes(nonce);
+
+		try {
+
+			Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+			cipher.init(Cipher.ENCRYPT_MODE, dataKey.getKey(),
+					new GCMParameterSpec(TAG_LENGTH_BITS, nonce));
+			cipher.updateAAD(header);
+
+			ByteBuffer result = ByteBuffer.allocate(header.length + NONCE_LENGTH
+					+ cipher.getOutputSize(plaintext.length));
+			result.put(header).put(nonce);
+			cipher.doFinal(ByteBuffer.wrap(plaintext), result);
+
+			return result.array();
+		}
+		catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Unable to encrypt", e);
+		}
+	}
+
+	@Override
+	public byte[] decrypt(byte[] ciphertext) {
+
+		Assert.notNull(ciphertext, "Ciphertext must not be null");
+		Assert.isTrue(!ObjectUtils.isEmpty(ciphertext), "Ciphertext must not be empty");
+
+		ByteBuffer buffer = ByteBuffer.wrap(ciphertext);
+		String wrappedKey = readHeader(buffer);
+		int headerLength = buffer.position();
+
+		Assert.isTrue(buffer.remaining() >= NONCE_LENGTH + TAG_LENGTH_BITS / 8,
+				"Ciphertext is too short");
+
+		byte[] nonce = new byte[NONCE_LENGTH];
+		buffer.get(nonce);
+
+		SecretKey key = dataKeyCache.getDecryptionKey(wrappedKey);
+
+		try {
+
+			Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+			cipher.init(Cipher.DECRYPT_MODE, key,
+					new GCMParameterSpec(TAG_LENGTH_BITS, nonce));
+			cipher.updateAAD(ciphertext, 0, headerLength);
+
+			return cipher.doFinal(ciphertext, buffer.position(), buffer.remaining());
+		}
+		catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Unable to decrypt", e);
+		}
+	}
+
+	/**
+	 * Create the binary header for a {@code wrappedKey}.
+	 *
+	 * @param wrappedKey the wrapped data key.
+	 * @return the header bytes.
+	 */
+	static byte[] createHeader(String wrappedKey) {
+
+		byte[] wrappedKeyBytes = wrappedKey.getBytes(StandardCharsets.US_ASCII);
+
+		Assert.isTrue(wrappedKeyBytes.length <= 0xFFFF, "Wrapped key is too long");
+
+		return ByteBuffer.allocate(1 + 2 + wrappedKeyBytes.length).put(VERSION)
+				.putShort((short) wrappedKeyBytes.length).put(wrappedKeyBytes).array();
+	}
+
+	/**
+	 * Read the binary header from {@code buffer} and return the wrapped key. Advances
+	 * the buffer position to the end of the header.
+	 *
+	 * @param buffer the buffer to read from.
+	 * @return the wrapped data key.
+	 */
+	static String readHeader(ByteBuffer buffer) {
+
+		Assert.isTrue(buffer.remaining() > 3, "Ciphertext is too short");
+
+		byte version = buffer.get();
+		Assert.isTrue(version == VERSION,
+				() -> String.format("Unsupported ciphertext version %d", version));
+
+		int wrappedKeyLength = Short.toUnsignedInt(buffer.getShort());
+		Assert.isTrue(buffer.remaining() >= wrappedKeyLength, "Ciphertext is too short");
+
+		byte[] wrappedKey = new byte[wrappedKeyLength];
+		buffer.get(wrappedKey);
+
+		return new String(wrappedKey, StandardCharsets.US_ASCII);
+	}
+}
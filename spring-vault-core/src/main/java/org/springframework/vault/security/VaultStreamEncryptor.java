@@ -0,0 +1,740 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.security;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.vault.core.VaultOperations;
+import org.springframework.vault.security.DataKeyCache.DataKey;
+
+/**
+ * Streaming envelope encryption using data keys from Vault's {@literal transit} backend.
+ * {@link VaultStreamEncryptor} wraps {@link InputStream}s, {@link OutputStream}s and NIO
+ * channels to encrypt and decrypt data of arbitrary size with bounded memory.
+ * <p>
+ * Plaintext is split into segments of {@link #setSegmentSize(int) segment size} bytes.
+ * Each segment is encrypted with AES-GCM using a per-stream key that is derived from a
+ * transit data key and a random salt. Segment nonces consist of a random per-stream
+ * prefix, the segment number and a flag marking the last segment so reordering,
+ * truncation and extension of segments is detected on decryption.
+ * <p>
+ * The encrypted stream starts with a header containing the wrapped data key:
+ *
+ * <pre class="code">
+ * +---------+--------------------+-------------+--------------+----------+--------------+
+ * | version | wrapped key length | wrapped key | segment size | salt     | nonce prefix |
+ * | 1 byte  | 2 bytes            | n bytes     | 4 bytes      | 16 bytes | 7 bytes      |
+ * +---------+--------------------+-------------+--------------+----------+--------------+
+ * </pre>
+ *
+ * The header is followed by the encrypted segments, each {@code segment size + 16} bytes
+ * long except for the last segment which may be shorter. The header is authenticated as
+ * additional data of each segment.
+ * <p>
+ * Data keys are cached according to the same rules as {@link VaultEnvelopeBytesEncryptor}
+ * so a data key is shared across streams until it expires.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see VaultEnvelopeBytesEncryptor
+ */
+public class VaultStreamEncryptor {
+
+	static final byte VERSION = 1;
+
+	static final int SALT_LENGTH = 16;
+
+	static final int NONCE_PREFIX_LENGTH = 7;
+
+	static final int NONCE_LENGTH = NONCE_PREFIX_LENGTH + 4 + 1;
+
+	static final int TAG_LENGTH = 16;
+
+	static final int MAX_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+	private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+	private static final String KEY_DERIVATION = "HmacSHA256";
+
+	private final DataKeyCache dataKeyCache;
+
+	private final SecureRandom secureRandom = new SecureRandom();
+
+	private int segmentSize = 64 * 1024;
+
+	/**
+	 * Create a new {@link VaultStreamEncryptor} given {@link VaultOperations} and
+	 * {@code keyName} using the {@code transit} mount path.
+	 *
+	 * @param vaultOperations must not be {@literal null}.
+	 * @param keyName must not be {@literal null} or empty.
+	 */
+	public VaultStreamEncryptor(VaultOperations vaultOperations, String keyName) {
+		this(vaultOperations, "transit", keyName);
+	}
+
+	/**
+	 * Create a new {@link VaultStreamEncryptor} given {@link VaultOperations}, the
+	 * {@code transitPath} and {@code keyName}.
+	 *
+	 * @param vaultOperations must not be {@literal null}.
+	 * @param transitPath path of the transit backend, must not be {@literal null} or
+	 *     empty.
+	 * @param keyName must not be {@literal null} or empty.
+	 */
+	public VaultStreamEncryptor(VaultOperations vaultOperations, String transitPath,
+			String keyName) {
+		this.dataKeyCache = new DataKeyCache(vaultOperations, transitPath, keyName);
+	}
+
+	/**
+	 * Set the plaintext segment size in bytes. Larger segments reduce the per-segment
+	 * overhead of 16 bytes at the cost of larger buffers. Defaults to {@literal 64 KiB}.
+	 *
+	 * @param segmentSize must be greater {@literal 0} and not exceed {@literal 16 MiB}.
+	 */
+	public void setSegmentSize(int segmentSize) {
+
+		Assert.isTrue(segmentSize > 0, "Segment size must be greater 0");
+		Assert.isTrue(segmentSize <= MAX_SEGMENT_SIZE,
+				"Segment size must not exceed 16 MiB");
+
+		this.segmentSize = segmentSize;
+	}
+
+	/**
+	 * Set the data key size in bits. Defaults to {@literal 256}.
+	 *
+	 * @param dataKeySize either {@literal 128} or {@literal 256}.
+	 */
+	public void setDataKeySize(int dataKeySize) {
+		this.dataKeyCache.setKeySize(dataKeySize);
+	}
+
+	/**
+	 * Set the time to live for cached data keys. Defaults to five minutes.
+	 *
+	 * @param dataKeyTimeToLive must not be {@literal null}, must be positive.
+	 */
+	public void setDataKeyTimeToLive(Duration dataKeyTimeToLive) {
+		this.dataKeyCache.setTimeToLive(dataKeyTimeToLive);
+	}
+
+	/**
+	 * Set the maximum number of streams encrypted with a single data key. Defaults to
+	 * {@literal 1,000,000}.
+	 *
+	 * @param maxDataKeyUsages must be greater {@literal 0}.
+	 */
+	public void setMaxDataKeyUsages(long maxDataKeyUsages) {
+		this.dataKeyCache.setMaxUsages(maxDataKeyUsages);
+	}
+
+	/**
+	 * Set the maximum number of unwrapped data keys to retain for decryption. Defaults
+	 * to {@literal 128}.
+	 *
+	 * @param maxDecryptionKeys must be greater {@literal 0}.
+	 */
+	public void setMaxDecryptionKeys(int maxDecryptionKeys) {
+		this.dataKeyCache.setMaxDecryptionKeys(maxDecryptionKeys);
+	}
+
+	public int getSegmentSize() {
+		return segmentSize;
+	}
+
+	/**
+	 * Create an {@link OutputStream} that encrypts data written to it and writes the
+	 * ciphertext to {@code ciphertext}. The returned stream must be closed to write the
+	 * final segment. Closing the returned stream closes {@code ciphertext}.
+	 *
+	 * @param ciphertext the target stream, must not be {@literal null}.
+	 * @return the encrypting {@link OutputStream}.
+	 * @throws IOException if the header cannot be written.
+	 */
+	public OutputStream encrypt(OutputStream ciphertext) throws IOException {
+
+		Assert.notNull(ciphertext, "Ciphertext OutputStream must not be null");
+
+		SegmentCipher cipher = createEncryptionCipher();
+		ciphertext.write(cipher.getHeader());
+
+		return new EncryptingOutputStream(ciphertext, cipher);
+	}
+
+	/**
+	 * Create an {@link InputStream} that reads plaintext from {@code plaintext} and
+	 * provides its ciphertext. Closing the returned stream closes {@code plaintext}.
+	 *
+	 * @param plaintext the plaintext source, must not be {@literal null}.
+	 * @return the encrypting {@link InputStream}.
+	 */
+	public InputStream encrypt(InputStream plaintext) {
+
+		Assert.notNull(plaintext, "Plaintext InputStream must not be null");
+
+		return new EncryptingInputStream(plaintext, createEncryptionCipher());
+	}
+
+	/**
+	 * Create an {@link InputStream} that reads ciphertext from {@code ciphertext} and
+	 * provides the decrypted plaintext. Closing the returned stream closes
+	 * {@code ciphertext}.
+	 *
+	 * @param ciphertext the ciphertext source, must not be {@literal null}.
+	 * @return the decrypting {@link InputStream}.
+	 */
+	public InputStream decrypt(InputStream ciphertext) {
+
+		Assert.notNull(ciphertext, "Ciphertext InputStream must not be null");
+
+		return new DecryptingInputStream(ciphertext, this);
+	}
+
+	/**
+	 * Create a {@link WritableByteChannel} that encrypts data written to it and writes
+	 * the ciphertext to {@code ciphertext}.
+	 *
+	 * @param ciphertext the target channel, must not be {@literal null}.
+	 * @return the encrypting {@link WritableByteChannel}.
+	 * @throws IOException if the header cannot be written.
+	 * @see #encrypt(OutputStream)
+	 */
+	public WritableByteChannel encrypt(WritableByteChannel ciphertext)
+			throws IOException {
+
+		Assert.notNull(ciphertext, "Ciphertext channel must not be null");
+
+		return Channels.newChannel(encrypt(Channels.newOutputStream(ciphertext)));
+	}
+
+	/**
+	 * Create a {@link ReadableByteChannel} that reads plaintext from {@code plaintext}
+	 * and provides its ciphertext.
+	 *
+	 * @param plaintext the plaintext source, must not be {@literal null}.
+	 * @return the encrypting {@link ReadableByteChannel}.
+	 * @see #encrypt(InputStream)
+	 */
+	public ReadableByteChannel encrypt(ReadableByteChannel plaintext) {
+
+		Assert.notNull(plaintext, "Plaintext channel must not be null");
+
+		return Channels.newChannel(encrypt(Channels.newInputStream(plaintext)));
+	}
+
+	/**
+	 * Create a {@link ReadableByteChannel} that reads ciphertext from {@code ciphertext}
+	 * and provides the decrypted plaintext.
+	 *
+	 * @param ciphertext the ciphertext source, must not be {@literal null}.
+	 * @return the decrypting {@link ReadableByteChannel}.
+	 * @see #decrypt(InputStream)
+	 */
+	public ReadableByteChannel decrypt(ReadableByteChannel ciphertext) {
+
+		Assert.notNull(ciphertext, "Ciphertext channel must not be null");
+
+		return Channels.newChannel(decrypt(Channels.newInputStream(ciphertext)));
+	}
+
+	private SegmentCipher createEncryptionCipher() {
+
+		DataKey dataKey = dataKeyCache.getEncryptionKey();
+
+		byte[] salt = new byte[SALT_LENGTH];
+		byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+		secureRandom.nextBytes(salt);
+		secureRandom.nextBytes(noncePrefix);
+
+		byte[] header = createHeader(dataKey.getWrappedKey(), segmentSize, salt,
+				noncePrefix);
+
+		return new SegmentCipher(Cipher.ENCRYPT_MODE, deriveKey(dataKey.getKey(), salt),
+				header, noncePrefix, segmentSize);
+	}
+
+	private SegmentCipher createDecryptionCipher(InputStream ciphertext)
+			throws IOException {
+
+		DataInputStream input = new DataInputStream(ciphertext);
+
+		byte version = input.readByte();
+		if (version != VERSION) {
+			throw new IOException(
+					String.format("Unsupported ciphertext version %d", version));
+		}
+
+		byte[] wrappedKey = new byte[input.readUnsignedShort()];
+		input.readFully(wrappedKey);
+
+		int segmentSize = input.readInt();
+		if (segmentSize <= 0 || segmentSize > MAX_SEGMENT_SIZE) {
+			throw new IOException(String.format("Invalid segment size %d", segmentSize));
+		}
+
+		byte[] salt = new byte[SALT_LENGTH];
+		byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+		input.readFully(salt);
+		input.readFully(noncePrefix);
+
+		String wrappedKeyString = new String(wrappedKey, StandardCharsets.US_ASCII);
+		SecretKey dataKey = dataKeyCache.getDecryptionKey(wrappedKeyString);
+
+		byte[] header = createHeader(wrappedKeyString, segmentSize, salt, noncePrefix);
+
+		return new SegmentCipher(Cipher.DECRYPT_MODE, deriveKey(dataKey, salt), header,
+				noncePrefix, segmentSize);
+	}
+
+	static byte[] createHeader(String wrappedKey, int segmentSize, byte[] salt,
+			byte[] noncePrefix) {
+
+		byte[] wrappedKeyBytes = wrappedKey.getBytes(StandardCharsets.US_ASCII);
+
+		Assert.isTrue(wrappedKeyBytes.length <= 0xFFFF, "Wrapped key is too long");
+
+		return ByteBuffer
+				.allocate(1 + 2 + wrappedKeyBytes.length + 4 + salt.length
+						+ noncePrefix.length)
+				.put(VERSION).putShort((short) wrappedKeyBytes.length)
+				.put(wrappedKeyBytes).putInt(segmentSize).put(salt).put(noncePrefix)
+				.array();
+	}
+
+	private static SecretKey deriveKey(SecretKey dataKey, byte[] salt) {
+
+		try {
+
+			Mac mac = Mac.getInstance(KEY_DERIVATION);
+			mac.init(new SecretKeySpec(dataKey.getEncoded(), KEY_DERIVATION));
+			byte[] derived = mac.doFinal(salt);
+
+			return new SecretKeySpec(
+					Arrays.copyOf(derived, dataKey.getEncoded().length), "AES");
+		}
+		catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Unable to derive stream key", e);
+		}
+	}
+
+	/**
+	 * Read from {@code in} until {@code buffer} is filled or the stream is exhausted.
+	 *
+	 * @return the number of bytes read.
+	 */
+	private static int readFully(InputStream in, byte[] buffer, int offset)
+			throws IOException {
+
+		int position = offset;
+
+		while (position < buffer.length) {
+
+			int read = in.read(buffer, position, buffer.length - position);
+
+			if (read == -1) {
+				break;
+			}
+
+			position += read;
+		}
+
+		return position;
+	}
+
+	/**
+	 * Encrypts and decrypts individual segments. Not thread-safe.
+	 */
+	static class SegmentCipher {
+
+		private final int mode;
+
+		private final SecretKey key;
+
+		private final byte[] header;
+
+		private final byte[] nonce = new byte[NONCE_LENGTH];
+
+		private final int segmentSize;
+
+		private final Cipher cipher;
+
+		private long segmentNumber;
+
+		SegmentCipher(int mode, SecretKey key, byte[] header, byte[] noncePrefix,
+				int segmentSize) {
+
+			this.mode = mode;
+			this.key = key;
+			this.header = header;
+			this.segmentSize = segmentSize;
+
+			System.arraycopy(noncePrefix, 0, this.nonce, 0, NONCE_PREFIX_LENGTH);
+
+			try {
+				this.cipher = Cipher.getInstance(TRANSFORMATION);
+			}
+			catch (GeneralSecurityException e) {
+				throw new IllegalStateException("Cannot create cipher", e);
+			}
+		}
+
+		byte[] getHeader() {
+			return header;
+		}
+
+		int getSegmentSize() {
+			return segmentSize;
+		}
+
+		/**
+		 * Process the next segment.
+		 *
+		 * @param input input buffer.
+		 * @param length number of bytes to process from the start of {@code input}.
+		 * @param last whether this is the last segment of the stream.
+		 * @param output output buffer, must be large enough to hold the result.
+		 * @return number of bytes written to {@code output}.
+		 */
+		int doFinal(byte[] input, int length, boolean last, byte[] output)
+				throws IOException {
+
+			if (segmentNumber > 0xFFFFFFFFL) {
+				throw new IOException("Maximum number of segments exceeded");
+			}
+
+			ByteBuffer.wrap(nonce, NONCE_PREFIX_LENGTH, 5).putInt((int) segmentNumber)
+					.put((byte) (last ? 1 : 0));
+
+			segmentNumber++;
+
+			try {
+
+				cipher.init(mode, key, new GCMParameterSpec(TAG_LENGTH * 8, nonce));
+				cipher.updateAAD(header);
+
+				return cipher.doFinal(input, 0, length, output, 0);
+			}
+			catch (GeneralSecurityException e) {
+				throw new IOException(mode == Cipher.ENCRYPT_MODE
+						? "Unable to encrypt segment" : "Unable to decrypt segment", e);
+			}
+		}
+	}
+
+	/**
+	 * {@link OutputStream} that encrypts written data segment by segment.
+	 */
+	static class EncryptingOutputStream extends FilterOutputStream {
+
+		private final SegmentCipher cipher;
+
+		private final byte[] plaintext;
+
+		private final byte[] ciphertext;
+
+		private int position;
+
+		private boolean closed;
+
+		EncryptingOutputStream(OutputStream out, SegmentCipher cipher) {
+
+			super(out);
+
+			this.cipher = cipher;
+			this.plaintext = new byte[cipher.getSegmentSize()];
+			this.ciphertext = new byte[cipher.getSegmentSize() + TAG_LENGTH];
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+
+			if (closed) {
+				throw new IOException("Stream closed");
+			}
+
+			while (len > 0) {
+
+				// a full segment is only written once more data follows so the last
+				// segment can be marked on close()
+				if (position == plaintext.length) {
+					writeSegment(false);
+				}
+
+				int count = Math.min(len, plaintext.length - position);
+				System.arraycopy(b, off, plaintext, position, count);
+
+				position += count;
+				off += count;
+				len -= count;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+
+			if (closed) {
+				return;
+			}
+
+			closed = true;
+
+			try {
+				writeSegment(true);
+				out.flush();
+			}
+			finally {
+				out.close();
+			}
+		}
+
+		private void writeSegment(boolean last) throws IOException {
+
+			int length = cipher.doFinal(plaintext, position, last, ciphertext);
+			out.write(ciphertext, 0, length);
+			position = 0;
+		}
+	}
+
+	/**
+	 * {@link InputStream} that reads plaintext from a source and provides ciphertext.
+	 */
+	static class EncryptingInputStream extends InputStream {
+
+		private final InputStream source;
+
+		private final SegmentCipher cipher;
+
+		private final byte[] plaintext;
+
+		private final byte[] ciphertext;
+
+		private byte[] current;
+
+		private int position;
+
+		private int limit;
+
+		private int lookahead = -1;
+
+		private boolean finished;
+
+		EncryptingInputStream(InputStream source, SegmentCipher cipher) {
+
+			this.source = source;
+			this.cipher = cipher;
+			this.plaintext = new byte[cipher.getSegmentSize()];
+			this.ciphertext = new byte[cipher.getSegmentSize() + TAG_LENGTH];
+			this.current = cipher.getHeader();
+			this.limit = current.length;
+		}
+
+		@Override
+		public int read() throws IOException {
+
+			byte[] b = new byte[1];
+			int read = read(b, 0, 1);
+
+			return read == -1 ? -1 : b[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+
+			if (len == 0) {
+				return 0;
+			}
+
+			while (position == limit) {
+
+				if (finished) {
+					return -1;
+				}
+
+				nextSegment();
+			}
+
+			int count = Math.min(len, limit - position);
+			System.arraycopy(current, position, b, off, count);
+			position += count;
+
+			return count;
+		}
+
+		@Override
+		public void close() throws IOException {
+			source.close();
+		}
+
+		private void nextSegment() throws IOException {
+
+			int offset = 0;
+
+			if (lookahead != -1) {
+				plaintext[offset++] = (byte) lookahead;
+				lookahead = -1;
+			}
+
+			int length = readFully(source, plaintext, offset);
+			boolean last = length < plaintext.length;
+
+			if (!last) {
+
+				lookahead = source.read();
+				last = lookahead == -1;
+			}
+
+			current = ciphertext;
+			position = 0;
+			limit = cipher.doFinal(plaintext, length, last, ciphertext);
+			finished = last;
+		}
+	}
+
+	/**
+	 * {@link InputStream} that reads ciphertext from a source and provides plaintext.
+	 */
+	static class DecryptingInputStream extends InputStream {
+
+		private final InputStream source;
+
+		private final VaultStreamEncryptor encryptor;
+
+		@Nullable
+		private SegmentCipher cipher;
+
+		private byte[] ciphertext = new byte[0];
+
+		private byte[] plaintext = new byte[0];
+
+		private int position;
+
+		private int limit;
+
+		private int lookahead = -1;
+
+		private boolean finished;
+
+		DecryptingInputStream(InputStream source, VaultStreamEncryptor encryptor) {
+			this.source = source;
+			this.encryptor = encryptor;
+		}
+
+		@Override
+		public int read() throws IOException {
+
+			byte[] b = new byte[1];
+			int read = read(b, 0, 1);
+
+			return read == -1 ? -1 : b[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+
+			if (len == 0) {
+				return 0;
+			}
+
+			while (position == limit) {
+
+				if (finished) {
+					return -1;
+				}
+
+				nextSegment();
+			}
+
+			int count = Math.min(len, limit - position);
+			System.arraycopy(plaintext, position, b, off, count);
+			position += count;
+
+			return count;
+		}
+
+		@Override
+		public void close() throws IOException {
+			source.close();
+		}
+
+		private void nextSegment() throws IOException {
+
+			SegmentCipher cipher = this.cipher;
+
+			if (cipher == null) {
+
+				cipher = encryptor.createDecryptionCipher(source);
+
+				this.cipher = cipher;
+				this.ciphertext = new byte[cipher.getSegmentSize() + TAG_LENGTH];
+				this.plaintext = new byte[cipher.getSegmentSize()];
+			}
+
+			int offset = 0;
+
+			if (lookahead != -1) {
+				ciphertext[offset++] = (byte) lookahead;
+				lookahead = -1;
+			}
+
+			int length = readFully(source, ciphertext, offset);
+
+			if (length < TAG_LENGTH) {
+				throw new EOFException("Ciphertext is truncated");
+			}
+
+			boolean last = length < ciphertext.length;
+
+			if (!last) {
+
+				lookahead = source.read();
+				last = lookahead == -1;
+			}
+
+			position = 0;
+			limit = cipher.doFinal(ciphertext, length, last, plaintext);
+			finished = last;
+		}
+	}
+}
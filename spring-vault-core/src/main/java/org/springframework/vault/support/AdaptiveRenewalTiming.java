@@ -0,0 +1,236 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.support;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * {@link RenewalTiming} that adapts a delegate strategy to observed renewal behavior:
+ * <ul>
+ * <li>Renewals are scheduled earlier by a multiple of the observed renewal latency
+ * (exponentially weighted moving average) so that slow responses do not let leases
+ * expire.</li>
+ * <li>When Vault signals overload ({@code 429 Too Many Requests} or
+ * {@code 503 Service Unavailable}), renewals are spread by a randomized, exponentially
+ * growing back-off up to {@link #setMaxBackoff(Duration) max back-off}. A successful
+ * renewal resets the back-off.</li>
+ * </ul>
+ * The resulting delay is bounded by {@code minRenewal} and the lease duration minus the
+ * latency margin.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+public class AdaptiveRenewalTiming implements RenewalTiming {
+
+	private static final boolean WEBFLUX_PRESENT = ClassUtils.isPresent(
+			"org.springframework.web.reactive.function.client.WebClientResponseException",
+			AdaptiveRenewalTiming.class.getClassLoader());
+
+	private static final double SMOOTHING = 0.2;
+
+	private final RenewalTiming delegate;
+
+	private final AtomicLong latencyNanos = new AtomicLong();
+
+	private final AtomicInteger overloadCount = new AtomicInteger();
+
+	private double latencyMultiplier = 3;
+
+	private Duration initialBackoff = Duration.ofSeconds(1);
+
+	private Duration maxBackoff = Duration.ofMinutes(1);
+
+	/**
+	 * Create a new {@link AdaptiveRenewalTiming} adapting
+	 * {@link RenewalTiming#jittered(double) 10% jitter}.
+	 */
+	public AdaptiveRenewalTiming() {
+		this(RenewalTiming.jittered(0.1));
+	}
+
+	/**
+	 * Create a new {@link AdaptiveRenewalTiming} given a delegate {@link RenewalTiming}.
+	 *
+	 * @param delegate must not be {@literal null}.
+	 */
+	public AdaptiveRenewalTiming(RenewalTiming delegate) {
+
+		Assert.notNull(delegate, "Delegate RenewalTiming must not be null");
+
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Set the multiple of the observed renewal latency by which to renew earlier.
+	 * Defaults to {@literal 3}.
+	 *
+	 * @param latencyMultiplier must be greater or equal to {@literal 0}.
+	 */
+	public void setLatencyMultiplier(double latencyMultiplier) {
+
+		Assert.isTrue(latencyMultiplier >= 0,
+				"Latency multiplier must be greater or equal to 0");
+
+		this.latencyMultiplier = latencyMultiplier;
+	}
+
+	/**
+	 * Set the back-off applied after the first overload response. Defaults to one
+	 * second.
+	 *
+	 * @param initialBackoff must not be {@literal null} or negative.
+	 */
+	public void setInitialBackoff(Duration initialBackoff) {
+
+		Assert.notNull(initialBackoff, "Initial back-off must not be null");
+		Assert.isTrue(!initialBackoff.isNegative(),
+				"Initial back-off must not be negative");
+
+		this.initialBackoff = initialBackoff;
+	}
+
+	/**
+	 * Set the maximum back-off. Defaults to one minute.
+	 *
+	 * @param maxBackoff must not be {@literal null} or negative.
+	 */
+	public void setMaxBackoff(Duration maxBackoff) {
+
+		Assert.notNull(maxBackoff, "Max back-off must not be null");
+		Assert.isTrue(!maxBackoff.isNegative(), "Max back-off must not be negative");
+
+		this.maxBackoff = maxBackoff;
+	}
+
+	@Override
+	public Duration getRenewalDelay(Duration ttl, Duration minRenewal,
+			Duration expiryThreshold) {
+
+		Duration delay = this.delegate.getRenewalDelay(ttl, minRenewal, expiryThreshold);
+		Duration margin = getLatencyMargin();
+
+		delay = delay.minus(margin);
+
+		int overloads = this.overloadCount.get();
+		if (overloads > 0) {
+
+			Duration backoff = getBackoff(overloads);
+			if (!backoff.isZero()) {
+				delay = delay.plusMillis(
+						ThreadLocalRandom.current().nextLong(backoff.toMillis() + 1));
+			}
+		}
+
+		Duration latest = ttl.minus(margin);
+		if (delay.compareTo(latest) > 0) {
+			delay = latest;
+		}
+
+		return delay.compareTo(minRenewal) < 0 ? minRenewal : delay;
+	}
+
+	@Override
+	public void onRenewal(Duration duration, @Nullable Throwable error) {
+
+		long nanos = duration.toNanos();
+		this.latencyNanos.updateAndGet(current -> current == 0 ? nanos
+				: (long) (current + SMOOTHING * (nanos - current)));
+
+		if (error == null) {
+			this.overloadCount.set(0);
+		}
+		else if (isOverload(error)) {
+			this.overloadCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @return the margin by which renewals are scheduled earlier.
+	 */
+	public Duration getLatencyMargin() {
+		return Duration.ofNanos((long) (this.latencyNanos.get() * this.latencyMultiplier));
+	}
+
+	/**
+	 * @return the number of consecutive renewals that failed because Vault signalled
+	 *     overload.
+	 */
+	public int getOverloadCount() {
+		return this.overloadCount.get();
+	}
+
+	private Duration getBackoff(int overloads) {
+
+		int shift = Math.min(overloads - 1, 30);
+		Duration backoff = this.initialBackoff.multipliedBy(1L << shift);
+
+		return backoff.compareTo(this.maxBackoff) > 0 ? this.maxBackoff : backoff;
+	}
+
+	private static boolean isOverload(Throwable error) {
+
+		Throwable current = error;
+		while (current != null) {
+
+			int status = getStatusCode(current);
+			if (status == 429 || status == 503) {
+				return true;
+			}
+
+			current = current.getCause() != current ? current.getCause() : null;
+		}
+
+		return false;
+	}
+
+	private static int getStatusCode(Throwable error) {
+
+		if (error instanceof RestClientResponseException) {
+			return ((RestClientResponseException) error).getRawStatusCode();
+		}
+
+		if (WEBFLUX_PRESENT) {
+			return WebFluxStatusCodes.getStatusCode(error);
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Isolates the dependency on Spring WebFlux.
+	 */
+	static class WebFluxStatusCodes {
+
+		static int getStatusCode(Throwable error) {
+
+			if (error instanceof WebClientResponseException) {
+				return ((WebClientResponseException) error).getRawStatusCode();
+			}
+
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.support;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Strategy to determine when to renew a lease or token. Renewing every lease exactly at
+ * {@code ttl - expiryThreshold} lets clients that started together renew in
+ * synchronized waves. Randomized strategies spread renewals over time.
+ * <p>
+ * Implementations must be thread-safe.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ * @see AdaptiveRenewalTiming
+ */
+@FunctionalInterface
+public interface RenewalTiming {
+
+	/**
+	 * Determine the delay after which to renew a lease. Implementations should return a
+	 * delay that is at least {@code minRenewal} and should renew before the lease enters
+	 * its {@code expiryThreshold}.
+	 *
+	 * @param ttl the remaining lease duration.
+	 * @param minRenewal minimum delay to prevent renewals in a very short timeframe.
+	 * @param expiryThreshold duration before expiry by which the lease should be renewed.
+	 * @return the renewal delay.
+	 */
+	Duration getRenewalDelay(Duration ttl, Duration minRenewal, Duration expiryThreshold);
+
+	/**
+	 * Callback to report the outcome of a renewal to adaptive strategies.
+	 *
+	 * @param duration the time spent to renew.
+	 * @param error the renewal error or {@literal null} if the renewal succeeded.
+	 */
+	default void onRenewal(Duration duration, @Nullable Throwable error) {
+	}
+
+	/**
+	 * Predefined strategy renewing at {@code ttl - expiryThreshold}, but not before
+	 * {@code minRenewal}.
+	 *
+	 * @return the fixed {@link RenewalTiming}.
+	 */
+	static RenewalTiming fixed() {
+		return RenewalTimingUtil::fixedDelay;
+	}
+
+	/**
+	 * Predefined strategy renewing at a random point between
+	 * {@code (ttl - expiryThreshold) * (1 - jitter)} and {@code ttl - expiryThreshold},
+	 * but not before {@code minRenewal}. Jitter only moves renewals earlier.
+	 *
+	 * @param jitter fraction of the renewal delay to randomize, between {@literal 0} and
+	 *     {@literal 1} (exclusive).
+	 * @return the jittered {@link RenewalTiming}.
+	 */
+	static RenewalTiming jittered(double jitter) {
+
+		Assert.isTrue(jitter >= 0 && jitter < 1,
+				"Jitter must be greater or equal to 0 and less than 1");
+
+		return (ttl, minRenewal, expiryThreshold) -> RenewalTimingUtil.jitter(
+				RenewalTimingUtil.fixedDelay(ttl, minRenewal, expiryThreshold),
+				minRenewal, jitter);
+	}
+
+	/**
+	 * Predefined strategy renewing after a fraction of the lease duration, randomized by
+	 * {@code ± jitter}. For example, {@code fractionOfTtl(2d / 3, 0.1)} renews after
+	 * {@code 2/3 ± 10%} of the lease duration. The delay is bounded by {@code minRenewal}
+	 * and {@code ttl - expiryThreshold}.
+	 *
+	 * @param fraction fraction of the lease duration after which to renew, between
+	 *     {@literal 0} and {@literal 1} (exclusive).
+	 * @param jitter fraction of the lease duration by which to randomize the renewal
+	 *     time in both directions.
+	 * @return the fraction-of-TTL {@link RenewalTiming}.
+	 */
+	static RenewalTiming fractionOfTtl(double fraction, double jitter) {
+
+		Assert.isTrue(fraction > 0 && fraction < 1,
+				"Fraction must be greater 0 and less than 1");
+		Assert.isTrue(jitter >= 0 && jitter <= fraction,
+				"Jitter must be greater or equal to 0 and not exceed the fraction");
+
+		return (ttl, minRenewal, expiryThreshold) -> {
+
+			double factor = fraction;
+
+			if (jitter > 0) {
+				factor += ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+			}
+
+			Duration delay = Duration.ofMillis((long) (ttl.toMillis() * factor));
+			Duration latest = RenewalTimingUtil.fixedDelay(ttl, minRenewal, expiryThreshold);
+
+			if (delay.compareTo(latest) > 0) {
+				return latest;
+			}
+
+			return delay.compareTo(minRenewal) < 0 ? minRenewal : delay;
+		};
+	}
+}
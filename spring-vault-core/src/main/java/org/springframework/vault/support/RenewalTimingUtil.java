@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.support;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Utility methods to calculate renewal delays for {@link RenewalTiming} strategies.
+ *
+ * @author Mark Paluch
+ * @since 2.2
+ */
+class RenewalTimingUtil {
+
+	private RenewalTimingUtil() {
+	}
+
+	/**
+	 * Calculate {@code ttl - expiryThreshold}, but at least {@code minRenewal}.
+	 */
+	static Duration fixedDelay(Duration ttl, Duration minRenewal,
+			Duration expiryThreshold) {
+
+		Duration delay = ttl.minus(expiryThreshold);
+		return delay.compareTo(minRenewal) < 0 ? minRenewal : delay;
+	}
+
+	/**
+	 * Move {@code delay} randomly to an earlier point in time by up to
+	 * {@code delay * jitter}, but not before {@code minRenewal}.
+	 */
+	static Duration jitter(Duration delay, Duration minRenewal, double jitter) {
+
+		long spread = (long) (delay.toMillis() * jitter);
+
+		if (spread <= 0) {
+			return delay;
+		}
+
+		Duration jittered = delay
+				.minusMillis(ThreadLocalRandom.current().nextLong(spread + 1));
+
+		return jittered.compareTo(minRenewal) < 0 ? minRenewal : jittered;
+	}
+}
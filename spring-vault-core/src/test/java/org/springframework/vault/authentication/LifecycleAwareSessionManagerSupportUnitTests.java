@@ -22,6 +22,8 @@ import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.vault.authentication.LifecycleAwareSessionManagerSupport.FixedTimeoutRefreshTrigger;
+import org.springframework.vault.authentication.LifecycleAwareSessionManagerSupport.RenewalTimingRefreshTrigger;
+import org.springframework.vault.support.RenewalTiming;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -57,4 +59,20 @@ class LifecycleAwareSessionManagerSupportUnitTests {
 				new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(0)),
 				new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(2)));
 	}
+
+	@Test
+	void shouldScheduleNextExecutionUsingRenewalTiming() {
+
+		RenewalTimingRefreshTrigger trigger = new RenewalTimingRefreshTrigger(
+				RenewalTiming.fractionOfTtl(0.5, 0), Duration.ofSeconds(5));
+
+		Date nextExecutionTime = trigger.nextExecutionTime(
+				LoginToken.of("foo".toCharArray(), Duration.ofMinutes(1)));
+		assertThat(nextExecutionTime).isBetween(
+				new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(28)),
+				new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(31)));
+		assertThat(trigger.getValidTtlThreshold(
+				LoginToken.of("foo".toCharArray(), Duration.ofMinutes(1))))
+						.isEqualTo(Duration.ofSeconds(7));
+	}
 }
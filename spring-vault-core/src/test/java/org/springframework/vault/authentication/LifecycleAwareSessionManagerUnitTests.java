@@ -36,6 +36,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.Trigger;
+import org.springframework.vault.authentication.LifecycleAwareSessionManagerSupport.RenewalTimingRefreshTrigger;
 import org.springframework.vault.authentication.event.AfterLoginEvent;
 import org.springframework.vault.authentication.event.AfterLoginTokenRenewedEvent;
 import org.springframework.vault.authentication.event.AfterLoginTokenRevocationEvent;
@@ -49,6 +50,7 @@ import org.springframework.vault.authentication.event.LoginFailedEvent;
 import org.springframework.vault.authentication.event.LoginTokenExpiredEvent;
 import org.springframework.vault.authentication.event.LoginTokenRevocationFailedEvent;
 import org.springframework.vault.client.VaultHttpHeaders;
+import org.springframework.vault.support.AdaptiveRenewalTiming;
 import org.springframework.vault.support.LeaseStrategy;
 import org.springframework.vault.support.VaultResponse;
 import org.springframework.vault.support.VaultToken;
@@ -62,6 +64,7 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -363,6 +366,75 @@ class LifecycleAwareSessionManagerUnitTests {
 		verify(clientAuthentication, times(2)).login();
 	}
 
+	@Test
+	void shouldRecordLoginAndRenewalMetrics() {
+
+		SessionMetrics metrics = mock(SessionMetrics.class);
+		sessionManager.setSessionMetrics(metrics);
+
+		LoginToken login = LoginToken.renewable("login".toCharArray(),
+				Duration.ofSeconds(5));
+		LoginToken renewed = LoginToken.of("foo".toCharArray(), Duration.ofSeconds(10));
+
+		when(clientAuthentication.login()).thenReturn(login);
+		when(restOperations.postForObject(anyString(), any(), eq(VaultResponse.class)))
+				.thenReturn(fromToken(renewed));
+
+		ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+		sessionManager.getSessionToken();
+		verify(taskScheduler).schedule(runnableCaptor.capture(), any(Trigger.class));
+		runnableCaptor.getValue().run();
+
+		verify(metrics).onLogin(eq(login), any(Duration.class));
+		verify(metrics).onTokenRenewed(eq(renewed), any(Duration.class));
+		verifyNoMoreInteractions(metrics);
+	}
+
+	@Test
+	void shouldRecordRenewalFailureMetrics() {
+
+		SessionMetrics metrics = mock(SessionMetrics.class);
+		sessionManager.setSessionMetrics(metrics);
+		sessionManager.setLeaseStrategy(LeaseStrategy.retainOnError());
+
+		LoginToken login = LoginToken.renewable("login".toCharArray(),
+				Duration.ofSeconds(5));
+
+		when(clientAuthentication.login()).thenReturn(login);
+		when(restOperations.postForObject(anyString(), any(), eq(VaultResponse.class)))
+				.thenThrow(new ResourceAccessException("Connection refused"));
+
+		ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+		sessionManager.getSessionToken();
+		verify(taskScheduler).schedule(runnableCaptor.capture(), any(Trigger.class));
+		runnableCaptor.getValue().run();
+
+		verify(metrics).onTokenRenewalFailed(eq(login), any(Duration.class),
+				any(VaultTokenRenewalException.class), eq(false));
+	}
+
+	@Test
+	void shouldReportRenewalOutcomeToRenewalTiming() {
+
+		AdaptiveRenewalTiming renewalTiming = new AdaptiveRenewalTiming();
+		sessionManager = new LifecycleAwareSessionManager(clientAuthentication,
+				taskScheduler, restOperations,
+				new RenewalTimingRefreshTrigger(renewalTiming, Duration.ofSeconds(1)));
+		sessionManager.setLeaseStrategy(LeaseStrategy.retainOnError());
+
+		when(clientAuthentication.login()).thenReturn(
+				LoginToken.renewable("login".toCharArray(), Duration.ofSeconds(5)));
+		when(restOperations.postForObject(anyString(), any(), eq(VaultResponse.class)))
+				.thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+		ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+		sessionManager.getSessionToken();
+		verify(taskScheduler).schedule(runnableCaptor.capture(), any(Trigger.class));
+		runnableCaptor.getValue().run();
+
+		assertThat(renewalTiming.getOverloadCount()).isEqualTo(1);
+	}
+
 	@Test
 	void shouldRetainTokenAfterRenewalFailure() {
 
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.vault.core.CachingVaultTransitOperationsUnitTests.MutableClock;
+import org.springframework.vault.support.VaultResponse;
+import org.springframework.vault.support.VaultResponseSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link CachingVaultKeyValueOperations}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class CachingVaultKeyValueOperationsUnitTests {
+
+	@Mock
+	VaultKeyValueOperations delegate;
+
+	MutableClock clock = new MutableClock();
+
+	CachingVaultKeyValueOperations operations;
+
+	@BeforeEach
+	void before() {
+
+		operations = new CachingVaultKeyValueOperations(delegate);
+		operations.setTimeToLive(Duration.ofSeconds(10));
+		operations.setClock(clock);
+	}
+
+	@Test
+	void shouldCacheSecret() {
+
+		VaultResponse response = new VaultResponse();
+		when(delegate.get("my-secret")).thenReturn(response);
+
+		assertThat(operations.get("my-secret")).usingRecursiveComparison().isEqualTo(response);
+		assertThat(operations.get("my-secret")).usingRecursiveComparison().isEqualTo(response);
+
+		verify(delegate).get("my-secret");
+		assertThat(operations.getHitCount()).isEqualTo(1);
+		assertThat(operations.getMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldReturnCopyOfCachedSecret() {
+
+		VaultResponse response = new VaultResponse();
+		response.setData(new LinkedHashMap<>(Collections.singletonMap("key",
+				Collections.singletonMap("nested", "value"))));
+		when(delegate.get("my-secret")).thenReturn(response);
+
+		Map<String, Object> data = operations.get("my-secret").getRequiredData();
+		data.put("key", "changed");
+		data.put("other", "value");
+
+		assertThat(operations.get("my-secret").getRequiredData())
+				.isEqualTo(response.getRequiredData()).hasSize(1);
+	}
+
+	@Test
+	void shouldCacheTypedSecretSeparately() {
+
+		VaultResponse response = new VaultResponse();
+		VaultResponseSupport<Person> typed = new VaultResponseSupport<>();
+		when(delegate.get("my-secret")).thenReturn(response);
+		when(delegate.get("my-secret", Person.class)).thenReturn(typed);
+
+		assertThat(operations.get("my-secret")).usingRecursiveComparison().isEqualTo(response);
+		assertThat(operations.get("my-secret", Person.class)).usingRecursiveComparison().isEqualTo(typed);
+		assertThat(operations.get("my-secret", Person.class)).usingRecursiveComparison().isEqualTo(typed);
+
+		verify(delegate).get("my-secret", Person.class);
+	}
+
+	@Test
+	void shouldCacheAbsentSecret() {
+
+		assertThat(operations.get("my-secret")).isNull();
+		assertThat(operations.get("my-secret")).isNull();
+
+		verify(delegate).get("my-secret");
+	}
+
+	@Test
+	void shouldReloadExpiredSecret() {
+
+		operations.get("my-secret");
+		clock.advance(Duration.ofSeconds(10));
+		operations.get("my-secret");
+
+		verify(delegate, times(2)).get("my-secret");
+	}
+
+	@Test
+	void shouldApplyPathTimeToLive() {
+
+		operations.setTimeToLive("short/", Duration.ofSeconds(1));
+		operations.setTimeToLive("short/uncached", Duration.ZERO);
+
+		assertThat(operations.getTimeToLive("other")).isEqualTo(Duration.ofSeconds(10));
+		assertThat(operations.getTimeToLive("short/foo"))
+				.isEqualTo(Duration.ofSeconds(1));
+
+		operations.get("short/foo");
+		clock.advance(Duration.ofSeconds(1));
+		operations.get("short/foo");
+
+		operations.get("short/uncached");
+		operations.get("short/uncached");
+
+		verify(delegate, times(2)).get("short/foo");
+		verify(delegate, times(2)).get("short/uncached");
+	}
+
+	@Test
+	void shouldInvalidateOnPutAndDelete() {
+
+		operations.get("my-secret");
+		operations.put("my-secret", "value");
+		operations.get("my-secret");
+		operations.delete("my-secret");
+		operations.get("my-secret");
+
+		verify(delegate, times(3)).get("my-secret");
+	}
+
+	@Test
+	void shouldEvictLeastRecentlyUsedPath() {
+
+		operations.setMaximumSize(2);
+
+		operations.get("first");
+		operations.get("second");
+		operations.get("first");
+		operations.get("third");
+
+		operations.get("first");
+		operations.get("second");
+
+		verify(delegate).get("first");
+		verify(delegate, times(2)).get("second");
+	}
+
+	@Test
+	void shouldLoadConcurrentReadsOnce() throws Exception {
+
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		VaultResponse response = new VaultResponse();
+
+		when(delegate.get("my-secret")).then(invocation -> {
+
+			loading.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return response;
+		});
+
+		CompletableFuture<VaultResponse> first = CompletableFuture
+				.supplyAsync(() -> operations.get("my-secret"));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+		CompletableFuture<VaultResponse> second = CompletableFuture
+				.supplyAsync(() -> operations.get("my-secret"));
+
+		Thread.sleep(50);
+		release.countDown();
+
+		assertThat(first.get(5, TimeUnit.SECONDS)).usingRecursiveComparison().isEqualTo(response);
+		assertThat(second.get(5, TimeUnit.SECONDS)).usingRecursiveComparison().isEqualTo(response);
+
+		verify(delegate).get("my-secret");
+	}
+
+	@Test
+	void shouldNotCacheSecretInvalidatedWhileLoading() throws Exception {
+
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		when(delegate.get("my-secret")).then(invocation -> {
+
+			loading.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return new VaultResponse();
+		}).thenReturn(new VaultResponse());
+
+		CompletableFuture<VaultResponse> load = CompletableFuture
+				.supplyAsync(() -> operations.get("my-secret"));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+		operations.delete("my-secret");
+		release.countDown();
+		load.get(5, TimeUnit.SECONDS);
+
+		operations.get("my-secret");
+
+		verify(delegate, times(2)).get("my-secret");
+	}
+
+	@Test
+	void shouldCacheSecretLoadedWhileOtherPathIsInvalidated() throws Exception {
+
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		when(delegate.get("my-secret")).then(invocation -> {
+
+			loading.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return new VaultResponse();
+		});
+
+		CompletableFuture<VaultResponse> load = CompletableFuture
+				.supplyAsync(() -> operations.get("my-secret"));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+		operations.put("other-secret", "value");
+		release.countDown();
+		load.get(5, TimeUnit.SECONDS);
+
+		operations.get("my-secret");
+
+		verify(delegate).get("my-secret");
+		assertThat(operations.getHitCount()).isEqualTo(1);
+	}
+
+	static class Person {
+	}
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.concurrent.ScheduledFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.vault.support.VaultTransitKey;
+import org.springframework.vault.support.VaultTransitKeyConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link CachingVaultTransitOperations}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class CachingVaultTransitOperationsUnitTests {
+
+	@Mock
+	VaultTransitOperations delegate;
+
+	@Mock
+	VaultTransitKey transitKey;
+
+	@Mock
+	TaskScheduler taskScheduler;
+
+	@Mock
+	ScheduledFuture scheduledFuture;
+
+	@Captor
+	ArgumentCaptor<Runnable> runnableCaptor;
+
+	MutableClock clock = new MutableClock();
+
+	CachingVaultTransitOperations operations;
+
+	@BeforeEach
+	void before() {
+
+		operations = new CachingVaultTransitOperations(delegate, taskScheduler);
+		operations.setTimeToLive(Duration.ofSeconds(10));
+		operations.setClock(clock);
+	}
+
+	@Test
+	void shouldCacheKey() {
+
+		when(delegate.getKey("my-key")).thenReturn(transitKey);
+
+		assertThat(operations.getKey("my-key")).isSameAs(transitKey);
+		assertThat(operations.getKey("my-key")).isSameAs(transitKey);
+
+		verify(delegate).getKey("my-key");
+	}
+
+	@Test
+	void shouldCacheAbsentKey() {
+
+		assertThat(operations.getKey("my-key")).isNull();
+		assertThat(operations.getKey("my-key")).isNull();
+
+		verify(delegate).getKey("my-key");
+	}
+
+	@Test
+	void shouldReloadExpiredKey() {
+
+		when(delegate.getKey("my-key")).thenReturn(transitKey);
+
+		operations.getKey("my-key");
+		clock.advance(Duration.ofSeconds(10));
+		operations.getKey("my-key");
+
+		verify(delegate, times(2)).getKey("my-key");
+	}
+
+	@Test
+	void shouldInvalidateKeyOnRotate() {
+
+		when(delegate.getKey("my-key")).thenReturn(transitKey);
+
+		operations.getKey("my-key");
+		operations.rotate("my-key");
+		operations.getKey("my-key");
+
+		verify(delegate).rotate("my-key");
+		verify(delegate, times(2)).getKey("my-key");
+	}
+
+	@Test
+	void shouldInvalidateKeyOnConfigure() {
+
+		VaultTransitKeyConfiguration configuration = VaultTransitKeyConfiguration
+				.builder().deletionAllowed(true).build();
+		when(delegate.getKey("my-key")).thenReturn(transitKey);
+
+		operations.getKey("my-key");
+		operations.configureKey("my-key", configuration);
+		operations.getKey("my-key");
+
+		verify(delegate, times(2)).getKey("my-key");
+	}
+
+	@Test
+	void shouldInvalidateKeyAndKeyNamesOnDelete() {
+
+		when(delegate.getKeys()).thenReturn(Arrays.asList("my-key", "other"));
+
+		operations.getKey("my-key");
+		operations.getKeys();
+		operations.deleteKey("my-key");
+		operations.getKey("my-key");
+		operations.getKeys();
+
+		verify(delegate, times(2)).getKey("my-key");
+		verify(delegate, times(2)).getKeys();
+	}
+
+	@Test
+	void shouldInvalidateKeyNamesOnCreate() {
+
+		when(delegate.getKeys()).thenReturn(Arrays.asList("my-key"));
+
+		operations.getKeys();
+		operations.getKeys();
+		operations.createKey("other");
+		operations.getKeys();
+
+		verify(delegate, times(2)).getKeys();
+	}
+
+	@Test
+	void shouldNotCacheKeyRotatedWhileLoading() {
+
+		when(delegate.getKey("my-key")).then(invocation -> {
+			operations.rotate("my-key");
+			return transitKey;
+		}).thenReturn(transitKey);
+
+		operations.getKey("my-key");
+		operations.getKey("my-key");
+		operations.getKey("my-key");
+
+		verify(delegate, times(2)).getKey("my-key");
+	}
+
+	@Test
+	void shouldNotCacheKeyNamesCreatedWhileLoading() {
+
+		when(delegate.getKeys()).then(invocation -> {
+			operations.createKey("other");
+			return Arrays.asList("my-key");
+		}).thenReturn(Arrays.asList("my-key", "other"));
+
+		assertThat(operations.getKeys()).containsOnly("my-key");
+		assertThat(operations.getKeys()).contains("my-key", "other");
+		assertThat(operations.getKeys()).contains("my-key", "other");
+
+		verify(delegate, times(2)).getKeys();
+	}
+
+	@Test
+	void shouldNotRefreshKeyNamesDeletedWhileRefreshing() {
+
+		when(taskScheduler.scheduleWithFixedDelay(runnableCaptor.capture(),
+				any(Instant.class), eq(Duration.ofSeconds(5))))
+						.thenReturn(scheduledFuture);
+		when(delegate.getKeys()).thenReturn(Arrays.asList("my-key", "other"))
+				.then(invocation -> {
+					operations.deleteKey("other");
+					return Arrays.asList("my-key", "other");
+				}).thenReturn(Arrays.asList("my-key"));
+
+		operations.setRefreshInterval(Duration.ofSeconds(5));
+		operations.afterPropertiesSet();
+
+		operations.getKeys();
+		runnableCaptor.getValue().run();
+
+		assertThat(operations.getKeys()).containsOnly("my-key");
+	}
+
+	@Test
+	void shouldRefreshCachedEntriesInBackground() {
+
+		when(taskScheduler.scheduleWithFixedDelay(runnableCaptor.capture(),
+				any(Instant.class), eq(Duration.ofSeconds(5))))
+						.thenReturn(scheduledFuture);
+		when(delegate.getKey("my-key")).thenReturn(transitKey);
+
+		operations.setRefreshInterval(Duration.ofSeconds(5));
+		operations.afterPropertiesSet();
+
+		operations.getKey("my-key");
+		clock.advance(Duration.ofSeconds(5));
+		runnableCaptor.getValue().run();
+		clock.advance(Duration.ofSeconds(5));
+		operations.getKey("my-key");
+
+		verify(delegate, times(2)).getKey("my-key");
+	}
+
+	static class MutableClock extends Clock {
+
+		Instant instant = Instant.parse("2019-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			instant = instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneId.of("UTC");
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.vault.core.CachingVaultTransitOperationsUnitTests.MutableClock;
+import org.springframework.vault.support.Versioned;
+import org.springframework.vault.support.Versioned.Metadata;
+import org.springframework.vault.support.Versioned.Version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link CachingVaultVersionedKeyValueOperations}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class CachingVaultVersionedKeyValueOperationsUnitTests {
+
+	@Mock
+	VaultVersionedKeyValueOperations delegate;
+
+	MutableClock clock = new MutableClock();
+
+	CachingVaultVersionedKeyValueOperations operations;
+
+	@BeforeEach
+	void before() {
+
+		operations = new CachingVaultVersionedKeyValueOperations(delegate);
+		operations.setTimeToLive(Duration.ofSeconds(10));
+		operations.setClock(clock);
+	}
+
+	@Test
+	void shouldCacheLatestVersionWithTimeToLive() {
+
+		Versioned<Map<String, Object>> secret = secret(Version.from(2));
+		when(delegate.<Map<String, Object>> get("my-secret", Version.unversioned()))
+				.thenReturn(secret);
+
+		assertThat(operations.get("my-secret")).isEqualTo(secret);
+		assertThat(operations.get("my-secret")).isEqualTo(secret);
+
+		clock.advance(Duration.ofSeconds(10));
+		operations.get("my-secret");
+
+		verify(delegate, times(2)).get("my-secret", Version.unversioned());
+	}
+
+	@Test
+	void shouldReturnCopyOfCachedSecret() {
+
+		Versioned<Map<String, Object>> secret = secret(Version.from(2));
+		when(delegate.<Map<String, Object>> get("my-secret", Version.unversioned()))
+				.thenReturn(secret);
+
+		operations.<Map<String, Object>> get("my-secret").getRequiredData().put("key",
+				"changed");
+
+		assertThat(operations.<Map<String, Object>> get("my-secret").getRequiredData())
+				.isEqualTo(secret.getRequiredData());
+	}
+
+	@Test
+	void shouldCacheExplicitVersionWithoutExpiry() {
+
+		Versioned<Map<String, Object>> secret = secret(Version.from(1));
+		when(delegate.<Map<String, Object>> get("my-secret", Version.from(1)))
+				.thenReturn(secret);
+
+		assertThat(operations.<Map<String, Object>> get("my-secret", Version.from(1)))
+				.isEqualTo(secret);
+
+		clock.advance(Duration.ofDays(1));
+
+		assertThat(operations.<Map<String, Object>> get("my-secret", Version.from(1)))
+				.isEqualTo(secret);
+
+		verify(delegate).get("my-secret", Version.from(1));
+	}
+
+	@Test
+	void shouldExpireDeletedExplicitVersion() {
+
+		Versioned<Map<String, Object>> deleted = Versioned.create(null,
+				Metadata.builder().version(Version.from(1)).createdAt(Instant.EPOCH)
+						.deletedAt(Instant.EPOCH).build());
+		when(delegate.<Map<String, Object>> get("my-secret", Version.from(1)))
+				.thenReturn(deleted);
+
+		operations.get("my-secret", Version.from(1));
+		clock.advance(Duration.ofSeconds(10));
+		operations.get("my-secret", Version.from(1));
+
+		verify(delegate, times(2)).get("my-secret", Version.from(1));
+	}
+
+	@Test
+	void shouldInvalidateVersionsOnWrite() {
+
+		Versioned<Map<String, Object>> secret = secret(Version.from(1));
+		when(delegate.<Map<String, Object>> get("my-secret", Version.from(1)))
+				.thenReturn(secret);
+
+		operations.get("my-secret", Version.from(1));
+		operations.destroy("my-secret", Version.from(1));
+		operations.get("my-secret", Version.from(1));
+		operations.put("my-secret", Collections.singletonMap("key", "value"));
+		operations.get("my-secret", Version.from(1));
+
+		verify(delegate, times(3)).get("my-secret", Version.from(1));
+	}
+
+	@Test
+	void shouldCacheTypedReadsSeparately() {
+
+		Versioned<Map<String, Object>> secret = secret(Version.from(1));
+		Versioned<String> typed = Versioned.create("value", Version.from(1));
+		when(delegate.<Map<String, Object>> get("my-secret", Version.from(1)))
+				.thenReturn(secret);
+		when(delegate.get("my-secret", Version.from(1), String.class)).thenReturn(typed);
+
+		operations.get("my-secret", Version.from(1));
+		assertThat(operations.get("my-secret", Version.from(1), String.class))
+				.isEqualTo(typed);
+		assertThat(operations.get("my-secret", Version.from(1), String.class))
+				.isEqualTo(typed);
+
+		verify(delegate).get("my-secret", Version.from(1));
+		verify(delegate).get("my-secret", Version.from(1), String.class);
+	}
+
+	private static Versioned<Map<String, Object>> secret(Version version) {
+		return Versioned.create(Collections.singletonMap("key", "value"), version);
+	}
+}
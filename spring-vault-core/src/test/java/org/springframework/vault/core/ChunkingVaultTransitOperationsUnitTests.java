@@ -0,0 +1,226 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.vault.VaultException;
+import org.springframework.vault.support.Ciphertext;
+import org.springframework.vault.support.Plaintext;
+import org.springframework.vault.support.VaultDecryptionResult;
+import org.springframework.vault.support.VaultEncryptionResult;
+import org.springframework.vault.support.VaultTransitKey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ChunkingVaultTransitOperations}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class ChunkingVaultTransitOperationsUnitTests {
+
+	@Mock
+	VaultTransitOperations delegate;
+
+	@Mock
+	VaultTransitKey transitKey;
+
+	ChunkingVaultTransitOperations operations;
+
+	@BeforeEach
+	void before() {
+
+		operations = new ChunkingVaultTransitOperations(delegate);
+		operations.setChunkSize(10);
+		operations.setMaxConcurrency(2);
+		operations.afterPropertiesSet();
+	}
+
+	@AfterEach
+	void after() throws Exception {
+		operations.destroy();
+	}
+
+	@Test
+	void shouldDelegateSmallBatch() {
+
+		List<Plaintext> batch = plaintexts(10);
+		when(delegate.encrypt("my-key", batch)).thenReturn(encrypt(batch));
+
+		assertThat(operations.encrypt("my-key", batch)).hasSize(10);
+		verify(delegate).encrypt("my-key", batch);
+	}
+
+	@Test
+	void shouldEncryptInChunksPreservingOrder() {
+
+		when(delegate.encrypt(eq("my-key"), anyList()))
+				.thenAnswer(invocation -> encrypt(invocation.getArgument(1)));
+
+		List<long[]> progress = new ArrayList<>();
+		List<VaultEncryptionResult> results = operations.encrypt("my-key",
+				plaintexts(95), (processed, failed, total) -> progress
+						.add(new long[] { processed, failed, total }));
+
+		assertThat(results).extracting(result -> result.get().getCiphertext())
+				.containsExactlyElementsOf(plaintexts(95).stream()
+						.map(it -> "vault:v1:" + it.asString())
+						.collect(Collectors.toList()));
+		assertThat(progress).hasSize(10);
+		assertThat(progress.get(9)).containsExactly(95, 0, 95);
+
+		verify(delegate, times(10)).encrypt(eq("my-key"), anyList());
+	}
+
+	@Test
+	void shouldReportChunkFailureAsItemFailures() {
+
+		when(delegate.decrypt(eq("my-key"), anyList())).thenAnswer(invocation -> {
+
+			List<Ciphertext> chunk = invocation.getArgument(1);
+
+			if (chunk.get(0).getCiphertext().equals("vault:v1:10")) {
+				throw new VaultException("Status 400 Bad Request");
+			}
+
+			return chunk.stream()
+					.map(it -> new VaultDecryptionResult(Plaintext.of("plain")))
+					.collect(Collectors.toList());
+		});
+
+		List<Ciphertext> batch = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			batch.add(Ciphertext.of("vault:v1:" + i));
+		}
+
+		AtomicInteger failed = new AtomicInteger();
+		List<VaultDecryptionResult> results = operations.decrypt("my-key", batch,
+				(processed, failedItems, total) -> failed.set((int) failedItems));
+
+		assertThat(results).hasSize(25);
+		assertThat(results.subList(0, 10)).allMatch(VaultDecryptionResult::isSuccessful);
+		assertThat(results.subList(10, 20)).noneMatch(VaultDecryptionResult::isSuccessful);
+		assertThat(results.get(10).getCause()).hasMessageContaining("400");
+		assertThat(results.subList(20, 25)).allMatch(VaultDecryptionResult::isSuccessful);
+		assertThat(failed).hasValue(10);
+	}
+
+	@Test
+	void shouldLimitConcurrency() {
+
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+
+		when(delegate.encrypt(eq("my-key"), anyList())).thenAnswer(invocation -> {
+
+			maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+			Thread.sleep(10);
+			active.decrementAndGet();
+
+			return encrypt(invocation.getArgument(1));
+		});
+
+		operations.encrypt("my-key", plaintexts(100));
+
+		assertThat(maxActive.get()).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void shouldRewrapStreamSkippingLatestVersion() {
+
+		when(delegate.getKey("my-key")).thenReturn(transitKey);
+		when(transitKey.getLatestVersion()).thenReturn(2);
+		when(delegate.rewrap(eq("my-key"), anyList())).thenAnswer(invocation -> {
+
+			List<Ciphertext> chunk = invocation.getArgument(1);
+
+			return chunk.stream()
+					.map(it -> new VaultEncryptionResult(Ciphertext
+							.of(it.getCiphertext().replace("vault:v1:", "vault:v2:"))))
+					.collect(Collectors.toList());
+		});
+
+		List<Ciphertext> ciphertexts = new ArrayList<>();
+		for (int i = 0; i < 35; i++) {
+			ciphertexts.add(Ciphertext.of("vault:v" + (i % 2 == 0 ? 1 : 2) + ":" + i));
+		}
+
+		List<String> results;
+		try (Stream<VaultEncryptionResult> stream = operations.rewrap("my-key",
+				ciphertexts.stream())) {
+			results = stream.map(it -> it.get().getCiphertext())
+					.collect(Collectors.toList());
+		}
+
+		assertThat(results).hasSize(35).allMatch(it -> it.startsWith("vault:v2:"));
+		assertThat(results.get(34)).isEqualTo("vault:v2:34");
+		verify(delegate, times(4)).rewrap(eq("my-key"), anyList());
+	}
+
+	@Test
+	void shouldNotRewrapWhenAllCiphertextsAreCurrent() {
+
+		when(delegate.getKey("my-key")).thenReturn(transitKey);
+		when(transitKey.getLatestVersion()).thenReturn(1);
+
+		Iterator<VaultEncryptionResult> iterator = operations.rewrap("my-key",
+				Arrays.asList(Ciphertext.of("vault:v1:a"), Ciphertext.of("vault:v1:b"))
+						.iterator(),
+				BatchProgressListener.NONE);
+
+		assertThat(iterator).toIterable().extracting(it -> it.get().getCiphertext())
+				.containsExactly("vault:v1:a", "vault:v1:b");
+		verify(delegate, never()).rewrap(anyString(), anyList());
+	}
+
+	private static List<Plaintext> plaintexts(int count) {
+
+		List<Plaintext> plaintexts = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			plaintexts.add(Plaintext.of("" + i));
+		}
+		return plaintexts;
+	}
+
+	private static List<VaultEncryptionResult> encrypt(List<Plaintext> plaintexts) {
+		return plaintexts.stream()
+				.map(it -> new VaultEncryptionResult(
+						Ciphertext.of("vault:v1:" + it.asString())))
+				.collect(Collectors.toList());
+	}
+}
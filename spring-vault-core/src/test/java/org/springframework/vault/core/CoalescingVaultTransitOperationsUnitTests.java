@@ -0,0 +1,263 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.vault.VaultException;
+import org.springframework.vault.support.Ciphertext;
+import org.springframework.vault.support.Plaintext;
+import org.springframework.vault.support.VaultDecryptionResult;
+import org.springframework.vault.support.VaultEncryptionResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link CoalescingVaultTransitOperations}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class CoalescingVaultTransitOperationsUnitTests {
+
+	@Mock
+	VaultTransitOperations delegate;
+
+	@Mock
+	TaskScheduler taskScheduler;
+
+	@Mock
+	ScheduledFuture scheduledFuture;
+
+	@Captor
+	ArgumentCaptor<Runnable> runnableCaptor;
+
+	@Captor
+	ArgumentCaptor<List<Plaintext>> plaintextCaptor;
+
+	CoalescingVaultTransitOperations operations;
+
+	@BeforeEach
+	void before() {
+
+		operations = new CoalescingVaultTransitOperations(delegate, taskScheduler);
+		operations.setMaxBatchSize(3);
+		operations.setMaxDelay(Duration.ofMillis(10));
+		operations.afterPropertiesSet();
+	}
+
+	@Test
+	void shouldScheduleFlushForFirstRequest() {
+
+		when(taskScheduler.schedule(any(Runnable.class), any(Instant.class)))
+				.thenReturn(scheduledFuture);
+
+		CompletableFuture<Ciphertext> future = operations.encryptAsync("my-key",
+				Plaintext.of("one"));
+
+		assertThat(future).isNotDone();
+		verifyZeroInteractions(delegate);
+	}
+
+	@Test
+	void shouldFlushPendingRequestsAfterDelay() throws Exception {
+
+		when(taskScheduler.schedule(runnableCaptor.capture(), any(Instant.class)))
+				.thenReturn(scheduledFuture);
+		when(delegate.encrypt(eq("my-key"), plaintextCaptor.capture()))
+				.thenReturn(Arrays.asList(
+						new VaultEncryptionResult(Ciphertext.of("vault:v1:one")),
+						new VaultEncryptionResult(Ciphertext.of("vault:v1:two"))));
+
+		CompletableFuture<Ciphertext> one = operations.encryptAsync("my-key",
+				Plaintext.of("one"));
+		CompletableFuture<Ciphertext> two = operations.encryptAsync("my-key",
+				Plaintext.of("two"));
+
+		runnableCaptor.getValue().run();
+
+		assertThat(plaintextCaptor.getValue()).extracting(Plaintext::asString)
+				.containsExactly("one", "two");
+		assertThat(one.get().getCiphertext()).isEqualTo("vault:v1:one");
+		assertThat(two.get().getCiphertext()).isEqualTo("vault:v1:two");
+	}
+
+	@Test
+	void shouldFlushWhenBatchIsFull() {
+
+		when(taskScheduler.schedule(any(Runnable.class), any(Instant.class)))
+				.thenReturn(scheduledFuture);
+		when(delegate.encrypt(eq("my-key"), anyList())).thenReturn(Arrays.asList(
+				new VaultEncryptionResult(Ciphertext.of("vault:v1:one")),
+				new VaultEncryptionResult(Ciphertext.of("vault:v1:two")),
+				new VaultEncryptionResult(Ciphertext.of("vault:v1:three"))));
+
+		operations.encryptAsync("my-key", Plaintext.of("one"));
+		operations.encryptAsync("my-key", Plaintext.of("two"));
+		CompletableFuture<Ciphertext> three = operations.encryptAsync("my-key",
+				Plaintext.of("three"));
+
+		assertThat(three).isCompleted();
+		verify(scheduledFuture).cancel(false);
+	}
+
+	@Test
+	void shouldPropagateItemErrorOnlyToAffectedCaller() throws Exception {
+
+		when(taskScheduler.schedule(runnableCaptor.capture(), any(Instant.class)))
+				.thenReturn(scheduledFuture);
+		when(delegate.decrypt(eq("my-key"), anyList())).thenReturn(Arrays.asList(
+				new VaultDecryptionResult(Plaintext.of("one")),
+				new VaultDecryptionResult(new VaultException("invalid ciphertext"))));
+
+		CompletableFuture<Plaintext> one = operations.decryptAsync("my-key",
+				Ciphertext.of("vault:v1:one"));
+		CompletableFuture<Plaintext> two = operations.decryptAsync("my-key",
+				Ciphertext.of("invalid"));
+
+		runnableCaptor.getValue().run();
+
+		assertThat(one.get().asString()).isEqualTo("one");
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(two::get)
+				.withCauseInstanceOf(VaultException.class)
+				.withMessageContaining("invalid ciphertext");
+	}
+
+	@Test
+	void shouldPropagateBatchErrorToAllCallers() {
+
+		when(taskScheduler.schedule(runnableCaptor.capture(), any(Instant.class)))
+				.thenReturn(scheduledFuture);
+		when(delegate.encrypt(eq("my-key"), anyList()))
+				.thenThrow(new VaultException("permission denied"));
+
+		CompletableFuture<Ciphertext> one = operations.encryptAsync("my-key",
+				Plaintext.of("one"));
+		CompletableFuture<Ciphertext> two = operations.encryptAsync("my-key",
+				Plaintext.of("two"));
+
+		runnableCaptor.getValue().run();
+
+		assertThat(one).isCompletedExceptionally();
+		assertThat(two).isCompletedExceptionally();
+	}
+
+	@Test
+	void shouldBatchPerKey() {
+
+		when(taskScheduler.schedule(any(Runnable.class), any(Instant.class)))
+				.thenReturn(scheduledFuture);
+
+		operations.encryptAsync("key-1", Plaintext.of("one"));
+		operations.encryptAsync("key-2", Plaintext.of("two"));
+
+		verify(taskScheduler, times(2)).schedule(
+				any(Runnable.class), any(Instant.class));
+	}
+
+	@Test
+	void shouldRejectRequestsAfterDestroy() throws Exception {
+
+		operations.destroy();
+
+		assertThatIllegalStateException()
+				.isThrownBy(() -> operations.encryptAsync("my-key", Plaintext.of("one")))
+				.withMessageContaining("destroyed");
+	}
+
+	@Test
+	void destroyShouldFlushPendingRequests() throws Exception {
+
+		when(taskScheduler.schedule(any(Runnable.class), any(Instant.class)))
+				.thenReturn(scheduledFuture);
+		when(delegate.encrypt(eq("my-key"), anyList())).thenReturn(Arrays.asList(
+				new VaultEncryptionResult(Ciphertext.of("vault:v1:one"))));
+
+		CompletableFuture<Ciphertext> one = operations.encryptAsync("my-key",
+				Plaintext.of("one"));
+
+		operations.destroy();
+
+		assertThat(one.get().getCiphertext()).isEqualTo("vault:v1:one");
+	}
+
+	@Test
+	void shouldFailPendingRequestsIfFlushCannotBeScheduled() {
+
+		when(taskScheduler.schedule(any(Runnable.class), any(Instant.class)))
+				.thenThrow(new TaskRejectedException("shut down"));
+
+		CompletableFuture<Ciphertext> one = operations.encryptAsync("my-key",
+				Plaintext.of("one"));
+
+		assertThat(one).isCompletedExceptionally();
+		assertThatExceptionOfType(VaultException.class)
+				.isThrownBy(() -> operations.encrypt("my-key", Plaintext.of("two")))
+				.withMessageContaining("Cannot schedule batch flush")
+				.withCauseInstanceOf(TaskRejectedException.class);
+		verify(delegate, never()).encrypt(eq("my-key"), anyList());
+	}
+
+	@Test
+	void shouldTimeOutAwaitingBatchResult() {
+
+		when(taskScheduler.schedule(any(Runnable.class), any(Instant.class)))
+				.thenReturn(scheduledFuture);
+		operations.setTimeout(Duration.ofMillis(10));
+
+		assertThatExceptionOfType(VaultException.class)
+				.isThrownBy(() -> operations.encrypt("my-key", Plaintext.of("one")))
+				.withMessageContaining("Timed out");
+	}
+
+	@Test
+	void shouldPropagateOriginalBatchErrorToSynchronousCaller() {
+
+		VaultException exception = new VaultException("permission denied");
+		operations.setMaxBatchSize(1);
+		when(delegate.encrypt(eq("my-key"), anyList())).thenThrow(exception);
+
+		assertThatExceptionOfType(VaultException.class)
+				.isThrownBy(() -> operations.encrypt("my-key", Plaintext.of("one")))
+				.isSameAs(exception);
+	}
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.vault.VaultException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for {@link KeyValueTreeWalker}.
+ *
+ * @author Mark Paluch
+ */
+class KeyValueTreeWalkerUnitTests {
+
+	Map<String, List<String>> tree = new HashMap<>();
+
+	{
+		tree.put("/", Arrays.asList("app/", "root-secret"));
+		tree.put("app/", Arrays.asList("db", "nested/", "web"));
+		tree.put("app/nested/", Arrays.asList("deep", "empty/"));
+		tree.put("app/nested/empty/", Collections.emptyList());
+	}
+
+	Function<String, List<String>> lister = path -> tree.get(path);
+
+	@Test
+	void shouldWalkWholeTree() {
+
+		try (Stream<String> paths = KeyValueTreeWalker.walk(lister, "/",
+				KeyValueWalkOptions.defaults())) {
+
+			assertThat(paths).containsOnly("root-secret", "app/db", "app/web",
+					"app/nested/deep");
+		}
+	}
+
+	@Test
+	void shouldWalkSubtree() {
+
+		List<String> paths = KeyValueTreeWalker
+				.walk(path -> tree.get(path.endsWith("/") ? path : path + "/"), "app",
+						KeyValueWalkOptions.defaults())
+				.collect(Collectors.toList());
+
+		assertThat(paths).containsOnly("app/db", "app/web", "app/nested/deep");
+	}
+
+	@Test
+	void shouldConsiderMaxDepth() {
+
+		List<String> paths = KeyValueTreeWalker
+				.walk(lister, "/", KeyValueWalkOptions.builder().maxDepth(2).build())
+				.collect(Collectors.toList());
+
+		assertThat(paths).containsOnly("root-secret", "app/db", "app/web");
+	}
+
+	@Test
+	void shouldNotDescendIntoFilteredDirectories() {
+
+		Set<String> listed = ConcurrentHashMap.newKeySet();
+
+		List<String> paths = KeyValueTreeWalker.walk(path -> {
+
+			listed.add(path);
+			return tree.get(path);
+		}, "/", KeyValueWalkOptions.builder()
+				.filter(path -> !path.startsWith("app/nested")).build())
+				.collect(Collectors.toList());
+
+		assertThat(paths).containsOnly("root-secret", "app/db", "app/web");
+		assertThat(listed).containsOnly("/", "app/");
+	}
+
+	@Test
+	void shouldReadTreeAndSkipAbsentLeaves() {
+
+		Map<String, String> values = KeyValueTreeWalker
+				.readTree(lister, path -> path.equals("app/web") ? null : path.toUpperCase(),
+						"/", KeyValueWalkOptions.builder().parallelism(1).build())
+				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+		assertThat(values).hasSize(3).containsEntry("app/db", "APP/DB")
+				.containsEntry("app/nested/deep", "APP/NESTED/DEEP")
+				.containsEntry("root-secret", "ROOT-SECRET");
+	}
+
+	@Test
+	void shouldReadLeavesConcurrently() throws InterruptedException {
+
+		CountDownLatch latch = new CountDownLatch(3);
+
+		List<Map.Entry<String, String>> entries = KeyValueTreeWalker
+				.readTree(lister, path -> {
+
+					latch.countDown();
+					try {
+						// only completes if three reads are in flight concurrently
+						latch.await(10, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException e) {
+						throw new IllegalStateException(e);
+					}
+					return path;
+				}, "app/", KeyValueWalkOptions.builder().parallelism(3).maxDepth(1)
+						.build())
+				.collect(Collectors.toList());
+
+		assertThat(entries).hasSize(2);
+		assertThat(latch.getCount()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldPropagateFirstError() {
+
+		Stream<String> paths = KeyValueTreeWalker.walk(path -> {
+
+			if (path.equals("app/nested/")) {
+				throw new VaultException("Permission denied");
+			}
+			return tree.get(path);
+		}, "/", KeyValueWalkOptions.defaults());
+
+		assertThatExceptionOfType(VaultException.class)
+				.isThrownBy(() -> paths.collect(Collectors.toList()))
+				.withMessage("Permission denied");
+	}
+
+	@Test
+	void shouldListDirectoriesWhileConsuming() {
+
+		AtomicInteger listings = new AtomicInteger();
+		Map<String, List<String>> tree = new ConcurrentHashMap<>();
+
+		tree.put("app/", Arrays.asList("a/", "b/", "c/", "d/", "e/", "f/", "g/", "h/",
+				"i/", "j/", "k/", "l/"));
+		for (String directory : tree.get("app/")) {
+			tree.put("app/" + directory, Collections.singletonList("secret"));
+		}
+
+		Stream<String> paths = KeyValueTreeWalker.walk(path -> {
+			listings.incrementAndGet();
+			return tree.get(path);
+		}, "app/", KeyValueWalkOptions.builder().parallelism(1).bufferSize(1).build());
+
+		assertThat(listings).hasValue(0);
+		assertThat(paths.findFirst()).contains("app/a/secret");
+		paths.close();
+
+		assertThat(listings.get()).isLessThan(tree.size());
+	}
+
+	@Test
+	void shouldApplyBackpressureAndCancelOnClose() throws InterruptedException {
+
+		AtomicInteger reads = new AtomicInteger();
+		tree.put("app/", Collections.nCopies(100, "secret"));
+
+		Stream<Map.Entry<String, String>> entries = KeyValueTreeWalker.readTree(lister,
+				path -> {
+					reads.incrementAndGet();
+					return path;
+				}, "app/", KeyValueWalkOptions.builder().parallelism(2).bufferSize(2)
+						.build());
+
+		assertThat(entries.findFirst()).isPresent();
+		entries.close();
+
+		Thread.sleep(200);
+		int readsAfterClose = reads.get();
+
+		assertThat(readsAfterClose).isLessThan(10);
+
+		Thread.sleep(200);
+		assertThat(reads).hasValue(readsAfterClose);
+	}
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.util.Base64Utils;
+import org.springframework.vault.VaultException;
+import org.springframework.vault.support.Hmac;
+import org.springframework.vault.support.Plaintext;
+import org.springframework.vault.support.RawTransitKey;
+import org.springframework.vault.support.Signature;
+import org.springframework.vault.support.SignatureValidation;
+import org.springframework.vault.support.TransitKeyType;
+import org.springframework.vault.support.VaultSignatureVerificationRequest;
+import org.springframework.vault.support.VaultTransitKey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link LocalVerificationVaultTransitOperations}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class LocalVerificationVaultTransitOperationsUnitTests {
+
+	static final Plaintext PLAINTEXT = Plaintext.of("hello-world");
+
+	@Mock
+	VaultTransitOperations delegate;
+
+	@Mock
+	VaultTransitKey transitKey;
+
+	@Mock
+	RawTransitKey rawTransitKey;
+
+	@Test
+	void shouldVerifyEcdsaSignatureLocally() throws Exception {
+
+		KeyPair keyPair = generateKeyPair("EC", 256);
+		mockKey("ecdsa-p256", toPem(keyPair.getPublic().getEncoded()));
+
+		Signature signature = sign(keyPair, "SHA256withECDSA");
+		LocalVerificationVaultTransitOperations operations = new LocalVerificationVaultTransitOperations(
+				delegate);
+
+		assertThat(operations.verify("my-key", PLAINTEXT, signature)).isTrue();
+		assertThat(operations.verify("my-key", Plaintext.of("other"), signature))
+				.isFalse();
+
+		verify(delegate).getKey("my-key");
+		verify(delegate, never()).verify(anyString(),
+				any(VaultSignatureVerificationRequest.class));
+	}
+
+	@Test
+	void shouldVerifyEcdsaSignatureWithAlgorithm() throws Exception {
+
+		KeyPair keyPair = generateKeyPair("EC", 256);
+		mockKey("ecdsa-p256", toPem(keyPair.getPublic().getEncoded()));
+
+		Signature signature = sign(keyPair, "SHA512withECDSA");
+		LocalVerificationVaultTransitOperations operations = new LocalVerificationVaultTransitOperations(
+				delegate);
+
+		SignatureValidation validation = operations.verify("my-key",
+				VaultSignatureVerificationRequest.builder().plaintext(PLAINTEXT)
+						.signature(signature).algorithm("sha2-512").build());
+
+		assertThat(validation.isValid()).isTrue();
+	}
+
+	@Test
+	void shouldVerifyRsaPssSignatureLocally() throws Exception {
+
+		KeyPair keyPair = generateKeyPair("RSA", 2048);
+		mockKey("rsa-2048", toPem(keyPair.getPublic().getEncoded()));
+
+		java.security.Signature signer = java.security.Signature
+				.getInstance("RSASSA-PSS");
+		signer.setParameter(new PSSParameterSpec("SHA-256", "MGF1",
+				MGF1ParameterSpec.SHA256, 256 - 32 - 2, 1));
+		signer.initSign(keyPair.getPrivate());
+		signer.update(PLAINTEXT.getPlaintext());
+		Signature signature = Signature
+				.of("vault:v1:" + Base64Utils.encodeToString(signer.sign()));
+
+		LocalVerificationVaultTransitOperations operations = new LocalVerificationVaultTransitOperations(
+				delegate);
+
+		assertThat(operations.verify("my-key", PLAINTEXT, signature)).isTrue();
+	}
+
+	@Test
+	void shouldVerifyEd25519SignatureLocally() throws Exception {
+
+		KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+		byte[] encoded = keyPair.getPublic().getEncoded();
+		byte[] raw = new byte[32];
+		System.arraycopy(encoded, encoded.length - 32, raw, 0, 32);
+
+		mockKey("ed25519", Base64Utils.encodeToString(raw));
+
+		Signature signature = sign(keyPair, "Ed25519");
+		LocalVerificationVaultTransitOperations operations = new LocalVerificationVaultTransitOperations(
+				delegate);
+
+		assertThat(operations.verify("my-key", PLAINTEXT, signature)).isTrue();
+		assertThat(operations.verify("my-key", Plaintext.of("other"), signature))
+				.isFalse();
+	}
+
+	@Test
+	void shouldFallBackToVaultForUnknownKeyVersion() throws Exception {
+
+		KeyPair keyPair = generateKeyPair("EC", 256);
+		mockKey("ecdsa-p256", toPem(keyPair.getPublic().getEncoded()));
+
+		Signature signature = Signature.of(sign(keyPair, "SHA256withECDSA")
+				.getSignature().replace("vault:v1:", "vault:v2:"));
+		when(delegate.verify(anyString(), any(VaultSignatureVerificationRequest.class)))
+				.thenReturn(SignatureValidation.valid());
+
+		LocalVerificationVaultTransitOperations operations = new LocalVerificationVaultTransitOperations(
+				delegate);
+
+		assertThat(operations.verify("my-key", PLAINTEXT, signature)).isTrue();
+		assertThat(operations.verify("my-key", PLAINTEXT, signature)).isTrue();
+
+		verify(delegate, times(2)).getKey("my-key");
+		verify(delegate, times(2)).verify(anyString(),
+				any(VaultSignatureVerificationRequest.class));
+	}
+
+	@Test
+	void shouldReloadKeysAfterRotate() throws Exception {
+
+		KeyPair keyPair = generateKeyPair("EC", 256);
+		mockKey("ecdsa-p256", toPem(keyPair.getPublic().getEncoded()));
+
+		Signature signature = sign(keyPair, "SHA256withECDSA");
+		LocalVerificationVaultTransitOperations operations = new LocalVerificationVaultTransitOperations(
+				delegate);
+
+		operations.verify("my-key", PLAINTEXT, signature);
+		operations.rotate("my-key");
+		operations.verify("my-key", PLAINTEXT, signature);
+
+		verify(delegate).rotate("my-key");
+		verify(delegate, times(2)).getKey("my-key");
+	}
+
+	@Test
+	void shouldReloadExpiredKeys() throws Exception {
+
+		KeyPair keyPair = generateKeyPair("EC", 256);
+		mockKey("ecdsa-p256", toPem(keyPair.getPublic().getEncoded()));
+		when(delegate.verify(anyString(), any(VaultSignatureVerificationRequest.class)))
+				.thenReturn(SignatureValidation.invalid());
+
+		Signature signature = sign(keyPair, "SHA256withECDSA");
+		Instant now = Instant.parse("2019-01-01T00:00:00Z");
+		LocalVerificationVaultTransitOperations operations = new LocalVerificationVaultTransitOperations(
+				delegate);
+		operations.setTimeToLive(Duration.ofSeconds(10));
+		operations.setClock(Clock.fixed(now, ZoneOffset.UTC));
+
+		assertThat(operations.verify("my-key", PLAINTEXT, signature)).isTrue();
+
+		// minimum decryption version raised by a different client
+		when(transitKey.getMinDecryptionVersion()).thenReturn(2);
+		operations.setClock(Clock.fixed(now.plusSeconds(10), ZoneOffset.UTC));
+
+		assertThat(operations.verify("my-key", PLAINTEXT, signature)).isFalse();
+
+		verify(delegate, times(2)).getKey("my-key");
+		verify(delegate).verify(anyString(), any(VaultSignatureVerificationRequest.class));
+	}
+
+	@Test
+	void shouldNotCacheKeyLoadingFailure() throws Exception {
+
+		KeyPair keyPair = generateKeyPair("EC", 256);
+		mockKey("ecdsa-p256", toPem(keyPair.getPublic().getEncoded()));
+		when(delegate.getKey("my-key")).thenThrow(new VaultException("Unavailable"))
+				.thenReturn(transitKey);
+		when(delegate.verify(anyString(), any(VaultSignatureVerificationRequest.class)))
+				.thenReturn(SignatureValidation.valid());
+
+		Signature signature = sign(keyPair, "SHA256withECDSA");
+		LocalVerificationVaultTransitOperations operations = new LocalVerificationVaultTransitOperations(
+				delegate);
+
+		assertThat(operations.verify("my-key", PLAINTEXT, signature)).isTrue();
+		assertThat(operations.verify("my-key", PLAINTEXT, signature)).isTrue();
+		assertThat(operations.verify("my-key", PLAINTEXT, signature)).isTrue();
+
+		verify(delegate, times(2)).getKey("my-key");
+		verify(delegate).verify(anyString(), any(VaultSignatureVerificationRequest.class));
+	}
+
+	@Test
+	void shouldFallBackToVaultForSymmetricKeys() {
+
+		when(delegate.getKey("my-key")).thenReturn(transitKey);
+		when(delegate.verify(anyString(), any(VaultSignatureVerificationRequest.class)))
+				.thenReturn(SignatureValidation.invalid());
+
+		LocalVerificationVaultTransitOperations operations = new LocalVerificationVaultTransitOperations(
+				delegate);
+
+		assertThat(operations.verify("my-key", PLAINTEXT, Signature.of("vault:v1:foo")))
+				.isFalse();
+		verify(delegate).verify(anyString(), any(VaultSignatureVerificationRequest.class));
+	}
+
+	@Test
+	void shouldVerifyHmacLocally() throws Exception {
+
+		byte[] hmacKey = new byte[32];
+
+		when(delegate.getKey("my-key")).thenReturn(transitKey);
+		when(transitKey.isExportable()).thenReturn(true);
+		when(delegate.exportKey("my-key", TransitKeyType.HMAC_KEY))
+				.thenReturn(rawTransitKey);
+		when(rawTransitKey.getKeys()).thenReturn(
+				Collections.singletonMap("1", Base64Utils.encodeToString(hmacKey)));
+
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(hmacKey, "HmacSHA256"));
+		Hmac hmac = Hmac.of("vault:v1:"
+				+ Base64Utils.encodeToString(mac.doFinal(PLAINTEXT.getPlaintext())));
+
+		LocalVerificationVaultTransitOperations operations = new LocalVerificationVaultTransitOperations(
+				delegate);
+		operations.setVerifyHmacLocally(true);
+
+		assertThat(operations.verify("my-key", VaultSignatureVerificationRequest
+				.create(PLAINTEXT, hmac)).isValid()).isTrue();
+		assertThat(operations.verify("my-key", VaultSignatureVerificationRequest
+				.create(Plaintext.of("other"), hmac)).isValid()).isFalse();
+	}
+
+	private void mockKey(String type, String publicKey) {
+
+		Map<String, Object> version = Collections.singletonMap("public_key", publicKey);
+
+		when(delegate.getKey("my-key")).thenReturn(transitKey);
+		when(transitKey.getType()).thenReturn(type);
+		when(transitKey.supportsSigning()).thenReturn(true);
+		when(transitKey.getKeys()).thenReturn(Collections.singletonMap("1", version));
+	}
+
+	private static KeyPair generateKeyPair(String algorithm, int size)
+			throws Exception {
+
+		KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm);
+		generator.initialize(size);
+		return generator.generateKeyPair();
+	}
+
+	private static Signature sign(KeyPair keyPair, String algorithm) throws Exception {
+
+		java.security.Signature signer = java.security.Signature.getInstance(algorithm);
+		signer.initSign(keyPair.getPrivate());
+		signer.update(PLAINTEXT.getPlaintext());
+
+		return Signature.of("vault:v1:" + Base64Utils.encodeToString(signer.sign()));
+	}
+
+	private static String toPem(byte[] encoded) {
+		return "-----BEGIN PUBLIC KEY-----\n" + Base64Utils.encodeToString(encoded)
+				+ "\n-----END PUBLIC KEY-----\n";
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.vault.core.VaultKeyValueOperationsSupport.KeyValueBackend;
+import org.springframework.vault.core.VaultKeyValueAccessorUnitTests.Person;
+import org.springframework.vault.support.VaultResponse;
+import org.springframework.vault.support.Versioned;
+import org.springframework.vault.support.Versioned.Version;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for reactive Key-Value templates.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class ReactiveVaultKeyValueTemplateUnitTests {
+
+	@Mock
+	ReactiveVaultOperations vaultOperations;
+
+	List<ClientRequest> requests = new ArrayList<>();
+
+	Queue<ClientResponse> responses = new ConcurrentLinkedQueue<>();
+
+	@Test
+	void shouldReadTypedKeyValue1Secret() {
+
+		mockSessionClient();
+		responses.add(response(HttpStatus.OK,
+				"{\"request_id\":\"1234\",\"data\":{\"firstname\":\"Walter\"}}"));
+
+		ReactiveVaultKeyValueOperations operations = new ReactiveVaultKeyValue1Template(
+				vaultOperations, "secret");
+
+		operations.get("walter", Person.class).as(StepVerifier::create)
+				.assertNext(actual -> {
+					assertThat(actual.getRequestId()).isEqualTo("1234");
+					assertThat(actual.getRequiredData().getFirstname())
+							.isEqualTo("Walter");
+				}).verifyComplete();
+
+		assertThat(requests.get(0).url().getPath()).isEqualTo("secret/walter");
+	}
+
+	@Test
+	void shouldReadKeyValue2Secret() {
+
+		mockSessionClient();
+		responses.add(response(HttpStatus.OK,
+				VaultKeyValueAccessorUnitTests.KV_2_RESPONSE));
+
+		ReactiveVaultKeyValueOperations operations = new ReactiveVaultKeyValue2Template(
+				vaultOperations, "secret");
+
+		operations.get("walter").as(StepVerifier::create).assertNext(actual -> {
+
+			assertThat(actual.getRequiredData()).containsEntry("firstname", "Walter")
+					.hasSize(2);
+		}).verifyComplete();
+
+		assertThat(requests.get(0).url().getPath()).isEqualTo("secret/data/walter");
+	}
+
+	@Test
+	void shouldReadAbsentSecret() {
+
+		mockSessionClient();
+		responses.add(response(HttpStatus.NOT_FOUND, "{\"errors\":[]}"));
+
+		ReactiveVaultKeyValueOperations operations = new ReactiveVaultKeyValue2Template(
+				vaultOperations, "secret");
+
+		operations.get("walter").as(StepVerifier::create).verifyComplete();
+	}
+
+	@Test
+	void shouldReadTypedVersionedSecret() {
+
+		mockSessionClient();
+		responses.add(response(HttpStatus.OK,
+				VaultKeyValueAccessorUnitTests.KV_2_RESPONSE));
+
+		ReactiveVaultVersionedKeyValueOperations operations = new ReactiveVaultVersionedKeyValueTemplate(
+				vaultOperations, "secret");
+
+		operations.get("walter", Version.from(2), Person.class)
+				.as(StepVerifier::create).assertNext(actual -> {
+
+					assertThat(actual.getRequiredData().getLastname())
+							.isEqualTo("White");
+					assertThat(actual.getVersion()).isEqualTo(Version.from(2));
+				}).verifyComplete();
+
+		assertThat(requests.get(0).url().toString())
+				.isEqualTo("secret/data/walter?version=2");
+	}
+
+	@Test
+	void shouldReadDeletedVersionedSecret() {
+
+		mockSessionClient();
+		responses.add(response(HttpStatus.NOT_FOUND, "{\"data\":{\"data\":null,"
+				+ "\"metadata\":{\"created_time\":\"2019-01-01T00:00:00.000000Z\","
+				+ "\"deletion_time\":\"2019-01-02T00:00:00.000000Z\","
+				+ "\"destroyed\":false,\"version\":3}}}"));
+
+		ReactiveVaultVersionedKeyValueOperations operations = new ReactiveVaultVersionedKeyValueTemplate(
+				vaultOperations, "secret");
+
+		operations.get("walter").as(StepVerifier::create).assertNext(actual -> {
+
+			assertThat(actual.hasData()).isFalse();
+			assertThat(actual.getRequiredMetadata().isDeleted()).isTrue();
+		}).verifyComplete();
+	}
+
+	@Test
+	void shouldWriteVersionedSecret() {
+
+		Map<String, Object> metadata = new HashMap<>();
+		metadata.put("created_time", "2019-01-01T00:00:00.000000Z");
+		metadata.put("version", 4);
+
+		VaultResponse response = new VaultResponse();
+		response.setData(metadata);
+		when(vaultOperations.write(eq("secret/data/walter"), any()))
+				.thenReturn(Mono.just(response));
+
+		ReactiveVaultVersionedKeyValueOperations operations = new ReactiveVaultVersionedKeyValueTemplate(
+				vaultOperations, "secret");
+
+		operations.put("walter", Versioned.create("value", Version.from(3)))
+				.as(StepVerifier::create)
+				.assertNext(actual -> assertThat(actual.getVersion())
+						.isEqualTo(Version.from(4)))
+				.verifyComplete();
+	}
+
+	@Test
+	void shouldListKeyValue2Metadata() {
+
+		when(vaultOperations.list("secret/metadata/"))
+				.thenReturn(Flux.just("walter", "jesse"));
+
+		ReactiveVaultKeyValueOperations operations = new ReactiveVaultKeyValue2Template(
+				vaultOperations, "secret");
+
+		operations.list("/").as(StepVerifier::create).expectNext("walter", "jesse")
+				.verifyComplete();
+
+		verify(vaultOperations).list("secret/metadata/");
+		assertThat(operations.getApiVersion()).isEqualTo(KeyValueBackend.KV_2);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void mockSessionClient() {
+
+		WebClient webClient = WebClient.builder().exchangeFunction(request -> {
+
+			requests.add(request);
+			return Mono.justOrEmpty(responses.poll());
+		}).build();
+
+		when(vaultOperations.doWithSession(any())).thenAnswer(
+				invocation -> ((Function<WebClient, ?>) invocation.getArgument(0))
+						.apply(webClient));
+	}
+
+	private static ClientResponse response(HttpStatus status, String body) {
+
+		return ClientResponse.create(status)
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.body(body).build();
+	}
+}
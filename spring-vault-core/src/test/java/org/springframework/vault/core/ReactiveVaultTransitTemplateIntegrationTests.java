@@ -0,0 +1,219 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.vault.support.Ciphertext;
+import org.springframework.vault.support.Plaintext;
+import org.springframework.vault.support.Signature;
+import org.springframework.vault.support.VaultMount;
+import org.springframework.vault.support.VaultTransitKeyConfiguration;
+import org.springframework.vault.support.VaultTransitKeyCreationRequest;
+import org.springframework.vault.util.IntegrationTestSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link ReactiveVaultTransitTemplate} through
+ * {@link ReactiveVaultTransitOperations}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = VaultIntegrationTestConfiguration.class)
+class ReactiveVaultTransitTemplateIntegrationTests extends IntegrationTestSupport {
+
+	@Autowired
+	VaultOperations vaultOperations;
+
+	@Autowired
+	ReactiveVaultOperations reactiveVaultOperations;
+
+	ReactiveVaultTransitOperations transitOperations;
+
+	@BeforeEach
+	void before() {
+
+		transitOperations = reactiveVaultOperations.opsForTransit();
+
+		if (!vaultOperations.opsForSys().getMounts().containsKey("transit/")) {
+			vaultOperations.opsForSys().mount("transit", VaultMount.create("transit"));
+		}
+
+		removeKeys();
+	}
+
+	@AfterEach
+	void tearDown() {
+		removeKeys();
+	}
+
+	private void removeKeys() {
+
+		VaultTransitOperations blocking = vaultOperations.opsForTransit();
+
+		for (String keyName : blocking.getKeys()) {
+
+			blocking.configureKey(keyName,
+					VaultTransitKeyConfiguration.builder().deletionAllowed(true).build());
+			blocking.deleteKey(keyName);
+		}
+	}
+
+	@Test
+	void createKeyShouldCreateKey() {
+
+		transitOperations.createKey("mykey").as(StepVerifier::create).verifyComplete();
+
+		transitOperations.getKey("mykey").as(StepVerifier::create)
+				.consumeNextWith(actual -> {
+					assertThat(actual.getType()).isEqualTo("aes256-gcm96");
+					assertThat(actual.getLatestVersion()).isEqualTo(1);
+				}).verifyComplete();
+	}
+
+	@Test
+	void getKeyShouldReturnEmptyForAbsentKey() {
+		transitOperations.getKey("absent").as(StepVerifier::create).verifyComplete();
+	}
+
+	@Test
+	void getKeysShouldReturnKeyNames() {
+
+		transitOperations.createKey("mykey").as(StepVerifier::create).verifyComplete();
+
+		transitOperations.getKeys().as(StepVerifier::create).expectNext("mykey")
+				.verifyComplete();
+	}
+
+	@Test
+	void rotateShouldIncrementKeyVersion() {
+
+		transitOperations.createKey("mykey")
+				.then(transitOperations.rotate("mykey"))
+				.then(transitOperations.getKey("mykey")).as(StepVerifier::create)
+				.consumeNextWith(
+						actual -> assertThat(actual.getLatestVersion()).isEqualTo(2))
+				.verifyComplete();
+	}
+
+	@Test
+	void encryptAndDecryptShouldRoundtrip() {
+
+		transitOperations.createKey("mykey").as(StepVerifier::create).verifyComplete();
+
+		transitOperations.encrypt("mykey", "hello-world")
+				.flatMap(ciphertext -> transitOperations.decrypt("mykey", ciphertext))
+				.as(StepVerifier::create).expectNext("hello-world").verifyComplete();
+	}
+
+	@Test
+	void encryptAndDecryptPlaintextShouldRoundtrip() {
+
+		transitOperations.createKey("mykey").as(StepVerifier::create).verifyComplete();
+
+		transitOperations.encrypt("mykey", Plaintext.of("hello-world"))
+				.flatMap(ciphertext -> transitOperations.decrypt("mykey", ciphertext))
+				.map(Plaintext::asString).as(StepVerifier::create)
+				.expectNext("hello-world").verifyComplete();
+	}
+
+	@Test
+	void batchEncryptShouldReturnResultsInOrder() {
+
+		transitOperations.createKey("mykey").as(StepVerifier::create).verifyComplete();
+
+		List<Plaintext> batch = Arrays.asList(Plaintext.of("one"), Plaintext.of("two"));
+
+		List<Ciphertext> ciphertexts = transitOperations.encrypt("mykey", batch)
+				.map(result -> result.get()).collectList().block();
+
+		transitOperations.decrypt("mykey", ciphertexts)
+				.map(result -> result.get().asString()).as(StepVerifier::create)
+				.expectNext("one", "two").verifyComplete();
+	}
+
+	@Test
+	void rewrapShouldCreateNewCiphertext() {
+
+		transitOperations.createKey("mykey").as(StepVerifier::create).verifyComplete();
+
+		String ciphertext = transitOperations.encrypt("mykey", "hello-world").block();
+
+		transitOperations.rotate("mykey")
+				.then(transitOperations.rewrap("mykey", ciphertext))
+				.as(StepVerifier::create)
+				.consumeNextWith(actual -> assertThat(actual).startsWith("vault:v2:"))
+				.verifyComplete();
+	}
+
+	@Test
+	void rewrapShouldSkipCiphertextWithLatestVersion() {
+
+		transitOperations.createKey("mykey").as(StepVerifier::create).verifyComplete();
+
+		Ciphertext v1 = transitOperations.encrypt("mykey", Plaintext.of("one")).block();
+		transitOperations.rotate("mykey").as(StepVerifier::create).verifyComplete();
+		Ciphertext v2 = transitOperations.encrypt("mykey", Plaintext.of("two")).block();
+
+		transitOperations.rewrap("mykey", Flux.just(v1, v2, v1), 2, 2)
+				.map(result -> result.get().getCiphertext()).as(StepVerifier::create)
+				.consumeNextWith(actual -> assertThat(actual).startsWith("vault:v2:")
+						.isNotEqualTo(v1.getCiphertext()))
+				.expectNext(v2.getCiphertext())
+				.consumeNextWith(actual -> assertThat(actual).startsWith("vault:v2:"))
+				.verifyComplete();
+	}
+
+	@Test
+	void signAndVerifyShouldSucceed() {
+
+		transitOperations
+				.createKey("ecdsa-key",
+						VaultTransitKeyCreationRequest.ofKeyType("ecdsa-p256"))
+				.as(StepVerifier::create).verifyComplete();
+
+		Plaintext plaintext = Plaintext.of("hello-world");
+		Signature signature = transitOperations.sign("ecdsa-key", plaintext).block();
+
+		transitOperations.verify("ecdsa-key", plaintext, signature)
+				.as(StepVerifier::create).expectNext(true).verifyComplete();
+	}
+
+	@Test
+	void hmacShouldCreateDigest() {
+
+		transitOperations.createKey("mykey").as(StepVerifier::create).verifyComplete();
+
+		transitOperations.getHmac("mykey", Plaintext.of("hello-world"))
+				.as(StepVerifier::create)
+				.consumeNextWith(
+						actual -> assertThat(actual.getHmac()).startsWith("vault:v1:"))
+				.verifyComplete();
+	}
+}
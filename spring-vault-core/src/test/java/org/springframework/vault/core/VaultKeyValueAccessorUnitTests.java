@@ -0,0 +1,192 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.vault.client.VaultClients.PrefixAwareUriTemplateHandler;
+import org.springframework.vault.support.VaultResponse;
+import org.springframework.vault.support.VaultResponseSupport;
+import org.springframework.vault.support.Versioned;
+import org.springframework.vault.support.Versioned.Version;
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Unit tests for {@link VaultKeyValueAccessor} implementations binding secrets from the
+ * response body.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class VaultKeyValueAccessorUnitTests {
+
+	static final String KV_2_RESPONSE = "{\"request_id\":\"1234\",\"data\":"
+			+ "{\"data\":{\"firstname\":\"Walter\",\"lastname\":\"White\"},"
+			+ "\"metadata\":{\"created_time\":\"2019-01-01T00:00:00.000000Z\","
+			+ "\"deletion_time\":\"\",\"destroyed\":false,\"version\":2}}}";
+
+	@Mock
+	VaultOperations vaultOperations;
+
+	MockRestServiceServer mockRest;
+
+	@BeforeEach
+	void before() {
+
+		RestTemplate restTemplate = new RestTemplate();
+		restTemplate.setUriTemplateHandler(new PrefixAwareUriTemplateHandler());
+
+		this.mockRest = MockRestServiceServer.createServer(restTemplate);
+
+		when(vaultOperations.doWithSession(any()))
+				.then(invocation -> invocation.<RestOperationsCallback<?>> getArgument(0)
+						.doWithRestOperations(restTemplate));
+	}
+
+	@Test
+	void shouldReadTypedKeyValue1Secret() {
+
+		mockRest.expect(requestTo("/secret/walter")).andExpect(method(HttpMethod.GET))
+				.andRespond(withSuccess().contentType(MediaType.APPLICATION_JSON)
+						.body("{\"request_id\":\"1234\",\"lease_duration\":10,"
+								+ "\"data\":{\"firstname\":\"Walter\",\"lastname\":\"White\"}}"));
+
+		VaultKeyValue1Template template = new VaultKeyValue1Template(vaultOperations,
+				"secret");
+
+		VaultResponseSupport<Person> response = template.get("walter", Person.class);
+
+		assertThat(response.getRequestId()).isEqualTo("1234");
+		assertThat(response.getLeaseDuration()).isEqualTo(10);
+		assertThat(response.getRequiredData().getFirstname()).isEqualTo("Walter");
+		assertThat(response.getRequiredData().getLastname()).isEqualTo("White");
+	}
+
+	@Test
+	void shouldReadKeyValue2SecretAsMap() {
+
+		mockRest.expect(requestTo("/secret/data/walter"))
+				.andExpect(method(HttpMethod.GET))
+				.andRespond(withSuccess().contentType(MediaType.APPLICATION_JSON)
+						.body(KV_2_RESPONSE));
+
+		VaultKeyValue2Template template = new VaultKeyValue2Template(vaultOperations,
+				"secret");
+
+		VaultResponse response = template.get("walter");
+
+		assertThat(response.getRequestId()).isEqualTo("1234");
+		assertThat(response.getRequiredData()).containsEntry("firstname", "Walter")
+				.containsEntry("lastname", "White").hasSize(2);
+	}
+
+	@Test
+	void shouldReadTypedKeyValue2Secret() {
+
+		mockRest.expect(requestTo("/secret/data/walter"))
+				.andExpect(method(HttpMethod.GET))
+				.andRespond(withSuccess().contentType(MediaType.APPLICATION_JSON)
+						.body(KV_2_RESPONSE));
+
+		VaultKeyValue2Template template = new VaultKeyValue2Template(vaultOperations,
+				"secret");
+
+		VaultResponseSupport<Person> response = template.get("walter", Person.class);
+
+		assertThat(response.getRequiredData().getFirstname()).isEqualTo("Walter");
+	}
+
+	@Test
+	void shouldReadTypedVersionedSecret() {
+
+		mockRest.expect(requestTo("/secret/data/walter?version=2"))
+				.andExpect(method(HttpMethod.GET))
+				.andRespond(withSuccess().contentType(MediaType.APPLICATION_JSON)
+						.body(KV_2_RESPONSE));
+
+		VaultVersionedKeyValueTemplate template = new VaultVersionedKeyValueTemplate(
+				vaultOperations, "secret");
+
+		Versioned<Person> versioned = template.get("walter", Version.from(2),
+				Person.class);
+
+		assertThat(versioned.getRequiredData().getLastname()).isEqualTo("White");
+		assertThat(versioned.getVersion()).isEqualTo(Version.from(2));
+	}
+
+	@Test
+	void shouldReadDeletedVersionedSecret() {
+
+		mockRest.expect(requestTo("/secret/data/walter"))
+				.andExpect(method(HttpMethod.GET))
+				.andRespond(withStatus(HttpStatus.NOT_FOUND)
+						.contentType(MediaType.APPLICATION_JSON)
+						.body("{\"data\":{\"data\":null,\"metadata\":"
+								+ "{\"created_time\":\"2019-01-01T00:00:00.000000Z\","
+								+ "\"deletion_time\":\"2019-01-02T00:00:00.000000Z\","
+								+ "\"destroyed\":false,\"version\":3}}}"));
+
+		VaultVersionedKeyValueTemplate template = new VaultVersionedKeyValueTemplate(
+				vaultOperations, "secret");
+
+		Versioned<Map<String, Object>> versioned = template.get("walter");
+
+		assertThat(versioned.hasData()).isFalse();
+		assertThat(versioned.getRequiredMetadata().isDeleted()).isTrue();
+		assertThat(versioned.getVersion()).isEqualTo(Version.from(3));
+	}
+
+	static class Person {
+
+		String firstname;
+
+		String lastname;
+
+		public String getFirstname() {
+			return firstname;
+		}
+
+		public void setFirstname(String firstname) {
+			this.firstname = firstname;
+		}
+
+		public String getLastname() {
+			return lastname;
+		}
+
+		public void setLastname(String lastname) {
+			this.lastname = lastname;
+		}
+	}
+}
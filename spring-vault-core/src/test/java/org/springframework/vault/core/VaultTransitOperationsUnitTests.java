@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.vault.VaultException;
+import org.springframework.vault.support.Ciphertext;
+import org.springframework.vault.support.VaultEncryptionResult;
+import org.springframework.vault.support.VaultTransitContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for default methods of {@link VaultTransitOperations}.
+ *
+ * @author Mark Paluch
+ */
+class VaultTransitOperationsUnitTests {
+
+	VaultTransitOperations operations = mock(TransitOperationsStub.class,
+			CALLS_REAL_METHODS);
+
+	@Test
+	void batchRewrapShouldRewrapItemsIndividually() {
+
+		VaultTransitContext context = VaultTransitContext.fromContext("ctx".getBytes());
+
+		doReturn("vault:v2:one").when(operations).rewrap("my-key", "vault:v1:one",
+				context);
+		doThrow(new VaultException("invalid ciphertext")).when(operations)
+				.rewrap("my-key", "vault:v1:two", VaultTransitContext.empty());
+
+		List<VaultEncryptionResult> results = operations.rewrap("my-key",
+				Arrays.asList(Ciphertext.of("vault:v1:one").with(context),
+						Ciphertext.of("vault:v1:two")));
+
+		assertThat(results).hasSize(2);
+		assertThat(results.get(0).get().getCiphertext()).isEqualTo("vault:v2:one");
+		assertThat(results.get(0).get().getContext()).isEqualTo(context);
+		assertThat(results.get(1).isSuccessful()).isFalse();
+		assertThat(results.get(1).getCause()).hasMessageContaining("invalid ciphertext");
+	}
+
+	/**
+	 * Class inheriting default methods without overriding them.
+	 */
+	abstract static class TransitOperationsStub implements VaultTransitOperations {
+	}
+}
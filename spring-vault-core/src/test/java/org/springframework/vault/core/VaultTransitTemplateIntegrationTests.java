@@ -391,6 +391,26 @@ class VaultTransitTemplateIntegrationTests extends IntegrationTestSupport {
 		assertThat(rewrapped).startsWith("vault:v2:");
 	}
 
+	@Test
+	@RequiresVaultVersion(BATCH_INTRODUCED_IN_VERSION)
+	void shouldBatchRewrap() {
+
+		transitOperations.createKey("mykey");
+
+		List<Ciphertext> ciphertexts = Arrays.asList(
+				transitOperations.encrypt("mykey", Plaintext.of("one")),
+				transitOperations.encrypt("mykey", Plaintext.of("two")));
+		transitOperations.rotate("mykey");
+
+		List<VaultEncryptionResult> rewrapped = transitOperations.rewrap("mykey",
+				ciphertexts);
+
+		assertThat(rewrapped).extracting(result -> result.get().getCiphertext())
+				.allMatch(ciphertext -> ciphertext.startsWith("vault:v2:"));
+		assertThat(transitOperations.decrypt("mykey", rewrapped.get(1).get()).asString())
+				.isEqualTo("two");
+	}
+
 	@Test
 	void shouldEncryptBinaryPlaintext() {
 
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.lease;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.vault.core.lease.RenewalScheduler.ScheduledRenewal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link BatchingRenewalScheduler}.
+ *
+ * @author Mark Paluch
+ */
+class BatchingRenewalSchedulerUnitTests {
+
+	List<Runnable> scheduled = new ArrayList<>();
+
+	List<Runnable> canceled = new ArrayList<>();
+
+	List<Runnable> submitted = new ArrayList<>();
+
+	List<String> renewed = new ArrayList<>();
+
+	RenewalScheduler delegate = (task, delay) -> {
+		scheduled.add(task);
+		return () -> canceled.add(task);
+	};
+
+	BatchingRenewalScheduler scheduler = new BatchingRenewalScheduler(delegate,
+			Duration.ofSeconds(10), submitted::add, 2);
+
+	@Test
+	void shouldRenewLeasesDueWithinWindowTogether() {
+
+		scheduler.schedule(() -> renewed.add("a"), Duration.ofSeconds(30));
+		scheduler.schedule(() -> renewed.add("b"), Duration.ofSeconds(35));
+		scheduler.schedule(() -> renewed.add("c"), Duration.ofSeconds(60));
+
+		scheduled.get(0).run();
+
+		submitted.forEach(Runnable::run);
+
+		assertThat(renewed).containsExactly("a", "b");
+		assertThat(canceled).containsExactly(scheduled.get(1));
+		assertThat(submitted).hasSize(1);
+
+		scheduled.get(1).run();
+		assertThat(renewed).containsExactly("a", "b");
+
+		scheduled.get(2).run();
+		assertThat(renewed).containsExactly("a", "b", "c");
+	}
+
+	@Test
+	void shouldNotRenewCanceledLease() {
+
+		scheduler.schedule(() -> renewed.add("a"), Duration.ofSeconds(30));
+		ScheduledRenewal renewal = scheduler.schedule(() -> renewed.add("b"),
+				Duration.ofSeconds(31));
+
+		renewal.cancel();
+		scheduled.get(0).run();
+		scheduled.get(1).run();
+
+		assertThat(renewed).containsExactly("a");
+		assertThat(canceled).containsExactly(scheduled.get(1));
+		assertThat(submitted).isEmpty();
+	}
+
+	@Test
+	void shouldRunEachLeaseOnlyOnce() {
+
+		scheduler.schedule(() -> renewed.add("a"), Duration.ofSeconds(30));
+		scheduler.schedule(() -> renewed.add("b"), Duration.ofSeconds(30));
+
+		scheduled.get(1).run();
+		scheduled.get(0).run();
+
+		submitted.forEach(Runnable::run);
+
+		assertThat(renewed).containsExactlyInAnyOrder("a", "b");
+	}
+}
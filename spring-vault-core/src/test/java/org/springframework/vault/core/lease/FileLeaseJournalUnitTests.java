@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.lease;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collections;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.vault.core.lease.domain.Lease;
+import org.springframework.vault.core.lease.domain.RequestedSecret;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link FileLeaseJournal}.
+ *
+ * @author Mark Paluch
+ */
+class FileLeaseJournalUnitTests {
+
+	@TempDir
+	Path directory;
+
+	Path file;
+
+	SecretKey key;
+
+	RequestedSecret first = RequestedSecret.renewable("database/creds/first");
+
+	RequestedSecret second = RequestedSecret.rotating("database/creds/second");
+
+	Lease lease = Lease.of("lease", Duration.ofSeconds(100), true);
+
+	@BeforeEach
+	void before() throws Exception {
+
+		file = directory.resolve("leases.journal");
+
+		KeyGenerator generator = KeyGenerator.getInstance("AES");
+		generator.init(128);
+		key = generator.generateKey();
+	}
+
+	@Test
+	void shouldRestoreEntries() throws Exception {
+
+		FileLeaseJournal journal = create(key);
+		journal.put(first, lease, Collections.singletonMap("username", "first"));
+		journal.put(second, lease, Collections.singletonMap("username", "second"));
+		journal.remove(second);
+		journal.destroy();
+
+		FileLeaseJournal restored = create(key);
+
+		LeaseJournal.Entry entry = restored.get(first);
+		assertThat(entry).isNotNull();
+		assertThat(entry.getLease().getLeaseId()).isEqualTo("lease");
+		assertThat(entry.getLease().getLeaseDuration()).isEqualTo(Duration.ofSeconds(100));
+		assertThat(entry.getLease().isRenewable()).isTrue();
+		assertThat(entry.getSecrets()).containsEntry("username", "first");
+		assertThat(restored.get(second)).isNull();
+
+		restored.destroy();
+	}
+
+	@Test
+	void shouldEncryptRecords() throws Exception {
+
+		FileLeaseJournal journal = create(key);
+		journal.put(first, lease, Collections.singletonMap("password", "top-secret"));
+		journal.destroy();
+
+		String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+
+		assertThat(content).doesNotContain("top-secret").doesNotContain("lease");
+	}
+
+	@Test
+	void shouldDiscardRecordsEncryptedWithDifferentKey() throws Exception {
+
+		FileLeaseJournal journal = create(key);
+		journal.put(first, lease, Collections.singletonMap("username", "first"));
+		journal.destroy();
+
+		KeyGenerator generator = KeyGenerator.getInstance("AES");
+		generator.init(128);
+
+		FileLeaseJournal restored = create(generator.generateKey());
+
+		assertThat(restored.get(first)).isNull();
+		assertThat(Files.size(file)).isZero();
+
+		restored.destroy();
+	}
+
+	@Test
+	void shouldIgnoreTruncatedTail() throws Exception {
+
+		FileLeaseJournal journal = create(key);
+		journal.put(first, lease, Collections.singletonMap("username", "first"));
+		journal.destroy();
+
+		Files.write(file, new byte[] { 0, 0, 1, 0, 42 }, StandardOpenOption.APPEND);
+
+		FileLeaseJournal restored = create(key);
+
+		assertThat(restored.get(first)).isNotNull();
+
+		restored.put(second, lease, Collections.emptyMap());
+		restored.destroy();
+
+		FileLeaseJournal reopened = create(key);
+
+		assertThat(reopened.get(first)).isNotNull();
+		assertThat(reopened.get(second)).isNotNull();
+
+		reopened.destroy();
+	}
+
+	@Test
+	void shouldCompactJournal() throws Exception {
+
+		FileLeaseJournal journal = new FileLeaseJournal(file, key);
+		journal.setCompactionThreshold(2);
+		journal.afterPropertiesSet();
+
+		journal.put(first, lease, Collections.singletonMap("username", "first"));
+		long size = Files.size(file);
+
+		for (int i = 0; i < 10; i++) {
+			journal.put(first, lease, Collections.singletonMap("username", "first"));
+		}
+
+		assertThat(Files.size(file)).isLessThanOrEqualTo(size * 3);
+		journal.destroy();
+
+		assertThat(create(key).get(first)).isNotNull();
+	}
+
+	private FileLeaseJournal create(SecretKey key) throws Exception {
+
+		FileLeaseJournal journal = new FileLeaseJournal(file, key);
+		journal.afterPropertiesSet();
+
+		return journal;
+	}
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.lease;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.vault.core.ReactiveVaultOperations;
+import org.springframework.vault.core.lease.domain.RequestedSecret;
+import org.springframework.vault.core.lease.event.AfterSecretLeaseRenewedEvent;
+import org.springframework.vault.core.lease.event.AfterSecretLeaseRevocationEvent;
+import org.springframework.vault.core.lease.event.BeforeSecretLeaseRevocationEvent;
+import org.springframework.vault.core.lease.event.SecretLeaseCreatedEvent;
+import org.springframework.vault.core.lease.event.SecretLeaseErrorEvent;
+import org.springframework.vault.core.lease.event.SecretLeaseEvent;
+import org.springframework.vault.core.lease.event.SecretLeaseExpiredEvent;
+import org.springframework.vault.core.lease.event.SecretNotFoundEvent;
+import org.springframework.vault.support.VaultResponse;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ReactiveSecretLeaseContainer}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class ReactiveSecretLeaseContainerUnitTests {
+
+	@Mock
+	ReactiveVaultOperations vaultOperations;
+
+	VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+
+	Queue<ClientRequest> requests = new ConcurrentLinkedQueue<>();
+
+	Queue<ClientResponse> responses = new ConcurrentLinkedQueue<>();
+
+	List<SecretLeaseEvent> events = new ArrayList<>();
+
+	ReactiveSecretLeaseContainer container;
+
+	@BeforeEach
+	void before() throws Exception {
+
+		container = new ReactiveSecretLeaseContainer(vaultOperations, scheduler);
+		container.setLeaseEndpoints(LeaseEndpoints.SysLeases);
+		container.afterPropertiesSet();
+		container.events().subscribe(events::add);
+	}
+
+	@AfterEach
+	void after() {
+		scheduler.dispose();
+	}
+
+	@Test
+	void shouldPublishSecretNotFound() {
+
+		when(vaultOperations.read(anyString())).thenReturn(Mono.empty());
+
+		container.requestRenewableSecret("my-secret");
+
+		StepVerifier.create(container.start()).verifyComplete();
+
+		assertThat(events).hasSize(1).first().isInstanceOf(SecretNotFoundEvent.class);
+	}
+
+	@Test
+	void shouldObtainSecretsAndRenewLease() {
+
+		mockSecret("my-secret", createSecrets("my-lease", 100, true));
+		mockSessionClient();
+		responses.add(response(HttpStatus.OK,
+				"{\"lease_id\":\"my-lease\",\"lease_duration\":100,\"renewable\":true}"));
+
+		RequestedSecret secret = container.requestRenewableSecret("my-secret");
+
+		StepVerifier.create(container.start()).verifyComplete();
+
+		assertThat(events).hasSize(1);
+		SecretLeaseCreatedEvent created = (SecretLeaseCreatedEvent) events.get(0);
+		assertThat(created.getSource()).isEqualTo(secret);
+		assertThat(created.getSecrets()).containsEntry("key", "value");
+
+		scheduler.advanceTimeBy(Duration.ofSeconds(39));
+		assertThat(requests).isEmpty();
+
+		scheduler.advanceTimeBy(Duration.ofSeconds(1));
+
+		assertThat(requests).hasSize(1);
+		assertThat(requests.peek().url().toString()).isEqualTo("sys/leases/renew");
+		assertThat(events).hasSize(2).last()
+				.isInstanceOf(AfterSecretLeaseRenewedEvent.class);
+	}
+
+	@Test
+	void shouldRotateSecretOnExpiredLease() {
+
+		VaultResponse first = createSecrets("first", 100, true);
+		VaultResponse second = createSecrets("second", 100, true);
+
+		when(vaultOperations.read("sys/internal/ui/mounts/my-secret"))
+				.thenReturn(Mono.empty());
+		when(vaultOperations.read("my-secret")).thenReturn(Mono.just(first),
+				Mono.just(second));
+		mockSessionClient();
+		responses.add(response(HttpStatus.BAD_REQUEST,
+				"{\"errors\":[\"lease not found or lease is not renewable\"]}"));
+
+		container.requestRotatingSecret("my-secret");
+		container.start().block();
+
+		scheduler.advanceTimeBy(Duration.ofSeconds(40));
+
+		assertThat(events).hasSize(4);
+		assertThat(events.get(1)).isInstanceOf(SecretLeaseExpiredEvent.class);
+		assertThat(events.get(2)).isInstanceOf(SecretLeaseCreatedEvent.class);
+		assertThat(events.get(2).getLease().getLeaseId()).isEqualTo("second");
+		assertThat(events.get(3)).isInstanceOf(SecretLeaseErrorEvent.class);
+		assertThat(((SecretLeaseErrorEvent) events.get(3)).getException())
+				.hasMessageContaining("Status 400");
+	}
+
+	@Test
+	void shouldRevokeLeasesOnShutdown() {
+
+		mockSecret("my-secret", createSecrets("my-lease", 100, true));
+		mockSessionClient();
+		responses.add(response(HttpStatus.NO_CONTENT, ""));
+
+		container.requestRenewableSecret("my-secret");
+		container.start().block();
+
+		StepVerifier.create(container.events()).then(() -> container.shutdown().block())
+				.expectNextMatches(BeforeSecretLeaseRevocationEvent.class::isInstance)
+				.expectNextMatches(AfterSecretLeaseRevocationEvent.class::isInstance)
+				.verifyComplete();
+
+		assertThat(requests.poll().url().toString()).isEqualTo("sys/leases/revoke");
+
+		scheduler.advanceTimeBy(Duration.ofMinutes(5));
+		assertThat(requests).isEmpty();
+	}
+
+	private void mockSecret(String path, VaultResponse response) {
+
+		when(vaultOperations.read("sys/internal/ui/mounts/" + path))
+				.thenReturn(Mono.empty());
+		when(vaultOperations.read(path)).thenReturn(Mono.just(response));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void mockSessionClient() {
+
+		WebClient webClient = WebClient.builder().exchangeFunction(request -> {
+
+			requests.add(request);
+			return Mono.justOrEmpty(responses.poll());
+		}).build();
+
+		when(vaultOperations.doWithSession(any())).thenAnswer(
+				invocation -> ((Function<WebClient, ?>) invocation.getArgument(0))
+						.apply(webClient));
+	}
+
+	private static ClientResponse response(HttpStatus status, String body) {
+
+		return ClientResponse.create(status)
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.body(body).build();
+	}
+
+	private static VaultResponse createSecrets(String leaseId, int leaseDuration,
+			boolean renewable) {
+
+		VaultResponse secrets = new VaultResponse();
+		secrets.setLeaseId(leaseId);
+		secrets.setLeaseDuration(leaseDuration);
+		secrets.setRenewable(renewable);
+		secrets.setData(Collections.singletonMap("key", "value"));
+		return secrets;
+	}
+}
@@ -16,11 +16,14 @@
 package org.springframework.vault.core.lease;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -41,6 +44,7 @@ import org.springframework.vault.core.RestOperationsCallback;
 import org.springframework.vault.core.VaultOperations;
 import org.springframework.vault.core.lease.domain.Lease;
 import org.springframework.vault.core.lease.domain.RequestedSecret;
+import org.springframework.vault.core.lease.event.AfterSecretLeaseRenewedEvent;
 import org.springframework.vault.core.lease.event.AfterSecretLeaseRevocationEvent;
 import org.springframework.vault.core.lease.event.BeforeSecretLeaseRevocationEvent;
 import org.springframework.vault.core.lease.event.LeaseListenerAdapter;
@@ -55,6 +59,7 @@ import org.springframework.web.client.HttpClientErrorException;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -121,6 +126,28 @@ class SecretLeaseContainerUnitTests {
 		verifyZeroInteractions(leaseListenerAdapter);
 	}
 
+	@Test
+	void shouldDispatchEventsAsynchronously() {
+
+		List<Runnable> tasks = new ArrayList<>();
+
+		secretLeaseContainer.setAsyncDispatch(true);
+		secretLeaseContainer.setDispatchExecutor(tasks::add);
+		secretLeaseContainer.start();
+
+		secretLeaseContainer.requestRenewableSecret(requestedSecret.getPath());
+
+		verifyZeroInteractions(leaseListenerAdapter);
+		assertThat(secretLeaseContainer.getAsyncListeners()).hasSize(1)
+				.allMatch(it -> it.getQueueDepth() == 1);
+
+		tasks.forEach(Runnable::run);
+
+		verify(leaseListenerAdapter).onLeaseEvent(any(SecretNotFoundEvent.class));
+		assertThat(secretLeaseContainer.getAsyncListeners())
+				.allMatch(it -> it.getProcessedEvents() == 1);
+	}
+
 	@Test
 	void shouldWorkIfNoSecretsFound() {
 
@@ -212,6 +239,125 @@ class SecretLeaseContainerUnitTests {
 		verify(taskScheduler).schedule(any(Runnable.class), any(Trigger.class));
 	}
 
+	@Test
+	void shouldScheduleRenewalUsingRenewalScheduler() throws Exception {
+
+		RenewalScheduler renewalScheduler = mock(RenewalScheduler.class);
+		when(renewalScheduler.schedule(any(Runnable.class), any(Duration.class)))
+				.thenReturn(() -> {
+				});
+		when(vaultOperations.read(requestedSecret.getPath())).thenReturn(createSecrets());
+
+		SecretLeaseContainer container = new SecretLeaseContainer(vaultOperations,
+				renewalScheduler);
+		container.afterPropertiesSet();
+		container.addRequestedSecret(requestedSecret);
+		container.start();
+
+		verify(renewalScheduler).schedule(any(Runnable.class),
+				eq(Duration.ofSeconds(40)));
+		verifyZeroInteractions(taskScheduler);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void shouldRenewLeasesInBatch() throws Exception {
+
+		RequestedSecret other = RequestedSecret.renewable("other-secret");
+
+		when(taskScheduler.schedule(any(Runnable.class), any(Trigger.class)))
+				.thenReturn(scheduledFuture);
+		when(vaultOperations.read(requestedSecret.getPath())).thenReturn(createSecrets());
+		when(vaultOperations.read(other.getPath())).thenReturn(createSecrets());
+		when(vaultOperations.doWithSession(any(RestOperationsCallback.class)))
+				.thenReturn(Lease.of("new_lease", Duration.ofSeconds(70), true));
+
+		SecretLeaseContainer container = new SecretLeaseContainer(vaultOperations,
+				taskScheduler);
+		container.setBatchRenewals(true);
+		container.addLeaseListener(leaseListenerAdapter);
+		container.addRequestedSecret(requestedSecret);
+		container.addRequestedSecret(other);
+		container.afterPropertiesSet();
+		container.start();
+
+		ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+		verify(taskScheduler, times(2)).schedule(captor.capture(), any(Trigger.class));
+
+		captor.getAllValues().get(0).run();
+
+		verify(scheduledFuture).cancel(false);
+		verify(vaultOperations, times(2))
+				.doWithSession(any(RestOperationsCallback.class));
+		verify(leaseListenerAdapter, times(2))
+				.onLeaseEvent(any(AfterSecretLeaseRenewedEvent.class));
+	}
+
+	@Test
+	void shouldObtainSecretsConcurrentlyAndDispatchEventsInOrder() throws Exception {
+
+		CountDownLatch latch = new CountDownLatch(3);
+		List<String> paths = Arrays.asList("first", "second", "third");
+
+		for (String path : paths) {
+			when(vaultOperations.read(path)).thenAnswer(invocation -> {
+
+				latch.countDown();
+				assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+
+				return path.equals("second") ? null
+						: createGenericSecrets(Collections.singletonMap("key", (Object) path));
+			});
+		}
+
+		SecretLeaseContainer container = new SecretLeaseContainer(vaultOperations,
+				taskScheduler);
+		container.setStartupConcurrency(4);
+		container.addLeaseListener(leaseListenerAdapter);
+		container.afterPropertiesSet();
+		paths.forEach(container::requestRenewableSecret);
+
+		container.start();
+
+		verify(leaseListenerAdapter, times(3)).onLeaseEvent(captor.capture());
+
+		assertThat(captor.getAllValues()).extracting(it -> it.getSource().getPath())
+				.containsExactlyElementsOf(paths);
+		assertThat(captor.getAllValues().get(1)).isInstanceOf(SecretNotFoundEvent.class);
+	}
+
+	@Test
+	void shouldObtainSecretsConcurrentlyWhenConcurrencyIsSetAfterInitialization()
+			throws Exception {
+
+		CountDownLatch latch = new CountDownLatch(2);
+		List<String> paths = Arrays.asList("first", "second");
+
+		for (String path : paths) {
+			when(vaultOperations.read(path)).thenAnswer(invocation -> {
+
+				latch.countDown();
+				assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+
+				return createGenericSecrets(Collections.singletonMap("key", (Object) path));
+			});
+		}
+
+		SecretLeaseContainer container = new SecretLeaseContainer(vaultOperations,
+				taskScheduler);
+		container.addLeaseListener(leaseListenerAdapter);
+		container.afterPropertiesSet();
+		container.setStartupConcurrency(2);
+		paths.forEach(container::requestRenewableSecret);
+
+		container.start();
+
+		verify(leaseListenerAdapter, times(2)).onLeaseEvent(captor.capture());
+
+		assertThat(captor.getAllValues()).extracting(it -> it.getSource().getPath())
+				.containsExactlyElementsOf(paths);
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	void shouldRenewLease() {
@@ -608,6 +754,90 @@ class SecretLeaseContainerUnitTests {
 				.onLeaseEvent(any(AfterSecretLeaseRevocationEvent.class));
 	}
 
+	@Test
+	void shouldRecordLeaseMetrics() throws Exception {
+
+		SimpleLeaseMetrics metrics = new SimpleLeaseMetrics();
+		secretLeaseContainer.setLeaseMetrics(metrics);
+
+		prepareRenewal();
+
+		when(vaultOperations.doWithSession(any(RestOperationsCallback.class)))
+				.thenReturn(Lease.of("new_lease", Duration.ofSeconds(70), true))
+				.thenThrow(new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+
+		secretLeaseContainer.start();
+
+		assertThat(metrics.getSecretsObtained()).isEqualTo(1);
+		assertThat(metrics.getTimeToExpiry(requestedSecret))
+				.isBetween(Duration.ofSeconds(90), Duration.ofSeconds(100));
+
+		assertThat(secretLeaseContainer.renew(requestedSecret)).isTrue();
+
+		assertThat(metrics.getLeasesRenewed()).isEqualTo(1);
+		assertThat(metrics.getTimeToExpiry(requestedSecret))
+				.isLessThanOrEqualTo(Duration.ofSeconds(70));
+
+		assertThat(secretLeaseContainer.renew(requestedSecret)).isTrue();
+
+		assertThat(metrics.getRenewalFailuresDropped()).isEqualTo(1);
+		assertThat(metrics.getTimeToExpiry(requestedSecret)).isNull();
+	}
+
+	@Test
+	void shouldReadoptJournaledLease() throws Exception {
+
+		LeaseJournal journal = mock(LeaseJournal.class);
+		Map<String, Object> journaled = Collections.singletonMap("key", "journaled");
+
+		when(journal.get(requestedSecret)).thenReturn(new LeaseJournal.Entry(
+				Lease.of("lease", Duration.ofSeconds(100), true), journaled,
+				Instant.now()));
+		when(taskScheduler.schedule(any(Runnable.class), any(Trigger.class)))
+				.thenReturn(scheduledFuture);
+		when(vaultOperations.doWithSession(any(RestOperationsCallback.class)))
+				.thenReturn(Lease.of("lease", Duration.ofSeconds(100), true));
+
+		secretLeaseContainer.setLeaseJournal(journal);
+		secretLeaseContainer.addRequestedSecret(requestedSecret);
+		secretLeaseContainer.start();
+
+		verify(vaultOperations, never()).read(any());
+		verify(leaseListenerAdapter).onLeaseEvent(captor.capture());
+
+		SecretLeaseCreatedEvent event = (SecretLeaseCreatedEvent) captor.getValue();
+		assertThat(event.getLease().getLeaseId()).isEqualTo("lease");
+		assertThat(event.getSecrets()).isEqualTo(journaled);
+
+		verify(journal).put(eq(requestedSecret), eq(event.getLease()), eq(journaled));
+
+		secretLeaseContainer.destroy();
+
+		verify(leaseListenerAdapter, never())
+				.onLeaseEvent(any(BeforeSecretLeaseRevocationEvent.class));
+	}
+
+	@Test
+	void shouldRequestSecretsIfJournaledLeaseIsExpired() {
+
+		LeaseJournal journal = mock(LeaseJournal.class);
+
+		when(journal.get(requestedSecret)).thenReturn(new LeaseJournal.Entry(
+				Lease.of("old", Duration.ofSeconds(100), true),
+				Collections.singletonMap("key", "journaled"),
+				Instant.now().minusSeconds(90)));
+
+		secretLeaseContainer.setLeaseJournal(journal);
+		prepareRenewal();
+		secretLeaseContainer.start();
+
+		verify(vaultOperations, never())
+				.doWithSession(any(RestOperationsCallback.class));
+		verify(journal).remove(requestedSecret);
+		verify(journal).put(eq(requestedSecret), any(Lease.class),
+				eq(Collections.singletonMap("key", "value")));
+	}
+
 	@Test
 	void shouldNotRevokeSecretsWithoutLease() throws Exception {
 
@@ -651,6 +881,25 @@ class SecretLeaseContainerUnitTests {
 		assertThat(leaseCreatedEvent.getSecrets()).containsKey("key");
 	}
 
+	@Test
+	void shouldScheduleRenewalWithMillisecondPrecision() {
+
+		ArgumentCaptor<Trigger> triggerCaptor = ArgumentCaptor.forClass(Trigger.class);
+		when(taskScheduler.schedule(any(Runnable.class), triggerCaptor.capture()))
+				.thenReturn(scheduledFuture);
+
+		new SecretLeaseContainer.TaskSchedulerRenewalScheduler(taskScheduler)
+				.schedule(() -> {
+				}, Duration.ofMillis(1500));
+
+		long before = System.currentTimeMillis();
+		Date nextExecution = triggerCaptor.getValue().nextExecutionTime(null);
+		long after = System.currentTimeMillis();
+
+		assertThat(nextExecution.getTime()).isBetween(before + 1500, after + 1500);
+		assertThat(triggerCaptor.getValue().nextExecutionTime(null)).isNull();
+	}
+
 	@SuppressWarnings("unchecked")
 	private void prepareRenewal() {
 
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.lease;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.vault.core.lease.domain.Lease;
+import org.springframework.vault.core.lease.domain.RequestedSecret;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link SimpleLeaseMetrics}.
+ *
+ * @author Mark Paluch
+ */
+class SimpleLeaseMetricsUnitTests {
+
+	MutableClock clock = new MutableClock();
+
+	SimpleLeaseMetrics metrics = new SimpleLeaseMetrics(clock);
+
+	RequestedSecret first = RequestedSecret.renewable("first");
+
+	RequestedSecret second = RequestedSecret.renewable("second");
+
+	@Test
+	void shouldTrackTimeToExpiry() {
+
+		metrics.onSecretsObtained(first, Lease.of("a", Duration.ofSeconds(100), true));
+		metrics.onSecretsObtained(second, Lease.of("b", Duration.ofSeconds(50), true));
+
+		clock.advance(Duration.ofSeconds(20));
+
+		assertThat(metrics.getTimeToExpiry(first)).isEqualTo(Duration.ofSeconds(80));
+		assertThat(metrics.getMinTimeToExpiry()).isEqualTo(Duration.ofSeconds(30));
+		assertThat(metrics.getTimeToExpiry()).hasSize(2);
+
+		metrics.onLeaseRenewed(second, Lease.of("b", Duration.ofSeconds(100), true),
+				Duration.ofMillis(10));
+
+		assertThat(metrics.getMinTimeToExpiry()).isEqualTo(Duration.ofSeconds(80));
+
+		clock.advance(Duration.ofSeconds(200));
+
+		assertThat(metrics.getTimeToExpiry(first)).isEqualTo(Duration.ZERO);
+
+		metrics.onLeaseExpired(first, Lease.of("a", Duration.ofSeconds(100), true));
+
+		assertThat(metrics.getTimeToExpiry(first)).isNull();
+		assertThat(metrics.getLeasesExpired()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldCountRenewalOutcomes() {
+
+		Lease lease = Lease.of("a", Duration.ofSeconds(100), true);
+
+		metrics.onSecretsObtained(first, lease);
+		metrics.onLeaseRenewed(first, lease, Duration.ofMillis(10));
+		metrics.onLeaseRenewalFailed(first, lease, Duration.ofMillis(30),
+				new IllegalStateException(), false);
+
+		assertThat(metrics.getTimeToExpiry(first)).isNotNull();
+
+		metrics.onLeaseRenewalFailed(first, lease, Duration.ofMillis(20),
+				new IllegalStateException(), true);
+
+		assertThat(metrics.getSecretsObtained()).isEqualTo(1);
+		assertThat(metrics.getLeasesRenewed()).isEqualTo(1);
+		assertThat(metrics.getRenewalFailuresRetained()).isEqualTo(1);
+		assertThat(metrics.getRenewalFailuresDropped()).isEqualTo(1);
+		assertThat(metrics.getMeanRenewalDuration()).isEqualTo(Duration.ofMillis(20));
+		assertThat(metrics.getMaxRenewalDuration()).isEqualTo(Duration.ofMillis(30));
+		assertThat(metrics.getTimeToExpiry(first)).isNull();
+	}
+
+	static class MutableClock extends Clock {
+
+		Instant instant = Instant.ofEpochSecond(1000);
+
+		void advance(Duration duration) {
+			instant = instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
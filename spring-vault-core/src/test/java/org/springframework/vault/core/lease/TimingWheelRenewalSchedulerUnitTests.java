@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.lease;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.vault.core.lease.RenewalScheduler.ScheduledRenewal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link TimingWheelRenewalScheduler}.
+ *
+ * @author Mark Paluch
+ */
+class TimingWheelRenewalSchedulerUnitTests {
+
+	TimingWheelRenewalScheduler scheduler = new TimingWheelRenewalScheduler();
+
+	@BeforeEach
+	void before() {
+
+		scheduler.setTickDuration(Duration.ofMillis(10));
+		scheduler.setWheelSize(4);
+	}
+
+	@AfterEach
+	void after() throws Exception {
+		scheduler.destroy();
+	}
+
+	@Test
+	void shouldRunRenewalAfterDelay() throws Exception {
+
+		scheduler.afterPropertiesSet();
+
+		CountDownLatch latch = new CountDownLatch(1);
+		AtomicLong elapsed = new AtomicLong();
+		long start = System.nanoTime();
+
+		// 100ms span multiple wheel rotations
+		scheduler.schedule(() -> {
+			elapsed.set(System.nanoTime() - start);
+			latch.countDown();
+		}, Duration.ofMillis(100));
+
+		assertThat(scheduler.getPendingRenewals()).isEqualTo(1);
+		assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+		assertThat(TimeUnit.NANOSECONDS.toMillis(elapsed.get()))
+				.isGreaterThanOrEqualTo(100);
+		assertThat(scheduler.getPendingRenewals()).isZero();
+	}
+
+	@Test
+	void shouldNotRunCanceledRenewal() throws Exception {
+
+		scheduler.afterPropertiesSet();
+
+		AtomicInteger runs = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(1);
+
+		ScheduledRenewal renewal = scheduler.schedule(runs::incrementAndGet,
+				Duration.ofMillis(50));
+		scheduler.schedule(latch::countDown, Duration.ofMillis(100));
+
+		renewal.cancel();
+
+		assertThat(scheduler.getPendingRenewals()).isEqualTo(1);
+		assertThat(latch.await(2, TimeUnit.SECONDS)).isTrue();
+		assertThat(runs).hasValue(0);
+	}
+
+	@Test
+	void shouldLimitConcurrentRenewals() throws Exception {
+
+		scheduler.setMaxConcurrentRenewals(2);
+		scheduler.afterPropertiesSet();
+
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(20);
+
+		for (int i = 0; i < 20; i++) {
+			scheduler.schedule(() -> {
+
+				maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(5);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				active.decrementAndGet();
+				latch.countDown();
+			}, Duration.ZERO);
+		}
+
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(maxActive.get()).isEqualTo(2);
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.core.lease.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.vault.core.lease.domain.Lease;
+import org.springframework.vault.core.lease.domain.RequestedSecret;
+import org.springframework.vault.core.lease.event.AsyncLeaseListener.OverflowPolicy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AsyncLeaseListener}.
+ *
+ * @author Mark Paluch
+ */
+class AsyncLeaseListenerUnitTests {
+
+	RequestedSecret first = RequestedSecret.renewable("first");
+
+	RequestedSecret second = RequestedSecret.renewable("second");
+
+	List<Runnable> tasks = new ArrayList<>();
+
+	List<SecretLeaseEvent> received = new ArrayList<>();
+
+	@Test
+	void shouldDispatchEventsInOrderOnExecutor() {
+
+		AsyncLeaseListener listener = new AsyncLeaseListener(
+				(LeaseListener) received::add, tasks::add, 10, OverflowPolicy.BLOCK);
+
+		SecretLeaseEvent a = created(first);
+		SecretLeaseEvent b = created(second);
+
+		listener.onLeaseEvent(a);
+		listener.onLeaseEvent(b);
+
+		assertThat(received).isEmpty();
+		assertThat(listener.getQueueDepth()).isEqualTo(2);
+		assertThat(tasks).hasSize(1);
+
+		tasks.get(0).run();
+
+		assertThat(received).containsExactly(a, b);
+		assertThat(listener.getQueueDepth()).isZero();
+		assertThat(listener.getProcessedEvents()).isEqualTo(2);
+		assertThat(listener.getDroppedEvents()).isZero();
+	}
+
+	@Test
+	void shouldDropOldestEvent() {
+
+		AsyncLeaseListener listener = new AsyncLeaseListener(
+				(LeaseListener) received::add, tasks::add, 2, OverflowPolicy.DROP_OLDEST);
+
+		SecretLeaseEvent a = created(first);
+		SecretLeaseEvent b = created(first);
+		SecretLeaseEvent c = created(second);
+
+		listener.onLeaseEvent(a);
+		listener.onLeaseEvent(b);
+		listener.onLeaseEvent(c);
+
+		tasks.get(0).run();
+
+		assertThat(received).containsExactly(b, c);
+		assertThat(listener.getDroppedEvents()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldCoalesceEventsPerRequestedSecretWhenQueueIsFull() {
+
+		AsyncLeaseListener listener = new AsyncLeaseListener(
+				(LeaseListener) received::add, tasks::add, 2, OverflowPolicy.COALESCE);
+
+		SecretLeaseEvent a = renewed(first);
+		SecretLeaseEvent b = renewed(second);
+		SecretLeaseEvent c = renewed(first);
+
+		listener.onLeaseEvent(a);
+		listener.onLeaseEvent(b);
+		listener.onLeaseEvent(c);
+
+		tasks.get(0).run();
+
+		assertThat(received).containsExactly(c, b);
+		assertThat(listener.getDroppedEvents()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldNotCoalesceEventsWhenQueueHasCapacity() {
+
+		AsyncLeaseListener listener = new AsyncLeaseListener(
+				(LeaseListener) received::add, tasks::add, 10, OverflowPolicy.COALESCE);
+
+		SecretLeaseEvent a = renewed(first);
+		SecretLeaseEvent b = renewed(first);
+
+		listener.onLeaseEvent(a);
+		listener.onLeaseEvent(b);
+
+		tasks.get(0).run();
+
+		assertThat(received).containsExactly(a, b);
+		assertThat(listener.getDroppedEvents()).isZero();
+	}
+
+	@Test
+	void shouldNotCoalesceCreatedEvent() throws Exception {
+
+		List<Runnable> tasks = new CopyOnWriteArrayList<>();
+		AsyncLeaseListener listener = new AsyncLeaseListener(
+				(LeaseListener) received::add, tasks::add, 2, OverflowPolicy.COALESCE);
+
+		SecretLeaseEvent a = created(first);
+		SecretLeaseEvent b = renewed(second);
+		SecretLeaseEvent c = renewed(first);
+
+		listener.onLeaseEvent(a);
+		listener.onLeaseEvent(b);
+
+		// blocks until the queue has capacity
+		Thread publisher = new Thread(() -> listener.onLeaseEvent(c));
+		publisher.start();
+
+		tasks.get(0).run();
+		publisher.join();
+
+		for (int i = 1; i < tasks.size(); i++) {
+			tasks.get(i).run();
+		}
+
+		assertThat(received).containsExactly(a, b, c);
+		assertThat(listener.getDroppedEvents()).isZero();
+	}
+
+	@Test
+	void shouldDispatchErrorEvents() {
+
+		List<Exception> errors = new ArrayList<>();
+		AsyncLeaseListener listener = new AsyncLeaseListener(
+				(LeaseErrorListener) (event, exception) -> errors.add(exception),
+				tasks::add, 10, OverflowPolicy.BLOCK);
+
+		IllegalStateException exception = new IllegalStateException();
+
+		listener.onLeaseEvent(created(first));
+		listener.onLeaseError(created(first), exception);
+
+		tasks.forEach(Runnable::run);
+
+		assertThat(errors).containsExactly(exception);
+		assertThat(listener.getProcessedEvents()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldContinueAfterListenerFailure() {
+
+		AsyncLeaseListener listener = new AsyncLeaseListener((LeaseListener) event -> {
+			received.add(event);
+			throw new IllegalStateException();
+		}, tasks::add, 10, OverflowPolicy.BLOCK);
+
+		listener.onLeaseEvent(created(first));
+		listener.onLeaseEvent(created(second));
+
+		tasks.get(0).run();
+
+		assertThat(received).hasSize(2);
+		assertThat(listener.getProcessedEvents()).isEqualTo(2);
+	}
+
+	private SecretLeaseEvent renewed(RequestedSecret requestedSecret) {
+		return new AfterSecretLeaseRenewedEvent(requestedSecret, Lease.none());
+	}
+
+	private SecretLeaseEvent created(RequestedSecret requestedSecret) {
+		return new SecretLeaseCreatedEvent(requestedSecret, Lease.none(),
+				Collections.emptyMap());
+	}
+}
@@ -26,6 +26,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
 import org.springframework.vault.repository.mapping.VaultMappingContext;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -283,6 +285,66 @@ class MappingVaultConverterUnitTests {
 				skyler);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	void shouldWritePropertyValuesOfChangingTypes() {
+
+		EntityWithObject entity = new EntityWithObject();
+
+		entity.setValue("walter");
+		SecretDocument sink = new SecretDocument();
+		converter.write(entity, sink);
+		assertThat(sink.getBody()).containsEntry("value", "walter");
+
+		entity.setValue(Condition.BAD);
+		sink = new SecretDocument();
+		converter.write(entity, sink);
+		assertThat(sink.getBody()).containsEntry("value", "BAD");
+
+		entity.setValue(new NestedType("heisenberg", "hb"));
+		sink = new SecretDocument();
+		converter.write(entity, sink);
+		assertThat((Map<String, Object>) sink.get("value"))
+				.containsEntry("username", "heisenberg");
+	}
+
+	@Test
+	void shouldApplyCustomConversionsConfiguredAfterConversion() {
+
+		EntityWithEnum entity = new EntityWithEnum();
+		entity.setCondition(Condition.BAD);
+
+		SecretDocument sink = new SecretDocument();
+		converter.write(entity, sink);
+
+		assertThat(sink.getBody()).containsEntry("condition", "BAD");
+
+		converter.setCustomConversions(new VaultCustomConversions(
+				Arrays.asList(ConditionToStringConverter.INSTANCE,
+						StringToConditionConverter.INSTANCE)));
+		converter.afterPropertiesSet();
+
+		sink = new SecretDocument();
+		converter.write(entity, sink);
+
+		assertThat(sink.getBody()).containsEntry("condition", "bad");
+		assertThat(converter.read(EntityWithEnum.class, sink).getCondition())
+				.isEqualTo(Condition.BAD);
+	}
+
+	@Test
+	void shouldReadNullValues() {
+
+		SecretDocument document = new SecretDocument("heisenberg");
+		document.put("username", null);
+
+		SimpleEntity entity = new SimpleEntity();
+		entity.setUsername("walter");
+
+		assertThat(converter.read(SimpleEntity.class, document).getUsername())
+				.isNull();
+	}
+
 	static class SimpleEntity {
 
 		String id;
@@ -466,6 +528,19 @@ class MappingVaultConverterUnitTests {
 		}
 	}
 
+	static class EntityWithObject {
+
+		Object value;
+
+		public Object getValue() {
+			return this.value;
+		}
+
+		public void setValue(Object value) {
+			this.value = value;
+		}
+	}
+
 	enum Condition {
 		GOOD, BAD
 	}
@@ -504,4 +579,26 @@ class MappingVaultConverterUnitTests {
 			return document;
 		}
 	}
+
+	@WritingConverter
+	enum ConditionToStringConverter implements Converter<Condition, String> {
+
+		INSTANCE;
+
+		@Override
+		public String convert(Condition condition) {
+			return condition.name().toLowerCase();
+		}
+	}
+
+	@ReadingConverter
+	enum StringToConditionConverter implements Converter<String, Condition> {
+
+		INSTANCE;
+
+		@Override
+		public Condition convert(String value) {
+			return Condition.valueOf(value.toUpperCase());
+		}
+	}
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.core;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for {@link KeyspaceCache}.
+ *
+ * @author Mark Paluch
+ */
+class KeyspaceCacheUnitTests {
+
+	static final Instant NOW = Instant.parse("2019-01-01T00:00:00Z");
+
+	KeyspaceCache cache = new KeyspaceCache();
+
+	AtomicInteger loads = new AtomicInteger();
+
+	Function<String, Collection<String>> loader = keyspace -> {
+		loads.incrementAndGet();
+		return Arrays.asList("walter", "jesse", "skyler");
+	};
+
+	@BeforeEach
+	void before() {
+		cache.setTimeToLive(Duration.ofSeconds(30));
+	}
+
+	@Test
+	void shouldCacheSortedListing() {
+
+		cache.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+
+		assertThat(cache.getIds("person", loader)).containsExactly("jesse", "skyler",
+				"walter");
+		assertThat(cache.getIds("person", loader)).contains("walter");
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void shouldReloadExpiredListing() {
+
+		cache.setTimeToLive(Duration.ofSeconds(10));
+		cache.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+		cache.getIds("person", loader);
+
+		cache.setClock(Clock.fixed(NOW.plusSeconds(10), ZoneOffset.UTC));
+		cache.getIds("person", loader);
+
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void shouldNotCacheByDefault() {
+
+		KeyspaceCache cache = new KeyspaceCache();
+
+		cache.getIds("person", loader);
+		cache.getIds("person", loader);
+
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void shouldNotCacheWithZeroTimeToLive() {
+
+		cache.setTimeToLive(Duration.ZERO);
+
+		cache.getIds("person", loader);
+		cache.getIds("person", loader);
+
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void shouldApplyChangesToCachedListing() {
+
+		cache.getIds("person", loader);
+
+		cache.added("person", "hank");
+		cache.removed("person", "skyler");
+
+		assertThat(cache.getIds("person", loader)).containsExactly("hank", "jesse",
+				"walter");
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void shouldNotCacheListingLoadedConcurrentlyWithChange() {
+
+		cache.getIds("person", keyspace -> {
+
+			cache.added(keyspace, "hank");
+			return loader.apply(keyspace);
+		});
+
+		cache.getIds("person", loader);
+
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void evictShouldReloadListing() {
+
+		cache.getIds("person", loader);
+		cache.evict("person");
+		cache.getIds("person", loader);
+
+		assertThat(loads).hasValue(2);
+	}
+}
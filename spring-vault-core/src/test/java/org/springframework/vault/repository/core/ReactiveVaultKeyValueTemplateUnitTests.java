@@ -0,0 +1,375 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.core;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.keyvalue.core.query.KeyValueQuery;
+import org.springframework.vault.core.ReactiveVaultOperations;
+import org.springframework.vault.repository.mapping.Indexed;
+import org.springframework.vault.repository.mapping.Secret;
+import org.springframework.vault.repository.query.VaultQuery;
+import org.springframework.vault.support.VaultResponse;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ReactiveVaultKeyValueTemplate}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class ReactiveVaultKeyValueTemplateUnitTests {
+
+	@Mock
+	ReactiveVaultOperations vaultOperations;
+
+	ReactiveVaultKeyValueTemplate template;
+
+	@BeforeEach
+	void before() {
+		template = new ReactiveVaultKeyValueTemplate(vaultOperations);
+	}
+
+	@Test
+	void findAllShouldRetainIdOrder() {
+
+		when(vaultOperations.list("secret/person"))
+				.thenReturn(Flux.just("5", "3", "_idx/", "1"));
+		mockReads();
+
+		template.findAll(Person.class).map(Person::getName).as(StepVerifier::create)
+				.expectNext("name-1", "name-3", "name-5").verifyComplete();
+	}
+
+	@Test
+	void findAllShouldBoundConcurrency() {
+
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+
+		template.setConcurrency(3);
+		when(vaultOperations.list("secret/person"))
+				.thenReturn(Flux.range(1, 20).map(Object::toString));
+		when(vaultOperations.read(anyString())).thenAnswer(invocation -> {
+
+			String path = invocation.getArgument(0);
+
+			return Mono.fromRunnable(() -> maxInFlight
+					.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+					.then(Mono.delay(Duration.ofMillis(5)))
+					.then(Mono.fromCallable(() -> {
+						inFlight.decrementAndGet();
+						return createResponse(path);
+					}));
+		});
+
+		template.findAll(Person.class).as(StepVerifier::create).expectNextCount(20)
+				.verifyComplete();
+
+		assertThat(maxInFlight.get()).isBetween(2, 3);
+	}
+
+	@Test
+	void findByIdShouldCompleteEmptyForAbsentSecret() {
+
+		when(vaultOperations.read("secret/person/1")).thenReturn(Mono.empty());
+
+		template.findById("1", Person.class).as(StepVerifier::create)
+				.verifyComplete();
+	}
+
+	@Test
+	void saveShouldGenerateId() {
+
+		when(vaultOperations.write(anyString(), any())).thenReturn(Mono.empty());
+
+		Person person = new Person();
+		person.name = "Walter";
+
+		template.save(person).as(StepVerifier::create).consumeNextWith(actual -> {
+			assertThat(actual.getId()).isNotEmpty();
+		}).verifyComplete();
+
+		ArgumentCaptor<Object> body = ArgumentCaptor.forClass(Object.class);
+		verify(vaultOperations).write(eq("secret/person/" + person.getId()),
+				body.capture());
+		assertThat((Map<String, Object>) body.getValue()).containsEntry("name",
+				"Walter");
+	}
+
+	@Test
+	void saveShouldMaintainIndexEntries() {
+
+		VaultResponse previous = new VaultResponse();
+		previous.setData(Collections.singletonMap("role", "user"));
+		when(vaultOperations.read("secret/user/walter")).thenReturn(Mono.just(previous));
+		when(vaultOperations.write(anyString(), any())).thenReturn(Mono.empty());
+		when(vaultOperations.delete(anyString())).thenReturn(Mono.empty());
+
+		User user = new User();
+		user.id = "walter";
+		user.role = "admin";
+
+		template.save(user).as(StepVerifier::create).expectNext(user)
+				.verifyComplete();
+
+		verify(vaultOperations).delete("secret/user/_idx/role/dXNlcg/walter");
+		verify(vaultOperations).write("secret/user/_idx/role/YWRtaW4/walter",
+				Collections.singletonMap("id", "walter"));
+	}
+
+	@Test
+	void deleteShouldRemoveIndexEntries() {
+
+		VaultResponse response = new VaultResponse();
+		response.setData(Collections.singletonMap("role", "admin"));
+		when(vaultOperations.read("secret/user/walter")).thenReturn(Mono.just(response));
+		when(vaultOperations.delete(anyString())).thenReturn(Mono.empty());
+
+		template.delete("walter", User.class).map(it -> it.role)
+				.as(StepVerifier::create).expectNext("admin").verifyComplete();
+
+		verify(vaultOperations).delete("secret/user/walter");
+		verify(vaultOperations).delete("secret/user/_idx/role/YWRtaW4/walter");
+	}
+
+	@Test
+	void deleteAllShouldRemoveEntitiesAndIndex() {
+
+		when(vaultOperations.list("secret/user")).thenReturn(Flux.just("_idx/", "walter"));
+		when(vaultOperations.list("secret/user/_idx")).thenReturn(Flux.just("role/"));
+		when(vaultOperations.list("secret/user/_idx/role"))
+				.thenReturn(Flux.just("YWRtaW4/"));
+		when(vaultOperations.list("secret/user/_idx/role/YWRtaW4"))
+				.thenReturn(Flux.just("walter"));
+		when(vaultOperations.delete(anyString())).thenReturn(Mono.empty());
+
+		template.deleteAll(User.class).as(StepVerifier::create).verifyComplete();
+
+		verify(vaultOperations).delete("secret/user/walter");
+		verify(vaultOperations).delete("secret/user/_idx/role/YWRtaW4/walter");
+		verify(vaultOperations, times(2)).delete(anyString());
+	}
+
+	@Test
+	void deleteAllShouldNotListIndexOfEntitiesWithoutIndex() {
+
+		when(vaultOperations.list("secret/person")).thenReturn(Flux.just("walter"));
+		when(vaultOperations.delete(anyString())).thenReturn(Mono.empty());
+
+		template.deleteAll(Person.class).as(StepVerifier::create).verifyComplete();
+
+		verify(vaultOperations).delete("secret/person/walter");
+		verify(vaultOperations, never()).list("secret/person/_idx");
+	}
+
+	@Test
+	void queryShouldApplyOffsetAndLimitBeforeFetching() {
+
+		when(vaultOperations.list("secret/person"))
+				.thenReturn(Flux.just("1", "2", "3", "4", "5"));
+		mockReads();
+
+		KeyValueQuery<VaultQuery> query = new KeyValueQuery<>(
+				new VaultQuery(id -> !id.equals("2")));
+		query.setOffset(1);
+		query.setRows(2);
+
+		template.find(query, Person.class).map(Person::getId).as(StepVerifier::create)
+				.expectNext("3", "4").verifyComplete();
+
+		verify(vaultOperations, times(2)).read(anyString());
+	}
+
+	@Test
+	void queryShouldSortBeforeOffsetAndLimit() {
+
+		when(vaultOperations.list("secret/person"))
+				.thenReturn(Flux.just("1", "2", "3", "4", "5"));
+		mockReads();
+
+		KeyValueQuery<VaultQuery> query = new KeyValueQuery<>(new VaultQuery());
+		query.setSort(Sort.by(Sort.Direction.DESC, "name"));
+		query.setOffset(1);
+		query.setRows(3);
+
+		template.find(query, Person.class).map(Person::getId).as(StepVerifier::create)
+				.expectNext("4", "3", "2").verifyComplete();
+	}
+
+	@Test
+	void queryShouldResolveCandidatesFromIndex() {
+
+		when(vaultOperations.list("secret/user/_idx/role/YWRtaW4"))
+				.thenReturn(Flux.just("walter", "skyler"));
+		when(vaultOperations.list("secret/user/_idx/role/dXNlcg"))
+				.thenReturn(Flux.just("jesse"));
+		mockReads();
+
+		KeyValueQuery<VaultQuery> query = new KeyValueQuery<>(
+				VaultQuery.indexed("role", Arrays.asList("admin", "user"))
+						.and(id -> !id.equals("skyler")));
+
+		template.find(query, User.class).map(it -> it.id).as(StepVerifier::create)
+				.expectNext("jesse", "walter").verifyComplete();
+
+		verify(vaultOperations, never()).list("secret/user");
+	}
+
+	@Test
+	void countShouldSkipStaleIndexEntries() {
+
+		when(vaultOperations.list("secret/user/_idx/role/YWRtaW4"))
+				.thenReturn(Flux.just("walter", "skyler", "jesse"));
+		when(vaultOperations.list("secret/user"))
+				.thenReturn(Flux.just("_idx/", "jesse", "walter"));
+
+		KeyValueQuery<VaultQuery> query = new KeyValueQuery<>(
+				VaultQuery.indexed("role", Collections.singleton("admin")));
+
+		template.count(query, User.class).as(StepVerifier::create).expectNext(2L)
+				.verifyComplete();
+	}
+
+	@Test
+	void queryShouldConvertIndexedValuesLikeWrittenProperties() {
+
+		when(vaultOperations.list("secret/account/_idx/level/QURNSU4"))
+				.thenReturn(Flux.just("walter"));
+		mockReads();
+
+		KeyValueQuery<VaultQuery> query = new KeyValueQuery<>(
+				VaultQuery.indexed("level", Collections.singleton(Level.ADMIN)));
+
+		template.find(query, Account.class).map(it -> it.id).as(StepVerifier::create)
+				.expectNext("walter").verifyComplete();
+	}
+
+	@Test
+	void queryShouldSkipStaleIndexEntriesBeforeOffsetAndLimit() {
+
+		when(vaultOperations.list("secret/user/_idx/role/YWRtaW4"))
+				.thenReturn(Flux.just("1", "2", "3", "4", "5"));
+		when(vaultOperations.read(anyString())).thenAnswer(invocation -> {
+
+			String path = invocation.getArgument(0);
+			return path.endsWith("/2") || path.endsWith("/4") ? Mono.empty()
+					: Mono.just(createResponse(path));
+		});
+
+		KeyValueQuery<VaultQuery> query = new KeyValueQuery<>(
+				VaultQuery.indexed("role", Collections.singleton("admin")));
+		query.setOffset(1);
+		query.setRows(2);
+
+		template.find(query, User.class).map(it -> it.id).as(StepVerifier::create)
+				.expectNext("3", "5").verifyComplete();
+	}
+
+	@Test
+	void existsShouldUseListing() {
+
+		when(vaultOperations.list("secret/person")).thenReturn(Flux.just("1", "2"));
+
+		template.exists("2", Person.class).as(StepVerifier::create).expectNext(true)
+				.verifyComplete();
+		template.exists("3", Person.class).as(StepVerifier::create).expectNext(false)
+				.verifyComplete();
+
+		verify(vaultOperations, never()).read(anyString());
+	}
+
+	private void mockReads() {
+		when(vaultOperations.read(anyString())).thenAnswer(
+				invocation -> Mono.just(createResponse(invocation.getArgument(0))));
+	}
+
+	private static VaultResponse createResponse(String path) {
+
+		String id = path.substring(path.lastIndexOf('/') + 1);
+
+		VaultResponse response = new VaultResponse();
+		response.setData(Collections.singletonMap("name", "name-" + id));
+
+		return response;
+	}
+
+	@Secret("user")
+	static class User {
+
+		@Id
+		String id;
+
+		@Indexed
+		String role;
+	}
+
+	@Secret("account")
+	static class Account {
+
+		@Id
+		String id;
+
+		@Indexed
+		Level level;
+	}
+
+	enum Level {
+
+		ADMIN {
+			@Override
+			public String toString() {
+				return "Administrator";
+			}
+		}
+	}
+
+	@Secret("person")
+	static class Person {
+
+		@Id
+		String id;
+
+		String name;
+
+		public String getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+}
@@ -0,0 +1,480 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.keyvalue.core.query.KeyValueQuery;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.vault.core.VaultOperations;
+import org.springframework.vault.repository.mapping.Indexed;
+import org.springframework.vault.repository.query.VaultQuery;
+import org.springframework.vault.support.VaultResponse;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link VaultKeyValueAdapter}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class VaultKeyValueAdapterUnitTests {
+
+	@Mock
+	VaultOperations vaultOperations;
+
+	VaultKeyValueAdapter adapter;
+
+	@BeforeEach
+	void before() {
+		adapter = new VaultKeyValueAdapter(vaultOperations);
+	}
+
+	@AfterEach
+	void after() throws Exception {
+		adapter.destroy();
+	}
+
+	@Test
+	void getAllOfShouldRetainIdOrder() {
+
+		when(vaultOperations.list("person"))
+				.thenReturn(Arrays.asList("5", "3", "9", "1", "7"));
+		mockReads();
+
+		Iterable<?> people = adapter.getAllOf("person");
+
+		assertThat(people).extracting("name").containsExactly("name-1", "name-3",
+				"name-5", "name-7", "name-9");
+	}
+
+	@Test
+	void containsShouldUseCachedListing() {
+
+		adapter.setKeyspaceCacheTimeToLive(Duration.ofSeconds(30));
+		when(vaultOperations.list("person")).thenReturn(Arrays.asList("1", "2"));
+
+		assertThat(adapter.contains("1", "person")).isTrue();
+		assertThat(adapter.contains("3", "person")).isFalse();
+		assertThat(adapter.count("person")).isEqualTo(2);
+
+		verify(vaultOperations).list("person");
+	}
+
+	@Test
+	void writesShouldUpdateCachedListing() {
+
+		adapter.setKeyspaceCacheTimeToLive(Duration.ofSeconds(30));
+		when(vaultOperations.list("person")).thenReturn(Arrays.asList("1", "2"));
+		when(vaultOperations.read("person/2")).thenReturn(createResponse("person/2"));
+		adapter.count("person");
+
+		Person person = new Person();
+		person.id = "3";
+		adapter.put("3", person, "person");
+		adapter.delete("2", "person", Person.class);
+
+		assertThat(adapter.contains("3", "person")).isTrue();
+		assertThat(adapter.contains("2", "person")).isFalse();
+		assertThat(adapter.count("person")).isEqualTo(2);
+
+		verify(vaultOperations).list("person");
+	}
+
+	@Test
+	void deleteAllOfShouldListKeyspaceFromVault() {
+
+		adapter.setKeyspaceCacheTimeToLive(Duration.ofSeconds(30));
+		when(vaultOperations.list("person")).thenReturn(Arrays.asList("1", "2"),
+				Arrays.asList("1", "2", "3"), Collections.emptyList());
+		adapter.count("person");
+
+		adapter.deleteAllOf("person");
+
+		verify(vaultOperations).delete("person/3");
+		verify(vaultOperations, never()).walk(anyString(), any());
+		assertThat(adapter.count("person")).isZero();
+	}
+
+	@Test
+	void deleteAllOfShouldRemoveIndexEntries() {
+
+		when(vaultOperations.list("user")).thenReturn(Arrays.asList("_idx/", "walter"));
+		when(vaultOperations.walk(eq("user/_idx"), any()))
+				.thenReturn(Stream.of("user/_idx/role/YWRtaW4/walter"));
+
+		adapter.deleteAllOf("user");
+
+		verify(vaultOperations).delete("user/walter");
+		verify(vaultOperations).delete("user/_idx/role/YWRtaW4/walter");
+		verify(vaultOperations, never()).delete("user/_idx/");
+	}
+
+	@Test
+	void shouldListKeyspaceOnEachAccessByDefault() {
+		when(vaultOperations.list("person")).thenReturn(Arrays.asList("1", "2"));
+
+		adapter.contains("1", "person");
+		adapter.contains("1", "person");
+
+		verify(vaultOperations, times(2)).list("person");
+	}
+
+	@Test
+	void shouldFetchConcurrently() {
+
+		CountDownLatch latch = new CountDownLatch(3);
+
+		adapter.setParallelism(3);
+		when(vaultOperations.list("person")).thenReturn(Arrays.asList("1", "2", "3"));
+		when(vaultOperations.read(anyString())).thenAnswer(invocation -> {
+
+			latch.countDown();
+			// only completes if all reads are in flight concurrently
+			latch.await(10, TimeUnit.SECONDS);
+
+			return createResponse(invocation.getArgument(0));
+		});
+
+		Iterable<?> people = adapter.getAllOf("person");
+
+		assertThat(people).hasSize(3);
+		assertThat(latch.getCount()).isZero();
+	}
+
+	@Test
+	void shouldFetchSequentiallyWithoutParallelism() {
+
+		adapter.setParallelism(1);
+		when(vaultOperations.list("person")).thenReturn(Arrays.asList("1", "2"));
+		List<String> threads = Collections.synchronizedList(new ArrayList<>());
+		when(vaultOperations.read(anyString())).thenAnswer(invocation -> {
+
+			threads.add(Thread.currentThread().getName());
+			return createResponse(invocation.getArgument(0));
+		});
+
+		assertThat(adapter.getAllOf("person")).hasSize(2);
+		assertThat(threads).containsOnly(Thread.currentThread().getName());
+	}
+
+	@Test
+	void entriesShouldPrefetchAheadOfConsumer() {
+
+		adapter.setPrefetch(2);
+		when(vaultOperations.list("person")).thenReturn(Arrays.asList("1", "2", "3", "4"));
+		mockReads();
+
+		try (CloseableIterator<Map.Entry<Object, Object>> entries = adapter
+				.entries("person")) {
+
+			Map.Entry<Object, Object> first = entries.next();
+
+			assertThat(first.getKey()).isEqualTo("1");
+			assertThat(first.getValue()).isEqualTo(Collections.singletonMap("name", "name-1"));
+		}
+
+		verify(vaultOperations, atMost(3)).read(anyString());
+	}
+
+	@Test
+	void getAllOfShouldFetchWhileIterating() {
+
+		adapter.setPrefetch(2);
+		when(vaultOperations.list("person")).thenReturn(Arrays.asList("1", "2", "3", "4"));
+		mockReads();
+
+		Iterable<?> people = adapter.getAllOf("person");
+
+		verify(vaultOperations, never()).read(anyString());
+
+		Iterator<?> iterator = people.iterator();
+		assertThat(iterator.next()).isEqualTo(Collections.singletonMap("name", "name-1"));
+
+		verify(vaultOperations, atMost(3)).read(anyString());
+	}
+
+	@Test
+	void shouldPropagateReadFailure() {
+
+		when(vaultOperations.list("person")).thenReturn(Arrays.asList("1", "2"));
+		when(vaultOperations.read("person/1")).thenReturn(createResponse("person/1"));
+		when(vaultOperations.read("person/2"))
+				.thenThrow(new IllegalStateException("Read failed"));
+
+		assertThatIllegalStateException()
+				.isThrownBy(() -> adapter.getAllOf("person").forEach(it -> {
+				})).withMessage("Read failed");
+	}
+
+	@Test
+	void queryShouldApplyOffsetAndLimitBeforeFetching() {
+
+		when(vaultOperations.list("person"))
+				.thenReturn(Arrays.asList("1", "2", "3", "4", "5"));
+		mockReads();
+
+		KeyValueQuery<VaultQuery> query = new KeyValueQuery<>(
+				new VaultQuery(id -> !id.equals("2")));
+		query.setOffset(1);
+		query.setRows(2);
+
+		Iterable<Person> people = adapter.find(query, "person", Person.class);
+
+		assertThat(people).extracting(it -> it.id).containsExactly("3", "4");
+		verify(vaultOperations, times(2)).read(anyString());
+	}
+
+	@Test
+	void queryShouldSortBeforeOffsetAndLimit() {
+
+		when(vaultOperations.list("person"))
+				.thenReturn(Arrays.asList("1", "2", "3", "4", "5"));
+		mockReads();
+
+		KeyValueQuery<VaultQuery> query = new KeyValueQuery<>(new VaultQuery());
+		query.setSort(Sort.by(Sort.Direction.DESC, "name"));
+		query.setOffset(1);
+		query.setRows(3);
+
+		Iterable<Person> people = adapter.find(query, "person", Person.class);
+
+		assertThat(people).extracting(it -> it.id).containsExactly("4", "3", "2");
+	}
+
+	@Test
+	void putShouldMaintainIndexEntries() {
+
+		User user = new User();
+		user.id = "walter";
+		user.role = "user";
+
+		adapter.put("walter", user, "user");
+
+		verify(vaultOperations).write(eq("user/walter"), any());
+		verify(vaultOperations).write("user/_idx/role/dXNlcg/walter",
+				Collections.singletonMap("id", "walter"));
+
+		VaultResponse previous = new VaultResponse();
+		previous.setData(Collections.singletonMap("role", "user"));
+		when(vaultOperations.read("user/walter")).thenReturn(previous);
+
+		user.role = "admin";
+		adapter.put("walter", user, "user");
+
+		verify(vaultOperations).delete("user/_idx/role/dXNlcg/walter");
+		verify(vaultOperations).write("user/_idx/role/YWRtaW4/walter",
+				Collections.singletonMap("id", "walter"));
+	}
+
+	@Test
+	void putShouldNotReadPreviousStateForEntitiesWithoutIndex() {
+
+		Person person = new Person();
+		person.id = "walter";
+
+		adapter.put("walter", person, "person");
+
+		verify(vaultOperations, never()).read(anyString());
+	}
+
+	@Test
+	void deleteShouldRemoveIndexEntries() {
+
+		VaultResponse response = new VaultResponse();
+		response.setData(Collections.singletonMap("role", "admin"));
+		when(vaultOperations.read("user/walter")).thenReturn(response);
+
+		User deleted = adapter.delete("walter", "user", User.class);
+
+		assertThat(deleted.role).isEqualTo("admin");
+		verify(vaultOperations).delete("user/walter");
+		verify(vaultOperations).delete("user/_idx/role/YWRtaW4/walter");
+	}
+
+	@Test
+	void listingShouldExcludeIndexDirectory() {
+
+		when(vaultOperations.list("user")).thenReturn(Arrays.asList("_idx/", "walter"));
+
+		assertThat(adapter.count("user")).isEqualTo(1);
+	}
+
+	@Test
+	void queryShouldResolveCandidatesFromIndex() {
+
+		when(vaultOperations.list("user/_idx/role/YWRtaW4"))
+				.thenReturn(Arrays.asList("walter", "skyler"));
+		when(vaultOperations.list("user/_idx/role/dXNlcg"))
+				.thenReturn(Collections.singletonList("jesse"));
+		mockReads();
+
+		KeyValueQuery<VaultQuery> query = new KeyValueQuery<>(
+				VaultQuery.indexed("role", Arrays.asList("admin", "user"))
+						.and(id -> !id.equals("skyler")));
+
+		Iterable<User> users = adapter.find(query, "user", User.class);
+
+		assertThat(users).extracting(it -> it.id).containsExactly("jesse", "walter");
+		verify(vaultOperations, never()).list("user");
+	}
+
+	@Test
+	void queryShouldConvertIndexedValuesLikeWrittenProperties() {
+
+		Account account = new Account();
+		account.id = "walter";
+		account.level = Level.ADMIN;
+
+		adapter.put("walter", account, "account");
+
+		verify(vaultOperations).write("account/_idx/level/QURNSU4/walter",
+				Collections.singletonMap("id", "walter"));
+
+		when(vaultOperations.list("account/_idx/level/QURNSU4"))
+				.thenReturn(Collections.singletonList("walter"));
+		mockReads();
+
+		KeyValueQuery<VaultQuery> query = new KeyValueQuery<>(
+				VaultQuery.indexed("level", Collections.singleton(Level.ADMIN)));
+
+		Iterable<Account> accounts = adapter.find(query, "account", Account.class);
+
+		assertThat(accounts).extracting(it -> it.id).containsExactly("walter");
+	}
+
+	@Test
+	void queryShouldSkipStaleIndexEntriesBeforeOffsetAndLimit() {
+
+		when(vaultOperations.list("user/_idx/role/YWRtaW4"))
+				.thenReturn(Arrays.asList("1", "2", "3", "4", "5"));
+		when(vaultOperations.read(anyString())).thenAnswer(invocation -> {
+
+			String path = invocation.getArgument(0);
+			return path.endsWith("/2") || path.endsWith("/4") ? null
+					: createResponse(path);
+		});
+
+		KeyValueQuery<VaultQuery> query = new KeyValueQuery<>(
+				VaultQuery.indexed("role", Collections.singleton("admin")));
+		query.setOffset(1);
+		query.setRows(2);
+
+		Iterable<User> users = adapter.find(query, "user", User.class);
+
+		assertThat(users).extracting(it -> it.id).containsExactly("3", "5");
+	}
+
+	@Test
+	void countShouldSkipStaleIndexEntries() {
+
+		when(vaultOperations.list("user/_idx/role/YWRtaW4"))
+				.thenReturn(Arrays.asList("walter", "skyler", "jesse"));
+		when(vaultOperations.list("user"))
+				.thenReturn(Arrays.asList("_idx/", "jesse", "walter"));
+		when(vaultOperations.read(anyString())).thenAnswer(invocation -> {
+
+			String path = invocation.getArgument(0);
+			return path.endsWith("/skyler") ? null : createResponse(path);
+		});
+
+		KeyValueQuery<VaultQuery> query = new KeyValueQuery<>(
+				VaultQuery.indexed("role", Collections.singleton("admin")));
+
+		assertThat(adapter.count(query, "user")).isEqualTo(2);
+		assertThat(adapter.find(query, "user", User.class)).hasSize(2);
+	}
+
+	private void mockReads() {
+		when(vaultOperations.read(anyString())).thenAnswer(
+				invocation -> createResponse(invocation.getArgument(0)));
+	}
+
+	private static VaultResponse createResponse(String path) {
+
+		String id = path.substring(path.lastIndexOf('/') + 1);
+
+		VaultResponse response = new VaultResponse();
+		response.setData(Collections.singletonMap("name", "name-" + id));
+
+		return response;
+	}
+
+	static class User {
+
+		@Id
+		String id;
+
+		@Indexed
+		String role;
+	}
+
+	static class Account {
+
+		@Id
+		String id;
+
+		@Indexed
+		Level level;
+	}
+
+	enum Level {
+
+		ADMIN {
+			@Override
+			public String toString() {
+				return "Administrator";
+			}
+		}
+	}
+
+	static class Person {
+
+		@Id
+		String id;
+
+		String name;
+
+		public String getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+}
@@ -16,6 +16,8 @@
 package org.springframework.vault.repository.query;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -25,10 +27,13 @@ import org.springframework.data.repository.query.DefaultParameters;
 import org.springframework.data.repository.query.ParametersParameterAccessor;
 import org.springframework.data.repository.query.parser.PartTree;
 import org.springframework.util.ReflectionUtils;
+import org.springframework.vault.repository.mapping.Indexed;
 import org.springframework.vault.repository.mapping.VaultMappingContext;
+import org.springframework.vault.repository.query.VaultQuery.IndexCriteria;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
 /**
  * Unit test for {@link VaultQueryCreator}.
@@ -189,6 +194,69 @@ class VaultQueryCreatorUnitTests {
 				.isThrownBy(() -> createQuery("findByName", ""));
 	}
 
+	@Test
+	void indexedSimpleProperty() {
+
+		VaultQuery query = createQuery("findByRole", "admin");
+
+		assertThat(query.getIndexCriteria())
+				.containsExactly(new IndexCriteria("role", Collections.singleton("admin")));
+		assertThat(query.getRequiredIndexCriteria()).isEqualTo(query.getIndexCriteria());
+		assertThat(query.getPredicate(criteria -> Collections.singleton("1")))
+				.accepts("1").rejects("2");
+	}
+
+	@Test
+	void indexedIn() {
+
+		VaultQuery query = createQuery("findByRoleIn", Arrays.asList("admin", "user"));
+
+		assertThat(query.getIndexCriteria()).containsExactly(
+				new IndexCriteria("role", Arrays.asList("admin", "user")));
+	}
+
+	@Test
+	void indexedAndIdCriteria() {
+
+		VaultQuery query = createQuery("findByRoleAndIdStartsWith", "admin", "w");
+
+		assertThat(query.getRequiredIndexCriteria()).hasSize(1);
+		assertThat(query.getPredicate(
+				criteria -> new HashSet<>(Arrays.asList("walter", "skyler"))))
+						.accepts("walter").rejects("skyler", "wendy");
+	}
+
+	@Test
+	void indexedOrIdCriteriaRequiresKeyspaceScan() {
+
+		VaultQuery query = createQuery("findByRoleOrId", "admin", "skyler");
+
+		assertThat(query.getIndexCriteria()).hasSize(1);
+		assertThat(query.getRequiredIndexCriteria()).isEmpty();
+		assertThat(query.getPredicate(criteria -> Collections.singleton("walter")))
+				.accepts("walter", "skyler").rejects("wendy");
+	}
+
+	@Test
+	void indexedQueryRequiresIndexLookup() {
+
+		VaultQuery query = createQuery("findByRole", "admin");
+
+		assertThatIllegalStateException().isThrownBy(() -> query.test("1"));
+	}
+
+	@Test
+	void failsForUnsupportedIndexedCriteria() {
+		assertThatExceptionOfType(InvalidDataAccessApiUsageException.class)
+				.isThrownBy(() -> createQuery("findByRoleStartsWith", "a"));
+	}
+
+	@Test
+	void failsForCaseInsensitiveIndexedCriteria() {
+		assertThatExceptionOfType(InvalidDataAccessApiUsageException.class)
+				.isThrownBy(() -> createQuery("findByRoleIgnoreCase", "a"));
+	}
+
 	VaultQuery createQuery(String methodName, String value) {
 
 		DefaultParameters defaultParameters = new DefaultParameters(ReflectionUtils
@@ -244,5 +312,8 @@ class VaultQueryCreatorUnitTests {
 	private static class Credentials {
 
 		String id, name;
+
+		@Indexed
+		String role;
 	}
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.repository.support;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.vault.core.ReactiveVaultOperations;
+import org.springframework.vault.repository.core.ReactiveVaultKeyValueTemplate;
+import org.springframework.vault.repository.mapping.Indexed;
+import org.springframework.vault.repository.mapping.Secret;
+import org.springframework.vault.support.VaultResponse;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ReactiveVaultRepositoryFactory}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class ReactiveVaultRepositoryFactoryUnitTests {
+
+	@Mock
+	ReactiveVaultOperations vaultOperations;
+
+	UserRepository repository;
+
+	@BeforeEach
+	void before() {
+
+		ReactiveVaultRepositoryFactory factory = new ReactiveVaultRepositoryFactory(
+				new ReactiveVaultKeyValueTemplate(vaultOperations));
+
+		repository = factory.getRepository(UserRepository.class);
+	}
+
+	@Test
+	void shouldFindAll() {
+
+		when(vaultOperations.list("secret/user")).thenReturn(Flux.just("jesse", "walter"));
+		mockReads();
+
+		repository.findAll().map(it -> it.name).as(StepVerifier::create)
+				.expectNext("name-jesse", "name-walter").verifyComplete();
+	}
+
+	@Test
+	void shouldDeriveFluxQuery() {
+
+		when(vaultOperations.list("secret/user")).thenReturn(Flux.just("jesse", "walter"));
+		mockReads();
+
+		repository.findByIdStartingWith("w").map(it -> it.id).as(StepVerifier::create)
+				.expectNext("walter").verifyComplete();
+	}
+
+	@Test
+	void shouldDeriveMonoQueryFromIndex() {
+
+		when(vaultOperations.list("secret/user/_idx/role/YWRtaW4"))
+				.thenReturn(Flux.just("walter"));
+		mockReads();
+
+		repository.findByRole("admin").map(it -> it.id).as(StepVerifier::create)
+				.expectNext("walter").verifyComplete();
+	}
+
+	@Test
+	void shouldDeriveCountQuery() {
+
+		when(vaultOperations.list("secret/user/_idx/role/dXNlcg"))
+				.thenReturn(Flux.just("jesse", "skinny"));
+		when(vaultOperations.list("secret/user"))
+				.thenReturn(Flux.just("_idx/", "jesse", "skinny"));
+
+		repository.countByRole("user").as(StepVerifier::create).expectNext(2L)
+				.verifyComplete();
+	}
+
+	@Test
+	void shouldDeleteById() {
+
+		VaultResponse response = new VaultResponse();
+		response.setData(Collections.singletonMap("name", "Walter"));
+		when(vaultOperations.read("secret/user/walter")).thenReturn(Mono.just(response));
+		when(vaultOperations.delete(anyString())).thenReturn(Mono.empty());
+
+		repository.deleteById("walter").as(StepVerifier::create).verifyComplete();
+
+		verify(vaultOperations).delete("secret/user/walter");
+	}
+
+	private void mockReads() {
+
+		when(vaultOperations.read(anyString())).thenAnswer(invocation -> {
+
+			String path = invocation.getArgument(0);
+			VaultResponse response = new VaultResponse();
+			response.setData(Collections.singletonMap("name",
+					"name-" + path.substring(path.lastIndexOf('/') + 1)));
+
+			return Mono.just(response);
+		});
+	}
+
+	interface UserRepository extends ReactiveCrudRepository<User, String> {
+
+		Flux<User> findByIdStartingWith(String prefix);
+
+		Mono<User> findByRole(String role);
+
+		Mono<Long> countByRole(String role);
+	}
+
+	@Secret("user")
+	static class User {
+
+		@Id
+		String id;
+
+		String name;
+
+		@Indexed
+		String role;
+	}
+}
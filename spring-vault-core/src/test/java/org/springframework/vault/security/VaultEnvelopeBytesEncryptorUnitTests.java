@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.util.Base64Utils;
+import org.springframework.vault.core.VaultOperations;
+import org.springframework.vault.core.VaultTransitOperations;
+import org.springframework.vault.support.Ciphertext;
+import org.springframework.vault.support.Plaintext;
+import org.springframework.vault.support.VaultResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link VaultEnvelopeBytesEncryptor}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class VaultEnvelopeBytesEncryptorUnitTests {
+
+	static final byte[] DATA_KEY = new byte[32];
+
+	@Mock
+	VaultOperations vaultOperations;
+
+	@Mock
+	VaultTransitOperations transitOperations;
+
+	VaultEnvelopeBytesEncryptor encryptor;
+
+	@BeforeEach
+	void before() {
+		encryptor = new VaultEnvelopeBytesEncryptor(vaultOperations, "my-key");
+	}
+
+	@Test
+	void shouldEncryptAndDecrypt() {
+
+		mockDataKey("vault:v1:wrapped");
+
+		byte[] plaintext = "foo-bar+ü¿ß~€¢".getBytes();
+		byte[] ciphertext = encryptor.encrypt(plaintext);
+
+		assertThat(ciphertext).isNotEqualTo(plaintext);
+		assertThat(encryptor.decrypt(ciphertext)).isEqualTo(plaintext);
+	}
+
+	@Test
+	void shouldReuseDataKey() {
+
+		mockDataKey("vault:v1:wrapped");
+
+		encryptor.encrypt("foo".getBytes());
+		encryptor.encrypt("bar".getBytes());
+
+		verify(vaultOperations).write(eq("transit/datakey/plaintext/my-key"), any());
+	}
+
+	@Test
+	void shouldRenewDataKeyAfterMaxUsages() {
+
+		mockDataKey("vault:v1:wrapped");
+		encryptor.setMaxDataKeyUsages(1);
+
+		encryptor.encrypt("foo".getBytes());
+		encryptor.encrypt("bar".getBytes());
+
+		verify(vaultOperations, times(2)).write(eq("transit/datakey/plaintext/my-key"),
+				any());
+	}
+
+	@Test
+	void shouldUnwrapDataKeyForDecryption() {
+
+		mockDataKey("vault:v1:wrapped");
+		byte[] ciphertext = encryptor.encrypt("foo".getBytes());
+
+		when(vaultOperations.opsForTransit("transit")).thenReturn(transitOperations);
+		when(transitOperations.decrypt("my-key", Ciphertext.of("vault:v1:wrapped")))
+				.thenReturn(Plaintext.of(DATA_KEY));
+
+		VaultEnvelopeBytesEncryptor decryptor = new VaultEnvelopeBytesEncryptor(
+				vaultOperations, "my-key");
+
+		assertThat(decryptor.decrypt(ciphertext)).isEqualTo("foo".getBytes());
+		assertThat(decryptor.decrypt(ciphertext)).isEqualTo("foo".getBytes());
+
+		verify(transitOperations).decrypt("my-key", Ciphertext.of("vault:v1:wrapped"));
+	}
+
+	@Test
+	void shouldRejectTamperedCiphertext() {
+
+		mockDataKey("vault:v1:wrapped");
+		byte[] ciphertext = encryptor.encrypt("foo".getBytes());
+		ciphertext[ciphertext.length - 1] ^= 1;
+
+		assertThatIllegalStateException().isThrownBy(() -> encryptor.decrypt(ciphertext));
+	}
+
+	@Test
+	void shouldRejectUnknownVersion() {
+
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> encryptor.decrypt(new byte[] { 2, 0, 0, 0 }));
+	}
+
+	@Test
+	void shouldRejectUnsupportedDataKeySize() {
+
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> encryptor.setDataKeySize(512));
+	}
+
+	private void mockDataKey(String wrappedKey) {
+
+		Map<String, Object> data = new LinkedHashMap<>();
+		data.put("plaintext", Base64Utils.encodeToString(DATA_KEY));
+		data.put("ciphertext", wrappedKey);
+
+		VaultResponse response = new VaultResponse();
+		response.setData(data);
+
+		when(vaultOperations.write(eq("transit/datakey/plaintext/my-key"), any()))
+				.thenReturn(response);
+	}
+}
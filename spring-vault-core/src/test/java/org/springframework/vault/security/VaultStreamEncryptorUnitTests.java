@@ -0,0 +1,216 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.security;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.util.Base64Utils;
+import org.springframework.util.StreamUtils;
+import org.springframework.vault.core.VaultOperations;
+import org.springframework.vault.core.VaultTransitOperations;
+import org.springframework.vault.support.Ciphertext;
+import org.springframework.vault.support.Plaintext;
+import org.springframework.vault.support.VaultResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link VaultStreamEncryptor}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class VaultStreamEncryptorUnitTests {
+
+	static final byte[] DATA_KEY = new byte[32];
+
+	static final int[] LENGTHS = { 0, 1, 15, 16, 17, 32, 100 };
+
+	@Mock
+	VaultOperations vaultOperations;
+
+	@Mock
+	VaultTransitOperations transitOperations;
+
+	VaultStreamEncryptor encryptor;
+
+	@BeforeEach
+	void before() {
+
+		encryptor = new VaultStreamEncryptor(vaultOperations, "my-key");
+		encryptor.setSegmentSize(16);
+	}
+
+	@Test
+	void shouldEncryptAndDecryptOutputStream() throws IOException {
+
+		mockDataKey();
+
+		for (int length : LENGTHS) {
+
+			byte[] plaintext = randomBytes(length);
+			byte[] ciphertext = encryptWithOutputStream(plaintext);
+
+			assertThat(decrypt(ciphertext)).isEqualTo(plaintext);
+		}
+	}
+
+	@Test
+	void shouldEncryptInputStream() throws IOException {
+
+		mockDataKey();
+
+		for (int length : LENGTHS) {
+
+			byte[] plaintext = randomBytes(length);
+			byte[] ciphertext = StreamUtils.copyToByteArray(
+					encryptor.encrypt(new ByteArrayInputStream(plaintext)));
+
+			assertThat(ciphertext).hasSize(encryptWithOutputStream(plaintext).length);
+			assertThat(decrypt(ciphertext)).isEqualTo(plaintext);
+		}
+	}
+
+	@Test
+	void shouldEncryptAndDecryptChannels() throws IOException {
+
+		mockDataKey();
+
+		byte[] plaintext = randomBytes(50);
+
+		ReadableByteChannel encrypted = encryptor
+				.encrypt(Channels.newChannel(new ByteArrayInputStream(plaintext)));
+		ReadableByteChannel decrypted = encryptor.decrypt(encrypted);
+
+		assertThat(StreamUtils.copyToByteArray(Channels.newInputStream(decrypted)))
+				.isEqualTo(plaintext);
+	}
+
+	@Test
+	void shouldUnwrapDataKeyForDecryption() throws IOException {
+
+		mockDataKey();
+		byte[] ciphertext = encryptWithOutputStream("foo".getBytes());
+
+		when(vaultOperations.opsForTransit("transit")).thenReturn(transitOperations);
+		when(transitOperations.decrypt("my-key", Ciphertext.of("vault:v1:wrapped")))
+				.thenReturn(Plaintext.of(DATA_KEY));
+
+		VaultStreamEncryptor decryptor = new VaultStreamEncryptor(vaultOperations,
+				"my-key");
+
+		assertThat(StreamUtils.copyToByteArray(
+				decryptor.decrypt(new ByteArrayInputStream(ciphertext))))
+						.isEqualTo("foo".getBytes());
+		verify(transitOperations).decrypt("my-key", Ciphertext.of("vault:v1:wrapped"));
+	}
+
+	@Test
+	void shouldRejectTruncatedCiphertext() throws IOException {
+
+		mockDataKey();
+
+		byte[] ciphertext = encryptWithOutputStream(randomBytes(40));
+		int headerLength = VaultStreamEncryptor.createHeader("vault:v1:wrapped", 16,
+				new byte[VaultStreamEncryptor.SALT_LENGTH],
+				new byte[VaultStreamEncryptor.NONCE_PREFIX_LENGTH]).length;
+
+		// drop the last segment, leaving two full segments
+		byte[] truncated = Arrays.copyOf(ciphertext, headerLength + 2 * (16 + 16));
+
+		assertThatExceptionOfType(IOException.class).isThrownBy(() -> decrypt(truncated))
+				.withMessageContaining("Unable to decrypt segment");
+	}
+
+	@Test
+	void shouldRejectTamperedCiphertext() throws IOException {
+
+		mockDataKey();
+
+		byte[] ciphertext = encryptWithOutputStream(randomBytes(40));
+		ciphertext[ciphertext.length - 20] ^= 1;
+
+		assertThatExceptionOfType(IOException.class).isThrownBy(() -> decrypt(ciphertext));
+	}
+
+	@Test
+	void shouldRejectUnknownVersion() {
+
+		assertThatExceptionOfType(IOException.class)
+				.isThrownBy(() -> decrypt(new byte[] { 2, 0, 0, 0 }))
+				.withMessageContaining("version");
+	}
+
+	private byte[] encryptWithOutputStream(byte[] plaintext) throws IOException {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try (OutputStream encrypting = encryptor.encrypt(out)) {
+			encrypting.write(plaintext);
+		}
+
+		return out.toByteArray();
+	}
+
+	private byte[] decrypt(byte[] ciphertext) throws IOException {
+
+		try (InputStream decrypting = encryptor
+				.decrypt(new ByteArrayInputStream(ciphertext))) {
+			return StreamUtils.copyToByteArray(decrypting);
+		}
+	}
+
+	private static byte[] randomBytes(int length) {
+
+		byte[] bytes = new byte[length];
+		new Random(length).nextBytes(bytes);
+		return bytes;
+	}
+
+	private void mockDataKey() {
+
+		Map<String, Object> data = new LinkedHashMap<>();
+		data.put("plaintext", Base64Utils.encodeToString(DATA_KEY));
+		data.put("ciphertext", "vault:v1:wrapped");
+
+		VaultResponse response = new VaultResponse();
+		response.setData(data);
+
+		when(vaultOperations.write(eq("transit/datakey/plaintext/my-key"), any()))
+				.thenReturn(response);
+	}
+}
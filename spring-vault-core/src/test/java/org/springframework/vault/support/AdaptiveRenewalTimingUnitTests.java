@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.support;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.vault.VaultException;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AdaptiveRenewalTiming}.
+ *
+ * @author Mark Paluch
+ */
+class AdaptiveRenewalTimingUnitTests {
+
+	static final Duration TTL = Duration.ofSeconds(300);
+
+	static final Duration MIN_RENEWAL = Duration.ofSeconds(10);
+
+	static final Duration THRESHOLD = Duration.ofSeconds(60);
+
+	@Test
+	void shouldRenewEarlierByLatencyMargin() {
+
+		AdaptiveRenewalTiming timing = new AdaptiveRenewalTiming(RenewalTiming.fixed());
+
+		timing.onRenewal(Duration.ofSeconds(2), null);
+
+		assertThat(timing.getLatencyMargin()).isEqualTo(Duration.ofSeconds(6));
+		assertThat(timing.getRenewalDelay(TTL, MIN_RENEWAL, THRESHOLD))
+				.isEqualTo(Duration.ofSeconds(234));
+	}
+
+	@Test
+	void shouldSmoothLatency() {
+
+		AdaptiveRenewalTiming timing = new AdaptiveRenewalTiming(RenewalTiming.fixed());
+		timing.setLatencyMultiplier(1);
+
+		timing.onRenewal(Duration.ofSeconds(1), null);
+		timing.onRenewal(Duration.ofSeconds(6), null);
+
+		assertThat(timing.getLatencyMargin()).isEqualTo(Duration.ofSeconds(2));
+	}
+
+	@Test
+	void shouldBackOffOnOverload() {
+
+		AdaptiveRenewalTiming timing = new AdaptiveRenewalTiming(RenewalTiming.fixed());
+		timing.setLatencyMultiplier(0);
+		timing.setInitialBackoff(Duration.ofSeconds(10));
+		timing.setMaxBackoff(Duration.ofSeconds(15));
+
+		timing.onRenewal(Duration.ZERO, new VaultException("renewal failed",
+				new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE)));
+		timing.onRenewal(Duration.ZERO,
+				new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS));
+
+		assertThat(timing.getOverloadCount()).isEqualTo(2);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(timing.getRenewalDelay(Duration.ofSeconds(600), MIN_RENEWAL,
+					THRESHOLD)).isBetween(Duration.ofSeconds(540),
+							Duration.ofSeconds(555));
+		}
+	}
+
+	@Test
+	void shouldNotRenewAfterLeaseExpiry() {
+
+		AdaptiveRenewalTiming timing = new AdaptiveRenewalTiming(RenewalTiming.fixed());
+		timing.setLatencyMultiplier(0);
+		timing.setInitialBackoff(Duration.ofMinutes(10));
+		timing.setMaxBackoff(Duration.ofMinutes(10));
+
+		timing.onRenewal(Duration.ZERO,
+				new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS));
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(timing.getRenewalDelay(TTL, MIN_RENEWAL, THRESHOLD))
+					.isBetween(Duration.ofSeconds(240), TTL);
+		}
+	}
+
+	@Test
+	void shouldIgnoreOtherErrorsAndResetOnSuccess() {
+
+		AdaptiveRenewalTiming timing = new AdaptiveRenewalTiming(RenewalTiming.fixed());
+
+		timing.onRenewal(Duration.ZERO,
+				new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS));
+		timing.onRenewal(Duration.ZERO,
+				new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+
+		assertThat(timing.getOverloadCount()).isEqualTo(1);
+
+		timing.onRenewal(Duration.ZERO, null);
+
+		assertThat(timing.getOverloadCount()).isZero();
+	}
+}
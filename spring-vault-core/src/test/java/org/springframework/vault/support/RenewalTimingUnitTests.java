@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.vault.support;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link RenewalTiming}.
+ *
+ * @author Mark Paluch
+ */
+class RenewalTimingUnitTests {
+
+	static final Duration TTL = Duration.ofSeconds(300);
+
+	static final Duration MIN_RENEWAL = Duration.ofSeconds(10);
+
+	static final Duration THRESHOLD = Duration.ofSeconds(60);
+
+	@Test
+	void fixedShouldRenewBeforeExpiryThreshold() {
+
+		RenewalTiming timing = RenewalTiming.fixed();
+
+		assertThat(timing.getRenewalDelay(TTL, MIN_RENEWAL, THRESHOLD))
+				.isEqualTo(Duration.ofSeconds(240));
+		assertThat(timing.getRenewalDelay(Duration.ofSeconds(30), MIN_RENEWAL, THRESHOLD))
+				.isEqualTo(MIN_RENEWAL);
+	}
+
+	@Test
+	void jitteredShouldOnlyRenewEarlier() {
+
+		RenewalTiming timing = RenewalTiming.jittered(0.2);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(timing.getRenewalDelay(TTL, MIN_RENEWAL, THRESHOLD))
+					.isBetween(Duration.ofSeconds(192), Duration.ofSeconds(240));
+		}
+	}
+
+	@Test
+	void jitteredShouldNotRenewBeforeMinRenewal() {
+
+		RenewalTiming timing = RenewalTiming.jittered(0.9);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(timing.getRenewalDelay(Duration.ofSeconds(75), MIN_RENEWAL,
+					THRESHOLD)).isBetween(MIN_RENEWAL, Duration.ofSeconds(15));
+		}
+	}
+
+	@Test
+	void fractionOfTtlShouldRenewWithinJitterRange() {
+
+		RenewalTiming timing = RenewalTiming.fractionOfTtl(2d / 3, 0.1);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(timing.getRenewalDelay(Duration.ofSeconds(900), MIN_RENEWAL,
+					THRESHOLD)).isBetween(Duration.ofSeconds(510),
+							Duration.ofSeconds(690));
+		}
+	}
+
+	@Test
+	void fractionOfTtlShouldNotExceedExpiryThreshold() {
+
+		RenewalTiming timing = RenewalTiming.fractionOfTtl(0.9, 0);
+
+		assertThat(timing.getRenewalDelay(TTL, MIN_RENEWAL, THRESHOLD))
+				.isEqualTo(Duration.ofSeconds(240));
+	}
+
+	@Test
+	void shouldRejectInvalidArguments() {
+
+		assertThatIllegalArgumentException().isThrownBy(() -> RenewalTiming.jittered(1));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> RenewalTiming.fractionOfTtl(0, 0));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> RenewalTiming.fractionOfTtl(0.5, 0.6));
+	}
+}